@@ -44,10 +44,11 @@ public abstract class AbstractElement
         implements NodeEventTarget, CSSNavigableNode, SVGConstants {
 
     /**
-     * The live attribute values.
+     * The live attribute values, or null if none was stored.  The
+     * elements of static documents store none, see
+     * {@link SVGOMDocument#isStatic()}.
      */
-    protected transient DoublyIndexedTable liveAttributeValues =
-        new DoublyIndexedTable();
+    protected transient DoublyIndexedTable liveAttributeValues;
 
     /**
      * Creates a new Element object.
@@ -148,9 +149,9 @@ public abstract class AbstractElement
      * @param ln The attribute's local name.
      */
     public LiveAttributeValue getLiveAttributeValue(String ns, String ln) {
-//         if (liveAttributeValues == null) {
-//             return null;
-//         }
+        if (liveAttributeValues == null) {
+            return null;
+        }
         return (LiveAttributeValue)liveAttributeValues.get(ns, ln);
     }
 
@@ -162,12 +163,25 @@ public abstract class AbstractElement
      */
     public void putLiveAttributeValue(String ns, String ln,
                                       LiveAttributeValue val) {
-//         if (liveAttributeValues == null) {
-//             liveAttributeValues = new SoftDoublyIndexedTable();
-//         }
+        if (isStaticDocument()) {
+            // The attributes will not change: nothing to notify.
+            return;
+        }
+        if (liveAttributeValues == null) {
+            liveAttributeValues = new DoublyIndexedTable();
+        }
         liveAttributeValues.put(ns, ln, val);
     }
 
+    /**
+     * Tells whether this element belongs to a static document, whose
+     * attributes do not change once it is built.
+     */
+    protected boolean isStaticDocument() {
+        return ownerDocument instanceof SVGOMDocument
+            && ((SVGOMDocument) ownerDocument).isStatic();
+    }
+
     /**
      * Returns the AttributeInitializer for this element type.
      * @return null if this element has no attribute with a default value.
@@ -205,6 +219,21 @@ public abstract class AbstractElement
         return new ExtendedNamedNodeHashMap();
     }
 
+    /**
+     * Makes the attributes of this element read-only: adding, modifying
+     * or removing one throws a <code>DOMException</code> with the
+     * <code>NO_MODIFICATION_ALLOWED_ERR</code> code.  The children of
+     * this element are not affected.
+     */
+    protected void setAttributesReadonly() {
+        ExtendedNamedNodeHashMap attrs =
+            (ExtendedNamedNodeHashMap)getAttributes();
+        attrs.readonly = true;
+        for (int i = 0; i < attrs.getLength(); i++) {
+            ((AbstractAttr)attrs.item(i)).setReadonly(true);
+        }
+    }
+
     /**
      * Sets an unspecified attribute.
      * @param nsURI The attribute namespace URI.
@@ -290,6 +319,11 @@ public abstract class AbstractElement
      */
     protected class ExtendedNamedNodeHashMap extends NamedNodeHashMap {
 
+        /**
+         * Whether attributes can no longer be added or removed.
+         */
+        protected boolean readonly;
+
         /**
          * Creates a new ExtendedNamedNodeHashMap object.
          */
@@ -311,12 +345,26 @@ public abstract class AbstractElement
             setNamedItemNS( attr );
         }
 
+        /**
+         * Adds a node to the map.
+         */
+        public Node setNamedItem( String ns, String name, Node arg )
+                throws DOMException {
+            if ( readonly ) {
+                throw createDOMException
+                        ( DOMException.NO_MODIFICATION_ALLOWED_ERR,
+                                "readonly.node.map",
+                                new Object[]{} );
+            }
+            return super.setNamedItem( ns, name, arg );
+        }
+
         /**
          * <b>DOM</b>: Implements {@link NamedNodeMap#removeNamedItemNS(String,String)}.
          */
         public Node removeNamedItemNS( String namespaceURI, String localName )
                 throws DOMException {
-            if ( isReadonly() ) {
+            if ( isReadonly() || readonly ) {
                 throw createDOMException
                         ( DOMException.NO_MODIFICATION_ALLOWED_ERR,
                                 "readonly.node.map",
@@ -288,16 +288,15 @@ public abstract class AbstractSVGAnimatedLength
             missing = false;
             valid = true;
 
-            Attr attr = element.getAttributeNodeNS(namespaceURI, localName);
             String s;
-            if (attr == null) {
+            if (!element.hasAttributeNS(namespaceURI, localName)) {
                 s = getDefaultValue();
                 if (s == null) {
                     missing = true;
                     return;
                 }
             } else {
-                s = attr.getValue();
+                s = element.getAttributeNS(namespaceURI, localName);
             }
 
             parse(s);
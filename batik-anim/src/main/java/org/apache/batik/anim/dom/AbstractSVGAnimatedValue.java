@@ -53,9 +53,15 @@ public abstract class AbstractSVGAnimatedValue
     protected boolean hasAnimVal;
 
     /**
-     * Listener list.
+     * The first listener.  Most values only ever have the one listener
+     * of their document, so the list is only created for a second one.
      */
-    protected LinkedList listeners = new LinkedList();
+    protected AnimatedAttributeListener listener;
+
+    /**
+     * The other listeners, or null.
+     */
+    protected LinkedList listeners;
 
     /**
      * Creates a new AbstractSVGAnimatedValue.
@@ -98,7 +104,12 @@ public abstract class AbstractSVGAnimatedValue
      * Adds a listener for changes to the animated value.
      */
     public void addAnimatedAttributeListener(AnimatedAttributeListener aal) {
-        if (!listeners.contains(aal)) {
+        if (listener == null || listener == aal) {
+            listener = aal;
+        } else if (listeners == null) {
+            listeners = new LinkedList();
+            listeners.add(aal);
+        } else if (!listeners.contains(aal)) {
             listeners.add(aal);
         }
     }
@@ -107,7 +118,13 @@ public abstract class AbstractSVGAnimatedValue
      * Removes a listener for changes to the animated value.
      */
     public void removeAnimatedAttributeListener(AnimatedAttributeListener aal) {
-        listeners.remove(aal);
+        if (listener == aal) {
+            listener = (listeners == null || listeners.isEmpty())
+                ? null
+                : (AnimatedAttributeListener) listeners.removeFirst();
+        } else if (listeners != null) {
+            listeners.remove(aal);
+        }
     }
 
     /**
@@ -124,10 +141,15 @@ public abstract class AbstractSVGAnimatedValue
      * Fires the listeners for the animated value.
      */
     protected void fireAnimatedAttributeListeners() {
-        for (Object listener1 : listeners) {
-            AnimatedAttributeListener listener =
-                    (AnimatedAttributeListener) listener1;
+        if (listener != null) {
             listener.animatedAttributeChanged(element, this);
         }
+        if (listeners != null) {
+            for (Object listener1 : listeners) {
+                AnimatedAttributeListener l =
+                        (AnimatedAttributeListener) listener1;
+                l.animatedAttributeChanged(element, this);
+            }
+        }
     }
 }
@@ -37,6 +37,7 @@ import org.xml.sax.SAXException;
 
 import org.w3c.dom.DOMImplementation;
 import org.w3c.dom.Document;
+import org.w3c.dom.Node;
 import org.w3c.dom.svg.SVGDocument;
 
 /**
@@ -103,6 +104,11 @@ public class SAXSVGDocumentFactory
      */
     protected static Properties dtdProps;
 
+    /**
+     * Whether the documents are built static.
+     */
+    protected boolean isStatic;
+
     /**
      * Creates a new SVGDocumentFactory object.
      * @param parser The SAX2 parser classname.
@@ -317,6 +323,64 @@ public class SAXSVGDocumentFactory
         return createDocument(uri, r);
     }
 
+    /**
+     * Sets whether the documents are built static, see {@link
+     * SVGOMDocument#isStatic()}: for rendering only, without scripts or
+     * animations, with less memory per document.  The attributes of the
+     * elements of a static document are read-only once it is parsed:
+     * adding, modifying or removing one throws a <code>DOMException</code>
+     * with the <code>NO_MODIFICATION_ALLOWED_ERR</code> code.  Documents
+     * are not static by default.
+     */
+    public void setStatic(boolean b) {
+        isStatic = b;
+    }
+
+    /**
+     * Returns whether the documents are built static.
+     */
+    public boolean isStatic() {
+        return isStatic;
+    }
+
+    /**
+     * Creates the document being parsed, static if requested.
+     */
+    protected Document createDocument(DOMImplementation impl,
+                                      String ns, String root) {
+        if (isStatic && impl instanceof SVGDOMImplementation) {
+            return ((SVGDOMImplementation) impl).createStaticDocument
+                (ns, root, doctype);
+        }
+        return super.createDocument(impl, ns, root);
+    }
+
+    /**
+     * Creates a Document, whose attributes are read-only if it is static.
+     * @param is  The document input source.
+     * @exception IOException if an error occured while reading the document.
+     */
+    protected Document createDocument(InputSource is)
+        throws IOException {
+        Document doc = super.createDocument(is);
+        if (doc instanceof SVGOMDocument && ((SVGOMDocument) doc).isStatic()) {
+            setAttributesReadonly(doc);
+        }
+        return doc;
+    }
+
+    /**
+     * Makes the attributes of the elements under the given node read-only.
+     */
+    protected void setAttributesReadonly(Node n) {
+        if (n instanceof AbstractElement) {
+            ((AbstractElement) n).setAttributesReadonly();
+        }
+        for (Node c = n.getFirstChild(); c != null; c = c.getNextSibling()) {
+            setAttributesReadonly(c);
+        }
+    }
+
     public DOMImplementation getDOMImplementation(String ver) {
         if (ver == null || ver.length() == 0
                 || ver.equals("1.0") || ver.equals("1.1")) {
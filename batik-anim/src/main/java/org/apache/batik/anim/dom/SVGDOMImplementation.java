@@ -19,6 +19,7 @@
 package org.apache.batik.anim.dom;
 
 import java.net.URL;
+import java.util.Arrays;
 import java.util.HashMap;
 
 import org.apache.batik.css.dom.CSSOMSVGViewCSS;
@@ -79,6 +80,19 @@ public class SVGDOMImplementation
 
     protected HashMap factories;
 
+    /**
+     * The parsed user agent style-sheet, shared by the CSS engines of
+     * the documents created by this implementation.
+     */
+    protected org.apache.batik.css.engine.StyleSheet userAgentStyleSheet;
+
+    /**
+     * The value and shorthand managers the user agent style-sheet
+     * was parsed with.
+     */
+    protected ValueManager[] userAgentValueManagers;
+    protected ShorthandManager[] userAgentShorthandManagers;
+
     /**
      * Returns the default instance of this class.
      */
@@ -111,17 +125,40 @@ public class SVGDOMImplementation
         ParsedURL durl = ((SVGOMDocument)doc).getParsedURL();
         CSSEngine result = new SVGCSSEngine(doc, durl, ep, vms, sms, ctx);
 
-        URL url = getClass().getResource("resources/UserAgentStyleSheet.css");
-        if (url != null) {
-            ParsedURL purl = new ParsedURL(url);
-            InputSource is = new InputSource(purl.toString());
-            result.setUserAgentStyleSheet
-                (result.parseStyleSheet(is, purl, "all"));
-        }
+        result.setUserAgentStyleSheet
+            (getUserAgentStyleSheet(result, vms, sms));
 
         return result;
     }
 
+    /**
+     * Returns the user agent style-sheet to use with the given engine.
+     * The engines only read it, so it is parsed once and shared for as
+     * long as the engines are created with the same custom managers.
+     * @return the style-sheet or null if there is none.
+     */
+    protected synchronized org.apache.batik.css.engine.StyleSheet
+        getUserAgentStyleSheet(CSSEngine eng,
+                               ValueManager [] vms,
+                               ShorthandManager [] sms) {
+        if ((userAgentStyleSheet != null) &&
+            Arrays.equals(vms, userAgentValueManagers) &&
+            Arrays.equals(sms, userAgentShorthandManagers)) {
+            return userAgentStyleSheet;
+        }
+
+        URL url = getClass().getResource("resources/UserAgentStyleSheet.css");
+        if (url == null) {
+            return null;
+        }
+        ParsedURL purl = new ParsedURL(url);
+        InputSource is = new InputSource(purl.toString());
+        userAgentStyleSheet = eng.parseStyleSheet(is, purl, "all");
+        userAgentValueManagers = vms;
+        userAgentShorthandManagers = sms;
+        return userAgentStyleSheet;
+    }
+
     /**
      * Creates a ViewCSS.
      */
@@ -145,6 +182,25 @@ public class SVGDOMImplementation
         return result;
     }
 
+    /**
+     * Creates a static document, that is built once to be rendered and
+     * then neither modified nor animated, see {@link
+     * SVGOMDocument#isStatic()}.  Its elements keep no table of live
+     * attribute values and register no animation listener.
+     */
+    public Document createStaticDocument(String namespaceURI,
+                                         String qualifiedName,
+                                         DocumentType doctype)
+        throws DOMException {
+        SVGOMDocument result =
+            (SVGOMDocument) createDocument(null, null, doctype);
+        result.setIsStatic(true);
+        if (qualifiedName != null)
+            result.appendChild(result.createElementNS(namespaceURI,
+                                                      qualifiedName));
+        return result;
+    }
+
     // DOMImplementationCSS /////////////////////////////////////////////////
 
     /**
@@ -96,7 +96,9 @@ public abstract class SVGGraphicsElement
      */
     protected SVGGraphicsElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -183,6 +185,9 @@ public abstract class SVGGraphicsElement
      * org.w3c.dom.svg.SVGTransformable#getTransform()}.
      */
     public SVGAnimatedTransformList getTransform() {
+        if (transform == null) {
+            initializeLiveAttributes();
+        }
         return transform;
     }
 
@@ -193,6 +198,9 @@ public abstract class SVGGraphicsElement
      * org.w3c.dom.svg.SVGExternalResourcesRequired#getExternalResourcesRequired()}.
      */
     public SVGAnimatedBoolean getExternalResourcesRequired() {
+        if (externalResourcesRequired == null) {
+            initializeLiveAttributes();
+        }
         return externalResourcesRequired;
     }
 
@@ -85,7 +85,9 @@ public class SVGOMAElement
      */
     public SVGOMAElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -114,6 +116,9 @@ public class SVGOMAElement
      * <b>DOM</b>: Implements {@link SVGAElement#getTarget()}.
      */
     public SVGAnimatedString getTarget() {
+        if (target == null) {
+            initializeLiveAttributes();
+        }
         return target;
     }
 
@@ -41,6 +41,8 @@ import org.apache.batik.dom.svg.SVGPathSegItem;
 
 import org.apache.batik.parser.ParseException;
 import org.apache.batik.parser.PathArrayProducer;
+import org.apache.batik.parser.PathHandler;
+import org.apache.batik.parser.PathParser;
 
 import org.w3c.dom.Attr;
 import org.w3c.dom.DOMException;
@@ -192,6 +194,38 @@ public class SVGOMAnimatedPathData
         }
     }
 
+    /**
+     * Sends the animated path data to the given handler.  When the
+     * attribute is not animated its value is parsed directly, without
+     * creating the {@link SVGPathSeg} objects of the path segment list.
+     * @throws LiveAttributeException if the path data is missing or
+     *         malformed.
+     */
+    public void handlePathData(PathHandler handler) {
+        if (hasAnimVal) {
+            SVGAnimatedPathDataSupport.handlePathSegList
+                (getAnimatedPathSegList(), handler);
+            return;
+        }
+        String s = element.hasAttributeNS(namespaceURI, localName)
+            ? element.getAttributeNS(namespaceURI, localName)
+            : defaultValue;
+        if (s == null) {
+            throw new LiveAttributeException
+                (element, localName,
+                 LiveAttributeException.ERR_ATTRIBUTE_MISSING, null);
+        }
+        try {
+            PathParser pp = new PathParser();
+            pp.setPathHandler(handler);
+            pp.parse(s);
+        } catch (ParseException e) {
+            throw new LiveAttributeException
+                (element, localName,
+                 LiveAttributeException.ERR_ATTRIBUTE_MALFORMED, s);
+        }
+    }
+
     /**
      * Returns the base value of the attribute as an {@link AnimatableValue}.
      */
@@ -310,11 +344,10 @@ public class SVGOMAnimatedPathData
          * Returns the value of the DOM attribute containing the path data.
          */
         protected String getValueAsString() {
-            Attr attr = element.getAttributeNodeNS(namespaceURI, localName);
-            if (attr == null) {
+            if (!element.hasAttributeNS(namespaceURI, localName)) {
                 return defaultValue;
             }
-            return attr.getValue();
+            return element.getAttributeNS(namespaceURI, localName);
         }
 
         /**
@@ -419,11 +452,10 @@ public class SVGOMAnimatedPathData
          * Returns the value of the DOM attribute containing the path data.
          */
         protected String getValueAsString() throws SVGException {
-            Attr attr = element.getAttributeNodeNS(namespaceURI, localName);
-            if (attr == null) {
+            if (!element.hasAttributeNS(namespaceURI, localName)) {
                 return defaultValue;
             }
-            return attr.getValue();
+            return element.getAttributeNS(namespaceURI, localName);
         }
 
         /**
@@ -71,7 +71,9 @@ public abstract class SVGOMAnimationElement
      */
     protected SVGOMAnimationElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -175,6 +177,9 @@ public abstract class SVGOMAnimationElement
      * org.w3c.dom.svg.SVGExternalResourcesRequired#getExternalResourcesRequired()}.
      */
     public SVGAnimatedBoolean getExternalResourcesRequired() {
+        if (externalResourcesRequired == null) {
+            initializeLiveAttributes();
+        }
         return externalResourcesRequired;
     }
 
@@ -80,7 +80,9 @@ public class SVGOMCircleElement
      */
     public SVGOMCircleElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -117,6 +119,9 @@ public class SVGOMCircleElement
      * <b>DOM</b>: Implements {@link SVGCircleElement#getCx()}.
      */
     public SVGAnimatedLength getCx() {
+        if (cx == null) {
+            initializeLiveAttributes();
+        }
         return cx;
     }
 
@@ -124,6 +129,9 @@ public class SVGOMCircleElement
      * <b>DOM</b>: Implements {@link SVGCircleElement#getCy()}.
      */
     public SVGAnimatedLength getCy() {
+        if (cy == null) {
+            initializeLiveAttributes();
+        }
         return cy;
     }
 
@@ -131,6 +139,9 @@ public class SVGOMCircleElement
      * <b>DOM</b>: Implements {@link SVGCircleElement#getR()}.
      */
     public SVGAnimatedLength getR() {
+        if (r == null) {
+            initializeLiveAttributes();
+        }
         return r;
     }
 
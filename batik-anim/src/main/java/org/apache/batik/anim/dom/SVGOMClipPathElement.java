@@ -75,7 +75,9 @@ public class SVGOMClipPathElement
      */
     public SVGOMClipPathElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -107,6 +109,9 @@ public class SVGOMClipPathElement
      * <b>DOM</b>: Implements {@link SVGClipPathElement#getClipPathUnits()}.
      */
     public SVGAnimatedEnumeration getClipPathUnits() {
+        if (clipPathUnits == null) {
+            initializeLiveAttributes();
+        }
         return clipPathUnits;
     }
 
@@ -122,7 +122,9 @@ public abstract class SVGOMComponentTransferFunctionElement
     protected SVGOMComponentTransferFunctionElement(String prefix,
                                                     AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -157,6 +159,9 @@ public abstract class SVGOMComponentTransferFunctionElement
      * SVGComponentTransferFunctionElement#getType()}.
      */
     public SVGAnimatedEnumeration getType() {
+        if (type == null) {
+            initializeLiveAttributes();
+        }
         return type;
     }
 
@@ -176,6 +181,9 @@ public abstract class SVGOMComponentTransferFunctionElement
      * SVGComponentTransferFunctionElement#getSlope()}.
      */
     public SVGAnimatedNumber getSlope() {
+        if (slope == null) {
+            initializeLiveAttributes();
+        }
         return slope;
     }
 
@@ -184,6 +192,9 @@ public abstract class SVGOMComponentTransferFunctionElement
      * SVGComponentTransferFunctionElement#getIntercept()}.
      */
     public SVGAnimatedNumber getIntercept() {
+        if (intercept == null) {
+            initializeLiveAttributes();
+        }
         return intercept;
     }
 
@@ -192,6 +203,9 @@ public abstract class SVGOMComponentTransferFunctionElement
      * SVGComponentTransferFunctionElement#getAmplitude()}.
      */
     public SVGAnimatedNumber getAmplitude() {
+        if (amplitude == null) {
+            initializeLiveAttributes();
+        }
         return amplitude;
     }
 
@@ -200,6 +214,9 @@ public abstract class SVGOMComponentTransferFunctionElement
      * SVGComponentTransferFunctionElement#getExponent()}.
      */
     public SVGAnimatedNumber getExponent() {
+        if (exponent == null) {
+            initializeLiveAttributes();
+        }
         return exponent;
     }
 
@@ -208,6 +225,9 @@ public abstract class SVGOMComponentTransferFunctionElement
      * SVGComponentTransferFunctionElement#getOffset()}.
      */
     public SVGAnimatedNumber getOffset() {
+        if (offset == null) {
+            initializeLiveAttributes();
+        }
         return offset;
     }
 
@@ -102,7 +102,9 @@ public class SVGOMCursorElement
      */
     public SVGOMCursorElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -139,6 +141,9 @@ public class SVGOMCursorElement
      * <b>DOM</b>: Implements {@link SVGCursorElement#getX()}.
      */
     public SVGAnimatedLength getX() {
+        if (x == null) {
+            initializeLiveAttributes();
+        }
         return x;
     }
 
@@ -146,6 +151,9 @@ public class SVGOMCursorElement
      * <b>DOM</b>: Implements {@link SVGCursorElement#getY()}.
      */
     public SVGAnimatedLength getY() {
+        if (y == null) {
+            initializeLiveAttributes();
+        }
         return y;
     }
 
@@ -156,6 +164,9 @@ public class SVGOMCursorElement
      * org.w3c.dom.svg.SVGExternalResourcesRequired#getExternalResourcesRequired()}.
      */
     public SVGAnimatedBoolean getExternalResourcesRequired() {
+        if (externalResourcesRequired == null) {
+            initializeLiveAttributes();
+        }
         return externalResourcesRequired;
     }
 
@@ -118,6 +118,11 @@ public class SVGOMDocument
      */
     protected boolean isSVG12;
 
+    /**
+     * Whether the document is static, see {@link #isStatic()}.
+     */
+    protected boolean isStatic;
+
     /**
      * Map of CSSNavigableDocumentListeners to an array of wrapper
      * DOM listeners.
@@ -387,6 +392,27 @@ public class SVGOMDocument
         isSVG12 = b;
     }
 
+    /**
+     * Returns whether the document is static.  A static document is built
+     * once, to be rendered, and then neither modified nor animated: its
+     * elements do not track the changes of their attributes, create their
+     * animated attribute values only when asked for them, and it is
+     * never built as a dynamic document by the bridge.  The elements of
+     * the documents parsed static by {@link SAXSVGDocumentFactory} have
+     * read-only attributes.  Clones of a static document are not static.
+     */
+    public boolean isStatic() {
+        return isStatic;
+    }
+
+    /**
+     * Sets whether the document is static.  This must be set before the
+     * elements of the document are created.
+     */
+    public void setIsStatic(boolean b) {
+        isStatic = b;
+    }
+
     /**
      * Returns true if the given Attr node represents an 'id'
      * for this document.
@@ -398,6 +424,17 @@ public class SVGOMDocument
         return node.getNodeName().equals(XML_ID_QNAME);
     }
 
+    /**
+     * Returns whether an attribute of the given name can be an 'id'
+     * for this document.
+     */
+    public boolean isId(String namespaceURI, String qualifiedName) {
+        if (namespaceURI == null) {
+            return SVG_ID_ATTRIBUTE.equals(qualifiedName);
+        }
+        return XML_ID_QNAME.equals(qualifiedName);
+    }
+
     /**
      * Sets the SVG context to use to get SVG specific informations.
      *
@@ -285,12 +285,12 @@ public abstract class SVGOMElement
             return base;
         }
         Element e = (Element) node;
-        Attr attr = e.getAttributeNodeNS(XML_NAMESPACE_URI, XML_BASE_ATTRIBUTE);
-        if (attr != null) {
+        if (e.hasAttributeNS(XML_NAMESPACE_URI, XML_BASE_ATTRIBUTE)) {
+            String v = e.getAttributeNS(XML_NAMESPACE_URI, XML_BASE_ATTRIBUTE);
             if (base == null) {
-                base = attr.getNodeValue();
+                base = v;
             } else {
-                base = new ParsedURL(base, attr.getNodeValue()).toString();
+                base = new ParsedURL(base, v).toString();
             }
         }
         return base;
@@ -351,6 +351,22 @@ public abstract class SVGOMElement
         return xmlTraitInformation;
     }
 
+    /**
+     * Stores the given animated value in this element's LiveAttributeValue
+     * table and registers the listener of the document for its animation.
+     * Static documents, that are neither modified nor animated, need
+     * neither.
+     */
+    protected void putLiveAnimatedValue(String ns, String ln,
+                                        AbstractSVGAnimatedValue v) {
+        if (isStaticDocument()) {
+            return;
+        }
+        putLiveAttributeValue(ns, ln, v);
+        v.addAnimatedAttributeListener
+            (((SVGOMDocument) ownerDocument).getAnimatedAttributeListener());
+    }
+
     /**
      * Creates a new {@link SVGOMAnimatedTransformList} and stores it in
      * this element's LiveAttributeValue table.
@@ -359,9 +375,7 @@ public abstract class SVGOMElement
             (String ns, String ln, String def) {
         SVGOMAnimatedTransformList v =
             new SVGOMAnimatedTransformList(this, ns, ln, def);
-        liveAttributeValues.put(ns, ln, v);
-        v.addAnimatedAttributeListener
-            (((SVGOMDocument) ownerDocument).getAnimatedAttributeListener());
+        putLiveAnimatedValue(ns, ln, v);
         return v;
     }
 
@@ -373,9 +387,7 @@ public abstract class SVGOMElement
             (String ns, String ln, boolean def) {
         SVGOMAnimatedBoolean v =
             new SVGOMAnimatedBoolean(this, ns, ln, def);
-        liveAttributeValues.put(ns, ln, v);
-        v.addAnimatedAttributeListener
-            (((SVGOMDocument) ownerDocument).getAnimatedAttributeListener());
+        putLiveAnimatedValue(ns, ln, v);
         return v;
     }
 
@@ -387,9 +399,7 @@ public abstract class SVGOMElement
             (String ns, String ln) {
         SVGOMAnimatedString v =
             new SVGOMAnimatedString(this, ns, ln);
-        liveAttributeValues.put(ns, ln, v);
-        v.addAnimatedAttributeListener
-            (((SVGOMDocument) ownerDocument).getAnimatedAttributeListener());
+        putLiveAnimatedValue(ns, ln, v);
         return v;
     }
 
@@ -401,9 +411,7 @@ public abstract class SVGOMElement
             createLiveAnimatedPreserveAspectRatio() {
         SVGOMAnimatedPreserveAspectRatio v =
             new SVGOMAnimatedPreserveAspectRatio(this);
-        liveAttributeValues.put(null, SVG_PRESERVE_ASPECT_RATIO_ATTRIBUTE, v);
-        v.addAnimatedAttributeListener
-            (((SVGOMDocument) ownerDocument).getAnimatedAttributeListener());
+        putLiveAnimatedValue(null, SVG_PRESERVE_ASPECT_RATIO_ATTRIBUTE, v);
         return v;
     }
 
@@ -415,9 +423,7 @@ public abstract class SVGOMElement
             createLiveAnimatedMarkerOrientValue(String ns, String ln) {
         SVGOMAnimatedMarkerOrientValue v =
             new SVGOMAnimatedMarkerOrientValue(this, ns, ln);
-        liveAttributeValues.put(ns, ln, v);
-        v.addAnimatedAttributeListener
-            (((SVGOMDocument) ownerDocument).getAnimatedAttributeListener());
+        putLiveAnimatedValue(ns, ln, v);
         return v;
     }
 
@@ -429,9 +435,7 @@ public abstract class SVGOMElement
             createLiveAnimatedPathData(String ns, String ln, String def) {
         SVGOMAnimatedPathData v =
             new SVGOMAnimatedPathData(this, ns, ln, def);
-        liveAttributeValues.put(ns, ln, v);
-        v.addAnimatedAttributeListener
-            (((SVGOMDocument) ownerDocument).getAnimatedAttributeListener());
+        putLiveAnimatedValue(ns, ln, v);
         return v;
     }
 
@@ -452,9 +456,7 @@ public abstract class SVGOMElement
             (String ns, String ln, float def, boolean allowPercentage) {
         SVGOMAnimatedNumber v =
             new SVGOMAnimatedNumber(this, ns, ln, def, allowPercentage);
-        liveAttributeValues.put(ns, ln, v);
-        v.addAnimatedAttributeListener
-            (((SVGOMDocument) ownerDocument).getAnimatedAttributeListener());
+        putLiveAnimatedValue(ns, ln, v);
         return v;
     }
 
@@ -466,9 +468,7 @@ public abstract class SVGOMElement
             (String ns, String ln, String def, boolean canEmpty) {
         SVGOMAnimatedNumberList v =
             new SVGOMAnimatedNumberList(this, ns, ln, def, canEmpty);
-        liveAttributeValues.put(ns, ln, v);
-        v.addAnimatedAttributeListener
-            (((SVGOMDocument) ownerDocument).getAnimatedAttributeListener());
+        putLiveAnimatedValue(ns, ln, v);
         return v;
     }
 
@@ -480,9 +480,7 @@ public abstract class SVGOMElement
             (String ns, String ln, String def) {
         SVGOMAnimatedPoints v =
             new SVGOMAnimatedPoints(this, ns, ln, def);
-        liveAttributeValues.put(ns, ln, v);
-        v.addAnimatedAttributeListener
-            (((SVGOMDocument) ownerDocument).getAnimatedAttributeListener());
+        putLiveAnimatedValue(ns, ln, v);
         return v;
     }
 
@@ -495,9 +493,7 @@ public abstract class SVGOMElement
              short dir) {
         SVGOMAnimatedLengthList v =
             new SVGOMAnimatedLengthList(this, ns, ln, def, emptyAllowed, dir);
-        liveAttributeValues.put(ns, ln, v);
-        v.addAnimatedAttributeListener
-            (((SVGOMDocument) ownerDocument).getAnimatedAttributeListener());
+        putLiveAnimatedValue(ns, ln, v);
         return v;
     }
 
@@ -509,9 +505,7 @@ public abstract class SVGOMElement
             (String ns, String ln, int def) {
         SVGOMAnimatedInteger v =
             new SVGOMAnimatedInteger(this, ns, ln, def);
-        liveAttributeValues.put(ns, ln, v);
-        v.addAnimatedAttributeListener
-            (((SVGOMDocument) ownerDocument).getAnimatedAttributeListener());
+        putLiveAnimatedValue(ns, ln, v);
         return v;
     }
 
@@ -523,9 +517,7 @@ public abstract class SVGOMElement
             (String ns, String ln, String[] val, short def) {
         SVGOMAnimatedEnumeration v =
             new SVGOMAnimatedEnumeration(this, ns, ln, val, def);
-        liveAttributeValues.put(ns, ln, v);
-        v.addAnimatedAttributeListener
-            (((SVGOMDocument) ownerDocument).getAnimatedAttributeListener());
+        putLiveAnimatedValue(ns, ln, v);
         return v;
     }
 
@@ -537,9 +529,7 @@ public abstract class SVGOMElement
             (String ns, String ln, String val, short dir, boolean nonneg) {
         SVGOMAnimatedLength v =
             new SVGOMAnimatedLength(this, ns, ln, val, dir, nonneg);
-        liveAttributeValues.put(ns, ln, v);
-        v.addAnimatedAttributeListener
-            (((SVGOMDocument) ownerDocument).getAnimatedAttributeListener());
+        putLiveAnimatedValue(ns, ln, v);
         return v;
     }
 
@@ -550,9 +540,7 @@ public abstract class SVGOMElement
     protected SVGOMAnimatedRect createLiveAnimatedRect
             (String ns, String ln, String value) {
         SVGOMAnimatedRect v = new SVGOMAnimatedRect(this, ns, ln, value);
-        liveAttributeValues.put(ns, ln, v);
-        v.addAnimatedAttributeListener
-            (((SVGOMDocument) ownerDocument).getAnimatedAttributeListener());
+        putLiveAnimatedValue(ns, ln, v);
         return v;
     }
 
@@ -87,7 +87,9 @@ public class SVGOMEllipseElement
      */
     public SVGOMEllipseElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -127,6 +129,9 @@ public class SVGOMEllipseElement
      * <b>DOM</b>: Implements {@link SVGEllipseElement#getCx()}.
      */
     public SVGAnimatedLength getCx() {
+        if (cx == null) {
+            initializeLiveAttributes();
+        }
         return cx;
     }
 
@@ -134,6 +139,9 @@ public class SVGOMEllipseElement
      * <b>DOM</b>: Implements {@link SVGEllipseElement#getCy()}.
      */
     public SVGAnimatedLength getCy() {
+        if (cy == null) {
+            initializeLiveAttributes();
+        }
         return cy;
     }
 
@@ -141,6 +149,9 @@ public class SVGOMEllipseElement
      * <b>DOM</b>: Implements {@link SVGEllipseElement#getRx()}.
      */
     public SVGAnimatedLength getRx() {
+        if (rx == null) {
+            initializeLiveAttributes();
+        }
         return rx;
     }
 
@@ -148,6 +159,9 @@ public class SVGOMEllipseElement
      * <b>DOM</b>: Implements {@link SVGEllipseElement#getRy()}.
      */
     public SVGAnimatedLength getRy() {
+        if (ry == null) {
+            initializeLiveAttributes();
+        }
         return ry;
    }
 
@@ -95,7 +95,9 @@ public class SVGOMFEBlendElement
      */
     public SVGOMFEBlendElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -128,6 +130,9 @@ public class SVGOMFEBlendElement
      * <b>DOM</b>: Implements {@link SVGFEBlendElement#getIn1()}.
      */
     public SVGAnimatedString getIn1() {
+        if (in == null) {
+            initializeLiveAttributes();
+        }
         return in;
     }
 
@@ -135,6 +140,9 @@ public class SVGOMFEBlendElement
      * <b>DOM</b>: Implements {@link SVGFEBlendElement#getIn2()}.
      */
     public SVGAnimatedString getIn2() {
+        if (in2 == null) {
+            initializeLiveAttributes();
+        }
         return in2;
     }
 
@@ -142,6 +150,9 @@ public class SVGOMFEBlendElement
      * <b>DOM</b>: Implements {@link SVGFEBlendElement#getMode()}.
      */
     public SVGAnimatedEnumeration getMode() {
+        if (mode == null) {
+            initializeLiveAttributes();
+        }
         return mode;
     }
 
@@ -93,7 +93,9 @@ public class SVGOMFEColorMatrixElement
      */
     public SVGOMFEColorMatrixElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -125,6 +127,9 @@ public class SVGOMFEColorMatrixElement
      * <b>DOM</b>: Implements {@link SVGFEColorMatrixElement#getIn1()}.
      */
     public SVGAnimatedString getIn1() {
+        if (in == null) {
+            initializeLiveAttributes();
+        }
         return in;
     }
 
@@ -132,6 +137,9 @@ public class SVGOMFEColorMatrixElement
      * <b>DOM</b>: Implements {@link SVGFEColorMatrixElement#getType()}.
      */
     public SVGAnimatedEnumeration getType() {
+        if (type == null) {
+            initializeLiveAttributes();
+        }
         return type;
     }
 
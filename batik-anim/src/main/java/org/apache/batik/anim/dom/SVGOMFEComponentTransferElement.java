@@ -67,7 +67,9 @@ public class SVGOMFEComponentTransferElement
     public SVGOMFEComponentTransferElement(String prefix,
                                            AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -96,6 +98,9 @@ public class SVGOMFEComponentTransferElement
      * <b>DOM</b>: Implements {@link SVGFEComponentTransferElement#getIn1()}.
      */
     public SVGAnimatedString getIn1() {
+        if (in == null) {
+            initializeLiveAttributes();
+        }
         return in;
     }
 
@@ -123,7 +123,9 @@ public class SVGOMFECompositeElement
      */
     public SVGOMFECompositeElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -160,6 +162,9 @@ public class SVGOMFECompositeElement
      * <b>DOM</b>: Implements {@link SVGFECompositeElement#getIn1()}.
      */
     public SVGAnimatedString getIn1() {
+        if (in == null) {
+            initializeLiveAttributes();
+        }
         return in;
     }
 
@@ -167,6 +172,9 @@ public class SVGOMFECompositeElement
      * <b>DOM</b>: Implements {@link SVGFECompositeElement#getIn2()}.
      */
     public SVGAnimatedString getIn2() {
+        if (in2 == null) {
+            initializeLiveAttributes();
+        }
         return in2;
     }
 
@@ -174,6 +182,9 @@ public class SVGOMFECompositeElement
      * <b>DOM</b>: Implements {@link SVGFECompositeElement#getOperator()}.
      */
     public SVGAnimatedEnumeration getOperator() {
+        if (operator == null) {
+            initializeLiveAttributes();
+        }
         return operator;
     }
 
@@ -181,6 +192,9 @@ public class SVGOMFECompositeElement
      * <b>DOM</b>: Implements {@link SVGFECompositeElement#getK1()}.
      */
     public SVGAnimatedNumber getK1() {
+        if (k1 == null) {
+            initializeLiveAttributes();
+        }
         return k1;
     }
 
@@ -188,6 +202,9 @@ public class SVGOMFECompositeElement
      * <b>DOM</b>: Implements {@link SVGFECompositeElement#getK2()}.
      */
     public SVGAnimatedNumber getK2() {
+        if (k2 == null) {
+            initializeLiveAttributes();
+        }
         return k2;
     }
 
@@ -195,6 +212,9 @@ public class SVGOMFECompositeElement
      * <b>DOM</b>: Implements {@link SVGFECompositeElement#getK3()}.
      */
     public SVGAnimatedNumber getK3() {
+        if (k3 == null) {
+            initializeLiveAttributes();
+        }
         return k3;
     }
 
@@ -202,6 +222,9 @@ public class SVGOMFECompositeElement
      * <b>DOM</b>: Implements {@link SVGFECompositeElement#getK4()}.
      */
     public SVGAnimatedNumber getK4() {
+        if (k4 == null) {
+            initializeLiveAttributes();
+        }
         return k4;
     }
 
@@ -115,7 +115,9 @@ public class SVGOMFEConvolveMatrixElement
     public SVGOMFEConvolveMatrixElement(String prefix,
                                         AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -151,6 +153,9 @@ public class SVGOMFEConvolveMatrixElement
      * <b>DOM</b>: Implements SVGFEConvolveMatrixElement#getIn1().
      */
     public SVGAnimatedString getIn1() {
+        if (in == null) {
+            initializeLiveAttributes();
+        }
         return in;
     }
 
@@ -158,6 +163,9 @@ public class SVGOMFEConvolveMatrixElement
      * <b>DOM</b>: Implements {@link SVGFEConvolveMatrixElement#getEdgeMode()}.
      */
     public SVGAnimatedEnumeration getEdgeMode() {
+        if (edgeMode == null) {
+            initializeLiveAttributes();
+        }
         return edgeMode;
     }
 
@@ -217,6 +225,9 @@ public class SVGOMFEConvolveMatrixElement
      * org.w3c.dom.svg.SVGFEConvolveMatrixElement#getBias()}.
      */
     public SVGAnimatedNumber getBias() {
+        if (bias == null) {
+            initializeLiveAttributes();
+        }
         return bias;
     }
 
@@ -243,6 +254,9 @@ public class SVGOMFEConvolveMatrixElement
      * org.w3c.dom.svg.SVGFEConvolveMatrixElement#getPreserveAlpha()}.
      */
     public SVGAnimatedBoolean getPreserveAlpha() {
+        if (preserveAlpha == null) {
+            initializeLiveAttributes();
+        }
         return preserveAlpha;
     }
 
@@ -84,7 +84,9 @@ public class SVGOMFEDiffuseLightingElement
     public SVGOMFEDiffuseLightingElement(String prefix,
                                          AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -117,6 +119,9 @@ public class SVGOMFEDiffuseLightingElement
      * <b>DOM</b>: Implements {@link SVGFEDiffuseLightingElement#getIn1()}.
      */
     public SVGAnimatedString getIn1() {
+        if (in == null) {
+            initializeLiveAttributes();
+        }
         return in;
     }
 
@@ -125,6 +130,9 @@ public class SVGOMFEDiffuseLightingElement
      * SVGFEDiffuseLightingElement#getSurfaceScale()}.
      */
     public SVGAnimatedNumber getSurfaceScale() {
+        if (surfaceScale == null) {
+            initializeLiveAttributes();
+        }
         return surfaceScale;
     }
 
@@ -133,6 +141,9 @@ public class SVGOMFEDiffuseLightingElement
      * SVGFEDiffuseLightingElement#getDiffuseConstant()}.
      */
     public SVGAnimatedNumber getDiffuseConstant() {
+        if (diffuseConstant == null) {
+            initializeLiveAttributes();
+        }
         return diffuseConstant;
     }
 
@@ -108,7 +108,9 @@ public class SVGOMFEDisplacementMapElement
     public SVGOMFEDisplacementMapElement(String prefix,
                                          AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -148,6 +150,9 @@ public class SVGOMFEDisplacementMapElement
      * SVGFEDisplacementMapElement#getIn1()}.
      */
     public SVGAnimatedString getIn1() {
+        if (in == null) {
+            initializeLiveAttributes();
+        }
         return in;
     }
 
@@ -156,6 +161,9 @@ public class SVGOMFEDisplacementMapElement
      * SVGFEDisplacementMapElement#getIn2()}.
      */
     public SVGAnimatedString getIn2() {
+        if (in2 == null) {
+            initializeLiveAttributes();
+        }
         return in2;
     }
 
@@ -164,6 +172,9 @@ public class SVGOMFEDisplacementMapElement
      * org.w3c.dom.svg.SVGFEDisplacementMapElement#getScale()}.
      */
     public SVGAnimatedNumber getScale() {
+        if (scale == null) {
+            initializeLiveAttributes();
+        }
         return scale;
     }
 
@@ -172,6 +183,9 @@ public class SVGOMFEDisplacementMapElement
      * SVGFEDisplacementMapElement#getXChannelSelector()}.
      */
     public SVGAnimatedEnumeration getXChannelSelector() {
+        if (xChannelSelector == null) {
+            initializeLiveAttributes();
+        }
         return xChannelSelector;
     }
 
@@ -180,6 +194,9 @@ public class SVGOMFEDisplacementMapElement
      * SVGFEDisplacementMapElement#getYChannelSelector()}.
      */
     public SVGAnimatedEnumeration getYChannelSelector() {
+        if (yChannelSelector == null) {
+            initializeLiveAttributes();
+        }
         return yChannelSelector;
     }
 
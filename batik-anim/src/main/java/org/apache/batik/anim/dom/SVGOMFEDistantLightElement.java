@@ -74,7 +74,9 @@ public class SVGOMFEDistantLightElement
     public SVGOMFEDistantLightElement(String prefix,
                                       AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -104,6 +106,9 @@ public class SVGOMFEDistantLightElement
      * <b>DOM</b>: Implements {@link SVGFEDistantLightElement#getAzimuth()}.
      */
     public SVGAnimatedNumber getAzimuth() {
+        if (azimuth == null) {
+            initializeLiveAttributes();
+        }
         return azimuth;
     }
 
@@ -111,6 +116,9 @@ public class SVGOMFEDistantLightElement
      * <b>DOM</b>: Implements {@link SVGFEDistantLightElement#getElevation()}.
      */
     public SVGAnimatedNumber getElevation() {
+        if (elevation == null) {
+            initializeLiveAttributes();
+        }
         return elevation;
     }
 
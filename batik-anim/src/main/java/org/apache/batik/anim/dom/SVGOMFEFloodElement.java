@@ -67,7 +67,9 @@ public class SVGOMFEFloodElement
     public SVGOMFEFloodElement(String prefix,
                                AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -96,6 +98,9 @@ public class SVGOMFEFloodElement
      * <b>DOM</b>: Implements {@link SVGFEFloodElement#getIn1()}.
      */
     public SVGAnimatedString getIn1() {
+        if (in == null) {
+            initializeLiveAttributes();
+        }
         return in;
     }
     
@@ -69,7 +69,9 @@ public class SVGOMFEGaussianBlurElement
      */
     public SVGOMFEGaussianBlurElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -98,6 +100,9 @@ public class SVGOMFEGaussianBlurElement
      * <b>DOM</b>: Implements {@link SVGFEGaussianBlurElement#getIn1()}.
      */
     public SVGAnimatedString getIn1() {
+        if (in == null) {
+            initializeLiveAttributes();
+        }
         return in;
     }
 
@@ -102,7 +102,9 @@ public class SVGOMFEImageElement
     public SVGOMFEImageElement(String prefix,
                                AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -137,6 +139,9 @@ public class SVGOMFEImageElement
      * org.w3c.dom.svg.SVGURIReference#getHref()}.
      */
     public SVGAnimatedString getHref() {
+        if (href == null) {
+            initializeLiveAttributes();
+        }
         return href;
     }
 
@@ -144,6 +149,9 @@ public class SVGOMFEImageElement
      * <b>DOM</b>: Implements {@link SVGFEImageElement#getPreserveAspectRatio()}.
      */
     public SVGAnimatedPreserveAspectRatio getPreserveAspectRatio() {
+        if (preserveAspectRatio == null) {
+            initializeLiveAttributes();
+        }
         return preserveAspectRatio;
     }
 
@@ -184,6 +192,9 @@ public class SVGOMFEImageElement
      * org.w3c.dom.svg.SVGExternalResourcesRequired#getExternalResourcesRequired()}.
      */
     public SVGAnimatedBoolean getExternalResourcesRequired() {
+        if (externalResourcesRequired == null) {
+            initializeLiveAttributes();
+        }
         return externalResourcesRequired;
     }
 
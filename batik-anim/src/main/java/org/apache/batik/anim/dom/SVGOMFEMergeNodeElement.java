@@ -66,7 +66,9 @@ public class SVGOMFEMergeNodeElement
      */
     public SVGOMFEMergeNodeElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -96,6 +98,9 @@ public class SVGOMFEMergeNodeElement
      * SVGFEMergeNodeElement#getIn1()}.
      */
     public SVGAnimatedString getIn1() {
+        if (in == null) {
+            initializeLiveAttributes();
+        }
         return in;
     }
 
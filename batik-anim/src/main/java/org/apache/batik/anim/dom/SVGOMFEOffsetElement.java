@@ -81,7 +81,9 @@ public class SVGOMFEOffsetElement
      */
     public SVGOMFEOffsetElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -113,6 +115,9 @@ public class SVGOMFEOffsetElement
      * SVGFEOffsetElement#getIn1()}.
      */
     public SVGAnimatedString getIn1() {
+        if (in == null) {
+            initializeLiveAttributes();
+        }
         return in;
     }
 
@@ -121,6 +126,9 @@ public class SVGOMFEOffsetElement
      * org.w3c.dom.svg.SVGFEOffsetElement#getDx()}.
      */
     public SVGAnimatedNumber getDx() {
+        if (dx == null) {
+            initializeLiveAttributes();
+        }
         return dx;
     } 
 
@@ -129,6 +137,9 @@ public class SVGOMFEOffsetElement
      * org.w3c.dom.svg.SVGFEOffsetElement#getDy()}.
      */
     public SVGAnimatedNumber getDy() {
+        if (dy == null) {
+            initializeLiveAttributes();
+        }
         return dy;
     }
 
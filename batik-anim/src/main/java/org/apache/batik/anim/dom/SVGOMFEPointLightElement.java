@@ -81,7 +81,9 @@ public class SVGOMFEPointLightElement
     public SVGOMFEPointLightElement(String prefix,
                                     AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -112,6 +114,9 @@ public class SVGOMFEPointLightElement
      * <b>DOM</b>: Implements {@link SVGFEPointLightElement#getX()}.
      */
     public SVGAnimatedNumber getX() {
+        if (x == null) {
+            initializeLiveAttributes();
+        }
         return x;
     }
 
@@ -119,6 +124,9 @@ public class SVGOMFEPointLightElement
      * <b>DOM</b>: Implements {@link SVGFEPointLightElement#getY()}.
      */
     public SVGAnimatedNumber getY() {
+        if (y == null) {
+            initializeLiveAttributes();
+        }
         return y;
     }
 
@@ -126,6 +134,9 @@ public class SVGOMFEPointLightElement
      * <b>DOM</b>: Implements {@link SVGFEPointLightElement#getZ()}.
      */
     public SVGAnimatedNumber getZ() {
+        if (z == null) {
+            initializeLiveAttributes();
+        }
         return z;
     }
 
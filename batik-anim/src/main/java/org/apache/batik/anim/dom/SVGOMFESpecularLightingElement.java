@@ -89,7 +89,9 @@ public class SVGOMFESpecularLightingElement
     public SVGOMFESpecularLightingElement(String prefix,
                                           AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -124,6 +126,9 @@ public class SVGOMFESpecularLightingElement
      * <b>DOM</b>: Implements {@link SVGFESpecularLightingElement#getIn1()}.
      */
     public SVGAnimatedString getIn1() {
+        if (in == null) {
+            initializeLiveAttributes();
+        }
         return in;
     }
 
@@ -132,6 +137,9 @@ public class SVGOMFESpecularLightingElement
      * SVGFESpecularLightingElement#getSurfaceScale()}.
      */
     public SVGAnimatedNumber getSurfaceScale() {
+        if (surfaceScale == null) {
+            initializeLiveAttributes();
+        }
         return surfaceScale;
     }
 
@@ -140,6 +148,9 @@ public class SVGOMFESpecularLightingElement
      * SVGFESpecularLightingElement#getSpecularConstant()}.
      */
     public SVGAnimatedNumber getSpecularConstant() {
+        if (specularConstant == null) {
+            initializeLiveAttributes();
+        }
         return specularConstant;
     }
 
@@ -148,6 +159,9 @@ public class SVGOMFESpecularLightingElement
      * SVGFESpecularLightingElement#getSpecularExponent()}.
      */
     public SVGAnimatedNumber getSpecularExponent() {
+        if (specularExponent == null) {
+            initializeLiveAttributes();
+        }
         return specularExponent;
     }
 
@@ -116,7 +116,9 @@ public class SVGOMFESpotLightElement
     public SVGOMFESpotLightElement(String prefix,
                                    AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -158,6 +160,9 @@ public class SVGOMFESpotLightElement
      * <b>DOM</b>: Implements {@link SVGFESpotLightElement#getX()}.
      */
     public SVGAnimatedNumber getX() {
+        if (x == null) {
+            initializeLiveAttributes();
+        }
         return x;
     }
 
@@ -165,6 +170,9 @@ public class SVGOMFESpotLightElement
      * <b>DOM</b>: Implements {@link SVGFESpotLightElement#getY()}.
      */
     public SVGAnimatedNumber getY() {
+        if (y == null) {
+            initializeLiveAttributes();
+        }
         return y;
     }
 
@@ -172,6 +180,9 @@ public class SVGOMFESpotLightElement
      * <b>DOM</b>: Implements {@link SVGFESpotLightElement#getZ()}.
      */
     public SVGAnimatedNumber getZ() {
+        if (z == null) {
+            initializeLiveAttributes();
+        }
         return z;
     }
 
@@ -179,6 +190,9 @@ public class SVGOMFESpotLightElement
      * <b>DOM</b>: Implements {@link SVGFESpotLightElement#getPointsAtX()}.
      */
     public SVGAnimatedNumber getPointsAtX() {
+        if (pointsAtX == null) {
+            initializeLiveAttributes();
+        }
         return pointsAtX;
     }
 
@@ -186,6 +200,9 @@ public class SVGOMFESpotLightElement
      * <b>DOM</b>: Implements {@link SVGFESpotLightElement#getPointsAtY()}.
      */
     public SVGAnimatedNumber getPointsAtY() {
+        if (pointsAtY == null) {
+            initializeLiveAttributes();
+        }
         return pointsAtY;
     }
 
@@ -193,6 +210,9 @@ public class SVGOMFESpotLightElement
      * <b>DOM</b>: Implements {@link SVGFESpotLightElement#getPointsAtZ()}.
      */
     public SVGAnimatedNumber getPointsAtZ() {
+        if (pointsAtZ == null) {
+            initializeLiveAttributes();
+        }
         return pointsAtZ;
     }
 
@@ -201,6 +221,9 @@ public class SVGOMFESpotLightElement
      * SVGFESpotLightElement#getSpecularExponent()}.
      */
     public SVGAnimatedNumber getSpecularExponent() {
+        if (specularExponent == null) {
+            initializeLiveAttributes();
+        }
         return specularExponent;
     }
 
@@ -209,6 +232,9 @@ public class SVGOMFESpotLightElement
      * SVGFESpotLightElement#getLimitingConeAngle()}.
      */
     public SVGAnimatedNumber getLimitingConeAngle() {
+        if (limitingConeAngle == null) {
+            initializeLiveAttributes();
+        }
         return limitingConeAngle;
     }
 
@@ -66,7 +66,9 @@ public class SVGOMFETileElement
      */
     public SVGOMFETileElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -95,6 +97,9 @@ public class SVGOMFETileElement
      * <b>DOM</b>: Implements {@link SVGFETileElement#getIn1()}.
      */
     public SVGAnimatedString getIn1() {
+        if (in == null) {
+            initializeLiveAttributes();
+        }
         return in;
     }
 
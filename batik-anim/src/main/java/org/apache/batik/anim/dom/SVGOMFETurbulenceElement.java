@@ -110,7 +110,9 @@ public class SVGOMFETurbulenceElement
     public SVGOMFETurbulenceElement(String prefix,
                                     AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -166,6 +168,9 @@ public class SVGOMFETurbulenceElement
      * <b>DOM</b>: Implements {@link SVGFETurbulenceElement#getNumOctaves()}.
      */
     public SVGAnimatedInteger getNumOctaves() {
+        if (numOctaves == null) {
+            initializeLiveAttributes();
+        }
         return numOctaves;
     }
 
@@ -173,6 +178,9 @@ public class SVGOMFETurbulenceElement
      * <b>DOM</b>: Implements {@link SVGFETurbulenceElement#getSeed()}.
      */
     public SVGAnimatedNumber getSeed() {
+        if (seed == null) {
+            initializeLiveAttributes();
+        }
         return seed;
     }
 
@@ -180,6 +188,9 @@ public class SVGOMFETurbulenceElement
      * <b>DOM</b>: Implements {@link SVGFETurbulenceElement#getStitchTiles()}.
      */
     public SVGAnimatedEnumeration getStitchTiles() {
+        if (stitchTiles == null) {
+            initializeLiveAttributes();
+        }
         return stitchTiles;
     }
 
@@ -187,6 +198,9 @@ public class SVGOMFETurbulenceElement
      * <b>DOM</b>: Implements {@link SVGFETurbulenceElement#getType()}.
      */
     public SVGAnimatedEnumeration getType() {
+        if (type == null) {
+            initializeLiveAttributes();
+        }
         return type;
     }
 
@@ -145,7 +145,9 @@ public class SVGOMFilterElement
      */
     public SVGOMFilterElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -198,6 +200,9 @@ public class SVGOMFilterElement
      * <b>DOM</b>: Implements {@link SVGFilterElement#getFilterUnits()}.
      */
     public SVGAnimatedEnumeration getFilterUnits() {
+        if (filterUnits == null) {
+            initializeLiveAttributes();
+        }
         return filterUnits;
     }
 
@@ -205,6 +210,9 @@ public class SVGOMFilterElement
      * <b>DOM</b>: Implements {@link SVGFilterElement#getPrimitiveUnits()}.
      */
     public SVGAnimatedEnumeration getPrimitiveUnits() {
+        if (primitiveUnits == null) {
+            initializeLiveAttributes();
+        }
         return primitiveUnits;
     }
 
@@ -212,6 +220,9 @@ public class SVGOMFilterElement
      * <b>DOM</b>: Implements {@link SVGFilterElement#getX()}.
      */
     public SVGAnimatedLength getX() {
+        if (x == null) {
+            initializeLiveAttributes();
+        }
         return x;
     }
 
@@ -219,6 +230,9 @@ public class SVGOMFilterElement
      * <b>DOM</b>: Implements {@link SVGFilterElement#getY()}.
      */
     public SVGAnimatedLength getY() {
+        if (y == null) {
+            initializeLiveAttributes();
+        }
         return y;
     }
 
@@ -226,6 +240,9 @@ public class SVGOMFilterElement
      * <b>DOM</b>: Implements {@link SVGFilterElement#getWidth()}.
      */
     public SVGAnimatedLength getWidth() {
+        if (width == null) {
+            initializeLiveAttributes();
+        }
         return width;
     }
 
@@ -233,6 +250,9 @@ public class SVGOMFilterElement
      * <b>DOM</b>: Implements {@link SVGFilterElement#getHeight()}.
      */
     public SVGAnimatedLength getHeight() {
+        if (height == null) {
+            initializeLiveAttributes();
+        }
         return height;
     }
 
@@ -266,6 +286,9 @@ public class SVGOMFilterElement
      * <b>DOM</b>: Implements {@link org.w3c.dom.svg.SVGURIReference#getHref()}.
      */
     public SVGAnimatedString getHref() {
+        if (href == null) {
+            initializeLiveAttributes();
+        }
         return href;
     }
 
@@ -276,6 +299,9 @@ public class SVGOMFilterElement
      * org.w3c.dom.svg.SVGExternalResourcesRequired#getExternalResourcesRequired()}.
      */
     public SVGAnimatedBoolean getExternalResourcesRequired() {
+        if (externalResourcesRequired == null) {
+            initializeLiveAttributes();
+        }
         return externalResourcesRequired;
     }
 
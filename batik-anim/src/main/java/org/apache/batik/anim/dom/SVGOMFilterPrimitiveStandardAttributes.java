@@ -96,7 +96,9 @@ public abstract class SVGOMFilterPrimitiveStandardAttributes
     protected SVGOMFilterPrimitiveStandardAttributes(String prefix,
                                                      AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -135,6 +137,9 @@ public abstract class SVGOMFilterPrimitiveStandardAttributes
      * org.w3c.dom.svg.SVGFilterPrimitiveStandardAttributes#getX()}.
      */
     public SVGAnimatedLength getX() {
+        if (x == null) {
+            initializeLiveAttributes();
+        }
         return x;
     }
 
@@ -143,6 +148,9 @@ public abstract class SVGOMFilterPrimitiveStandardAttributes
      * org.w3c.dom.svg.SVGFilterPrimitiveStandardAttributes#getY()}.
      */
     public SVGAnimatedLength getY() {
+        if (y == null) {
+            initializeLiveAttributes();
+        }
         return y;
     }
 
@@ -151,6 +159,9 @@ public abstract class SVGOMFilterPrimitiveStandardAttributes
      * org.w3c.dom.svg.SVGFilterPrimitiveStandardAttributes#getWidth()}.
      */
     public SVGAnimatedLength getWidth() {
+        if (width == null) {
+            initializeLiveAttributes();
+        }
         return width;
     }
 
@@ -159,6 +170,9 @@ public abstract class SVGOMFilterPrimitiveStandardAttributes
      * org.w3c.dom.svg.SVGFilterPrimitiveStandardAttributes#getHeight()}.
      */
     public SVGAnimatedLength getHeight() {
+        if (height == null) {
+            initializeLiveAttributes();
+        }
         return height;
     }
 
@@ -167,6 +181,9 @@ public abstract class SVGOMFilterPrimitiveStandardAttributes
      * org.w3c.dom.svg.SVGFilterPrimitiveStandardAttributes#getResult()}.
      */
     public SVGAnimatedString getResult() {
+        if (result == null) {
+            initializeLiveAttributes();
+        }
         return result;
     }
 
@@ -92,7 +92,9 @@ public class SVGOMForeignObjectElement
      */
     public SVGOMForeignObjectElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -135,6 +137,9 @@ public class SVGOMForeignObjectElement
      * <b>DOM</b>: Implements {@link SVGForeignObjectElement#getX()}.
      */
     public SVGAnimatedLength getX() {
+        if (x == null) {
+            initializeLiveAttributes();
+        }
         return x;
     }
 
@@ -142,6 +147,9 @@ public class SVGOMForeignObjectElement
      * <b>DOM</b>: Implements {@link SVGForeignObjectElement#getY()}.
      */
     public SVGAnimatedLength getY() {
+        if (y == null) {
+            initializeLiveAttributes();
+        }
         return y;
     }
 
@@ -149,6 +157,9 @@ public class SVGOMForeignObjectElement
      * <b>DOM</b>: Implements {@link SVGForeignObjectElement#getWidth()}.
      */
     public SVGAnimatedLength getWidth() {
+        if (width == null) {
+            initializeLiveAttributes();
+        }
         return width;
     }
 
@@ -156,6 +167,9 @@ public class SVGOMForeignObjectElement
      * <b>DOM</b>: Implements {@link SVGForeignObjectElement#getHeight()}.
      */
     public SVGAnimatedLength getHeight() {
+        if (height == null) {
+            initializeLiveAttributes();
+        }
         return height;
     }
 
@@ -96,7 +96,9 @@ public class SVGOMGlyphRefElement
      */
     public SVGOMGlyphRefElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -126,6 +128,9 @@ public class SVGOMGlyphRefElement
      * <b>DOM</b>: Implements {@link org.w3c.dom.svg.SVGURIReference#getHref()}.
      */
     public SVGAnimatedString getHref() {
+        if (href == null) {
+            initializeLiveAttributes();
+        }
         return href;
     }
 
@@ -130,7 +130,9 @@ public abstract class SVGOMGradientElement
      */
     protected SVGOMGradientElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -173,6 +175,9 @@ public abstract class SVGOMGradientElement
      * org.w3c.dom.svg.SVGGradientElement#getGradientUnits()}.
      */
     public SVGAnimatedEnumeration getGradientUnits() {
+        if (gradientUnits == null) {
+            initializeLiveAttributes();
+        }
         return gradientUnits;
     }
 
@@ -181,6 +186,9 @@ public abstract class SVGOMGradientElement
      * org.w3c.dom.svg.SVGGradientElement#getSpreadMethod()}.
      */
     public SVGAnimatedEnumeration getSpreadMethod() {
+        if (spreadMethod == null) {
+            initializeLiveAttributes();
+        }
         return spreadMethod;
     }
 
@@ -189,6 +197,9 @@ public abstract class SVGOMGradientElement
      * org.w3c.dom.svg.SVGURIReference#getHref()}.
      */
     public SVGAnimatedString getHref() {
+        if (href == null) {
+            initializeLiveAttributes();
+        }
         return href;
     }
 
@@ -199,6 +210,9 @@ public abstract class SVGOMGradientElement
      * org.w3c.dom.svg.SVGExternalResourcesRequired#getExternalResourcesRequired()}.
      */
     public SVGAnimatedBoolean getExternalResourcesRequired() {
+        if (externalResourcesRequired == null) {
+            initializeLiveAttributes();
+        }
         return externalResourcesRequired;
     }
 
@@ -115,7 +115,9 @@ public class SVGOMImageElement
      */
     public SVGOMImageElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -158,6 +160,9 @@ public class SVGOMImageElement
      * <b>DOM</b>: Implements {@link SVGImageElement#getX()}.
      */
     public SVGAnimatedLength getX() {
+        if (x == null) {
+            initializeLiveAttributes();
+        }
         return x;
     }
 
@@ -165,6 +170,9 @@ public class SVGOMImageElement
      * <b>DOM</b>: Implements {@link SVGImageElement#getY()}.
      */
     public SVGAnimatedLength getY() {
+        if (y == null) {
+            initializeLiveAttributes();
+        }
         return y;
     }
 
@@ -172,6 +180,9 @@ public class SVGOMImageElement
      * <b>DOM</b>: Implements {@link SVGImageElement#getWidth()}.
      */
     public SVGAnimatedLength getWidth() {
+        if (width == null) {
+            initializeLiveAttributes();
+        }
         return width;
     }
 
@@ -179,6 +190,9 @@ public class SVGOMImageElement
      * <b>DOM</b>: Implements {@link SVGImageElement#getHeight()}.
      */
     public SVGAnimatedLength getHeight() {
+        if (height == null) {
+            initializeLiveAttributes();
+        }
         return height;
     }
 
@@ -186,6 +200,9 @@ public class SVGOMImageElement
      * <b>DOM</b>: Implements {@link SVGImageElement#getPreserveAspectRatio()}.
      */
     public SVGAnimatedPreserveAspectRatio getPreserveAspectRatio() {
+        if (preserveAspectRatio == null) {
+            initializeLiveAttributes();
+        }
         return preserveAspectRatio;
     }
 
@@ -87,7 +87,9 @@ public class SVGOMLinearGradientElement
      */
     public SVGOMLinearGradientElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -127,6 +129,9 @@ public class SVGOMLinearGradientElement
      * <b>DOM</b>: Implements {@link SVGLinearGradientElement#getX1()}.
      */
     public SVGAnimatedLength getX1() {
+        if (x1 == null) {
+            initializeLiveAttributes();
+        }
         return x1;
     }
 
@@ -134,6 +139,9 @@ public class SVGOMLinearGradientElement
      * <b>DOM</b>: Implements {@link SVGLinearGradientElement#getY1()}.
      */
     public SVGAnimatedLength getY1() {
+        if (y1 == null) {
+            initializeLiveAttributes();
+        }
         return y1;
     }
 
@@ -141,6 +149,9 @@ public class SVGOMLinearGradientElement
      * <b>DOM</b>: Implements {@link SVGLinearGradientElement#getX2()}.
      */
     public SVGAnimatedLength getX2() {
+        if (x2 == null) {
+            initializeLiveAttributes();
+        }
         return x2;
     }
 
@@ -148,6 +159,9 @@ public class SVGOMLinearGradientElement
      * <b>DOM</b>: Implements {@link SVGLinearGradientElement#getY2()}.
      */
     public SVGAnimatedLength getY2() {
+        if (y2 == null) {
+            initializeLiveAttributes();
+        }
         return y2;
     }
 
@@ -157,7 +157,9 @@ public class SVGOMMarkerElement
      */
     public SVGOMMarkerElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -214,6 +216,9 @@ public class SVGOMMarkerElement
      * <b>DOM</b>: Implements {@link SVGMarkerElement#getRefX()}.
      */
     public SVGAnimatedLength getRefX() {
+        if (refX == null) {
+            initializeLiveAttributes();
+        }
         return refX;
     }
 
@@ -221,6 +226,9 @@ public class SVGOMMarkerElement
      * <b>DOM</b>: Implements {@link SVGMarkerElement#getRefY()}.
      */
     public SVGAnimatedLength getRefY() {
+        if (refY == null) {
+            initializeLiveAttributes();
+        }
         return refY;
     }
 
@@ -228,6 +236,9 @@ public class SVGOMMarkerElement
      * <b>DOM</b>: Implements {@link SVGMarkerElement#getMarkerUnits()}.
      */
     public SVGAnimatedEnumeration getMarkerUnits() {
+        if (markerUnits == null) {
+            initializeLiveAttributes();
+        }
         return markerUnits;
     }
 
@@ -235,6 +246,9 @@ public class SVGOMMarkerElement
      * <b>DOM</b>: Implements {@link SVGMarkerElement#getMarkerWidth()}.
      */
     public SVGAnimatedLength getMarkerWidth() {
+        if (markerWidth == null) {
+            initializeLiveAttributes();
+        }
         return markerWidth;
     }
 
@@ -242,6 +256,9 @@ public class SVGOMMarkerElement
      * <b>DOM</b>: Implements {@link SVGMarkerElement#getMarkerHeight()}.
      */
     public SVGAnimatedLength getMarkerHeight() {
+        if (markerHeight == null) {
+            initializeLiveAttributes();
+        }
         return markerHeight;
     }
 
@@ -249,6 +266,9 @@ public class SVGOMMarkerElement
      * <b>DOM</b>: Implements {@link SVGMarkerElement#getOrientType()}.
      */
     public SVGAnimatedEnumeration getOrientType() {
+        if (orient == null) {
+            initializeLiveAttributes();
+        }
         return orient.getAnimatedEnumeration();
     }
 
@@ -256,6 +276,9 @@ public class SVGOMMarkerElement
      * <b>DOM</b>: Implements {@link SVGMarkerElement#getOrientAngle()}.
      */
     public SVGAnimatedAngle getOrientAngle() {
+        if (orient == null) {
+            initializeLiveAttributes();
+        }
         return orient.getAnimatedAngle();
     }
 
@@ -281,6 +304,9 @@ public class SVGOMMarkerElement
      * org.w3c.dom.svg.SVGFitToViewBox#getViewBox()}.
      */
     public SVGAnimatedRect getViewBox() {
+        if (viewBox == null) {
+            initializeLiveAttributes();
+        }
         return viewBox;
     }
 
@@ -289,6 +315,9 @@ public class SVGOMMarkerElement
      * org.w3c.dom.svg.SVGFitToViewBox#getPreserveAspectRatio()}.
      */
     public SVGAnimatedPreserveAspectRatio getPreserveAspectRatio() {
+        if (preserveAspectRatio == null) {
+            initializeLiveAttributes();
+        }
         return preserveAspectRatio;
     }
 
@@ -299,6 +328,9 @@ public class SVGOMMarkerElement
      * org.w3c.dom.svg.SVGExternalResourcesRequired#getExternalResourcesRequired()}.
      */
     public SVGAnimatedBoolean getExternalResourcesRequired() {
+        if (externalResourcesRequired == null) {
+            initializeLiveAttributes();
+        }
         return externalResourcesRequired;
     }
 
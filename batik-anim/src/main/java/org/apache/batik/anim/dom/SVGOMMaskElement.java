@@ -111,7 +111,9 @@ public class SVGOMMaskElement
      */
     public SVGOMMaskElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -160,6 +162,9 @@ public class SVGOMMaskElement
      * <b>DOM</b>: Implements {@link SVGMaskElement#getMaskUnits()}.
      */
     public SVGAnimatedEnumeration getMaskUnits() {
+        if (maskUnits == null) {
+            initializeLiveAttributes();
+        }
         return maskUnits;
     }
 
@@ -167,6 +172,9 @@ public class SVGOMMaskElement
      * <b>DOM</b>: Implements {@link SVGMaskElement#getMaskContentUnits()}.
      */
     public SVGAnimatedEnumeration getMaskContentUnits() {
+        if (maskContentUnits == null) {
+            initializeLiveAttributes();
+        }
         return maskContentUnits;
     }
 
@@ -174,6 +182,9 @@ public class SVGOMMaskElement
      * <b>DOM</b>: Implements {@link SVGMaskElement#getX()}.
      */
     public SVGAnimatedLength getX() {
+        if (x == null) {
+            initializeLiveAttributes();
+        }
         return x;
     }
 
@@ -181,6 +192,9 @@ public class SVGOMMaskElement
      * <b>DOM</b>: Implements {@link SVGMaskElement#getY()}.
      */
     public SVGAnimatedLength getY() {
+        if (y == null) {
+            initializeLiveAttributes();
+        }
         return y;
     }
 
@@ -188,6 +202,9 @@ public class SVGOMMaskElement
      * <b>DOM</b>: Implements {@link SVGMaskElement#getWidth()}.
      */
     public SVGAnimatedLength getWidth() {
+        if (width == null) {
+            initializeLiveAttributes();
+        }
         return width;
     }
 
@@ -195,6 +212,9 @@ public class SVGOMMaskElement
      * <b>DOM</b>: Implements {@link SVGMaskElement#getHeight()}.
      */
     public SVGAnimatedLength getHeight() {
+        if (height == null) {
+            initializeLiveAttributes();
+        }
         return height;
     }
 
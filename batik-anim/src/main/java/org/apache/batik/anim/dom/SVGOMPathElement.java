@@ -92,7 +92,9 @@ public class SVGOMPathElement
      */
     public SVGOMPathElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -151,6 +153,9 @@ public class SVGOMPathElement
      * path data for this element.
      */
     public SVGOMAnimatedPathData getAnimatedPathData() {
+        if (d == null) {
+            initializeLiveAttributes();
+        }
         return d;
     }
 
@@ -158,6 +163,9 @@ public class SVGOMPathElement
      * <b>DOM</b>: Implements {@link SVGPathElement#getPathSegList()}.
      */
     public SVGPathSegList getPathSegList() {
+        if (d == null) {
+            initializeLiveAttributes();
+        }
         return d.getPathSegList();
     }
 
@@ -165,6 +173,9 @@ public class SVGOMPathElement
      * <b>DOM</b>: Implements {@link SVGPathElement#getNormalizedPathSegList()}.
      */
     public SVGPathSegList getNormalizedPathSegList() {
+        if (d == null) {
+            initializeLiveAttributes();
+        }
         return d.getNormalizedPathSegList();
     }
 
@@ -172,6 +183,9 @@ public class SVGOMPathElement
      * <b>DOM</b>: Implements {@link SVGPathElement#getAnimatedPathSegList()}.
      */
     public SVGPathSegList getAnimatedPathSegList() {
+        if (d == null) {
+            initializeLiveAttributes();
+        }
         return d.getAnimatedPathSegList();
     }
 
@@ -180,6 +194,9 @@ public class SVGOMPathElement
      * SVGPathElement#getAnimatedNormalizedPathSegList()}.
      */
     public SVGPathSegList getAnimatedNormalizedPathSegList() {
+        if (d == null) {
+            initializeLiveAttributes();
+        }
         return d.getAnimatedNormalizedPathSegList();
     }
 
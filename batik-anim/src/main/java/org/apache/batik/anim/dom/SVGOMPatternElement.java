@@ -164,7 +164,9 @@ public class SVGOMPatternElement
     public SVGOMPatternElement(String prefix,
                                AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -227,6 +229,9 @@ public class SVGOMPatternElement
      * <b>DOM</b>: Implements {@link SVGPatternElement#getPatternUnits()}.
      */
     public SVGAnimatedEnumeration getPatternUnits() {
+        if (patternUnits == null) {
+            initializeLiveAttributes();
+        }
         return patternUnits;
     }
 
@@ -235,6 +240,9 @@ public class SVGOMPatternElement
      * SVGPatternElement#getPatternContentUnits()}.
      */
     public SVGAnimatedEnumeration getPatternContentUnits() {
+        if (patternContentUnits == null) {
+            initializeLiveAttributes();
+        }
         return patternContentUnits;
     }
 
@@ -242,6 +250,9 @@ public class SVGOMPatternElement
      * <b>DOM</b>: Implements {@link SVGPatternElement#getX()}.
      */
     public SVGAnimatedLength getX() {
+        if (x == null) {
+            initializeLiveAttributes();
+        }
         return x;
     }
 
@@ -249,6 +260,9 @@ public class SVGOMPatternElement
      * <b>DOM</b>: Implements {@link SVGPatternElement#getY()}.
      */
     public SVGAnimatedLength getY() {
+        if (y == null) {
+            initializeLiveAttributes();
+        }
         return y;
     }
 
@@ -256,6 +270,9 @@ public class SVGOMPatternElement
      * <b>DOM</b>: Implements {@link SVGPatternElement#getWidth()}.
      */
     public SVGAnimatedLength getWidth() {
+        if (width == null) {
+            initializeLiveAttributes();
+        }
         return width;
     }
 
@@ -264,6 +281,9 @@ public class SVGOMPatternElement
      * org.w3c.dom.svg.SVGPatternElement#getHeight()}.
      */
     public SVGAnimatedLength getHeight() {
+        if (height == null) {
+            initializeLiveAttributes();
+        }
         return height;
     }
 
@@ -281,6 +301,9 @@ public class SVGOMPatternElement
      * org.w3c.dom.svg.SVGURIReference#getHref()}.
      */
     public SVGAnimatedString getHref() {
+        if (href == null) {
+            initializeLiveAttributes();
+        }
         return href;
     }
 
@@ -300,6 +323,9 @@ public class SVGOMPatternElement
      * org.w3c.dom.svg.SVGFitToViewBox#getPreserveAspectRatio()}.
      */
     public SVGAnimatedPreserveAspectRatio getPreserveAspectRatio() {
+        if (preserveAspectRatio == null) {
+            initializeLiveAttributes();
+        }
         return preserveAspectRatio;
     }
 
@@ -310,6 +336,9 @@ public class SVGOMPatternElement
      * org.w3c.dom.svg.SVGExternalResourcesRequired#getExternalResourcesRequired()}.
      */
     public SVGAnimatedBoolean getExternalResourcesRequired() {
+        if (externalResourcesRequired == null) {
+            initializeLiveAttributes();
+        }
         return externalResourcesRequired;
     }
 
@@ -95,7 +95,9 @@ public class SVGOMRadialGradientElement
      */
     public SVGOMRadialGradientElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -142,12 +144,8 @@ public class SVGOMRadialGradientElement
                 }
             };
 
-        liveAttributeValues.put(null, SVG_FX_ATTRIBUTE, fx);
-        liveAttributeValues.put(null, SVG_FY_ATTRIBUTE, fy);
-        AnimatedAttributeListener l =
-            ((SVGOMDocument) ownerDocument).getAnimatedAttributeListener();
-        fx.addAnimatedAttributeListener(l);
-        fy.addAnimatedAttributeListener(l);
+        putLiveAnimatedValue(null, SVG_FX_ATTRIBUTE, fx);
+        putLiveAnimatedValue(null, SVG_FY_ATTRIBUTE, fy);
     }
 
     /**
@@ -162,6 +160,9 @@ public class SVGOMRadialGradientElement
      * org.w3c.dom.svg.SVGRadialGradientElement#getCx()}.
      */
     public SVGAnimatedLength getCx() {
+        if (cx == null) {
+            initializeLiveAttributes();
+        }
         return cx;
     }
 
@@ -170,6 +171,9 @@ public class SVGOMRadialGradientElement
      * org.w3c.dom.svg.SVGRadialGradientElement#getCy()}.
      */
     public SVGAnimatedLength getCy() {
+        if (cy == null) {
+            initializeLiveAttributes();
+        }
         return cy;
     }
 
@@ -178,6 +182,9 @@ public class SVGOMRadialGradientElement
      * org.w3c.dom.svg.SVGRadialGradientElement#getR()}.
      */
     public SVGAnimatedLength getR() {
+        if (r == null) {
+            initializeLiveAttributes();
+        }
         return r;
     }
 
@@ -186,6 +193,9 @@ public class SVGOMRadialGradientElement
      * org.w3c.dom.svg.SVGRadialGradientElement#getFx()}.
      */
     public SVGAnimatedLength getFx() {
+        if (fx == null) {
+            initializeLiveAttributes();
+        }
         return fx;
     }
 
@@ -194,6 +204,9 @@ public class SVGOMRadialGradientElement
      * org.w3c.dom.svg.SVGRadialGradientElement#getFy()}.
      */
     public SVGAnimatedLength getFy() {
+        if (fy == null) {
+            initializeLiveAttributes();
+        }
         return fy;
     }
 
@@ -103,7 +103,9 @@ public class SVGOMRectElement
      */
     public SVGOMRectElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -171,12 +173,8 @@ public class SVGOMRectElement
                 }
             };
 
-        liveAttributeValues.put(null, SVG_RX_ATTRIBUTE, rx);
-        liveAttributeValues.put(null, SVG_RY_ATTRIBUTE, ry);
-        AnimatedAttributeListener l =
-            ((SVGOMDocument) ownerDocument).getAnimatedAttributeListener();
-        rx.addAnimatedAttributeListener(l);
-        ry.addAnimatedAttributeListener(l);
+        putLiveAnimatedValue(null, SVG_RX_ATTRIBUTE, rx);
+        putLiveAnimatedValue(null, SVG_RY_ATTRIBUTE, ry);
     }
 
     /**
@@ -190,6 +188,9 @@ public class SVGOMRectElement
      * <b>DOM</b>: Implements {@link SVGRectElement#getX()}.
      */
     public SVGAnimatedLength getX() {
+        if (x == null) {
+            initializeLiveAttributes();
+        }
         return x;
     }
 
@@ -197,6 +198,9 @@ public class SVGOMRectElement
      * <b>DOM</b>: Implements {@link SVGRectElement#getY()}.
      */
     public SVGAnimatedLength getY() {
+        if (y == null) {
+            initializeLiveAttributes();
+        }
         return y;
     }
 
@@ -204,6 +208,9 @@ public class SVGOMRectElement
      * <b>DOM</b>: Implements {@link SVGRectElement#getWidth()}.
      */
     public SVGAnimatedLength getWidth() {
+        if (width == null) {
+            initializeLiveAttributes();
+        }
         return width;
     }
 
@@ -211,6 +218,9 @@ public class SVGOMRectElement
      * <b>DOM</b>: Implements {@link SVGRectElement#getHeight()}.
      */
     public SVGAnimatedLength getHeight() {
+        if (height == null) {
+            initializeLiveAttributes();
+        }
         return height;
     }
 
@@ -218,6 +228,9 @@ public class SVGOMRectElement
      * <b>DOM</b>: Implements {@link SVGRectElement#getRx()}.
      */
     public SVGAnimatedLength getRx() {
+        if (rx == null) {
+            initializeLiveAttributes();
+        }
         return rx;
     }
 
@@ -225,6 +238,9 @@ public class SVGOMRectElement
      * <b>DOM</b>: Implements {@link SVGRectElement#getRy()}.
      */
     public SVGAnimatedLength getRy() {
+        if (ry == null) {
+            initializeLiveAttributes();
+        }
         return ry;
     }
 
@@ -66,7 +66,9 @@ public class SVGOMStopElement
      */
     public SVGOMStopElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -96,6 +98,9 @@ public class SVGOMStopElement
      * org.w3c.dom.svg.SVGStopElement#getOffset()}.
      */
     public SVGAnimatedNumber getOffset() {
+        if (offset == null) {
+            initializeLiveAttributes();
+        }
         return offset;
     }
     
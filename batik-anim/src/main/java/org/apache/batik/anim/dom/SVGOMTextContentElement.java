@@ -95,7 +95,9 @@ public abstract class SVGOMTextContentElement
      */
     protected SVGOMTextContentElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -150,9 +152,7 @@ public abstract class SVGOMTextContentElement
                 }
             };
 
-        liveAttributeValues.put(null, SVG_TEXT_LENGTH_ATTRIBUTE, textLength);
-        textLength.addAnimatedAttributeListener
-            (((SVGOMDocument) ownerDocument).getAnimatedAttributeListener());
+        putLiveAnimatedValue(null, SVG_TEXT_LENGTH_ATTRIBUTE, textLength);
     }
 
     /**
@@ -160,6 +160,9 @@ public abstract class SVGOMTextContentElement
      * org.w3c.dom.svg.SVGTextContentElement#getTextLength()}.
      */
     public SVGAnimatedLength getTextLength() {
+        if (textLength == null) {
+            initializeLiveAttributes();
+        }
         return textLength;
     }
 
@@ -168,6 +171,9 @@ public abstract class SVGOMTextContentElement
      * org.w3c.dom.svg.SVGTextContentElement#getLengthAdjust()}.
      */
     public SVGAnimatedEnumeration getLengthAdjust() {
+        if (lengthAdjust == null) {
+            initializeLiveAttributes();
+        }
         return lengthAdjust;
     }
 
@@ -253,6 +259,9 @@ public abstract class SVGOMTextContentElement
      * org.w3c.dom.svg.SVGExternalResourcesRequired#getExternalResourcesRequired()}.
      */
     public SVGAnimatedBoolean getExternalResourcesRequired() {
+        if (externalResourcesRequired == null) {
+            initializeLiveAttributes();
+        }
         return externalResourcesRequired;
     }
 
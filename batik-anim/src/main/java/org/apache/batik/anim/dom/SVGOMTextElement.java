@@ -85,7 +85,9 @@ public class SVGOMTextElement
      */
     public SVGOMTextElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -167,6 +169,9 @@ public class SVGOMTextElement
      * org.w3c.dom.svg.SVGTransformable#getTransform()}.
      */
     public SVGAnimatedTransformList getTransform() {
+        if (transform == null) {
+            initializeLiveAttributes();
+        }
         return transform;
     }
 
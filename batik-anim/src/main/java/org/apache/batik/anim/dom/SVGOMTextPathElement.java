@@ -126,7 +126,9 @@ public class SVGOMTextPathElement
      */
     public SVGOMTextPathElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -167,6 +169,9 @@ public class SVGOMTextPathElement
      * <b>DOM</b>: Implements {@link SVGTextPathElement#getStartOffset()}.
      */
     public SVGAnimatedLength getStartOffset() {
+        if (startOffset == null) {
+            initializeLiveAttributes();
+        }
         return startOffset;
     }
 
@@ -174,6 +179,9 @@ public class SVGOMTextPathElement
      * <b>DOM</b>: Implements {@link SVGTextPathElement#getMethod()}.
      */
     public SVGAnimatedEnumeration getMethod() {
+        if (method == null) {
+            initializeLiveAttributes();
+        }
         return method;
     }
 
@@ -181,6 +189,9 @@ public class SVGOMTextPathElement
      * <b>DOM</b>: Implements {@link SVGTextPathElement#getSpacing()}.
      */
     public SVGAnimatedEnumeration getSpacing() {
+        if (spacing == null) {
+            initializeLiveAttributes();
+        }
         return spacing;
     }
 
@@ -191,6 +202,9 @@ public class SVGOMTextPathElement
      * org.w3c.dom.svg.SVGURIReference#getHref()}.
      */
     public SVGAnimatedString getHref() {
+        if (href == null) {
+            initializeLiveAttributes();
+        }
         return href;
     }
 
@@ -95,7 +95,9 @@ public abstract class SVGOMTextPositioningElement
     protected SVGOMTextPositioningElement(String prefix,
                                           AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -130,6 +132,9 @@ public abstract class SVGOMTextPositioningElement
      * <b>DOM</b>: Implements {@link SVGTextPositioningElement#getX()}.
      */
     public SVGAnimatedLengthList getX() {
+        if (x == null) {
+            initializeLiveAttributes();
+        }
         return x;
     }
 
@@ -137,6 +142,9 @@ public abstract class SVGOMTextPositioningElement
      * <b>DOM</b>: Implements {@link SVGTextPositioningElement#getY()}.
      */
     public SVGAnimatedLengthList getY() {
+        if (y == null) {
+            initializeLiveAttributes();
+        }
         return y;
     }
 
@@ -144,6 +152,9 @@ public abstract class SVGOMTextPositioningElement
      * <b>DOM</b>: Implements {@link SVGTextPositioningElement#getDx()}.
      */
     public SVGAnimatedLengthList getDx() {
+        if (dx == null) {
+            initializeLiveAttributes();
+        }
         return dx;
     }
 
@@ -151,6 +162,9 @@ public abstract class SVGOMTextPositioningElement
      * <b>DOM</b>: Implements {@link SVGTextPositioningElement#getDy()}.
      */
     public SVGAnimatedLengthList getDy() {
+        if (dy == null) {
+            initializeLiveAttributes();
+        }
         return dy;
     }
 
@@ -158,6 +172,9 @@ public abstract class SVGOMTextPositioningElement
      * <b>DOM</b>: Implements {@link SVGTextPositioningElement#getRotate()}.
      */
     public SVGAnimatedNumberList getRotate() {
+        if (rotate == null) {
+            initializeLiveAttributes();
+        }
         return rotate;
     }
 
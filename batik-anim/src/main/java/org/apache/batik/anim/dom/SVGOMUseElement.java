@@ -113,7 +113,9 @@ public class SVGOMUseElement
      */
     public SVGOMUseElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -155,6 +157,9 @@ public class SVGOMUseElement
      * <b>DOM</b>: Implements {@link SVGUseElement#getX()}.
      */
     public SVGAnimatedLength getX() {
+        if (x == null) {
+            initializeLiveAttributes();
+        }
         return x;
     }
 
@@ -162,6 +167,9 @@ public class SVGOMUseElement
      * <b>DOM</b>: Implements {@link SVGUseElement#getY()}.
      */
     public SVGAnimatedLength getY() {
+        if (y == null) {
+            initializeLiveAttributes();
+        }
         return y;
     }
 
@@ -169,6 +177,9 @@ public class SVGOMUseElement
      * <b>DOM</b>: Implements {@link SVGUseElement#getWidth()}.
      */
     public SVGAnimatedLength getWidth() {
+        if (width == null) {
+            initializeLiveAttributes();
+        }
         return width;
     }
 
@@ -176,6 +187,9 @@ public class SVGOMUseElement
      * <b>DOM</b>: Implements {@link SVGUseElement#getHeight()}.
      */
     public SVGAnimatedLength getHeight() {
+        if (height == null) {
+            initializeLiveAttributes();
+        }
         return height;
     }
 
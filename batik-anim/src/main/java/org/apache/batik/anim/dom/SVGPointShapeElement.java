@@ -66,7 +66,9 @@ public abstract class SVGPointShapeElement
      */
     public SVGPointShapeElement(String prefix, AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -89,6 +91,9 @@ public abstract class SVGPointShapeElement
      * point list for this element.
      */
     public SVGOMAnimatedPoints getSVGOMAnimatedPoints() {
+        if (points == null) {
+            initializeLiveAttributes();
+        }
         return points;
     }
 
@@ -97,6 +102,9 @@ public abstract class SVGPointShapeElement
      * org.w3c.dom.svg.SVGAnimatedPoints#getPoints()}.
      */
     public SVGPointList getPoints() {
+        if (points == null) {
+            initializeLiveAttributes();
+        }
         return points.getPoints();
     }
 
@@ -105,6 +113,9 @@ public abstract class SVGPointShapeElement
      * org.w3c.dom.svg.SVGAnimatedPoints#getAnimatedPoints()}.
      */
     public SVGPointList getAnimatedPoints() {
+        if (points == null) {
+            initializeLiveAttributes();
+        }
         return points.getAnimatedPoints();
     }
 
@@ -64,7 +64,9 @@ public abstract class SVGURIReferenceGraphicsElement
     protected SVGURIReferenceGraphicsElement(String prefix,
                                              AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -87,6 +89,9 @@ public abstract class SVGURIReferenceGraphicsElement
      * <b>DOM</b>: Implements {@link org.w3c.dom.svg.SVGURIReference#getHref()}.
      */
     public SVGAnimatedString getHref() {
+        if (href == null) {
+            initializeLiveAttributes();
+        }
         return href;
     }
 
@@ -67,7 +67,9 @@ public abstract class SVGURIReferenceTextPositioningElement
     protected SVGURIReferenceTextPositioningElement(String prefix,
                                                     AbstractDocument owner) {
         super(prefix, owner);
-        initializeLiveAttributes();
+        if (!isStaticDocument()) {
+            initializeLiveAttributes();
+        }
     }
 
     /**
@@ -90,6 +92,9 @@ public abstract class SVGURIReferenceTextPositioningElement
      * <b>DOM</b>: Implements {@link org.w3c.dom.svg.SVGURIReference#getHref()}.
      */
     public SVGAnimatedString getHref() {
+        if (href == null) {
+            initializeLiveAttributes();
+        }
         return href;
     }
 
@@ -34,6 +34,9 @@ import java.awt.image.Raster;
 import java.awt.image.SinglePixelPackedSampleModel;
 import java.awt.image.WritableRaster;
 import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.apache.batik.ext.awt.image.GraphicsUtil;
 
@@ -84,11 +87,11 @@ abstract class MultipleGradientPaintContext implements PaintContext {
          32, 0xff0000, 0xFF00, 0xFF, 0xFF000000,
          false, DataBuffer.TYPE_INT);
 
-     /** The cached colorModel */
-    protected static ColorModel cachedModel;
-
-    /** The cached raster, which is reusable among instances */
-    protected static WeakReference cached;
+    /**
+     * The raster of each thread, weakly referenced, which is reusable
+     * among the instances the thread uses.
+     */
+    private static final ThreadLocal cached = new ThreadLocal();
 
     /** Raster is reused whenever possible */
     protected WritableRaster saved;
@@ -183,6 +186,23 @@ abstract class MultipleGradientPaintContext implements PaintContext {
      */
     private static final int MAX_GRADIENT_ARRAY_SIZE = 5000;
 
+    /**
+     * The maximum number of stop configurations whose gradient tables
+     * are kept.
+     */
+    static final int MAX_CACHED_TABLES = 128;
+
+    /**
+     * The gradient tables of the recently used stop configurations,
+     * indexed by {@link TablesKey}, in access order.
+     */
+    private static final Map tablesCache =
+        new LinkedHashMap(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry eldest) {
+                return size() > MAX_CACHED_TABLES;
+            }
+        };
+
    /** Constructor for superclass. Does some initialization, but leaves most
     * of the heavy-duty math for calculateGradient(), so the subclass may do
     * some other manipulation beforehand if necessary.  This is not possible
@@ -202,6 +222,58 @@ abstract class MultipleGradientPaintContext implements PaintContext {
                                         colorSpace)
         throws NoninvertibleTransformException
     {
+        // The inverse transform is needed to from device to user space.
+        // Get all the components of the inverse transform matrix.
+        AffineTransform tInv = t.createInverse();
+
+        double[] m = new double[6];
+        tInv.getMatrix(m);
+        a00 = (float)m[0];
+        a10 = (float)m[1];
+        a01 = (float)m[2];
+        a11 = (float)m[3];
+        a02 = (float)m[4];
+        a12 = (float)m[5];
+
+        //copy some flags
+        this.cycleMethod = cycleMethod;
+        this.colorSpace = colorSpace;
+
+        // Setup an example Model, we may refine it later.
+        if (cm.getColorSpace() == lrgbmodel_A.getColorSpace())
+            dataModel = lrgbmodel_A;
+        else if (cm.getColorSpace() == srgbmodel_A.getColorSpace())
+            dataModel = srgbmodel_A;
+        else
+            throw new IllegalArgumentException
+                ("Unsupported ColorSpace for interpolation");
+
+        TablesKey key = new TablesKey(fractions, colors, cycleMethod,
+                                      colorSpace, dataModel.getColorSpace());
+        Tables tables;
+        synchronized (tablesCache) {
+            tables = (Tables)tablesCache.get(key);
+        }
+        if (tables == null) {
+            calculateGradientTables(fractions, colors);
+            tables = new Tables(this);
+            synchronized (tablesCache) {
+                tablesCache.put(key, tables);
+            }
+        } else {
+            tables.copyTo(this);
+        }
+
+        model = GraphicsUtil.coerceColorModel(dataModel,
+                                              cm.isAlphaPremultiplied());
+    }
+
+
+    /**
+     * Adds the missing stops at 0 and 1, drops the empty intervals and
+     * calculates the gradient tables of the resulting stops.
+     */
+    private void calculateGradientTables(float[] fractions, Color[] colors) {
         //We have to deal with the cases where the 1st gradient stop is not
         //equal to 0 and/or the last gradient stop is not equal to 1.
         //In both cases, create a new point and replicate the previous
@@ -268,39 +340,9 @@ abstract class MultipleGradientPaintContext implements PaintContext {
             this.fractions[idx] = 1;
         }
 
-        // The inverse transform is needed to from device to user space.
-        // Get all the components of the inverse transform matrix.
-        AffineTransform tInv = t.createInverse();
-
-        double[] m = new double[6];
-        tInv.getMatrix(m);
-        a00 = (float)m[0];
-        a10 = (float)m[1];
-        a01 = (float)m[2];
-        a11 = (float)m[3];
-        a02 = (float)m[4];
-        a12 = (float)m[5];
-
-        //copy some flags
-        this.cycleMethod = cycleMethod;
-        this.colorSpace = colorSpace;
-
-        // Setup an example Model, we may refine it later.
-        if (cm.getColorSpace() == lrgbmodel_A.getColorSpace())
-            dataModel = lrgbmodel_A;
-        else if (cm.getColorSpace() == srgbmodel_A.getColorSpace())
-            dataModel = srgbmodel_A;
-        else
-            throw new IllegalArgumentException
-                ("Unsupported ColorSpace for interpolation");
-
         calculateGradientFractions(loColors, hiColors);
-
-        model = GraphicsUtil.coerceColorModel(dataModel,
-                                              cm.isAlphaPremultiplied());
     }
 
-
     /** This function is the meat of this class.  It calculates an array of
      * gradient colors based on an array of fractions and color values at those
      * fractions.
@@ -1404,23 +1446,23 @@ abstract class MultipleGradientPaintContext implements PaintContext {
                                        int x, int y, int w, int h);
 
 
-    /** Took this cacheRaster code from GradientPaint. It appears to recycle
-     * rasters for use by any other instance, as long as they are sufficiently
-     * large.
+    /**
+     * Returns the raster the current thread last released if it is
+     * compatible with <code>cm</code> and large enough, or a new one.
+     * Each thread keeps its own raster, so that threads painting
+     * gradients concurrently do not take each other's.
      */
-    protected static final
-    synchronized WritableRaster getCachedRaster
+    protected static WritableRaster getCachedRaster
         (ColorModel cm, int w, int h) {
-        if (cm == cachedModel) {
-            if (cached != null) {
-                WritableRaster ras = (WritableRaster) cached.get();
-                if (ras != null &&
-                    ras.getWidth() >= w &&
-                    ras.getHeight() >= h)
-                    {
-                        cached = null;
-                        return ras;
-                    }
+        WeakReference ref = (WeakReference)cached.get();
+        if (ref != null) {
+            WritableRaster ras = (WritableRaster)ref.get();
+            if (ras != null &&
+                ras.getWidth() >= w &&
+                ras.getHeight() >= h &&
+                cm.isCompatibleRaster(ras)) {
+                cached.remove();
+                return ras;
             }
         }
         // Don't create rediculously small rasters...
@@ -1429,15 +1471,15 @@ abstract class MultipleGradientPaintContext implements PaintContext {
         return cm.createCompatibleWritableRaster(w, h);
     }
 
-    /** Took this cacheRaster code from GradientPaint. It appears to recycle
-     * rasters for use by any other instance, as long as they are sufficiently
-     * large.
+    /**
+     * Keeps <code>ras</code> for the next gradient the current thread
+     * paints, unless the thread already keeps a larger raster.
      */
-    protected static final
-    synchronized void putCachedRaster(ColorModel cm,
-                                             WritableRaster ras) {
-        if (cached != null) {
-            WritableRaster cras = (WritableRaster) cached.get();
+    protected static void putCachedRaster(ColorModel cm,
+                                          WritableRaster ras) {
+        WeakReference ref = (WeakReference)cached.get();
+        if (ref != null) {
+            WritableRaster cras = (WritableRaster)ref.get();
             if (cras != null) {
                 int cw = cras.getWidth();
                 int ch = cras.getHeight();
@@ -1451,8 +1493,7 @@ abstract class MultipleGradientPaintContext implements PaintContext {
                 }
             }
         }
-        cachedModel = cm;
-        cached = new WeakReference(ras);
+        cached.set(new WeakReference(ras));
     }
 
     /**
@@ -1460,7 +1501,7 @@ abstract class MultipleGradientPaintContext implements PaintContext {
      */
     public final void dispose() {
         if (saved != null) {
-            putCachedRaster(model, saved);
+            putCachedRaster(dataModel, saved);
             saved = null;
         }
     }
@@ -1471,5 +1512,100 @@ abstract class MultipleGradientPaintContext implements PaintContext {
     public final ColorModel getColorModel() {
         return model;
     }
-}
 
+    /**
+     * The key of the gradient tables of a stop configuration.
+     */
+    static final class TablesKey {
+        private final float[] fractions;
+        private final int[] colors;
+        private final MultipleGradientPaint.CycleMethodEnum cycleMethod;
+        private final MultipleGradientPaint.ColorSpaceEnum colorSpace;
+        private final ColorSpace dataColorSpace;
+        private final int hash;
+
+        TablesKey(float[] fractions, Color[] colors,
+                  MultipleGradientPaint.CycleMethodEnum cycleMethod,
+                  MultipleGradientPaint.ColorSpaceEnum colorSpace,
+                  ColorSpace dataColorSpace) {
+            this.fractions = fractions.clone();
+            this.colors = new int[colors.length];
+            for (int i = 0; i < colors.length; i++) {
+                this.colors[i] = colors[i].getRGB();
+            }
+            this.cycleMethod = cycleMethod;
+            this.colorSpace = colorSpace;
+            this.dataColorSpace = dataColorSpace;
+
+            int h = Arrays.hashCode(this.fractions);
+            h = 31*h + Arrays.hashCode(this.colors);
+            h = 31*h + cycleMethod.hashCode();
+            h = 31*h + colorSpace.hashCode();
+            hash = 31*h + dataColorSpace.hashCode();
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof TablesKey))
+                return false;
+            TablesKey k = (TablesKey)o;
+            return hash == k.hash
+                && cycleMethod == k.cycleMethod
+                && colorSpace == k.colorSpace
+                && dataColorSpace == k.dataColorSpace
+                && Arrays.equals(fractions, k.fractions)
+                && Arrays.equals(colors, k.colors);
+        }
+    }
+
+    /**
+     * The gradient tables of a stop configuration.  The arrays are
+     * shared by all the contexts painting that configuration, so they
+     * must not be modified once calculated.
+     */
+    static final class Tables {
+        private final ColorModel dataModel;
+        private final float[] fractions;
+        private final float[] normalizedIntervals;
+        private final int[] gradient;
+        private final int[][] gradients;
+        private final int fastGradientArraySize;
+        private final int gradientAverage;
+        private final int gradientUnderflow;
+        private final int gradientOverflow;
+        private final boolean isSimpleLookup;
+        private final boolean hasDiscontinuity;
+
+        Tables(MultipleGradientPaintContext ctx) {
+            dataModel             = ctx.dataModel;
+            fractions             = ctx.fractions;
+            normalizedIntervals   = ctx.normalizedIntervals;
+            gradient              = ctx.gradient;
+            gradients             = ctx.gradients;
+            fastGradientArraySize = ctx.fastGradientArraySize;
+            gradientAverage       = ctx.gradientAverage;
+            gradientUnderflow     = ctx.gradientUnderflow;
+            gradientOverflow      = ctx.gradientOverflow;
+            isSimpleLookup        = ctx.isSimpleLookup;
+            hasDiscontinuity      = ctx.hasDiscontinuity;
+        }
+
+        void copyTo(MultipleGradientPaintContext ctx) {
+            ctx.dataModel             = dataModel;
+            ctx.fractions             = fractions;
+            ctx.normalizedIntervals   = normalizedIntervals;
+            ctx.gradient              = gradient;
+            ctx.gradients             = gradients;
+            ctx.gradientsLength       = gradients.length;
+            ctx.fastGradientArraySize = fastGradientArraySize;
+            ctx.gradientAverage       = gradientAverage;
+            ctx.gradientUnderflow     = gradientUnderflow;
+            ctx.gradientOverflow      = gradientOverflow;
+            ctx.isSimpleLookup        = isSimpleLookup;
+            ctx.hasDiscontinuity      = hasDiscontinuity;
+        }
+    }
+}
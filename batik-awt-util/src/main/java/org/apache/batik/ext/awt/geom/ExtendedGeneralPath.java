@@ -76,6 +76,10 @@ public class ExtendedGeneralPath implements ExtendedShape, Cloneable {
      */
     public ExtendedGeneralPath(int rule, int initialCapacity) {
         path = new GeneralPath(rule, initialCapacity);
+        if (initialCapacity > 0) {
+            values = new float[initialCapacity * 2];
+            types  = new int[initialCapacity];
+        }
     }
 
     /**
@@ -56,8 +56,8 @@ public class DiscreteTransfer implements TransferFunction {
      * This method will build the lut data. Each entry
      * has the value as its index.
      */
-    private void buildLutData(){
-        lutData = new byte [256];
+    private byte [] buildLutData(){
+        byte [] lutData = new byte [256];
         int i, j;
         for (j=0; j<=255; j++){
             i = (int)(Math.floor(j*n/255f));
@@ -66,6 +66,8 @@ public class DiscreteTransfer implements TransferFunction {
             }
             lutData[j] = (byte)(tableValues[i] & 0xff);
         }
+        this.lutData = lutData;
+        return lutData;
     }
 
     /**
@@ -73,7 +75,6 @@ public class DiscreteTransfer implements TransferFunction {
      * to construct a LookUpTable object
      */
     public byte [] getLookupTable(){
-        buildLutData();
-        return lutData;
+        return buildLutData();
     }
 }
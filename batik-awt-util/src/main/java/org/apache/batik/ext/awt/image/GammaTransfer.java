@@ -63,8 +63,8 @@ public class GammaTransfer implements TransferFunction {
      * This method will build the lut data. Each entry's
      * value is in form of "amplitude*pow(C, exponent) + offset"
      */
-    private void buildLutData(){
-        lutData = new byte [256];
+    private byte [] buildLutData(){
+        byte [] lutData = new byte [256];
         int j, v;
         for (j=0; j<=255; j++){
             v = (int)Math.round(255*(amplitude*Math.pow(j/255f, exponent)+offset));
@@ -76,6 +76,8 @@ public class GammaTransfer implements TransferFunction {
             }
             lutData[j] = (byte)(v & 0xff);
         }
+        this.lutData = lutData;
+        return lutData;
     }
 
 
@@ -84,7 +86,6 @@ public class GammaTransfer implements TransferFunction {
      * to construct a LookUpTable object
      */
     public byte [] getLookupTable(){
-        buildLutData();
-        return lutData;
+        return buildLutData();
     }
 }
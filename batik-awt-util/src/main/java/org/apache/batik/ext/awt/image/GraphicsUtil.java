@@ -56,6 +56,7 @@ import org.apache.batik.ext.awt.image.rendered.Any2sRGBRed;
 import org.apache.batik.ext.awt.image.rendered.BufferedImageCachableRed;
 import org.apache.batik.ext.awt.image.rendered.CachableRed;
 import org.apache.batik.ext.awt.image.rendered.FormatRed;
+import org.apache.batik.ext.awt.image.rendered.FusedPixelRed;
 import org.apache.batik.ext.awt.image.rendered.RenderedImageCachableRed;
 import org.apache.batik.ext.awt.image.rendered.TranslateRed;
 
@@ -672,6 +673,8 @@ public class GraphicsUtil {
      * linear sRGB then this method does nothing and returns <code>src</code>.
      * Otherwise it creates a transform that will convert
      * <code>src</code>'s output to linear sRGB and returns that CacheableRed.
+     * The conversion is fused with the per-pixel Reds <code>src</code>
+     * may end with, see <code>FusedPixelRed</code>.
      *
      * @param src The image to convert to linear sRGB.
      * @return    An equivilant image to <code>src</code> who's data is in
@@ -683,7 +686,7 @@ public class GraphicsUtil {
         if (cs == ColorSpace.getInstance(ColorSpace.CS_LINEAR_RGB))
             return src;
 
-        return new Any2LsRGBRed(src);
+        return FusedPixelRed.fuse(new Any2LsRGBRed(src));
     }
 
     /**
@@ -692,6 +695,8 @@ public class GraphicsUtil {
      * sRGB then this method does nothing and returns <code>src</code>.
      * Otherwise it creates a transform that will convert
      * <code>src</code>'s output to sRGB and returns that CacheableRed.
+     * The conversion is fused with the per-pixel Reds <code>src</code>
+     * may end with, see <code>FusedPixelRed</code>.
      *
      * @param src The image to convert to sRGB.
      * @return    An equivilant image to <code>src</code> who's data is in sRGB.
@@ -702,7 +707,7 @@ public class GraphicsUtil {
         if (cs == ColorSpace.getInstance(ColorSpace.CS_sRGB))
             return src;
 
-        return new Any2sRGBRed(src);
+        return FusedPixelRed.fuse(new Any2sRGBRed(src));
     }
 
     /**
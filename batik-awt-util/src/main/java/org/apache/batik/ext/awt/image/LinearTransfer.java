@@ -56,8 +56,8 @@ public class LinearTransfer implements TransferFunction {
      * This method will build the lut data. Each entry's
      * value is in form of "slope*C+intercept"
      */
-    private void buildLutData(){
-        lutData = new byte [256];
+    private byte [] buildLutData(){
+        byte [] lutData = new byte [256];
         int j, value;
         float scaledInt = (intercept*255f)+0.5f;
         for (j=0; j<=255; j++){
@@ -77,6 +77,8 @@ public class LinearTransfer implements TransferFunction {
         }
 
         System.out.println();*/
+        this.lutData = lutData;
+        return lutData;
     }
 
     /**
@@ -84,7 +86,6 @@ public class LinearTransfer implements TransferFunction {
      * to construct a LookUpTable object
      */
     public byte [] getLookupTable(){
-        buildLutData();
-        return lutData;
+        return buildLutData();
     }
 }
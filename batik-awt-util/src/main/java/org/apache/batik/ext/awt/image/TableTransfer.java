@@ -59,8 +59,8 @@ public class TableTransfer implements TransferFunction {
      * value will increase/decrease between the nearby
      * intervals.
      */
-    private void buildLutData(){
-        lutData = new byte [256];
+    private byte [] buildLutData(){
+        byte [] lutData = new byte [256];
         int j;
         float fi, r;
         int ffi, cfi;
@@ -84,6 +84,8 @@ public class TableTransfer implements TransferFunction {
 
         System.out.println();
         System.out.println();*/
+        this.lutData = lutData;
+        return lutData;
     }
 
     /**
@@ -91,7 +93,8 @@ public class TableTransfer implements TransferFunction {
      * to construct a LookUpTable object
      */
     public byte [] getLookupTable(){
-        buildLutData();
-        return lutData;
+        // Build into a new table so concurrent callers never see
+        // one that is only partly filled.
+        return buildLutData();
     }
 }
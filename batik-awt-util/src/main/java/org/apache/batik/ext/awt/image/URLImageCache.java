@@ -19,13 +19,20 @@
 
 package org.apache.batik.ext.awt.image;
 
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.apache.batik.ext.awt.image.renderable.Filter;
 import org.apache.batik.util.ParsedURL;
-import org.apache.batik.util.SoftReferenceCache;
 
 /**
- * This class manages a cache of soft references to Images that
- * we have already loaded.
+ * This class manages a cache of Images that we have already loaded,
+ * bounded by the memory their decoded pixels use.
  *
  * <p>
  *   Adding an image is two fold. First you add the ParsedURL, this lets
@@ -34,51 +41,197 @@ import org.apache.batik.util.SoftReferenceCache;
  * </p>
  * <p>
  *   If someone requests a ParsedURL after it has been added but before it has
- *   been put they will be blocked until the put.
+ *   been put they will be blocked until the put, so each image is
+ *   decoded once however many threads ask for it.
+ * </p>
+ * <p>
+ *   Like <code>ConcurrentTileCache</code>, the cache is split into
+ *   stripes, each with its own lock and its own share of the memory
+ *   budget, and within a stripe the least recently used images are
+ *   evicted first.  The size of an image is estimated from its bounds
+ *   as four bytes per pixel.
  * </p>
  *
  * @author <a href="mailto:thomas.deweese@kodak.com">Thomas DeWeese</a>
  * @version $Id$
  */
-public class URLImageCache extends SoftReferenceCache {
+public class URLImageCache {
+
+    /**
+     * The default memory budget: 64 megabytes.
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L*1024*1024;
+
+    /**
+     * The default number of stripes.
+     */
+    public static final int DEFAULT_STRIPES = 8;
 
     static URLImageCache theCache = new URLImageCache();
 
     public static URLImageCache getDefaultCache() { return theCache; }
 
+    private final Stripe [] stripes;
+    private volatile long maxBytes;
+
+    private final AtomicLong hits      = new AtomicLong();
+    private final AtomicLong misses    = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong bytes     = new AtomicLong();
+
     /**
      * Let people create there own caches.
      */
-    public URLImageCache() { }
+    public URLImageCache() {
+        this(DEFAULT_MAX_BYTES, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a cache holding at most <code>maxBytes</code> of decoded
+     * images, split into the default number of stripes.
+     */
+    public URLImageCache(long maxBytes) {
+        this(maxBytes, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a cache holding at most <code>maxBytes</code> of decoded
+     * images.
+     * @param maxBytes the memory budget, in bytes.
+     * @param nStripes the number of independently locked stripes,
+     *                 rounded up to a power of two.
+     */
+    public URLImageCache(long maxBytes, int nStripes) {
+        int n = 1;
+        while (n < nStripes)
+            n <<= 1;
+        stripes = new Stripe[n];
+        for (int i=0; i<n; i++)
+            stripes[i] = new Stripe();
+        setMaxBytes(maxBytes);
+    }
+
+    /**
+     * Sets the memory budget of this cache.  If the cache currently
+     * holds more than that, images are evicted as the stripes are next
+     * written to.
+     */
+    public void setMaxBytes(long maxBytes) {
+        if (maxBytes < 0)
+            maxBytes = 0;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the memory budget of this cache, in bytes.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /** Returns the number of requests that found their image. */
+    public long getHitCount()      { return hits.get(); }
+
+    /** Returns the number of requests that had to load the image. */
+    public long getMissCount()     { return misses.get(); }
+
+    /** Returns the number of images dropped to stay within budget. */
+    public long getEvictionCount() { return evictions.get(); }
+
+    /** Returns the memory currently used by the cached images. */
+    public long getByteCount()     { return bytes.get(); }
+
+    /**
+     * Returns the number of images currently cached or being loaded.
+     */
+    public int getImageCount() {
+        int ret = 0;
+        for (int i=0; i<stripes.length; i++) {
+            Stripe s = stripes[i];
+            synchronized (s) {
+                ret += s.map.size();
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Let people flush the cache (remove any cached data).  Pending
+     * requests will be treated as though clear() was called on the
+     * ParsedURL, this should cause them to go and re-read the data.
+     */
+    public void flush() {
+        List removed = new ArrayList();
+        for (int i=0; i<stripes.length; i++) {
+            Stripe s = stripes[i];
+            synchronized (s) {
+                Iterator iter = s.map.values().iterator();
+                while (iter.hasNext()) {
+                    Entry e = (Entry)iter.next();
+                    iter.remove();
+                    release(s, e);
+                    removed.add(e);
+                }
+            }
+        }
+        for (Object aRemoved : removed) {
+            ((Entry) aRemoved).cancel();
+        }
+    }
 
     /**
      * Check if <code>request(url)</code> will return with a Filter
      * (not putting you on the hook for it).  Note that it is possible
      * that this will return true but between this call and the call
-     * to request the soft-reference will be cleared.  So it
+     * to request the image will be evicted.  So it
      * is still possible for request to return NULL, just much less
-     * likely (you can always call 'clear' in that case). 
+     * likely (you can always call 'clear' in that case).
      */
-    public synchronized boolean isPresent(ParsedURL purl) {
-        return super.isPresentImpl(purl);
+    public boolean isPresent(ParsedURL purl) {
+        Stripe s = stripeFor(purl);
+        synchronized (s) {
+            return s.map.containsKey(purl);
+        }
     }
 
     /**
      * Check if <code>request(url)</code> will return immediately with the
      * Filter.  Note that it is possible that this will return
      * true but between this call and the call to request the
-     * soft-reference will be cleared.
+     * image will be evicted.
      */
-    public synchronized boolean isDone(ParsedURL purl) {
-        return super.isDoneImpl(purl);
+    public boolean isDone(ParsedURL purl) {
+        Stripe s = stripeFor(purl);
+        synchronized (s) {
+            Entry e = (Entry)s.map.get(purl);
+            return (e != null) && (e.bytes >= 0);
+        }
     }
 
     /**
      * If this returns null then you are now 'on the hook'.
      * to put the Filter associated with ParsedURL into the
      * cache.  */
-    public synchronized Filter request(ParsedURL purl) {
-        return (Filter)super.requestImpl(purl);
+    public Filter request(ParsedURL purl) {
+        Stripe s = stripeFor(purl);
+        for (;;) {
+            Entry e;
+            synchronized (s) {
+                e = (Entry)s.map.get(purl);
+                if (e == null) {
+                    // So now the caller get's the hot potato.
+                    s.map.put(purl, new Entry());
+                    misses.incrementAndGet();
+                    return null;
+                }
+            }
+            Filter ret = e.await();
+            if (ret != null) {
+                hits.incrementAndGet();
+                return ret;
+            }
+            // The entry was cleared before it was put, try again.
+        }
     }
 
     /**
@@ -86,18 +239,133 @@ public class URLImageCache extends SoftReferenceCache {
      * This is the easiest way to 'get off the hook'.
      * if you didn't indend to get on it.
      */
-    public synchronized void clear(ParsedURL purl) {
-        super.clearImpl(purl);
+    public void clear(ParsedURL purl) {
+        Stripe s = stripeFor(purl);
+        Entry e;
+        synchronized (s) {
+            e = (Entry)s.map.remove(purl);
+            if (e == null)
+                return;
+            release(s, e);
+        }
+        e.cancel();
     }
 
     /**
-     * Associate bi with purl.  bi is only referenced through
-     * a soft reference so don't rely on the cache to keep it
-     * around.  If the map no longer contains our purl it was
-     * probably cleared or flushed since we were put on the hook
-     * for it, so in that case we will do nothing.
+     * Associate filt with purl.  If the map no longer contains our
+     * purl it was probably cleared or flushed since we were put on
+     * the hook for it, so in that case we will do nothing.  Putting
+     * null is the same as clearing purl.
      */
-    public synchronized void put(ParsedURL purl, Filter filt) {
-        super.putImpl(purl, filt);
+    public void put(ParsedURL purl, Filter filt) {
+        if (filt == null) {
+            clear(purl);
+            return;
+        }
+
+        // This may wait for the image header to be read.
+        long b = getBytes(filt);
+
+        Stripe s = stripeFor(purl);
+        long limit = maxBytes/stripes.length;
+        Entry e;
+        List evicted = null;
+        synchronized (s) {
+            e = (Entry)s.map.get(purl);
+            if (e == null)
+                return;
+            if (e.bytes >= 0) {
+                // Already put, replace it with a new entry.
+                release(s, e);
+                e = new Entry();
+                s.map.put(purl, e);
+            }
+            e.bytes = b;
+            s.bytes += b;
+            bytes.addAndGet(b);
+
+            // Keep the image just put even if it alone is over budget,
+            // and the ones still being loaded.
+            Iterator i = s.map.values().iterator();
+            while ((s.bytes > limit) && i.hasNext()) {
+                Entry eldest = (Entry)i.next();
+                if ((eldest == e) || (eldest.bytes < 0))
+                    continue;
+                i.remove();
+                release(s, eldest);
+                evictions.incrementAndGet();
+            }
+        }
+        e.complete(filt);
+    }
+
+    /**
+     * Returns the approximate number of bytes used by the decoded
+     * pixels of <code>filt</code>: four bytes per pixel of its bounds.
+     */
+    public static long getBytes(Filter filt) {
+        Rectangle2D r = filt.getBounds2D();
+        if (r == null)
+            return 0;
+        return 4 * (long)Math.ceil(r.getWidth()) *
+            (long)Math.ceil(r.getHeight());
+    }
+
+    private void release(Stripe s, Entry e) {
+        if (e.bytes < 0)
+            return;
+        s.bytes -= e.bytes;
+        bytes.addAndGet(-e.bytes);
+    }
+
+    private Stripe stripeFor(ParsedURL purl) {
+        int h = purl.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (stripes.length-1)];
+    }
+
+    /**
+     * One independently locked part of the cache.  The map is kept in
+     * access order so its first entry is the least recently used.
+     */
+    static class Stripe {
+        final Map map = new LinkedHashMap(16, 0.75f, true);
+        long bytes;
+    }
+
+    /**
+     * An image, or the promise of one while it is being loaded.  The
+     * threads requesting it meanwhile wait on the entry, not on the
+     * stripe, so other images can be requested.
+     */
+    static class Entry {
+        /**
+         * The size of the image, negative until it is put.  Guarded by
+         * the stripe.
+         */
+        long bytes = -1;
+
+        private Filter  filter;
+        private boolean cancelled;
+
+        synchronized Filter await() {
+            while ((filter == null) && !cancelled) {
+                try {
+                    // When something is cleared or put we will be notified.
+                    wait();
+                } catch (InterruptedException ie) { }
+            }
+            return filter;
+        }
+
+        synchronized void complete(Filter filter) {
+            this.filter = filter;
+            notifyAll();
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            notifyAll();
+        }
     }
 }
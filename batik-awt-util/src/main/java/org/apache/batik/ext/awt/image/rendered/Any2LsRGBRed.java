@@ -97,6 +97,24 @@ public class Any2LsRGBRed extends AbstractRed {
         // System.out.println("");
     }
 
+    /**
+     * The conversion of the fast case as a kernel.
+     */
+    private static final PixelKernel lutKernel =
+        new LookupPixelKernel(sRGBToLsRGBLut, sRGBToLsRGBLut, sRGBToLsRGBLut, null);
+
+    /**
+     * Returns the kernel that converts the pixels of an alpha
+     * sRGB source to linear sRGB, or null if the source is not such.
+     */
+    public PixelKernel getPixelKernel() {
+        CachableRed src = (CachableRed)getSources().get(0);
+        if (srcIssRGB && src.getColorModel().hasAlpha() &&
+            GraphicsUtil.is_INT_PACK_Data(getSampleModel(), true))
+            return lutKernel;
+        return null;
+    }
+
     public WritableRaster copyData(WritableRaster wr) {
         // Get my source.
         CachableRed src   = (CachableRed)getSources().get(0);
@@ -92,13 +92,18 @@ public class Any2LumRed extends AbstractRed {
             BandCombineOp op = new BandCombineOp(matrix, null);
             op.filter(srcRas, wr);
         } else {
-            WritableRaster srcWr  = (WritableRaster)srcRas;
+            WritableRaster srcWr;
 
             // Divide out alpha if we have it.  We need to do this since
             // the color convert may not be a linear operation which may
-            // lead to out of range values.
-            if (srcCM.hasAlpha())
+            // lead to out of range values.  getData may hand back a
+            // cached tile so work on a copy of it.
+            if (srcCM.hasAlpha() && srcCM.isAlphaPremultiplied()) {
+                srcWr = GraphicsUtil.copyRaster(srcRas);
                 GraphicsUtil.coerceData(srcWr, srcCM, false);
+            } else {
+                srcWr = GraphicsUtil.makeRasterWritable(srcRas);
+            }
 
             BufferedImage srcBI, dstBI;
             srcBI = new BufferedImage(srcCM,
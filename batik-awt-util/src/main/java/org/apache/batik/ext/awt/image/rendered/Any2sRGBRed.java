@@ -152,6 +152,24 @@ public class Any2sRGBRed extends AbstractRed {
         return wr;
     }
 
+    /**
+     * The conversion of the fast case as a kernel.
+     */
+    private static final PixelKernel lutKernel =
+        new LookupPixelKernel(linearToSRGBLut, linearToSRGBLut, linearToSRGBLut, null);
+
+    /**
+     * Returns the kernel that converts the pixels of an alpha
+     * linear sRGB source to sRGB, or null if the source is not such.
+     */
+    public PixelKernel getPixelKernel() {
+        CachableRed src = (CachableRed)getSources().get(0);
+        if (srcIsLsRGB && src.getColorModel().hasAlpha() &&
+            GraphicsUtil.is_INT_PACK_Data(getSampleModel(), true))
+            return lutKernel;
+        return null;
+    }
+
     public WritableRaster copyData(WritableRaster wr) {
 
         // Get my source.
@@ -257,14 +275,19 @@ public class Any2sRGBRed extends AbstractRed {
         }
 
         Raster srcRas = src.getData(wr.getBounds());
-        WritableRaster srcWr  = (WritableRaster)srcRas;
+        WritableRaster srcWr;
 
         // Divide out alpha if we have it.  We need to do this since
         // the color convert may not be a linear operation which may
-        // lead to out of range values.
+        // lead to out of range values.  getData may hand back a
+        // cached tile so work on a copy of it.
         ColorModel srcBICM = srcCM;
-        if (srcCM.hasAlpha())
+        if (srcCM.hasAlpha() && srcCM.isAlphaPremultiplied()) {
+            srcWr   = GraphicsUtil.copyRaster(srcRas);
             srcBICM = GraphicsUtil.coerceData(srcWr, srcCM, false);
+        } else {
+            srcWr = GraphicsUtil.makeRasterWritable(srcRas);
+        }
 
         BufferedImage srcBI, dstBI;
         srcBI = new BufferedImage(srcBICM,
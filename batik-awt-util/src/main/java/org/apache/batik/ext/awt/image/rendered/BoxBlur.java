@@ -0,0 +1,312 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.ext.awt.image.rendered;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Box filters over premultiplied ARGB pixels packed in an int array,
+ * three successive passes of which approximate a gaussian blur (see
+ * {@link GaussianBlurRed8Bit}).  The filters work in place: the
+ * pixels a filter still needs once overwritten are kept in a small
+ * ring buffer.<p>
+ *
+ * The horizontal filter handles whole rows and the vertical one bands
+ * of columns a row at a time, keeping the running sums of the band's
+ * columns in arrays so each row is one tight loop over independent
+ * columns.  When the area is large enough, the rows or the column
+ * bands are split among the threads of a fork/join pool: the pool the
+ * calling thread belongs to if any, so a blur computed by a tile
+ * rendering thread shares its pool, else a pool of
+ * {@link #getParallelism()} threads.
+ *
+ * @version $Id$
+ */
+public class BoxBlur {
+
+    /**
+     * The smallest number of pixels worth giving to a separate task.
+     */
+    public static final int MIN_TASK_PIXELS = 1<<15;
+
+    private static volatile int parallelism =
+        Runtime.getRuntime().availableProcessors();
+
+    private static ForkJoinPool pool;
+
+    /**
+     * Sets the number of threads used to blur large areas when the
+     * calling thread does not belong to a fork/join pool.  One blurs
+     * on the calling thread only.
+     */
+    public static synchronized void setParallelism(int p) {
+        if (p < 1)
+            p = 1;
+        if (p == parallelism)
+            return;
+        parallelism = p;
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * Returns the number of threads used to blur large areas, the
+     * number of processors by default.
+     */
+    public static int getParallelism() {
+        return parallelism;
+    }
+
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null)
+            pool = new ForkJoinPool(parallelism);
+        return pool;
+    }
+
+    /**
+     * Box filters the rows of an area in place.
+     * @param pixels the packed pixels.
+     * @param off    the index of the area's top left pixel.
+     * @param stride the distance between two rows in <code>pixels</code>.
+     * @param w      the width of the area.
+     * @param h      the height of the area.
+     * @param skipX  the number of columns left untouched on each side.
+     * @param skipY  the number of rows left untouched on each side.
+     * @param boxSz  the width of the box.
+     * @param loc    the position of the output pixel within the box.
+     */
+    public static void filterH(int [] pixels, int off, int stride,
+                               int w, int h, int skipX, int skipY,
+                               int boxSz, int loc) {
+        // Check if the area is wide enough to do _any_ work
+        if (w < (2*skipX)+boxSz) return;
+        if (h < (2*skipY))       return;
+
+        run(new Pass(pixels, off, stride, w, h, skipX, skipY,
+                     boxSz, loc, true, skipY, h-skipY));
+    }
+
+    /**
+     * Box filters the columns of an area in place.
+     * @see #filterH
+     */
+    public static void filterV(int [] pixels, int off, int stride,
+                               int w, int h, int skipX, int skipY,
+                               int boxSz, int loc) {
+        // Check if the area is tall enough to do _any_ work
+        if (w < (2*skipX))       return;
+        if (h < (2*skipY)+boxSz) return;
+
+        run(new Pass(pixels, off, stride, w, h, skipX, skipY,
+                     boxSz, loc, false, skipX, w-skipX));
+    }
+
+    private static void run(Pass p) {
+        if ((parallelism == 1) || !p.isSplittable()) {
+            p.filter();
+        } else if (ForkJoinTask.inForkJoinPool()) {
+            p.invoke();
+        } else {
+            getPool().invoke(p);
+        }
+    }
+
+    /**
+     * One box filter pass over a range of rows (horizontal pass) or of
+     * columns (vertical pass), split in two while each half still has
+     * enough pixels.
+     */
+    static class Pass extends RecursiveAction {
+        final int [] pixels;
+        final int off, stride, w, h, skipX, skipY, boxSz, loc;
+        final boolean horizontal;
+        final int start, end;
+
+        Pass(int [] pixels, int off, int stride, int w, int h,
+             int skipX, int skipY, int boxSz, int loc,
+             boolean horizontal, int start, int end) {
+            this.pixels     = pixels;
+            this.off        = off;
+            this.stride     = stride;
+            this.w          = w;
+            this.h          = h;
+            this.skipX      = skipX;
+            this.skipY      = skipY;
+            this.boxSz      = boxSz;
+            this.loc        = loc;
+            this.horizontal = horizontal;
+            this.start      = start;
+            this.end        = end;
+        }
+
+        boolean isSplittable() {
+            int len = horizontal ? w : h;
+            return (end-start)*(long)len >= 2*MIN_TASK_PIXELS;
+        }
+
+        protected void compute() {
+            if (!isSplittable()) {
+                filter();
+                return;
+            }
+            int mid = (start+end)>>>1;
+            invokeAll(new Pass(pixels, off, stride, w, h, skipX, skipY,
+                               boxSz, loc, horizontal, start, mid),
+                      new Pass(pixels, off, stride, w, h, skipX, skipY,
+                               boxSz, loc, horizontal, mid, end));
+        }
+
+        void filter() {
+            if (horizontal)
+                filterRows();
+            else
+                filterColumns();
+        }
+
+        void filterRows() {
+            final int [] buffer = new int [boxSz];
+            // Fixed point normalization factor (8.24)
+            final int scale = (1<<24)/boxSz;
+            int curr, prev;
+
+            for (int y=start; y<end; y++) {
+                int sp     = off + y*stride;
+                int dp     = sp;
+                int rowEnd = sp + (w-skipX);
+
+                int k    = 0;
+                int sumA = 0;
+                int sumR = 0;
+                int sumG = 0;
+                int sumB = 0;
+
+                sp += skipX;
+                int boxEnd = sp+boxSz;
+
+                while (sp < boxEnd) {
+                    curr = buffer[k] = pixels[sp];
+                    sumA += (curr>>> 24);
+                    sumR += (curr >> 16)&0xFF;
+                    sumG += (curr >>  8)&0xFF;
+                    sumB += (curr      )&0xFF;
+                    k++;
+                    sp++;
+                }
+
+                dp += skipX + loc;
+                prev = pixels[dp] = (( (sumA*scale)&0xFF000000)       |
+                                     (((sumR*scale)&0xFF000000)>>>8)  |
+                                     (((sumG*scale)&0xFF000000)>>>16) |
+                                     (((sumB*scale)&0xFF000000)>>>24));
+                dp++;
+                k=0;
+                while (sp < rowEnd) {
+                    curr = buffer[k];
+                    if (curr == pixels[sp]) {
+                        pixels[dp] = prev;
+                    } else {
+                        sumA -= (curr>>> 24);
+                        sumR -= (curr >> 16)&0xFF;
+                        sumG -= (curr >>  8)&0xFF;
+                        sumB -= (curr      )&0xFF;
+
+                        curr = buffer[k] = pixels[sp];
+
+                        sumA += (curr>>> 24);
+                        sumR += (curr >> 16)&0xFF;
+                        sumG += (curr >>  8)&0xFF;
+                        sumB += (curr      )&0xFF;
+                        prev = pixels[dp] =
+                            (( (sumA*scale)&0xFF000000)       |
+                             (((sumR*scale)&0xFF000000)>>>8)  |
+                             (((sumG*scale)&0xFF000000)>>>16) |
+                             (((sumB*scale)&0xFF000000)>>>24));
+                    }
+                    if (++k == boxSz) k = 0;
+                    sp++;
+                    dp++;
+                }
+            }
+        }
+
+        void filterColumns() {
+            final int bw = end-start;
+            // The last boxSz source rows of the band, the oldest at k.
+            final int [] buffer = new int [boxSz*bw];
+            final int [] sumA = new int [bw];
+            final int [] sumR = new int [bw];
+            final int [] sumG = new int [bw];
+            final int [] sumB = new int [bw];
+            // Fixed point normalization factor (8.24)
+            final int scale = (1<<24)/boxSz;
+            final int x0 = off + start;
+
+            int sp = x0 + skipY*stride;
+            for (int i=0, bp=0; i<boxSz; i++, bp+=bw, sp+=stride) {
+                for (int x=0; x<bw; x++) {
+                    int curr = buffer[bp+x] = pixels[sp+x];
+                    sumA[x] += (curr>>> 24);
+                    sumR[x] += (curr >> 16)&0xFF;
+                    sumG[x] += (curr >>  8)&0xFF;
+                    sumB[x] += (curr      )&0xFF;
+                }
+            }
+
+            int dp = x0 + (skipY + loc)*stride;
+            for (int x=0; x<bw; x++) {
+                pixels[dp+x] = (( (sumA[x]*scale)&0xFF000000)       |
+                                (((sumR[x]*scale)&0xFF000000)>>>8)  |
+                                (((sumG[x]*scale)&0xFF000000)>>>16) |
+                                (((sumB[x]*scale)&0xFF000000)>>>24));
+            }
+            dp += stride;
+
+            final int colEnd = x0 + (h-skipY)*stride;
+            int bp = 0;
+            while (sp < colEnd) {
+                for (int x=0; x<bw; x++) {
+                    int curr = buffer[bp+x];
+                    sumA[x] -= (curr>>> 24);
+                    sumR[x] -= (curr >> 16)&0xFF;
+                    sumG[x] -= (curr >>  8)&0xFF;
+                    sumB[x] -= (curr      )&0xFF;
+
+                    curr = buffer[bp+x] = pixels[sp+x];
+
+                    sumA[x] += (curr>>> 24);
+                    sumR[x] += (curr >> 16)&0xFF;
+                    sumG[x] += (curr >>  8)&0xFF;
+                    sumB[x] += (curr      )&0xFF;
+                    pixels[dp+x] = (( (sumA[x]*scale)&0xFF000000)       |
+                                    (((sumR[x]*scale)&0xFF000000)>>>8)  |
+                                    (((sumG[x]*scale)&0xFF000000)>>>16) |
+                                    (((sumB[x]*scale)&0xFF000000)>>>24));
+                }
+                bp += bw;
+                if (bp == buffer.length) bp = 0;
+                sp += stride;
+                dp += stride;
+            }
+        }
+    }
+}
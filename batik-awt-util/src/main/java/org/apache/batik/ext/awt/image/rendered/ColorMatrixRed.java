@@ -103,6 +103,13 @@ public class ColorMatrixRed extends AbstractRed{
     }
 
 
+    /**
+     * Returns the kernel that applies the matrix to a pixel.
+     */
+    public PixelKernel getPixelKernel() {
+        return new MatrixKernel(matrix);
+    }
+
     public WritableRaster copyData(WritableRaster wr){
         //System.out.println("Getting data for : " + wr.getWidth() + "/" + wr.getHeight() + "/" + wr.getMinX() + "/" + wr.getMinY());
 
@@ -144,17 +151,38 @@ public class ColorMatrixRed extends AbstractRed{
         final int scanStride =
             ((SinglePixelPackedSampleModel)wr.getSampleModel())
             .getScanlineStride();
-        final int adjust = scanStride - w;
-        int p = offset;
-        int i=0, j=0;
+        PixelKernel kernel = getPixelKernel();
+        for (int i=0; i<h; i++)
+            kernel.apply(pixels, offset + i*scanStride, w);
 
-        final float a00=matrix[0][0]/255f, a01=matrix[0][1]/255f, a02=matrix[0][2]/255f, a03=matrix[0][3]/255f, a04=matrix[0][4]/255f;
-        final float a10=matrix[1][0]/255f, a11=matrix[1][1]/255f, a12=matrix[1][2]/255f, a13=matrix[1][3]/255f, a14=matrix[1][4]/255f;
-        final float a20=matrix[2][0]/255f, a21=matrix[2][1]/255f, a22=matrix[2][2]/255f, a23=matrix[2][3]/255f, a24=matrix[2][4]/255f;
-        final float a30=matrix[3][0]/255f, a31=matrix[3][1]/255f, a32=matrix[3][2]/255f, a33=matrix[3][3]/255f, a34=matrix[3][4]/255f;
+        //System.out.println("Result is : " + wr.getWidth() + "/" + wr.getHeight()+ "/" + wr.getMinX() + "/" + wr.getMinY());
+        return wr;
+    }
 
-        for(i=0; i<h; i++){
-            for(j=0; j<w; j++){
+    /**
+     * Applies a color matrix to unpremultiplied ARGB pixels.
+     */
+    static class MatrixKernel implements PixelKernel {
+        final float a00, a01, a02, a03, a04;
+        final float a10, a11, a12, a13, a14;
+        final float a20, a21, a22, a23, a24;
+        final float a30, a31, a32, a33, a34;
+
+        MatrixKernel(float[][] matrix) {
+            a00=matrix[0][0]/255f; a01=matrix[0][1]/255f; a02=matrix[0][2]/255f; a03=matrix[0][3]/255f; a04=matrix[0][4]/255f;
+            a10=matrix[1][0]/255f; a11=matrix[1][1]/255f; a12=matrix[1][2]/255f; a13=matrix[1][3]/255f; a14=matrix[1][4]/255f;
+            a20=matrix[2][0]/255f; a21=matrix[2][1]/255f; a22=matrix[2][2]/255f; a23=matrix[2][3]/255f; a24=matrix[2][4]/255f;
+            a30=matrix[3][0]/255f; a31=matrix[3][1]/255f; a32=matrix[3][2]/255f; a33=matrix[3][3]/255f; a34=matrix[3][4]/255f;
+        }
+
+        public void apply(int [] pixels, int off, int len) {
+            final float a00=this.a00, a01=this.a01, a02=this.a02, a03=this.a03, a04=this.a04;
+            final float a10=this.a10, a11=this.a11, a12=this.a12, a13=this.a13, a14=this.a14;
+            final float a20=this.a20, a21=this.a21, a22=this.a22, a23=this.a23, a24=this.a24;
+            final float a30=this.a30, a31=this.a31, a32=this.a32, a33=this.a33, a34=this.a34;
+            final int end = off + len;
+
+            for (int p=off; p<end; p++) {
                 int pel = pixels[p];
 
                 int a = pel >>> 24;
@@ -167,12 +195,6 @@ public class ColorMatrixRed extends AbstractRed{
                 int db = (int)((a20*r + a21*g + a22*b + a23*a + a24)*255.0f);
                 int da = (int)((a30*r + a31*g + a32*b + a33*a + a34)*255.0f);
 
-                /*dr = dr > 255 ? 255 : dr < 0 ? 0 : dr;
-                dg = dg > 255 ? 255 : dg < 0 ? 0 : dg;
-                db = db > 255 ? 255 : db < 0 ? 0 : db;
-                da = da > 255 ? 255 : da < 0 ? 0 : da;*/
-
-
                 // If any high bits are set we are not in range.
                 // If the highest bit is set then we are negative so
                 // clamp to zero else we are > 255 so clamp to 255.
@@ -185,20 +207,8 @@ public class ColorMatrixRed extends AbstractRed{
                 if ((da & 0xFFFFFF00) != 0)
                     da = ((da & 0x80000000) != 0)?0:255;
 
-                pixels[p++] = (da << 24
-                               |
-                               dr << 16
-                               |
-                               dg << 8
-                               |
-                               db);
-
+                pixels[p] = (da << 24 | dr << 16 | dg << 8 | db);
             }
-            p += adjust;
         }
-
-        //System.out.println("Result is : " + wr.getWidth() + "/" + wr.getHeight()+ "/" + wr.getMinX() + "/" + wr.getMinY());
-        return wr;
     }
-
 }
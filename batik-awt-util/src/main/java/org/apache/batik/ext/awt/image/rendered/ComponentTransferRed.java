@@ -20,7 +20,9 @@ package org.apache.batik.ext.awt.image.rendered;
 
 import java.awt.RenderingHints;
 import java.awt.image.ByteLookupTable;
+import java.awt.image.DataBufferInt;
 import java.awt.image.LookupOp;
+import java.awt.image.SinglePixelPackedSampleModel;
 import java.awt.image.WritableRaster;
 
 import org.apache.batik.ext.awt.image.GraphicsUtil;
@@ -34,6 +36,11 @@ import org.apache.batik.ext.awt.image.TransferFunction;
 public class ComponentTransferRed extends AbstractRed {
     LookupOp operation;
 
+    /**
+     * The same lookup, applied directly to packed ARGB pixels.
+     */
+    LookupPixelKernel kernel;
+
     /**
      * The constructor will instantiate a LookupOp instance using
      * a LookupOp, which is built using the four LUT
@@ -64,6 +71,15 @@ public class ComponentTransferRed extends AbstractRed {
         // at least it works....
         operation  =  new LookupOp(new ByteLookupTable(0, tableData), hints)
             { };
+        kernel = new LookupPixelKernel(tableData);
+    }
+
+    /**
+     * Returns the kernel that applies the transfer functions to a
+     * pixel.
+     */
+    public PixelKernel getPixelKernel() {
+        return kernel;
     }
 
     public WritableRaster copyData(WritableRaster wr){
@@ -72,6 +88,23 @@ public class ComponentTransferRed extends AbstractRed {
         wr = src.copyData(wr);
         GraphicsUtil.coerceData(wr, src.getColorModel(), false);
 
+        if (GraphicsUtil.is_INT_PACK_Data(wr.getSampleModel(), true)) {
+            SinglePixelPackedSampleModel sppsm =
+                (SinglePixelPackedSampleModel)wr.getSampleModel();
+            DataBufferInt db = (DataBufferInt)wr.getDataBuffer();
+            int [] pixels = db.getBankData()[0];
+            int offset = (db.getOffset() +
+                          sppsm.getOffset
+                          (wr.getMinX()-wr.getSampleModelTranslateX(),
+                           wr.getMinY()-wr.getSampleModelTranslateY()));
+            int scanStride = sppsm.getScanlineStride();
+            int w = wr.getWidth();
+            int h = wr.getHeight();
+            for (int y=0; y<h; y++)
+                kernel.apply(pixels, offset + y*scanStride, w);
+            return wr;
+        }
+
         WritableRaster srcWR = wr.createWritableTranslatedChild(0,0);
 
         operation.filter(srcWR, srcWR);
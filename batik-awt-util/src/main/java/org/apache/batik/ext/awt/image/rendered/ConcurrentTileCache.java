@@ -0,0 +1,360 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.ext.awt.image.rendered;
+
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A tile cache bounded by the memory used by the cached rasters
+ * rather than by a number of tiles.  The cache is split into stripes,
+ * each with its own lock and its own share of the memory budget, so
+ * threads fetching unrelated tiles rarely wait on each other.  Within
+ * a stripe the least recently used tiles are evicted first.<p>
+ *
+ * Tiles are added through the <code>TileStore</code>s returned by
+ * <code>getTileStore</code>.  Each store belongs to a
+ * <code>Scope</code> (usually one per document being rendered) which
+ * counts the hits, misses and evictions of its tiles and can drop
+ * all of them at once.
+ *
+ * @see TileCache#setConcurrentCache
+ * @version $Id$
+ */
+public class ConcurrentTileCache {
+
+    /**
+     * The default memory budget: 32 megabytes.
+     */
+    public static final long DEFAULT_MAX_BYTES = 32L*1024*1024;
+
+    /**
+     * The default number of stripes.
+     */
+    public static final int DEFAULT_STRIPES = 16;
+
+    private final Stripe [] stripes;
+    private volatile long maxBytes;
+
+    private final AtomicLong hits      = new AtomicLong();
+    private final AtomicLong misses    = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong bytes     = new AtomicLong();
+
+    private final Scope defaultScope = new Scope(this);
+
+    /**
+     * Creates a cache with the default memory budget and stripes.
+     */
+    public ConcurrentTileCache() {
+        this(DEFAULT_MAX_BYTES, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a cache holding at most <code>maxBytes</code> of raster
+     * data, split into the default number of stripes.
+     */
+    public ConcurrentTileCache(long maxBytes) {
+        this(maxBytes, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a cache holding at most <code>maxBytes</code> of raster
+     * data.
+     * @param maxBytes the memory budget, in bytes.
+     * @param nStripes the number of independently locked stripes,
+     *                 rounded up to a power of two.
+     */
+    public ConcurrentTileCache(long maxBytes, int nStripes) {
+        int n = 1;
+        while (n < nStripes)
+            n <<= 1;
+        stripes = new Stripe[n];
+        for (int i=0; i<n; i++)
+            stripes[i] = new Stripe();
+        setMaxBytes(maxBytes);
+    }
+
+    /**
+     * Sets the memory budget of this cache.  If the cache currently
+     * holds more than that, tiles are evicted as the stripes are next
+     * written to.
+     */
+    public void setMaxBytes(long maxBytes) {
+        if (maxBytes < 0)
+            maxBytes = 0;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the memory budget of this cache, in bytes.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Creates a new scope, typically for one document.
+     */
+    public Scope createScope() {
+        return new Scope(this);
+    }
+
+    /**
+     * Returns the scope used for stores that are created without one.
+     */
+    public Scope getDefaultScope() {
+        return defaultScope;
+    }
+
+    /**
+     * Returns a tile store backed by this cache.
+     * @param source generates the tiles that are not cached.
+     * @param scope the scope the tiles are accounted to, the default
+     *              scope if null.
+     */
+    public TileStore getTileStore(TileGenerator source, Scope scope) {
+        if (scope == null)
+            scope = defaultScope;
+        else if (scope.cache != this)
+            throw new IllegalArgumentException
+                ("Scope does not belong to this cache");
+        return new ConcurrentTileStore(source, this, scope);
+    }
+
+    /** Returns the number of requests that found their tile. */
+    public long getHitCount()      { return hits.get(); }
+
+    /** Returns the number of requests that had to generate the tile. */
+    public long getMissCount()     { return misses.get(); }
+
+    /** Returns the number of tiles dropped to stay within budget. */
+    public long getEvictionCount() { return evictions.get(); }
+
+    /** Returns the memory currently used by the cached rasters. */
+    public long getByteCount()     { return bytes.get(); }
+
+    /**
+     * Returns the number of tiles currently cached.
+     */
+    public int getTileCount() {
+        int ret = 0;
+        for (int i=0; i<stripes.length; i++) {
+            Stripe s = stripes[i];
+            synchronized (s) {
+                ret += s.map.size();
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Drops every tile in the cache.
+     */
+    public void flush() {
+        removeAll(null);
+    }
+
+    /**
+     * Returns the approximate number of bytes used by the data of
+     * <code>ras</code>.
+     */
+    public static long getRasterBytes(Raster ras) {
+        DataBuffer db = ras.getDataBuffer();
+        long bits = (long)db.getSize() * db.getNumBanks() *
+            DataBuffer.getDataTypeSize(db.getDataType());
+        return (bits+7)/8;
+    }
+
+    Raster get(TileKey key, Scope scope, boolean countMiss) {
+        Stripe s = stripeFor(key);
+        Entry e;
+        synchronized (s) {
+            e = (Entry)s.map.get(key);
+        }
+        if (e != null) {
+            hits.incrementAndGet();
+            scope.hits.incrementAndGet();
+            return e.raster;
+        }
+        if (countMiss) {
+            misses.incrementAndGet();
+            scope.misses.incrementAndGet();
+        }
+        return null;
+    }
+
+    void put(TileKey key, Raster ras, Scope scope) {
+        Entry e = new Entry(ras, scope);
+        Stripe s = stripeFor(key);
+        long limit = maxBytes/stripes.length;
+        synchronized (s) {
+            Entry old = (Entry)s.map.put(key, e);
+            if (old != null)
+                release(s, old);
+            s.bytes += e.bytes;
+            bytes.addAndGet(e.bytes);
+            scope.bytes.addAndGet(e.bytes);
+
+            // Keep the tile just added even if it alone is over budget.
+            Iterator i = s.map.values().iterator();
+            while ((s.bytes > limit) && (s.map.size() > 1)) {
+                Entry eldest = (Entry)i.next();
+                i.remove();
+                release(s, eldest);
+                evictions.incrementAndGet();
+                eldest.scope.evictions.incrementAndGet();
+            }
+        }
+    }
+
+    void remove(TileKey key) {
+        Stripe s = stripeFor(key);
+        synchronized (s) {
+            Entry old = (Entry)s.map.remove(key);
+            if (old != null)
+                release(s, old);
+        }
+    }
+
+    /**
+     * Removes all the tiles of <code>scope</code>, or all tiles if
+     * <code>scope</code> is null.
+     */
+    void removeAll(Scope scope) {
+        for (int i=0; i<stripes.length; i++) {
+            Stripe s = stripes[i];
+            synchronized (s) {
+                Iterator iter = s.map.values().iterator();
+                while (iter.hasNext()) {
+                    Entry e = (Entry)iter.next();
+                    if ((scope == null) || (e.scope == scope)) {
+                        iter.remove();
+                        release(s, e);
+                    }
+                }
+            }
+        }
+    }
+
+    private void release(Stripe s, Entry e) {
+        s.bytes -= e.bytes;
+        bytes.addAndGet(-e.bytes);
+        e.scope.bytes.addAndGet(-e.bytes);
+    }
+
+    private Stripe stripeFor(TileKey key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (stripes.length-1)];
+    }
+
+    /**
+     * One independently locked part of the cache.  The map is kept in
+     * access order so its first entry is the least recently used.
+     */
+    static class Stripe {
+        final Map map = new LinkedHashMap(64, 0.75f, true);
+        long bytes;
+    }
+
+    static class Entry {
+        final Raster raster;
+        final Scope  scope;
+        final long   bytes;
+
+        Entry(Raster raster, Scope scope) {
+            this.raster = raster;
+            this.scope  = scope;
+            this.bytes  = getRasterBytes(raster);
+        }
+    }
+
+    /**
+     * Identifies a tile of a given store.  Stores are identified by
+     * number rather than referenced so cached tiles do not keep their
+     * images alive.
+     */
+    static class TileKey {
+        final long store;
+        final int x, y;
+
+        TileKey(long store, int x, int y) {
+            this.store = store;
+            this.x = x;
+            this.y = y;
+        }
+
+        public int hashCode() {
+            int h = (int)(store ^ (store >>> 32));
+            return (h*31 + x)*31 + y;
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof TileKey))
+                return false;
+            TileKey k = (TileKey)o;
+            return (k.store == store) && (k.x == x) && (k.y == y);
+        }
+    }
+
+    /**
+     * A group of tile stores sharing a cache, typically the ones
+     * created while rendering one document.  The scope keeps its own
+     * counters and can drop all of its tiles from the cache once the
+     * document is done with.
+     */
+    public static class Scope {
+        final ConcurrentTileCache cache;
+        final AtomicLong hits      = new AtomicLong();
+        final AtomicLong misses    = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+        final AtomicLong bytes     = new AtomicLong();
+
+        Scope(ConcurrentTileCache cache) {
+            this.cache = cache;
+        }
+
+        /** Returns the cache this scope belongs to. */
+        public ConcurrentTileCache getCache() { return cache; }
+
+        /** Returns the number of tile requests that hit the cache. */
+        public long getHitCount()      { return hits.get(); }
+
+        /** Returns the number of tile requests that missed the cache. */
+        public long getMissCount()     { return misses.get(); }
+
+        /** Returns the number of this scope's tiles that were evicted. */
+        public long getEvictionCount() { return evictions.get(); }
+
+        /** Returns the memory used by this scope's cached tiles. */
+        public long getByteCount()     { return bytes.get(); }
+
+        /**
+         * Drops all of this scope's tiles from the cache.
+         */
+        public void flush() {
+            cache.removeAll(this);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.ext.awt.image.rendered;
+
+import java.awt.image.Raster;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.batik.util.HaltingThread;
+
+/**
+ * A TileStore that keeps its tiles in a <code>ConcurrentTileCache</code>.
+ * It takes no lock of its own, so several threads can fetch tiles
+ * from it at once.  Two threads asking for the same missing tile may
+ * both generate it, the last one to finish is kept.
+ *
+ * @version $Id$
+ */
+public class ConcurrentTileStore implements TileStore {
+
+    private static final AtomicLong nextId = new AtomicLong();
+
+    private final long id = nextId.incrementAndGet();
+    private final TileGenerator source;
+    private final ConcurrentTileCache cache;
+    private final ConcurrentTileCache.Scope scope;
+
+    public ConcurrentTileStore(TileGenerator source,
+                               ConcurrentTileCache cache,
+                               ConcurrentTileCache.Scope scope) {
+        this.source = source;
+        this.cache  = cache;
+        this.scope  = scope;
+    }
+
+    /**
+     * Returns the scope this store's tiles are accounted to.
+     */
+    public ConcurrentTileCache.Scope getScope() {
+        return scope;
+    }
+
+    public void setTile(int x, int y, Raster ras) {
+        ConcurrentTileCache.TileKey key =
+            new ConcurrentTileCache.TileKey(id, x, y);
+        if (ras == null)
+            cache.remove(key);
+        else
+            cache.put(key, ras, scope);
+    }
+
+    public Raster getTileNoCompute(int x, int y) {
+        return cache.get(new ConcurrentTileCache.TileKey(id, x, y),
+                         scope, false);
+    }
+
+    public Raster getTile(int x, int y) {
+        ConcurrentTileCache.TileKey key =
+            new ConcurrentTileCache.TileKey(id, x, y);
+        Raster ras = cache.get(key, scope, true);
+        if (ras != null)
+            return ras;
+
+        ras = source.genTile(x, y);
+
+        // In all likelyhood the contents of this tile is junk!
+        // So don't cache it (returning is probably fine since it
+        // shouldn't come back to haunt us...)
+        if (HaltingThread.hasBeenHalted())
+            return ras;
+
+        cache.put(key, ras, scope);
+        return ras;
+    }
+}
@@ -183,8 +183,13 @@ public class DisplacementMapRed extends AbstractRed {
         // Get Raster from offsetes
         Raster     mapRas = offsets.getData(srcR);
         ColorModel mapCM  = offsets.getColorModel();
-        // ensure map isn't pre-multiplied.
-        GraphicsUtil.coerceData((WritableRaster)mapRas, mapCM, false);
+        // ensure map isn't pre-multiplied.  getData may hand back
+        // a cached tile so work on a copy of it.
+        if (mapCM.hasAlpha() && mapCM.isAlphaPremultiplied()) {
+            WritableRaster mapWr = GraphicsUtil.copyRaster(mapRas);
+            GraphicsUtil.coerceData(mapWr, mapCM, false);
+            mapRas = mapWr;
+        }
 
         TileOffsets xinfo = getXOffsets(tileX);
         TileOffsets yinfo = getYOffsets(tileY);
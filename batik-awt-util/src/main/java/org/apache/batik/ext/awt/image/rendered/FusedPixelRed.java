@@ -0,0 +1,267 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.ext.awt.image.rendered;
+
+import java.awt.Rectangle;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.batik.ext.awt.image.GraphicsUtil;
+import org.apache.batik.ext.awt.image.PadMode;
+
+/**
+ * Applies the <code>PixelKernel</code>s of a chain of per-pixel Reds,
+ * such as the <code>ColorMatrixRed</code>s and
+ * <code>ComponentTransferRed</code>s of successive filter primitives
+ * and the color space conversions between them, in a single pass.
+ * Each Red of the chain would copy the data of its source and make a
+ * pass over all of it in turn; this Red gets the data of the source
+ * of the chain once, then applies all the kernels to each row while
+ * it is in the cache.<p>
+ *
+ * Successive lookup kernels are concatenated into a single table, so
+ * for instance a conversion from linear sRGB to sRGB followed by one
+ * back to linear sRGB costs one lookup per component, and none at all
+ * if the tables cancel out.  The result is the same, to the bit, as
+ * that of the chain: see {@link #fuse}.
+ *
+ * @version $Id$
+ */
+public class FusedPixelRed extends AbstractRed {
+
+    /**
+     * The Red this one replaces, used for rasters the kernels do not
+     * handle.
+     */
+    protected CachableRed chain;
+
+    /**
+     * The kernels, in the order they are applied.
+     */
+    protected PixelKernel [] kernels;
+
+    /**
+     * The number of Reds of the chain.
+     */
+    protected int length;
+
+    /**
+     * Creates a Red applying the given kernels to the data of
+     * <code>src</code>.
+     * @param src the source of the chain.
+     * @param chain the last Red of the chain, whose layout this Red
+     *        takes and which is used for rasters that are not packed
+     *        ARGB ints.
+     * @param kernels the kernels to apply, in order.
+     * @param length the number of Reds of the chain.
+     */
+    protected FusedPixelRed(CachableRed src, CachableRed chain,
+                            PixelKernel [] kernels, int length) {
+        super(src, chain.getBounds(), chain.getColorModel(),
+              chain.getSampleModel(),
+              chain.getTileGridXOffset(), chain.getTileGridYOffset(),
+              null);
+        this.chain   = chain;
+        this.kernels = kernels;
+        this.length  = length;
+    }
+
+    /**
+     * Returns the kernels this Red applies, in order.
+     */
+    public PixelKernel [] getKernels() {
+        return kernels.clone();
+    }
+
+    /**
+     * Returns the number of Reds this one replaces.
+     */
+    public int getChainLength() {
+        return length;
+    }
+
+    /**
+     * Replaces the chain of per-pixel Reds ending with <code>cr</code>
+     * by a single <code>FusedPixelRed</code>.  The chain goes down the
+     * sources as long as they are Reds with a kernel (see
+     * {@link #getPixelKernel}) whose data are packed ARGB ints, or
+     * zero padding <code>PadRed</code>s which pad nothing, or
+     * <code>FusedPixelRed</code>s, whose chains are merged into the new
+     * one.  The Reds of the chain are left as they were, for their
+     * other users.
+     * @return the new Red, or <code>cr</code> if there is no chain of
+     *         two Reds or more to fuse.
+     */
+    public static CachableRed fuse(CachableRed cr) {
+        LinkedList kernels = new LinkedList();
+        int length = 0;
+        CachableRed src = cr;
+        while (true) {
+            if (src instanceof FusedPixelRed) {
+                FusedPixelRed fpr = (FusedPixelRed)src;
+                kernels.addAll(0, Arrays.asList(fpr.kernels));
+                length += fpr.length;
+            } else if (length > 0 && isPassThrough(src)) {
+                // Nothing to apply.
+            } else {
+                PixelKernel k = getPixelKernel(src);
+                if (k == null)
+                    break;
+                kernels.addFirst(k);
+                length++;
+            }
+            src = (CachableRed)src.getSources().get(0);
+        }
+
+        if (length < 2)
+            return cr;
+        return new FusedPixelRed(src, cr, concatenate(kernels), length);
+    }
+
+    /**
+     * Returns the kernel of a Red, if it has one and its data are
+     * packed ARGB ints, or null.
+     */
+    public static PixelKernel getPixelKernel(CachableRed cr) {
+        if (!GraphicsUtil.is_INT_PACK_Data(cr.getSampleModel(), true))
+            return null;
+        if (cr instanceof ColorMatrixRed)
+            return ((ColorMatrixRed)cr).getPixelKernel();
+        if (cr instanceof ComponentTransferRed)
+            return ((ComponentTransferRed)cr).getPixelKernel();
+        if (cr instanceof Any2LsRGBRed)
+            return ((Any2LsRGBRed)cr).getPixelKernel();
+        if (cr instanceof Any2sRGBRed)
+            return ((Any2sRGBRed)cr).getPixelKernel();
+        return null;
+    }
+
+    /**
+     * Returns true for a zero padding <code>PadRed</code> with the
+     * bounds of its source, which only copies it.
+     */
+    protected static boolean isPassThrough(CachableRed cr) {
+        if (!(cr instanceof PadRed))
+            return false;
+        PadRed pr = (PadRed)cr;
+        CachableRed src = (CachableRed)pr.getSources().get(0);
+        return (pr.padMode == PadMode.ZERO_PAD) &&
+            pr.getBounds().equals(src.getBounds()) &&
+            (pr.getColorModel() == src.getColorModel());
+    }
+
+    /**
+     * Concatenates the successive lookup kernels of the list, and drops
+     * those which change nothing.
+     */
+    protected static PixelKernel [] concatenate(List kernels) {
+        List ret = new ArrayList(kernels.size());
+        Iterator i = kernels.iterator();
+        while (i.hasNext()) {
+            PixelKernel k = (PixelKernel)i.next();
+            int last = ret.size()-1;
+            if ((k instanceof LookupPixelKernel) && (last >= 0) &&
+                (ret.get(last) instanceof LookupPixelKernel))
+                ret.set(last, LookupPixelKernel.concatenate
+                        ((LookupPixelKernel)ret.get(last),
+                         (LookupPixelKernel)k));
+            else
+                ret.add(k);
+        }
+
+        i = ret.iterator();
+        while (i.hasNext()) {
+            PixelKernel k = (PixelKernel)i.next();
+            if ((k instanceof LookupPixelKernel) &&
+                ((LookupPixelKernel)k).isIdentity())
+                i.remove();
+        }
+        return (PixelKernel [])ret.toArray(new PixelKernel[ret.size()]);
+    }
+
+    public WritableRaster copyData(WritableRaster wr) {
+        if (!GraphicsUtil.is_INT_PACK_Data(wr.getSampleModel(), true))
+            return chain.copyData(wr);
+
+        CachableRed src = (CachableRed)getSources().get(0);
+        Rectangle wrR = wr.getBounds();
+        Rectangle r = wrR.intersection(src.getBounds());
+        if (r.isEmpty()) {
+            zero(wr, wrR.x, wrR.y, wrR.width, wrR.height);
+            return wr;
+        }
+
+        WritableRaster srcWR = wr;
+        if (!r.equals(wrR))
+            srcWR = wr.createWritableChild(r.x, r.y, r.width, r.height,
+                                           r.x, r.y, null);
+        src.copyData(srcWR);
+        GraphicsUtil.coerceData(srcWR, src.getColorModel(), false);
+
+        SinglePixelPackedSampleModel sppsm =
+            (SinglePixelPackedSampleModel)wr.getSampleModel();
+        DataBufferInt db = (DataBufferInt)wr.getDataBuffer();
+        int [] pixels = db.getBankData()[0];
+        int scanStride = sppsm.getScanlineStride();
+        int offset = (db.getOffset() +
+                      sppsm.getOffset(r.x-wr.getSampleModelTranslateX(),
+                                      r.y-wr.getSampleModelTranslateY()));
+        for (int y=0; y<r.height; y++) {
+            int off = offset + y*scanStride;
+            for (int k=0; k<kernels.length; k++)
+                kernels[k].apply(pixels, off, r.width);
+        }
+
+        // Like the PadRed a chain ends with, zero what is out of bounds.
+        if (!r.equals(wrR)) {
+            zero(wr, wrR.x, wrR.y, wrR.width, r.y-wrR.y);
+            zero(wr, wrR.x, r.y, r.x-wrR.x, r.height);
+            zero(wr, r.x+r.width, r.y, wrR.x+wrR.width-r.x-r.width, r.height);
+            zero(wr, wrR.x, r.y+r.height,
+                 wrR.width, wrR.y+wrR.height-r.y-r.height);
+        }
+        return wr;
+    }
+
+    /**
+     * Clears an area of a raster of packed ints.
+     */
+    private static void zero(WritableRaster wr, int x, int y, int w, int h) {
+        if ((w <= 0) || (h <= 0))
+            return;
+        SinglePixelPackedSampleModel sppsm =
+            (SinglePixelPackedSampleModel)wr.getSampleModel();
+        DataBufferInt db = (DataBufferInt)wr.getDataBuffer();
+        int [] pixels = db.getBankData()[0];
+        int scanStride = sppsm.getScanlineStride();
+        int offset = (db.getOffset() +
+                      sppsm.getOffset(x-wr.getSampleModelTranslateX(),
+                                      y-wr.getSampleModelTranslateY()));
+        for (int i=0; i<h; i++) {
+            int off = offset + i*scanStride;
+            Arrays.fill(pixels, off, off+w, 0);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.ext.awt.image.rendered;
+
+/**
+ * A <code>PixelKernel</code> that maps each component of a pixel
+ * through a lookup table of its own, such as a component transfer or
+ * a conversion between sRGB and linear sRGB.  Two such kernels applied
+ * one after the other can be replaced by a single one with the
+ * composition of their tables, see {@link #concatenate}.
+ *
+ * @version $Id$
+ */
+public class LookupPixelKernel implements PixelKernel {
+
+    /**
+     * The table used for the components which are left unchanged.
+     */
+    private static final int [] IDENTITY = new int[256];
+    static {
+        for (int i=0; i<256; i++)
+            IDENTITY[i] = i;
+    }
+
+    protected final int [] red, green, blue, alpha;
+
+    /**
+     * Creates a kernel with the given tables, of 256 entries from 0 to
+     * 255.  A null table leaves its component unchanged.  The tables
+     * are not copied, so they must not be modified afterwards.
+     */
+    public LookupPixelKernel(int [] red, int [] green, int [] blue,
+                             int [] alpha) {
+        this.red   = (red   == null) ? IDENTITY : red;
+        this.green = (green == null) ? IDENTITY : green;
+        this.blue  = (blue  == null) ? IDENTITY : blue;
+        this.alpha = (alpha == null) ? IDENTITY : alpha;
+    }
+
+    /**
+     * Creates a kernel from the tables of a <code>ByteLookupTable</code>,
+     * in red, green, blue, alpha order, as a <code>LookupOp</code> on
+     * an ARGB raster would use them.
+     */
+    public LookupPixelKernel(byte [][] tables) {
+        this(toInt(tables[0]), toInt(tables[1]),
+             toInt(tables[2]), toInt(tables[3]));
+    }
+
+    private static int [] toInt(byte [] table) {
+        int [] ret = new int[256];
+        for (int i=0; i<256; i++)
+            ret[i] = table[i] & 0xFF;
+        return ret;
+    }
+
+    /**
+     * Returns a kernel equivalent to <code>first</code> followed by
+     * <code>second</code>.
+     */
+    public static LookupPixelKernel concatenate(LookupPixelKernel first,
+                                                LookupPixelKernel second) {
+        return new LookupPixelKernel(compose(first.red,   second.red),
+                                     compose(first.green, second.green),
+                                     compose(first.blue,  second.blue),
+                                     compose(first.alpha, second.alpha));
+    }
+
+    private static int [] compose(int [] first, int [] second) {
+        if (first == IDENTITY)  return second;
+        if (second == IDENTITY) return first;
+        int [] ret = new int[256];
+        for (int i=0; i<256; i++)
+            ret[i] = second[first[i]];
+        return isIdentity(ret) ? IDENTITY : ret;
+    }
+
+    private static boolean isIdentity(int [] table) {
+        if (table == IDENTITY)
+            return true;
+        for (int i=0; i<256; i++)
+            if (table[i] != i)
+                return false;
+        return true;
+    }
+
+    /**
+     * Returns true if this kernel leaves every pixel unchanged.
+     */
+    public boolean isIdentity() {
+        return isIdentity(red) && isIdentity(green) &&
+            isIdentity(blue) && isIdentity(alpha);
+    }
+
+    public void apply(int [] pixels, int off, int len) {
+        final int [] r = red, g = green, b = blue, a = alpha;
+        final int end = off + len;
+        if (a == IDENTITY) {
+            for (int p=off; p<end; p++) {
+                int pel = pixels[p];
+                pixels[p] = ((pel & 0xFF000000)           |
+                             (r[(pel >>> 16) & 0xFF] << 16) |
+                             (g[(pel >>>  8) & 0xFF] <<  8) |
+                             (b[ pel         & 0xFF]      ));
+            }
+        } else {
+            for (int p=off; p<end; p++) {
+                int pel = pixels[p];
+                pixels[p] = ((a[ pel >>> 24        ] << 24) |
+                             (r[(pel >>> 16) & 0xFF] << 16) |
+                             (g[(pel >>>  8) & 0xFF] <<  8) |
+                             (b[ pel         & 0xFF]      ));
+            }
+        }
+    }
+}
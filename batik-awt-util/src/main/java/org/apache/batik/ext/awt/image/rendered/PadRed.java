@@ -108,9 +108,12 @@ public class PadRed extends AbstractRed {
             this.bands = wr.getSampleModel().getNumBands();
         }
         public void zeroRect(Rectangle r) {
-            synchronized (this) {
-                if ((zeros == null) || (zeros.length <r.width*bands))
-                    zeros = new int[r.width*bands];
+            // Use a local reference, another thread may replace the
+            // shared array with one that is too short for us.
+            int [] zeros = ZeroRecter.zeros;
+            if ((zeros == null) || (zeros.length <r.width*bands)) {
+                zeros = new int[r.width*bands];
+                ZeroRecter.zeros = zeros;
             }
 
             for (int y=0; y<r.height; y++) {
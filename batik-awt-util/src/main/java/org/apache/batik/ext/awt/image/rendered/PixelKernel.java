@@ -0,0 +1,38 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.ext.awt.image.rendered;
+
+/**
+ * An operation on each pixel of an image, independent of the other
+ * pixels, such as a color matrix or a component transfer.  The
+ * pixels are unpremultiplied ARGB packed in ints.  The Reds that
+ * implement such an operation return it from their
+ * <code>getPixelKernel</code> method so that {@link FusedPixelRed}
+ * can apply a chain of them in a single pass over the pixels.
+ *
+ * @version $Id$
+ */
+public interface PixelKernel {
+
+    /**
+     * Applies the operation in place to <code>len</code> pixels of
+     * <code>pixels</code>, starting at <code>off</code>.
+     */
+    void apply(int [] pixels, int off, int len);
+}
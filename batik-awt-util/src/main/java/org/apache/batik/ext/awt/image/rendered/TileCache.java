@@ -21,26 +21,94 @@ package org.apache.batik.ext.awt.image.rendered;
 import java.awt.image.RenderedImage;
 
 /**
+ * Creates the <code>TileStore</code>s used by the tiled images.  By
+ * default the stores share one LRU cache limited to a number of tiles.
+ * When a <code>ConcurrentTileCache</code> is installed with
+ * <code>setConcurrentCache</code> the stores created afterwards keep
+ * their tiles in it instead, accounted to the scope set on the
+ * creating thread with <code>setScope</code>.
  *
  * @version $Id$
  */
 public class TileCache {
         private static LRUCache cache = new LRUCache(50);
 
+        private static volatile ConcurrentTileCache concurrentCache = null;
+
+        private static final ThreadLocal scope = new ThreadLocal();
+
         public static void setSize(int sz) { cache.setSize(sz); }
 
+        /**
+         * Installs the cache used by the tile stores created from now
+         * on, or goes back to the LRU cache if <code>c</code> is null.
+         * Existing stores keep using the cache they were created with.
+         */
+        public static void setConcurrentCache(ConcurrentTileCache c) {
+                concurrentCache = c;
+        }
+
+        /**
+         * Returns the installed concurrent cache, null if the LRU cache
+         * is used.
+         */
+        public static ConcurrentTileCache getConcurrentCache() {
+                return concurrentCache;
+        }
+
+        /**
+         * Sets the scope that tile stores created by the current thread
+         * are accounted to.  A scope that does not belong to the
+         * installed cache is ignored.
+         * @param s the new scope, null for the cache's default scope.
+         * @return the previous scope of the current thread.
+         */
+        public static ConcurrentTileCache.Scope setScope
+                (ConcurrentTileCache.Scope s) {
+                ConcurrentTileCache.Scope ret = getScope();
+                if (s == null)
+                        scope.remove();
+                else
+                        scope.set(s);
+                return ret;
+        }
+
+        /**
+         * Returns the scope of the current thread, possibly null.
+         */
+        public static ConcurrentTileCache.Scope getScope() {
+                return (ConcurrentTileCache.Scope)scope.get();
+        }
+
         public static TileStore getTileGrid(int minTileX, int minTileY,
                                        int xSz, int ySz, TileGenerator src) {
+                ConcurrentTileCache c = concurrentCache;
+                if (c != null)
+                        return getConcurrentStore(c, src);
                 return new TileGrid(minTileX, minTileY, xSz, ySz, src, cache);
         }
 
         public static TileStore getTileGrid(RenderedImage img,
                                             TileGenerator src) {
+                ConcurrentTileCache c = concurrentCache;
+                if (c != null)
+                        return getConcurrentStore(c, src);
                 return new TileGrid(img.getMinTileX(),  img.getMinTileY(),
                             img.getNumXTiles(), img.getNumYTiles(),
                             src, cache);
         }
         public static TileStore getTileMap(TileGenerator src) {
+                ConcurrentTileCache c = concurrentCache;
+                if (c != null)
+                        return getConcurrentStore(c, src);
                 return new TileMap(src, cache);
         }
+
+        private static TileStore getConcurrentStore(ConcurrentTileCache c,
+                                                    TileGenerator src) {
+                ConcurrentTileCache.Scope s = getScope();
+                if ((s != null) && (s.getCache() != c))
+                        s = null;
+                return c.getTileStore(src, s);
+        }
 }
@@ -53,7 +53,7 @@ public class TileGrid implements TileStore {
         rasters = new TileLRUMember[ySz][];
     }
 
-    public void setTile(int x, int y, Raster ras) {
+    public synchronized void setTile(int x, int y, Raster ras) {
         x-= minTileX;
         y-= minTileY;
         if ((x<0) || (x>=xSz)) return;
@@ -123,21 +123,26 @@ public class TileGrid implements TileStore {
         if (COUNT) synchronized (TileGrid.class) { requests++; }
 
         Raster       ras  = null;
-        TileLRUMember [] row  = rasters[y];
         TileLRUMember    item = null;
-        if (row != null) {
-            item = row[x];
-            if (item != null)
-                ras = item.retrieveRaster();
-            else {
+        // Tiles may be requested from several threads at once, so
+        // the grid slots are claimed under a lock (the tile itself is
+        // generated outside of it).
+        synchronized (this) {
+            TileLRUMember [] row  = rasters[y];
+            if (row != null) {
+                item = row[x];
+                if (item != null)
+                    ras = item.retrieveRaster();
+                else {
+                    item = new TileLRUMember();
+                    row[x] = item;
+                }
+            } else {
+                row = new TileLRUMember[xSz];
+                rasters[y] = row;
                 item = new TileLRUMember();
                 row[x] = item;
             }
-        } else {
-            row = new TileLRUMember[xSz];
-            rasters[y] = row;
-            item = new TileLRUMember();
-            row[x] = item;
         }
 
         if (ras == null) {
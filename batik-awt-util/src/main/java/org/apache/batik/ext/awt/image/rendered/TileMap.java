@@ -34,6 +34,11 @@ public class TileMap implements TileStore {
     private static final boolean DEBUG = false;
     private static final boolean COUNT = false;
 
+    /**
+     * The tiles of this map.  Tiles may be requested from several
+     * threads at once, so all accesses synchronize on this map (but
+     * tiles are generated outside of the lock).
+     */
     private HashMap rasters=new HashMap();
 
     static class TileMapLRUMember extends TileLRUMember {
@@ -46,7 +51,9 @@ public class TileMap implements TileStore {
                 if (DEBUG) System.err.println("Cleaned: " + this);
                 TileMap tm = (TileMap)parent.get();
                 if (tm != null)
-                    tm.rasters.remove(pt);
+                    synchronized (tm.rasters) {
+                        tm.rasters.remove(pt);
+                    }
             }
         }
 
@@ -76,20 +83,25 @@ public class TileMap implements TileStore {
 
         if (ras == null) {
             // Clearing entry...
-            Object o = rasters.remove(pt);
+            Object o;
+            synchronized (rasters) {
+                o = rasters.remove(pt);
+            }
             if (o != null)
                 cache.remove((TileMapLRUMember)o);
             return;
         }
 
-        Object o = rasters.get(pt);
         TileMapLRUMember item;
-        if (o == null) {
-            item = new TileMapLRUMember(this, pt, ras);
-            rasters.put(pt, item);
-        } else {
-            item = (TileMapLRUMember)o;
-            item.setRaster(ras);
+        synchronized (rasters) {
+            Object o = rasters.get(pt);
+            if (o == null) {
+                item = new TileMapLRUMember(this, pt, ras);
+                rasters.put(pt, item);
+            } else {
+                item = (TileMapLRUMember)o;
+                item.setRaster(ras);
+            }
         }
 
         cache.add(item);
@@ -100,7 +112,10 @@ public class TileMap implements TileStore {
     // If it is not currently in the cache it returns null.
     public Raster getTileNoCompute(int x, int y) {
         Point pt = new Point(x, y);
-        Object o = rasters.get(pt);
+        Object o;
+        synchronized (rasters) {
+            o = rasters.get(pt);
+        }
         if (o == null)
             return null;
 
@@ -118,7 +133,10 @@ public class TileMap implements TileStore {
 
         Raster       ras  = null;
         Point pt = new Point(x, y);
-        Object o = rasters.get(pt);
+        Object o;
+        synchronized (rasters) {
+            o = rasters.get(pt);
+        }
         TileMapLRUMember item = null;
         if (o != null) {
             item = (TileMapLRUMember)o;
@@ -137,11 +155,15 @@ public class TileMap implements TileStore {
             if (HaltingThread.hasBeenHalted())
                 return ras;
 
-            if (item != null)
-                item.setRaster(ras);
-            else  {
-                item = new TileMapLRUMember(this, pt, ras);
-                rasters.put(pt, item);
+            synchronized (rasters) {
+                if (item == null)
+                    item = (TileMapLRUMember)rasters.get(pt);
+                if (item != null)
+                    item.setRaster(ras);
+                else  {
+                    item = new TileMapLRUMember(this, pt, ras);
+                    rasters.put(pt, item);
+                }
             }
         }
 
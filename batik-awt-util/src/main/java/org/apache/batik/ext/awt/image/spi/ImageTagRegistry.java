@@ -66,6 +66,24 @@ public class ImageTagRegistry implements ErrorConstants {
         this.imgCache= imgCache;
     }
 
+    /**
+     * Returns the cache of the images read without a color profile.
+     * The registry returned by <code>getRegistry</code> is shared by
+     * all the documents of the JVM, so its caches can be used to tune
+     * the memory budget and read the statistics of image loading.
+     */
+    public URLImageCache getImageCache() {
+        return imgCache;
+    }
+
+    /**
+     * Returns the cache of the raw images read to apply a color
+     * profile to.
+     */
+    public URLImageCache getRawCache() {
+        return rawCache;
+    }
+
     /** Removes all decoded raster images from the cache.
      *  All Images will be reloaded from the original source
      *  if decoded again.
@@ -0,0 +1,147 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.batik.anim.dom.SVGDOMImplementation;
+import org.apache.batik.anim.dom.SVGOMDocument;
+import org.apache.batik.bridge.BridgeContext;
+import org.apache.batik.bridge.UserAgentAdapter;
+import org.apache.batik.css.engine.CSSEngine;
+import org.apache.batik.css.engine.CSSStylableElement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+/**
+ * Measures the CSS cascade: the computation of the cascaded style maps
+ * of all the elements of a document, and of all their computed
+ * property values.  Each invocation runs on a freshly parsed document
+ * with a new {@link CSSEngine}, as computed styles are kept by the
+ * elements.
+ *
+ * @version $Id$
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CascadeBenchmark {
+
+    @Param({ "samples/anne.svg",
+             "samples/mapWaadt.svg",
+             "samples/batikFX.svg",
+             "test-resources/org/apache/batik/transcoder/image/resources/butterfly.svg" })
+    public String file;
+
+    protected BridgeContext ctx;
+
+    protected CSSEngine engine;
+
+    protected List elements = new ArrayList();
+
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+        SVGOMDocument doc = (SVGOMDocument)Documents.parse(file);
+        SVGDOMImplementation impl =
+            (SVGDOMImplementation)doc.getImplementation();
+        ctx = new CascadeContext(doc);
+        engine = impl.createCSSEngine(doc, ctx);
+        engine.setMedia("screen");
+        doc.setCSSEngine(engine);
+        elements.clear();
+        collectElements(doc, elements);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        engine.dispose();
+        ctx.dispose();
+    }
+
+    /**
+     * Computes the cascaded style map of every element.
+     */
+    @Benchmark
+    public void cascade(Blackhole bh) {
+        for (int i = 0; i < elements.size(); i++) {
+            CSSStylableElement elt = (CSSStylableElement)elements.get(i);
+            bh.consume(engine.getCascadedStyleMap(elt, null));
+        }
+    }
+
+    /**
+     * Computes the value of every property of every element.
+     */
+    @Benchmark
+    public void computedStyles(Blackhole bh) {
+        int n = engine.getNumberOfProperties();
+        for (int i = 0; i < elements.size(); i++) {
+            CSSStylableElement elt = (CSSStylableElement)elements.get(i);
+            for (int j = 0; j < n; j++) {
+                bh.consume(engine.getComputedStyle(elt, null, j));
+            }
+        }
+    }
+
+    /**
+     * Adds the stylable elements of the given subtree to the list.
+     */
+    protected static void collectElements(Node n, List elts) {
+        if (n instanceof CSSStylableElement) {
+            elts.add(n);
+        }
+        for (Node c = n.getFirstChild(); c != null; c = c.getNextSibling()) {
+            collectElements(c, elts);
+        }
+    }
+
+    /**
+     * A bridge context bound to a document without building it, so the
+     * CSS values that depend on the document, like the default font
+     * family, can be computed.
+     */
+    protected static class CascadeContext extends BridgeContext {
+        public CascadeContext(Document doc) {
+            super(new UserAgentAdapter());
+            setDocument(doc);
+        }
+    }
+}
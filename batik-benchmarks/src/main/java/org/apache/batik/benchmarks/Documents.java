@@ -0,0 +1,151 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.benchmarks;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import org.apache.batik.anim.dom.SAXSVGDocumentFactory;
+import org.apache.batik.bridge.BridgeContext;
+import org.apache.batik.bridge.GVTBuilder;
+import org.apache.batik.bridge.UserAgentAdapter;
+import org.apache.batik.gvt.GraphicsNode;
+import org.apache.batik.util.XMLResourceDescriptor;
+
+import org.w3c.dom.svg.SVGDocument;
+
+/**
+ * Loads the documents the benchmarks run on.  The benchmark parameters
+ * name SVG files relative to the root of the Batik source tree, such
+ * as <code>samples/anne.svg</code>.  The root is given by the
+ * <code>batik.benchmarks.basedir</code> system property, or else is the
+ * current directory or its parent, whichever contains the file, so
+ * the benchmarks can be run from the source tree or from this module.
+ * The module is only built with the <code>benchmarks</code> profile:
+ * <pre>
+ *   mvn -Pbenchmarks package
+ *   java -jar batik-benchmarks/target/benchmarks.jar RenderBenchmark \
+ *        -p file=samples/sydney.svg
+ * </pre>
+ *
+ * @version $Id$
+ */
+public final class Documents {
+
+    /**
+     * The system property giving the root of the source tree.
+     */
+    public static final String BASEDIR_PROPERTY = "batik.benchmarks.basedir";
+
+    private Documents() {
+    }
+
+    /**
+     * Returns the file with the given path relative to the source tree.
+     */
+    public static File getFile(String path) throws FileNotFoundException {
+        String base = System.getProperty(BASEDIR_PROPERTY);
+        File f;
+        if (base != null) {
+            f = new File(base, path);
+        } else {
+            f = new File(path);
+            if (!f.exists()) {
+                f = new File("..", path);
+            }
+        }
+        if (!f.exists()) {
+            throw new FileNotFoundException(path);
+        }
+        return f;
+    }
+
+    /**
+     * Returns the URI of the file with the given path.
+     */
+    public static String getURI(String path) throws FileNotFoundException {
+        return getFile(path).toURI().toString();
+    }
+
+    /**
+     * Creates the factory used to parse the documents.
+     */
+    public static SAXSVGDocumentFactory createFactory() {
+        return new SAXSVGDocumentFactory
+            (XMLResourceDescriptor.getXMLParserClassName());
+    }
+
+    /**
+     * Parses the document with the given path.
+     */
+    public static SVGDocument parse(String path) throws IOException {
+        return createFactory().createSVGDocument(getURI(path));
+    }
+
+    /**
+     * Generates a drawing of the given number of rectangles, circles,
+     * paths and text, with the attributes drawings usually repeat.  A
+     * drawing of 100000 elements is about 6MB of SVG.
+     */
+    public static String createDrawing(int elements) {
+        StringBuffer sb = new StringBuffer();
+        sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\"");
+        sb.append(" width=\"1000\" height=\"1000\">\n");
+        for (int i = 0; i < elements; i++) {
+            int x = i % 1000;
+            int y = (i / 1000) % 1000;
+            switch (i % 4) {
+            case 0:
+                sb.append("<rect x=\"").append(x).append("\" y=\"").append(y);
+                sb.append("\" width=\"10\" height=\"10\" fill=\"red\"");
+                sb.append(" stroke=\"black\"/>\n");
+                break;
+            case 1:
+                sb.append("<circle cx=\"").append(x).append("\" cy=\"");
+                sb.append(y).append("\" r=\"5\" fill=\"blue\"/>\n");
+                break;
+            case 2:
+                sb.append("<path d=\"M").append(x).append(' ').append(y);
+                sb.append("l10 0l0 10z\" fill=\"none\" stroke=\"green\"/>\n");
+                break;
+            default:
+                sb.append("<g transform=\"translate(").append(x).append(',');
+                sb.append(y).append(")\"><text font-size=\"8\">");
+                sb.append(i).append("</text></g>\n");
+            }
+        }
+        sb.append("</svg>\n");
+        return sb.toString();
+    }
+
+    /**
+     * Creates the context used to build the GVT tree of a document.
+     */
+    public static BridgeContext createBridgeContext() {
+        return new BridgeContext(new UserAgentAdapter());
+    }
+
+    /**
+     * Builds the GVT tree of the given document.
+     */
+    public static GraphicsNode build(BridgeContext ctx, SVGDocument doc) {
+        return new GVTBuilder().build(ctx, doc);
+    }
+}
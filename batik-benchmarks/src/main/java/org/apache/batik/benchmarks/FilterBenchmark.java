@@ -0,0 +1,255 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.benchmarks;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.color.ColorSpace;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.batik.ext.awt.image.ARGBChannel;
+import org.apache.batik.ext.awt.image.CompositeRule;
+import org.apache.batik.ext.awt.image.DistantLight;
+import org.apache.batik.ext.awt.image.GammaTransfer;
+import org.apache.batik.ext.awt.image.IdentityTransfer;
+import org.apache.batik.ext.awt.image.Light;
+import org.apache.batik.ext.awt.image.LinearTransfer;
+import org.apache.batik.ext.awt.image.PadMode;
+import org.apache.batik.ext.awt.image.TableTransfer;
+import org.apache.batik.ext.awt.image.TransferFunction;
+import org.apache.batik.ext.awt.image.rendered.AffineRed;
+import org.apache.batik.ext.awt.image.rendered.Any2LsRGBRed;
+import org.apache.batik.ext.awt.image.rendered.Any2LumRed;
+import org.apache.batik.ext.awt.image.rendered.Any2sRGBRed;
+import org.apache.batik.ext.awt.image.rendered.BufferedImageCachableRed;
+import org.apache.batik.ext.awt.image.rendered.BumpMap;
+import org.apache.batik.ext.awt.image.rendered.CachableRed;
+import org.apache.batik.ext.awt.image.rendered.ColorMatrixRed;
+import org.apache.batik.ext.awt.image.rendered.ComponentTransferRed;
+import org.apache.batik.ext.awt.image.rendered.CompositeRed;
+import org.apache.batik.ext.awt.image.rendered.DiffuseLightingRed;
+import org.apache.batik.ext.awt.image.rendered.DisplacementMapRed;
+import org.apache.batik.ext.awt.image.rendered.FloodRed;
+import org.apache.batik.ext.awt.image.rendered.FusedPixelRed;
+import org.apache.batik.ext.awt.image.rendered.GaussianBlurRed8Bit;
+import org.apache.batik.ext.awt.image.rendered.MultiplyAlphaRed;
+import org.apache.batik.ext.awt.image.rendered.PadRed;
+import org.apache.batik.ext.awt.image.rendered.SpecularLightingRed;
+import org.apache.batik.ext.awt.image.rendered.TileRed;
+import org.apache.batik.ext.awt.image.rendered.TurbulencePatternRed;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the filter operations that back the SVG filter primitives.
+ * Each invocation creates the filter's <code>CachableRed</code> on
+ * synthetic source images of the given size, so no tile is cached
+ * from a previous invocation, and computes all of its pixels.
+ *
+ * @version $Id$
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FilterBenchmark {
+
+    @Param({ "AffineRed",
+             "ColorMatrixRed",
+             "ComponentTransferRed",
+             "CompositeRed",
+             "DiffuseLightingRed",
+             "DisplacementMapRed",
+             "FloodRed",
+             "FusedPixelRed",
+             "GaussianBlurRed8Bit",
+             "MultiplyAlphaRed",
+             "PadRed",
+             "SpecularLightingRed",
+             "TileRed",
+             "TurbulencePatternRed" })
+    public String filter;
+
+    @Param({ "512" })
+    public int size;
+
+    protected BufferedImage image1;
+
+    protected BufferedImage image2;
+
+    protected Rectangle bounds;
+
+    protected RenderingHints hints;
+
+    @Setup
+    public void setUp() {
+        bounds = new Rectangle(0, 0, size, size);
+        image1 = createImage(size, Color.red, Color.blue);
+        image2 = createImage(size, Color.yellow, Color.green);
+        hints = new RenderingHints(null);
+        hints.put(RenderingHints.KEY_INTERPOLATION,
+                  RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        createFilter();
+    }
+
+    @Benchmark
+    public Raster filter() {
+        return createFilter().getData();
+    }
+
+    /**
+     * Creates the filter to measure on new sources.
+     */
+    protected CachableRed createFilter() {
+        CachableRed src = new BufferedImageCachableRed(image1);
+        if ("AffineRed".equals(filter)) {
+            return new AffineRed
+                (src, AffineTransform.getRotateInstance
+                 (0.3, size / 2.0, size / 2.0), hints);
+        }
+        if ("ColorMatrixRed".equals(filter)) {
+            return new ColorMatrixRed(src, createMatrix());
+        }
+        if ("ComponentTransferRed".equals(filter)) {
+            return new ComponentTransferRed(src, createTransfers(), hints);
+        }
+        if ("CompositeRed".equals(filter)) {
+            List srcs = new ArrayList(2);
+            srcs.add(src);
+            srcs.add(new BufferedImageCachableRed(image2));
+            return new CompositeRed(srcs, CompositeRule.OVER);
+        }
+        if ("DiffuseLightingRed".equals(filter)) {
+            return new DiffuseLightingRed
+                (1, createLight(), new BumpMap(src, 5, 1, 1),
+                 bounds, 1, 1, true);
+        }
+        if ("DisplacementMapRed".equals(filter)) {
+            return new DisplacementMapRed
+                (src, new BufferedImageCachableRed(image2),
+                 ARGBChannel.R, ARGBChannel.G, 20, 20, hints);
+        }
+        if ("FloodRed".equals(filter)) {
+            return new FloodRed(bounds, new Color(0x80, 0x40, 0x20, 0xc0));
+        }
+        if ("FusedPixelRed".equals(filter)) {
+            // A color matrix then a component transfer in linear sRGB,
+            // as feColorMatrix and feComponentTransfer would be.
+            CachableRed cr = new Any2LsRGBRed(src);
+            cr = new ColorMatrixRed(cr, createMatrix());
+            cr = new ComponentTransferRed(cr, createTransfers(), hints);
+            return FusedPixelRed.fuse(new Any2sRGBRed(cr));
+        }
+        if ("GaussianBlurRed8Bit".equals(filter)) {
+            return new GaussianBlurRed8Bit(src, 4, hints);
+        }
+        if ("MultiplyAlphaRed".equals(filter)) {
+            return new MultiplyAlphaRed
+                (src, new Any2LumRed(new BufferedImageCachableRed(image2)));
+        }
+        if ("PadRed".equals(filter)) {
+            Rectangle r = new Rectangle(-size / 4, -size / 4,
+                                        size * 3 / 2, size * 3 / 2);
+            return new PadRed(src, r, PadMode.WRAP, hints);
+        }
+        if ("SpecularLightingRed".equals(filter)) {
+            return new SpecularLightingRed
+                (1, 20, createLight(), new BumpMap(src, 5, 1, 1),
+                 bounds, 1, 1, true);
+        }
+        if ("TileRed".equals(filter)) {
+            return new TileRed(image1.getSubimage(0, 0, 64, 64), bounds);
+        }
+        if ("TurbulencePatternRed".equals(filter)) {
+            return new TurbulencePatternRed
+                (0.05, 0.05, 4, 0, false, null, new AffineTransform(),
+                 bounds, ColorSpace.getInstance(ColorSpace.CS_LINEAR_RGB),
+                 true);
+        }
+        throw new IllegalArgumentException("Unknown filter: " + filter);
+    }
+
+    /**
+     * Creates the matrix of the color matrix filters.
+     */
+    protected static float[][] createMatrix() {
+        return new float[][] { { 0.6f, 0.3f, 0.1f, 0, 0 },
+                               { 0.2f, 0.7f, 0.1f, 0, 0 },
+                               { 0.2f, 0.2f, 0.6f, 0, 0 },
+                               { 0, 0, 0, 1, 0 } };
+    }
+
+    /**
+     * Creates the functions of the component transfer filters.
+     */
+    protected static TransferFunction[] createTransfers() {
+        return new TransferFunction[] {
+            new IdentityTransfer(),
+            new GammaTransfer(1, 2.2f, 0),
+            new LinearTransfer(0.5f, 0.25f),
+            new TableTransfer(new int[] { 0, 64, 255, 128 }) };
+    }
+
+    /**
+     * Creates the light of the lighting filters.
+     */
+    protected Light createLight() {
+        return new DistantLight(45, 45, Color.white);
+    }
+
+    /**
+     * Creates a source image with some transparency and edges.
+     */
+    protected static BufferedImage createImage(int size, Color c1, Color c2) {
+        BufferedImage img =
+            new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                           RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setPaint(new GradientPaint(0, 0, c1, size, size, c2));
+        int step = Math.max(1, size / 8);
+        for (int i = 0; i < size; i += step) {
+            g.fill(new Ellipse2D.Float(i, i / 2, step * 2, step * 3));
+            g.fill(new Ellipse2D.Float(size - i - step, i, step, step * 2));
+        }
+        g.dispose();
+        return img;
+    }
+}
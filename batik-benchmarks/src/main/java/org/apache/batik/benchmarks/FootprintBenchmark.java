@@ -0,0 +1,111 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.batik.anim.dom.SAXSVGDocumentFactory;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.w3c.dom.svg.SVGDocument;
+
+/**
+ * Measures the heap kept by the DOM of a large generated document, of
+ * rectangles, circles, paths and text with the attributes drawings
+ * usually repeat.  The retained size, in bytes, is reported as the
+ * <code>retainedBytes</code> secondary result, next to the parsing
+ * time:
+ * <pre>
+ *   java -jar batik-benchmarks/target/benchmarks.jar FootprintBenchmark
+ * </pre>
+ *
+ * @version $Id$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FootprintBenchmark {
+
+    @Param({ "10000", "100000" })
+    public int elements;
+
+    protected String content;
+
+    protected SAXSVGDocumentFactory factory;
+
+    /**
+     * The heap retained by the parsed document.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        factory = Documents.createFactory();
+        content = Documents.createDrawing(elements);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetFootprint(Footprint footprint) {
+        footprint.retainedBytes = 0;
+    }
+
+    @Benchmark
+    public SVGDocument parse(Footprint footprint) throws IOException {
+        long before = usedMemory();
+        SVGDocument doc = factory.createSVGDocument
+            ("http://example.org/footprint.svg", new StringReader(content));
+        footprint.retainedBytes = usedMemory() - before;
+        return doc;
+    }
+
+    /**
+     * Returns the heap used once the garbage has been collected.
+     */
+    protected static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            used = Math.min(used, rt.totalMemory() - rt.freeMemory());
+        }
+        return used;
+    }
+}
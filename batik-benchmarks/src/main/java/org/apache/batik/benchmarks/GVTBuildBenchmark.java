@@ -0,0 +1,91 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.batik.bridge.BridgeContext;
+import org.apache.batik.bridge.GVTBuilder;
+import org.apache.batik.gvt.GraphicsNode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.w3c.dom.svg.SVGDocument;
+
+/**
+ * Measures {@link GVTBuilder#build(BridgeContext,org.w3c.dom.Document)},
+ * which includes the CSS cascade of the document.  A document can only
+ * be built once, so each invocation runs on a freshly parsed one.
+ * A parallelism above one builds the eligible subtrees concurrently,
+ * see {@link GVTBuilder#setParallelism(int)}.
+ *
+ * @version $Id$
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GVTBuildBenchmark {
+
+    @Param({ "samples/anne.svg",
+             "samples/mapWaadt.svg",
+             "samples/batikFX.svg",
+             "test-resources/org/apache/batik/transcoder/image/resources/butterfly.svg" })
+    public String file;
+
+    @Param({ "1", "4" })
+    public int parallelism;
+
+    protected SVGDocument document;
+
+    protected BridgeContext ctx;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+        document = Documents.parse(file);
+        ctx = Documents.createBridgeContext();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        ctx.dispose();
+    }
+
+    @Benchmark
+    public GraphicsNode build() {
+        GVTBuilder builder = new GVTBuilder();
+        builder.setParallelism(parallelism);
+        return builder.build(ctx, document);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.batik.anim.dom.SAXSVGDocumentFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.w3c.dom.svg.SVGDocument;
+
+/**
+ * Measures the parsing of multi-megabyte generated documents, see
+ * {@link Documents#createDrawing(int)}, into dynamic or static
+ * documents.  Running it on two revisions compares their XML ingestion:
+ * <pre>
+ *   java -jar batik-benchmarks/target/benchmarks.jar LargeParseBenchmark
+ * </pre>
+ *
+ * @version $Id$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LargeParseBenchmark {
+
+    @Param({ "50000", "200000" })
+    public int elements;
+
+    @Param({ "false", "true" })
+    public boolean staticDocument;
+
+    protected String content;
+
+    protected SAXSVGDocumentFactory factory;
+
+    @Setup
+    public void setUp() {
+        factory = Documents.createFactory();
+        factory.setStatic(staticDocument);
+        content = Documents.createDrawing(elements);
+    }
+
+    @Benchmark
+    public SVGDocument parse() throws IOException {
+        return factory.createSVGDocument
+            ("http://example.org/large.svg", new StringReader(content));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.benchmarks;
+
+import java.awt.geom.Dimension2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.batik.bridge.BridgeContext;
+import org.apache.batik.ext.awt.image.codec.png.PNGEncodeParam;
+import org.apache.batik.ext.awt.image.codec.png.PNGImageEncoder;
+import org.apache.batik.gvt.GraphicsNode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the encoding of the rendering of a document with a
+ * {@link PNGImageEncoder}.
+ *
+ * @version $Id$
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PNGEncoderBenchmark {
+
+    @Param({ "samples/anne.svg",
+             "samples/mapWaadt.svg",
+             "samples/batikFX.svg",
+             "test-resources/org/apache/batik/transcoder/image/resources/butterfly.svg" })
+    public String file;
+
+    protected BufferedImage image;
+
+    protected ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @Setup
+    public void setUp() throws IOException {
+        BridgeContext ctx = Documents.createBridgeContext();
+        try {
+            GraphicsNode root = Documents.build(ctx, Documents.parse(file));
+            Dimension2D size = ctx.getDocumentSize();
+            image = RenderBenchmark.render
+                (root, (int)Math.ceil(size.getWidth()),
+                 (int)Math.ceil(size.getHeight()));
+        } finally {
+            ctx.dispose();
+        }
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        output.reset();
+        PNGEncodeParam param = PNGEncodeParam.getDefaultEncodeParam(image);
+        PNGImageEncoder encoder = new PNGImageEncoder(output, param);
+        encoder.encode(image);
+        return output.size();
+    }
+}
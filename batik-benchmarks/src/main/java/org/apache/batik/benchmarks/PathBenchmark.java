@@ -0,0 +1,102 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.batik.parser.AWTPathProducer;
+import org.apache.batik.parser.PackedPathProducer;
+import org.apache.batik.parser.PathParser;
+import org.apache.batik.util.SVGConstants;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Measures the creation of the shapes of all the path elements of a
+ * document from their <code>d</code> attribute, with an
+ * {@link AWTPathProducer} and with a {@link PackedPathProducer}.
+ *
+ * @version $Id$
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PathBenchmark {
+
+    @Param({ "samples/anne.svg",
+             "samples/mapWaadt.svg",
+             "samples/batikFX.svg",
+             "test-resources/org/apache/batik/transcoder/image/resources/butterfly.svg" })
+    public String file;
+
+    protected List paths = new ArrayList();
+
+    protected PathParser parser = new PathParser();
+
+    protected PackedPathProducer packedProducer = new PackedPathProducer();
+
+    @Setup
+    public void setUp() throws IOException {
+        NodeList nl = Documents.parse(file).getElementsByTagNameNS
+            (SVGConstants.SVG_NAMESPACE_URI, SVGConstants.SVG_PATH_TAG);
+        for (int i = 0; i < nl.getLength(); i++) {
+            Element e = (Element)nl.item(i);
+            paths.add(e.getAttributeNS(null, SVGConstants.SVG_D_ATTRIBUTE));
+        }
+    }
+
+    @Benchmark
+    public void awtPathProducer(Blackhole bh) {
+        for (int i = 0; i < paths.size(); i++) {
+            AWTPathProducer ph = new AWTPathProducer();
+            parser.setPathHandler(ph);
+            parser.parse((String)paths.get(i));
+            bh.consume(ph.getShape());
+        }
+    }
+
+    @Benchmark
+    public void packedPathProducer(Blackhole bh) {
+        parser.setPathHandler(packedProducer);
+        for (int i = 0; i < paths.size(); i++) {
+            parser.parse((String)paths.get(i));
+            bh.consume(packedProducer.getShape());
+        }
+    }
+}
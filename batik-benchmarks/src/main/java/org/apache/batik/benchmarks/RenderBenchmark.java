@@ -0,0 +1,109 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.benchmarks;
+
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Dimension2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.batik.bridge.BridgeContext;
+import org.apache.batik.gvt.GraphicsNode;
+import org.apache.batik.gvt.renderer.StaticRenderer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the painting of a GVT tree with a {@link StaticRenderer}, at
+ * the size of the document.  The tree is built once; each invocation
+ * paints it with a new renderer.
+ *
+ * @version $Id$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RenderBenchmark {
+
+    @Param({ "samples/anne.svg",
+             "samples/mapWaadt.svg",
+             "samples/batikFX.svg",
+             "samples/tests/spec/filters/feColorMatrix.svg",
+             "samples/tests/spec/filters/feComponentTransfer.svg",
+             "test-resources/org/apache/batik/transcoder/image/resources/butterfly.svg" })
+    public String file;
+
+    protected BridgeContext ctx;
+
+    protected GraphicsNode root;
+
+    protected int width;
+
+    protected int height;
+
+    @Setup
+    public void setUp() throws IOException {
+        ctx = Documents.createBridgeContext();
+        root = Documents.build(ctx, Documents.parse(file));
+        Dimension2D size = ctx.getDocumentSize();
+        width  = (int)Math.ceil(size.getWidth());
+        height = (int)Math.ceil(size.getHeight());
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage render() {
+        return render(root, width, height);
+    }
+
+    /**
+     * Paints the given tree into a new image of the given size.
+     */
+    public static BufferedImage render(GraphicsNode root,
+                                       int width, int height) {
+        StaticRenderer renderer = new StaticRenderer();
+        renderer.setTree(root);
+        renderer.setTransform(new AffineTransform());
+        renderer.updateOffScreen(width, height);
+        renderer.repaint(new Rectangle(0, 0, width, height));
+        BufferedImage img = renderer.getOffScreen();
+        renderer.dispose();
+        return img;
+    }
+}
@@ -370,10 +370,17 @@ public class BridgeContext implements ErrorConstants, CSSContext {
     }
 
     /**
-     * Initializes the given document.
+     * Initializes the given document.  A static document, see {@link
+     * SVGOMDocument#isStatic()}, is never built as a DYNAMIC document:
+     * its elements do not follow the changes of their attributes, so
+     * scripts and animations cannot run.  The context is then
+     * INTERACTIVE instead, whatever was set by {@link #setDynamicState}.
      */
     protected void initializeDocument(Document document) {
         SVGOMDocument doc = (SVGOMDocument)document;
+        if (doc.isStatic() && dynamicStatus == DYNAMIC) {
+            dynamicStatus = INTERACTIVE;
+        }
         CSSEngine eng = doc.getCSSEngine();
         if (eng == null) {
             SVGDOMImplementation impl;
@@ -637,7 +644,9 @@ public class BridgeContext implements ErrorConstants, CSSContext {
      * Sets the document as a STATIC, INTERACTIVE or DYNAMIC document.
      * Call this method before the build phase
      * (ie. before <code>gvtBuilder.build(...)</code>)
-     * otherwise, that will have no effect.
+     * otherwise, that will have no effect.  A static document is built
+     * INTERACTIVE when DYNAMIC is requested, see
+     * {@link #initializeDocument(Document)}.
      *
      *@param status the document dynamicStatus
      */
@@ -23,6 +23,7 @@ import java.awt.GraphicsEnvironment;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -131,7 +132,8 @@ public final class DefaultFontFamilyResolver implements FontFamilyResolver {
      * This keeps track of all the resolved font families. This is to hopefully
      * reduce the number of font family objects used.
      */
-    protected static final Map resolvedFontFamilies = new HashMap();
+    protected static final Map resolvedFontFamilies =
+        Collections.synchronizedMap(new HashMap());
 
     public AWTFontFamily resolve(String familyName, FontFace fontFace) {
         String fontName = (String)fonts.get(fontFace.getFamilyName().toLowerCase());
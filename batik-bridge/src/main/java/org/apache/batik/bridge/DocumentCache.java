@@ -0,0 +1,306 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.bridge;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.batik.anim.dom.SVGOMDocument;
+import org.apache.batik.dom.util.DocumentDescriptor;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * A cache of parsed documents that <code>DocumentLoader</code>s can
+ * share, so that documents referenced from many others, such as a
+ * sprite sheet of icons, are parsed once per JVM rather than once per
+ * <code>BridgeContext</code>.<p>
+ *
+ * The cached documents are never handed out: a document attaches the
+ * CSS engine and bridge context of the first context that uses it, and
+ * scripts may modify it.  Instead, each loader gets its own copy of
+ * the cached document, which is much cheaper to make than reading and
+ * parsing the document again.<p>
+ *
+ * The cache is bounded by the total number of nodes of the documents it
+ * holds, the least recently used documents being dropped first.  The
+ * documents whose resource may have changed since they were parsed are
+ * reloaded: see {@link #getTimestamp(String)}.
+ *
+ * @see DocumentLoader#setSharedCache
+ * @version $Id$
+ */
+public class DocumentCache {
+
+    /**
+     * The default number of nodes the cache can hold.
+     */
+    public static final int DEFAULT_MAX_NODES = 250000;
+
+    /**
+     * The cached documents indexed by URI, in access order.
+     */
+    protected final Map map = new LinkedHashMap(16, 0.75f, true);
+
+    /**
+     * The number of nodes of the cached documents.
+     */
+    protected long nodes;
+
+    /**
+     * The number of nodes the cache can hold.
+     */
+    protected long maxNodes;
+
+    protected long hits;
+    protected long misses;
+    protected long evictions;
+
+    /**
+     * Creates a cache holding the default number of nodes.
+     */
+    public DocumentCache() {
+        this(DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * Creates a cache holding at most <code>maxNodes</code> nodes.
+     */
+    public DocumentCache(long maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Sets the number of nodes the cache can hold.
+     */
+    public synchronized void setMaxNodes(long maxNodes) {
+        this.maxNodes = maxNodes;
+        evict(null);
+    }
+
+    /**
+     * Returns the number of nodes the cache can hold.
+     */
+    public synchronized long getMaxNodes() {
+        return maxNodes;
+    }
+
+    /** Returns the number of requests that found their document. */
+    public synchronized long getHitCount()      { return hits; }
+
+    /** Returns the number of requests that did not. */
+    public synchronized long getMissCount()     { return misses; }
+
+    /** Returns the number of documents dropped to stay within bounds. */
+    public synchronized long getEvictionCount() { return evictions; }
+
+    /** Returns the number of nodes of the cached documents. */
+    public synchronized long getNodeCount()     { return nodes; }
+
+    /** Returns the number of cached documents. */
+    public synchronized int getDocumentCount()  { return map.size(); }
+
+    /**
+     * Returns a copy of the document cached for the given URI, or null
+     * if there is none or if its resource changed since it was cached.
+     * @param uri the URI of the document, without fragment.
+     * @param desc the descriptor to fill with the locations of the
+     *        elements of the copy, if not null.
+     */
+    public Document getDocument(String uri, DocumentDescriptor desc) {
+        Entry e;
+        synchronized (this) {
+            e = (Entry)map.get(uri);
+            if (e == null) {
+                misses++;
+                return null;
+            }
+        }
+        if (e.timestamp != getTimestamp(uri)) {
+            synchronized (this) {
+                if (map.get(uri) == e) {
+                    map.remove(uri);
+                    nodes -= e.nodes;
+                }
+                misses++;
+            }
+            return null;
+        }
+        synchronized (this) {
+            hits++;
+        }
+        return copyDocument(e, desc);
+    }
+
+    /**
+     * Caches a copy of the given document, just parsed from the given
+     * URI.  The document itself is left to the caller.
+     * @param desc the locations of the elements of the document, or null.
+     */
+    public void putDocument(String uri, Document doc,
+                            DocumentDescriptor desc) {
+        long timestamp = getTimestamp(uri);
+        Entry e = new Entry();
+        e.timestamp = timestamp;
+        e.desc = (desc == null) ? null : new DocumentDescriptor();
+        e.document = copyDocument(doc, desc, e.desc);
+        e.nodes = countNodes(e.document);
+        synchronized (this) {
+            Entry old = (Entry)map.put(uri, e);
+            if (old != null)
+                nodes -= old.nodes;
+            nodes += e.nodes;
+            evict(e);
+        }
+    }
+
+    /**
+     * Removes the document cached for the given URI.
+     */
+    public synchronized void removeDocument(String uri) {
+        Entry e = (Entry)map.remove(uri);
+        if (e != null)
+            nodes -= e.nodes;
+    }
+
+    /**
+     * Removes all the cached documents.
+     */
+    public synchronized void flush() {
+        map.clear();
+        nodes = 0;
+    }
+
+    /**
+     * Returns a value that changes when the resource at the given URI
+     * changes, compared with the value returned when its document was
+     * cached.  This implementation returns the modification time of
+     * <code>file:</code> URIs and zero for other URIs, whose documents
+     * are kept until they are evicted or removed.  Subclasses can
+     * check other resources, such as the Last-Modified header of HTTP
+     * resources.
+     */
+    protected long getTimestamp(String uri) {
+        if (!uri.startsWith("file:"))
+            return 0;
+        try {
+            return new File(new URI(uri)).lastModified();
+        } catch (URISyntaxException ex) {
+            return 0;
+        } catch (IllegalArgumentException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * Drops the least recently used documents, but <code>keep</code>,
+     * while the cache holds too many nodes.
+     */
+    protected void evict(Entry keep) {
+        Iterator i = map.values().iterator();
+        while ((nodes > maxNodes) && i.hasNext()) {
+            Entry e = (Entry)i.next();
+            if (e == keep)
+                continue;
+            i.remove();
+            nodes -= e.nodes;
+            evictions++;
+        }
+    }
+
+    /**
+     * Copies the document of an entry.  The copies of a document are
+     * made one at a time as the document, although it is not modified,
+     * is not safe for concurrent reads.
+     */
+    protected Document copyDocument(Entry e, DocumentDescriptor desc) {
+        synchronized (e) {
+            return copyDocument(e.document, e.desc, desc);
+        }
+    }
+
+    /**
+     * Copies a document, and the locations of its elements if both
+     * descriptors are given.
+     */
+    protected static Document copyDocument(Document doc,
+                                           DocumentDescriptor srcDesc,
+                                           DocumentDescriptor desc) {
+        Document ret = (Document)doc.cloneNode(true);
+        if ((doc instanceof SVGOMDocument) && (ret instanceof SVGOMDocument))
+            ((SVGOMDocument)ret).setIsSVG12(((SVGOMDocument)doc).isSVG12());
+        if ((srcDesc != null) && (desc != null))
+            copyLocations(doc, ret, srcDesc, desc);
+        return ret;
+    }
+
+    /**
+     * Copies the locations of the elements under <code>src</code> to
+     * their copies under <code>dest</code>.
+     */
+    protected static void copyLocations(Node src, Node dest,
+                                        DocumentDescriptor srcDesc,
+                                        DocumentDescriptor desc) {
+        if (src.getNodeType() == Node.ELEMENT_NODE) {
+            Element e = (Element)src;
+            desc.setLocation((Element)dest,
+                             srcDesc.getLocationLine(e),
+                             srcDesc.getLocationColumn(e));
+        }
+        Node s = src.getFirstChild();
+        Node d = dest.getFirstChild();
+        while ((s != null) && (d != null)) {
+            // The copy may lack nodes that cannot be imported.
+            if (s.getNodeType() == d.getNodeType()) {
+                copyLocations(s, d, srcDesc, desc);
+                d = d.getNextSibling();
+            }
+            s = s.getNextSibling();
+        }
+    }
+
+    /**
+     * Returns the number of nodes in the given tree, attributes
+     * included.
+     */
+    protected static long countNodes(Node n) {
+        long ret = 1;
+        if (n.getNodeType() == Node.ELEMENT_NODE)
+            ret += n.getAttributes().getLength();
+        for (Node c = n.getFirstChild(); c != null; c = c.getNextSibling())
+            ret += countNodes(c);
+        return ret;
+    }
+
+    /**
+     * A cached document.
+     */
+    protected static class Entry {
+        Document document;
+        DocumentDescriptor desc;
+        long timestamp;
+        long nodes;
+    }
+}
@@ -33,7 +33,9 @@ import org.w3c.dom.svg.SVGDocument;
 
 /**
  * This class is responsible on loading an SVG document and
- * maintaining a cache.
+ * maintaining a cache.  When a shared <code>DocumentCache</code> is
+ * set, the documents not yet loaded by this loader are copied from it
+ * rather than parsed again.
  *
  * @author <a href="mailto:Thierry.Kormann@sophia.inria.fr">Thierry Kormann</a>
  * @version $Id$
@@ -59,6 +61,29 @@ public class DocumentLoader {
      */
     protected UserAgent userAgent;
 
+    /**
+     * The cache shared by all the document loaders, if any.
+     */
+    protected static volatile DocumentCache sharedCache;
+
+    /**
+     * Sets the cache of parsed documents shared by all the document
+     * loaders of the JVM.
+     * @param cache the cache, or null to parse the documents of each
+     *        loader separately (the default).
+     */
+    public static void setSharedCache(DocumentCache cache) {
+        sharedCache = cache;
+    }
+
+    /**
+     * Returns the cache of parsed documents shared by all the document
+     * loaders, or null.
+     */
+    public static DocumentCache getSharedCache() {
+        return sharedCache;
+    }
+
     /**
      * Constructs a new <code>DocumentLoader</code>.
      */
@@ -76,6 +101,20 @@ public class DocumentLoader {
     }
 
     public Document checkCache(String uri) {
+        uri = removeFragment(uri);
+        DocumentState state;
+        synchronized (cacheMap) {
+            state = (DocumentState)cacheMap.get(uri);
+        }
+        if (state != null)
+            return state.getDocument();
+        return null;
+    }
+
+    /**
+     * Returns the given uri without its fragment identifier.
+     */
+    protected static String removeFragment(String uri) {
         int n = uri.lastIndexOf('/');
         if (n == -1) 
             n = 0;
@@ -83,13 +122,36 @@ public class DocumentLoader {
         if (n != -1) {
             uri = uri.substring(0, n);
         }
-        DocumentState state;
+        return uri;
+    }
+
+    /**
+     * Returns a copy of the document in the shared cache, recording it
+     * in the cache of this loader, or null.
+     */
+    protected Document checkSharedCache(String uri) {
+        DocumentCache cache = sharedCache;
+        if (cache == null)
+            return null;
+        DocumentDescriptor desc = new DocumentDescriptor();
+        Document document = cache.getDocument(removeFragment(uri), desc);
+        if (document == null)
+            return null;
+        DocumentState state = new DocumentState(uri, document, desc);
         synchronized (cacheMap) {
-            state = (DocumentState)cacheMap.get(uri);
+            cacheMap.put(uri, state);
         }
-        if (state != null)
-            return state.getDocument();
-        return null;
+        return document;
+    }
+
+    /**
+     * Puts a document just parsed in the shared cache, if any.
+     */
+    protected void putSharedCache(String uri, Document document,
+                                  DocumentDescriptor desc) {
+        DocumentCache cache = sharedCache;
+        if (cache != null)
+            cache.putDocument(removeFragment(uri), document, desc);
     }
 
     /**
@@ -100,12 +162,16 @@ public class DocumentLoader {
      */
     public Document loadDocument(String uri) throws IOException {
         Document ret = checkCache(uri);
+        if (ret != null)
+            return ret;
+        ret = checkSharedCache(uri);
         if (ret != null)
             return ret;
 
         SVGDocument document = documentFactory.createSVGDocument(uri);
 
         DocumentDescriptor desc = documentFactory.getDocumentDescriptor();
+        putSharedCache(uri, document, desc);
         DocumentState state = new DocumentState(uri, document, desc);
         synchronized (cacheMap) {
             cacheMap.put(uri, state);
@@ -123,12 +189,16 @@ public class DocumentLoader {
     public Document loadDocument(String uri, InputStream is)
         throws IOException {
         Document ret = checkCache(uri);
+        if (ret != null)
+            return ret;
+        ret = checkSharedCache(uri);
         if (ret != null)
             return ret;
 
         SVGDocument document = documentFactory.createSVGDocument(uri, is);
 
         DocumentDescriptor desc = documentFactory.getDocumentDescriptor();
+        putSharedCache(uri, document, desc);
         DocumentState state = new DocumentState(uri, document, desc);
         synchronized (cacheMap) {
             cacheMap.put(uri, state);
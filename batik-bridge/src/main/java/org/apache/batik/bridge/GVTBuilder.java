@@ -18,6 +18,18 @@
  */
 package org.apache.batik.bridge;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.apache.batik.css.engine.CSSEngine;
+import org.apache.batik.css.engine.CSSStylableElement;
+import org.apache.batik.css.engine.SVGCSSEngine;
+import org.apache.batik.css.engine.value.Value;
 import org.apache.batik.gvt.CompositeGraphicsNode;
 import org.apache.batik.gvt.GraphicsNode;
 import org.apache.batik.gvt.RootGraphicsNode;
@@ -27,6 +39,8 @@ import org.apache.batik.util.SVGConstants;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
+import org.w3c.dom.css.CSSPrimitiveValue;
+import org.w3c.dom.css.CSSValue;
 
 /**
  * This class is responsible for creating a GVT tree using an SVG DOM tree.
@@ -36,11 +50,100 @@ import org.w3c.dom.Node;
  */
 public class GVTBuilder implements SVGConstants {
 
+    /**
+     * The smallest number of elements the subtrees of a container must
+     * hold together for them to be built concurrently.
+     */
+    protected static final int MIN_PARALLEL_ELEMENTS = 256;
+
+    /**
+     * The bridges of the elements a subtree built concurrently may
+     * contain.  They only read the element, its computed style and the
+     * bridge context, and keep their state in the instance returned by
+     * <code>getInstance</code>.
+     */
+    protected static final Class[] PARALLEL_BRIDGES = {
+        SVGGElementBridge.class,
+        SVGRectElementBridge.class,
+        SVGCircleElementBridge.class,
+        SVGEllipseElementBridge.class,
+        SVGLineElementBridge.class,
+        SVGPolylineElementBridge.class,
+        SVGPolygonElementBridge.class,
+        SVGPathElementBridge.class
+    };
+
+    /**
+     * The properties that must not reference other elements in a
+     * subtree built concurrently.
+     */
+    protected static final int[] REFERENCING_PROPERTIES = {
+        SVGCSSEngine.FILL_INDEX,
+        SVGCSSEngine.STROKE_INDEX,
+        SVGCSSEngine.FILTER_INDEX,
+        SVGCSSEngine.CLIP_PATH_INDEX,
+        SVGCSSEngine.MASK_INDEX,
+        SVGCSSEngine.MARKER_START_INDEX,
+        SVGCSSEngine.MARKER_MID_INDEX,
+        SVGCSSEngine.MARKER_END_INDEX
+    };
+
+    /**
+     * The number of threads used to build the GVT tree of a static
+     * document.  One (the default) builds it on the calling thread.
+     */
+    protected int parallelism = 1;
+
+    /**
+     * The pool building subtrees while a static document is built with
+     * a parallelism greater than one.
+     */
+    protected ForkJoinPool pool;
+
+    /**
+     * Whether subtrees are being built by the pool.  Their descendants
+     * are then built serially, each with its own bridge instance.
+     */
+    protected volatile boolean buildingSubtrees;
+
+    /**
+     * The sizes computed by {@link #prepareSubtree} while the document
+     * is built, indexed by element, so that the containers built
+     * serially do not walk their descendants again.
+     */
+    protected Map subtreeSizes;
+
     /**
      * Constructs a new builder.
      */
     public GVTBuilder() { }
 
+    /**
+     * Sets the number of threads used to build the GVT tree of
+     * documents whose bridge context is not interactive.  When greater
+     * than one, the sibling 'g' subtrees that only hold basic shapes
+     * and do not reference other elements are built concurrently; the
+     * CSS engine is only used by the calling thread, which computes
+     * their style beforehand, and the resulting tree is the same as
+     * when built serially.  The user agent may be queried from the
+     * threads of the pool.
+     *
+     * @param parallelism the number of threads, one to build serially.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1)
+            parallelism = 1;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the number of threads used to build the GVT tree of
+     * static documents.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
     /**
      * Builds using the specified bridge context the specified SVG document.
      *
@@ -60,6 +163,10 @@ public class GVTBuilder implements SVGConstants {
         // build the GVT tree
         DocumentBridge dBridge = ctx.getDocumentBridge();
         RootGraphicsNode rootNode = null;
+        if ((parallelism > 1) && !ctx.isInteractive()) {
+            pool = new ForkJoinPool(parallelism);
+            subtreeSizes = new IdentityHashMap();
+        }
         try {
             // create the root node
             rootNode = dBridge.createGraphicsNode(ctx, document);
@@ -89,6 +196,12 @@ public class GVTBuilder implements SVGConstants {
             ex.setGraphicsNode(rootNode);
             //ex.printStackTrace();
             throw ex; // re-throw the udpated exception
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+                subtreeSizes = null;
+            }
         }
 
         // For cursor handling
@@ -166,6 +279,10 @@ public class GVTBuilder implements SVGConstants {
     protected void buildComposite(BridgeContext ctx,
                                   Element e,
                                   CompositeGraphicsNode parentNode) {
+        if ((pool != null) && !buildingSubtrees
+                && buildCompositeConcurrently(ctx, e, parentNode)) {
+            return;
+        }
         for (Node n = e.getFirstChild(); n != null; n = n.getNextSibling()) {
             if (n.getNodeType() == Node.ELEMENT_NODE) {
                 buildGraphicsNode(ctx, (Element)n, parentNode);
@@ -173,6 +290,202 @@ public class GVTBuilder implements SVGConstants {
         }
     }
 
+    /**
+     * Builds the children of a composite Element, the eligible 'g'
+     * subtrees concurrently.  Returns false, having built nothing, when
+     * there are not enough subtrees to share between threads.
+     *
+     * @param ctx the bridge context
+     * @param e the element to build
+     * @param parentNode the composite graphics node, parent of the
+     *                   graphics node to build
+     * @exception BridgeException if an error occured while constructing
+     * the GVT tree
+     */
+    protected boolean buildCompositeConcurrently
+        (BridgeContext ctx, Element e, CompositeGraphicsNode parentNode) {
+        if (HaltingThread.hasBeenHalted()) {
+            throw new InterruptedBridgeException();
+        }
+        List children = new ArrayList();
+        int subtrees = 0;
+        int elements = 0;
+        for (Node n = e.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (n.getNodeType() != Node.ELEMENT_NODE) {
+                continue;
+            }
+            Element child = (Element)n;
+            int size = -1;
+            if (SVG_NAMESPACE_URI.equals(child.getNamespaceURI())
+                    && SVG_G_TAG.equals(child.getLocalName())) {
+                size = prepareSubtree(ctx, child);
+            }
+            if (size > 0) {
+                subtrees++;
+                elements += size;
+            }
+            children.add(size > 0 ? (Object)new SubtreeBuilder(ctx, child)
+                                  : child);
+        }
+        if ((subtrees < 2) || (elements < MIN_PARALLEL_ELEMENTS)) {
+            return false;
+        }
+
+        // build the subtrees, detached from the GVT tree
+        List tasks = new ArrayList(subtrees);
+        buildingSubtrees = true;
+        try {
+            for (Object o : children) {
+                if (o instanceof SubtreeBuilder) {
+                    tasks.add(pool.submit((SubtreeBuilder)o));
+                }
+            }
+            for (Object t : tasks) {
+                ((ForkJoinTask)t).quietlyJoin();
+            }
+        } finally {
+            buildingSubtrees = false;
+        }
+        if (HaltingThread.hasBeenHalted()) {
+            throw new InterruptedBridgeException();
+        }
+
+        // attach them in document order and build the other children
+        int i = 0;
+        for (Object o : children) {
+            if (o instanceof SubtreeBuilder) {
+                ForkJoinTask t = (ForkJoinTask)tasks.get(i++);
+                if (t.isCompletedNormally()) {
+                    GraphicsNode gn = (GraphicsNode)t.getRawResult();
+                    if (gn != null) {
+                        parentNode.getChildren().add(gn);
+                    }
+                    continue;
+                }
+                // build it again to report the error as usual
+                o = ((SubtreeBuilder)o).element;
+            }
+            buildGraphicsNode(ctx, (Element)o, parentNode);
+        }
+        return true;
+    }
+
+    /**
+     * Computes the style of the elements of the given subtree and
+     * returns their number, or -1 if the subtree cannot be built
+     * concurrently: it holds other elements than 'g' and basic shapes,
+     * or references other elements.  The size of every element walked
+     * is recorded, so each element is prepared once per document.
+     *
+     * @param ctx the bridge context
+     * @param e the root of the subtree
+     */
+    protected int prepareSubtree(BridgeContext ctx, Element e) {
+        Integer size = (Integer)subtreeSizes.get(e);
+        if (size == null) {
+            size = Integer.valueOf(computeSubtreeSize(ctx, e));
+            subtreeSizes.put(e, size);
+        }
+        return size.intValue();
+    }
+
+    /**
+     * Computes the style of the elements of the given subtree and
+     * returns their number, or -1 if the subtree cannot be built
+     * concurrently.  See {@link #prepareSubtree}.
+     */
+    protected int computeSubtreeSize(BridgeContext ctx, Element e) {
+        Bridge bridge = ctx.getBridge(e);
+        if (bridge != null) {
+            if (!isParallelBridge(bridge)
+                    || !(e instanceof CSSStylableElement)) {
+                return -1;
+            }
+            // compute every property now: the CSS engine and the
+            // style maps it fills are not thread-safe
+            CSSStylableElement elt = (CSSStylableElement)e;
+            CSSEngine eng = ctx.getCSSEngineForElement(e);
+            int n = eng.getNumberOfProperties();
+            for (int i = 0; i < n; i++) {
+                eng.getComputedStyle(elt, null, i);
+            }
+            for (int idx : REFERENCING_PROPERTIES) {
+                Value v = eng.getComputedStyle(elt, null, idx);
+                if ((v.getCssValueType() != CSSValue.CSS_PRIMITIVE_VALUE)
+                        || (v.getPrimitiveType()
+                            == CSSPrimitiveValue.CSS_URI)) {
+                    return -1;
+                }
+            }
+        }
+        int count = 1;
+        for (Node n = e.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (n.getNodeType() == Node.ELEMENT_NODE) {
+                int c = prepareSubtree(ctx, (Element)n);
+                if (c < 0) {
+                    return -1;
+                }
+                count += c;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Tells whether the given bridge can build its element concurrently.
+     */
+    protected boolean isParallelBridge(Bridge bridge) {
+        Class c = bridge.getClass();
+        for (Class pc : PARALLEL_BRIDGES) {
+            if (c == pc) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds a subtree prepared by {@link #prepareSubtree} on a thread
+     * of the pool, and returns its detached graphics node.
+     */
+    protected class SubtreeBuilder implements Callable {
+
+        /**
+         * The bridge context.
+         */
+        protected BridgeContext ctx;
+
+        /**
+         * The root of the subtree.
+         */
+        protected Element element;
+
+        /**
+         * Creates a new SubtreeBuilder.
+         */
+        public SubtreeBuilder(BridgeContext ctx, Element element) {
+            this.ctx = ctx;
+            this.element = element;
+        }
+
+        /**
+         * Builds the subtree.
+         */
+        public Object call() {
+            GraphicsNodeBridge gnBridge =
+                (GraphicsNodeBridge)ctx.getBridge(element).getInstance();
+            if (!gnBridge.getDisplay(element)) {
+                return null;
+            }
+            GraphicsNode gn = gnBridge.createGraphicsNode(ctx, element);
+            if (gn != null) {
+                buildComposite(ctx, element, (CompositeGraphicsNode)gn);
+                gnBridge.buildGraphicsNode(ctx, element, gn);
+            }
+            return gn;
+        }
+    }
+
     /**
      * Builds a 'leaf' Element.
      *
@@ -192,6 +505,10 @@ public class GVTBuilder implements SVGConstants {
         }
         // get the appropriate bridge according to the specified element
         Bridge bridge = ctx.getBridge(e);
+        if (buildingSubtrees && bridge != null) {
+            // the bridges of a static context are shared
+            bridge = bridge.getInstance();
+        }
         if (bridge instanceof GenericBridge) {
             // If it is a GenericBridge just handle it and any GenericBridge
             // descendents and return.
@@ -41,6 +41,23 @@ public class GlobalWrapper extends WindowWrapper {
      */
     public GlobalWrapper(Context context) {
         super(context);
+        defineGlobalProperties();
+    }
+
+    /**
+     * Creates a new GlobalWrapper whose prototype is the given scope of
+     * standard objects, see {@link
+     * WindowWrapper#WindowWrapper(Context,Scriptable)}.
+     */
+    public GlobalWrapper(Context context, Scriptable standardObjects) {
+        super(context, standardObjects);
+        defineGlobalProperties();
+    }
+
+    /**
+     * Defines the functions of the SVGGlobal interface.
+     */
+    protected void defineGlobalProperties() {
         String[] names = { "startMouseCapture", "stopMouseCapture" };
         this.defineFunctionProperties(names, GlobalWrapper.class,
                                       ScriptableObject.DONTENUM);
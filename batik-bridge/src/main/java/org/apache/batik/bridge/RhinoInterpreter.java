@@ -20,7 +20,6 @@ package org.apache.batik.bridge;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.io.StringReader;
 import java.io.Writer;
 import java.net.URL;
 import java.security.AccessControlContext;
@@ -94,9 +93,35 @@ public class RhinoInterpreter implements Interpreter {
     protected ScriptableObject globalObject = null;
 
     /**
-     * List of cached compiled scripts.
+     * The compiled scripts of this interpreter, when they are not
+     * cached in the shared cache.
      */
-    protected LinkedList compiledScripts = new LinkedList();
+    protected ScriptCache compiledScripts = new ScriptCache(MAX_CACHED_SCRIPTS);
+
+    /**
+     * Identifies the security domain of the scripts of this interpreter
+     * in the shared script cache: the URL of the document, whose
+     * permissions they are granted.  Null if they cannot be shared.
+     */
+    protected Object scriptDomain;
+
+    /**
+     * The cache of compiled scripts shared by all the interpreters, if
+     * any.
+     */
+    protected static volatile ScriptCache sharedScriptCache;
+
+    /**
+     * Whether the new interpreters share a sealed scope of standard
+     * objects.
+     */
+    protected static volatile boolean shareStandardObjects;
+
+    /**
+     * The standard objects shared by the interpreters, created the
+     * first time they are needed.
+     */
+    protected static ScriptableObject sharedStandardObjects;
 
     /**
      * Factory for Java wrapper objects.
@@ -161,6 +186,59 @@ public class RhinoInterpreter implements Interpreter {
         init(documentURL, imports);
     }
 
+    /**
+     * Sets the cache of compiled scripts shared by all the interpreters
+     * of the JVM.  The scripts evaluated by interpreters whose documents
+     * have the same URL, and so the same permissions, are then compiled
+     * once.
+     * @param cache the cache, or null to cache the scripts of each
+     *        interpreter separately (the default).
+     */
+    public static void setSharedScriptCache(ScriptCache cache) {
+        sharedScriptCache = cache;
+    }
+
+    /**
+     * Returns the cache of compiled scripts shared by all the
+     * interpreters, or null.
+     */
+    public static ScriptCache getSharedScriptCache() {
+        return sharedScriptCache;
+    }
+
+    /**
+     * Sets whether the interpreters created from now on share a sealed
+     * scope of standard objects, instead of initializing their own.
+     * This makes them faster to create, but the scripts can no
+     * longer modify the standard objects, such as
+     * <code>Array.prototype</code>.  The default is false.
+     */
+    public static void setShareStandardObjects(boolean share) {
+        shareStandardObjects = share;
+    }
+
+    /**
+     * Returns whether the new interpreters share a sealed scope of
+     * standard objects.
+     */
+    public static boolean getShareStandardObjects() {
+        return shareStandardObjects;
+    }
+
+    /**
+     * Returns the sealed standard objects shared by the interpreters.
+     */
+    protected static synchronized ScriptableObject
+        getSharedStandardObjects(Context cx) {
+        if (sharedStandardObjects == null) {
+            ScriptableObject so = cx.initStandardObjects(null, true);
+            // The global objects use the functions of the importer.
+            ScriptableObject.getClassPrototype(so, "JavaImporter");
+            sharedStandardObjects = so;
+        }
+        return sharedStandardObjects;
+    }
+
     protected void init(URL documentURL,
                         final ImportInfo imports)
     {
@@ -170,11 +248,19 @@ public class RhinoInterpreter implements Interpreter {
         } catch (SecurityException se) {
             rhinoClassLoader = null;
         }
+        if ((rhinoClassLoader != null) && (documentURL != null)) {
+            scriptDomain = documentURL.toExternalForm();
+        }
         ContextAction initAction = new ContextAction() {
             public Object run(Context cx) {
-                Scriptable scriptable = cx.initStandardObjects(null, false);
-                defineGlobalWrapperClass(scriptable);
-                globalObject = createGlobalObject(cx);
+                if (shareStandardObjects) {
+                    globalObject = createGlobalObject
+                        (cx, getSharedStandardObjects(cx));
+                } else {
+                    Scriptable scriptable = cx.initStandardObjects(null, false);
+                    defineGlobalWrapperClass(scriptable);
+                    globalObject = createGlobalObject(cx);
+                }
                 ClassCache cache = ClassCache.get(globalObject);
                 cache.setCachingEnabled(rhinoClassLoader != null);
                 
@@ -198,8 +284,15 @@ public class RhinoInterpreter implements Interpreter {
                     sb.append(cls);
                     sb.append(");");
                 }
-                cx.evaluateString(globalObject, sb.toString(), null, 0,
-                                  rhinoClassLoader);
+                ScriptCache scripts = sharedScriptCache;
+                if ((scripts == null) || (scriptDomain == null)) {
+                    cx.evaluateString(globalObject, sb.toString(), null, 0,
+                                      rhinoClassLoader);
+                } else {
+                    // the same imports are compiled once per domain
+                    getScript(cx, scripts, scriptDomain, sb.toString(), null)
+                        .exec(cx, globalObject);
+                }
                 return null;
             }
         };
@@ -246,6 +339,15 @@ public class RhinoInterpreter implements Interpreter {
         return new WindowWrapper(ctx);
     }
 
+    /**
+     * Creates the global object, whose prototype is the given scope of
+     * standard objects shared with other interpreters.
+     */
+    protected ScriptableObject createGlobalObject(Context ctx,
+                                                  Scriptable standardObjects) {
+        return new WindowWrapper(ctx, standardObjects);
+    }
+
     /**
      * Returns the AccessControlContext associated with this Interpreter.
      * @see org.apache.batik.script.rhino.RhinoClassLoader
@@ -289,10 +391,17 @@ public class RhinoInterpreter implements Interpreter {
         ContextAction evaluateAction = new ContextAction() {
             public Object run(Context cx) {
                 try {
-                    return cx.evaluateReader(globalObject,
-                                             scriptReader,
-                                             description,
-                                             1, rhinoClassLoader);
+                    ScriptCache cache = sharedScriptCache;
+                    if ((cache == null) || (scriptDomain == null)) {
+                        return cx.evaluateReader(globalObject,
+                                                 scriptReader,
+                                                 description,
+                                                 1, rhinoClassLoader);
+                    }
+                    Script script = getScript(cx, cache, scriptDomain,
+                                              readScript(scriptReader),
+                                              description);
+                    return script.exec(cx, globalObject);
                 } catch (IOException ioe) {
                     throw new WrappedException(ioe);
                 }
@@ -333,55 +442,15 @@ public class RhinoInterpreter implements Interpreter {
 
         ContextAction evalAction = new ContextAction() {
             public Object run(final Context cx) {
-                Script script = null;
-                Entry entry = null;
-                Iterator it = compiledScripts.iterator();
-                // between nlog(n) and log(n) because it is
-                // an AbstractSequentialList
-                while (it.hasNext()) {
-                    if ((entry = (Entry) it.next()).str.equals(scriptStr)) {
-                        // if it is not at the end, remove it because
-                        // it will change from place (it is faster
-                        // to remove it now)
-                        script = entry.script;
-                        it.remove();
-                        break;
-                    }
-                }
-
-                if (script == null) {
-                    // this script has not been compiled yet or has been
-                    // forgotten since the compilation:
-                    // compile it and store it for future use.
-
-                    PrivilegedAction compile = new PrivilegedAction() {
-                        public Object run() {
-                            try {
-                                return cx.compileReader
-                                    (new StringReader(scriptStr),
-                                     SOURCE_NAME_SVG, 1, rhinoClassLoader);
-                            } catch (IOException ioEx ) {
-                                // Should never happen: using a string
-                                throw new RuntimeException( ioEx.getMessage() );
-                            }
-                        }
-                    };
-                    script = (Script)AccessController.doPrivileged(compile);
-
-                    if (compiledScripts.size() + 1 > MAX_CACHED_SCRIPTS) {
-                        // too many cached items - we should delete the
-                        // oldest entry.  all of this is very fast on
-                        // linkedlist
-                        compiledScripts.removeFirst();
-                    }
-                    // storing is done here:
-                    compiledScripts.addLast(new Entry(scriptStr, script));
+                ScriptCache cache = sharedScriptCache;
+                Script script;
+                if ((cache == null) || (scriptDomain == null)) {
+                    script = getScript(cx, compiledScripts, null,
+                                       scriptStr, SOURCE_NAME_SVG);
                 } else {
-                    // this script has been compiled before,
-                    // just update its index so it won't get deleted soon.
-                    compiledScripts.addLast(entry);
+                    script = getScript(cx, cache, scriptDomain,
+                                       scriptStr, SOURCE_NAME_SVG);
                 }
-
                 return script.exec(cx, globalObject);
             }
         };
@@ -407,6 +476,42 @@ public class RhinoInterpreter implements Interpreter {
         }
     }
 
+    /**
+     * Returns the script compiled from the given source, taken from the
+     * given cache if it holds it, or else compiled and cached.
+     * @param domain identifies the security domain of the script in
+     *        the cache.
+     */
+    protected Script getScript(final Context cx, ScriptCache cache,
+                               Object domain, final String source,
+                               final String sourceName) {
+        Script script = cache.getScript(source, sourceName, domain);
+        if (script == null) {
+            PrivilegedAction compile = new PrivilegedAction() {
+                public Object run() {
+                    return cx.compileString(source, sourceName, 1,
+                                            rhinoClassLoader);
+                }
+            };
+            script = (Script)AccessController.doPrivileged(compile);
+            cache.putScript(source, sourceName, domain, script);
+        }
+        return script;
+    }
+
+    /**
+     * Reads the source of a script.
+     */
+    protected static String readScript(Reader r) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buf = new char[4096];
+        int n;
+        while ((n = r.read(buf)) != -1) {
+            sb.append(buf, 0, n);
+        }
+        return sb.toString();
+    }
+
     /**
      * For <code>RhinoInterpreter</code> this method flushes the
      * Rhino caches to avoid memory leaks.
@@ -560,30 +665,6 @@ public class RhinoInterpreter implements Interpreter {
         return null;
     }
 
-    /**
-     * Class to store cached compiled scripts.
-     */
-    protected static class Entry {
-
-        /**
-         * The script string.
-         */
-        public String str;
-
-        /**
-         * The compiled script.
-         */
-        public Script script;
-
-        /**
-         * Creates a new script cache entry object.
-         */
-        public Entry(String str, Script script) {
-            this.str = str;
-            this.script = script;
-        }
-    }
-
     /**
      * Factory for Context objects.
      */
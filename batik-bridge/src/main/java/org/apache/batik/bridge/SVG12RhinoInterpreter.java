@@ -66,4 +66,13 @@ public class SVG12RhinoInterpreter extends RhinoInterpreter {
     protected ScriptableObject createGlobalObject(Context ctx) {
         return new GlobalWrapper(ctx);
     }
+
+    /**
+     * Creates the global object, whose prototype is the given scope of
+     * standard objects shared with other interpreters.
+     */
+    protected ScriptableObject createGlobalObject(Context ctx,
+                                                  Scriptable standardObjects) {
+        return new GlobalWrapper(ctx, standardObjects);
+    }
 }
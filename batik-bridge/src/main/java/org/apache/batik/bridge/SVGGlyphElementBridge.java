@@ -29,6 +29,7 @@ import org.apache.batik.gvt.CompositeGraphicsNode;
 import org.apache.batik.gvt.GraphicsNode;
 import org.apache.batik.gvt.font.GVTFontFace;
 import org.apache.batik.gvt.font.Glyph;
+import org.apache.batik.gvt.font.GlyphCache;
 import org.apache.batik.gvt.text.TextPaintInfo;
 import org.apache.batik.parser.AWTPathProducer;
 import org.apache.batik.parser.ParseException;
@@ -91,23 +92,20 @@ public class SVGGlyphElementBridge extends AbstractSVGBridge
         String d = glyphElement.getAttributeNS(null, SVG_D_ATTRIBUTE);
         Shape dShape = null;
         if (d.length() != 0) {
-            AWTPathProducer app = new AWTPathProducer();
             // Glyph is supposed to use properties from text element.
-            app.setWindingRule(CSSUtilities.convertFillRule(textElement));
-            try {
-                PathParser pathParser = new PathParser();
-                pathParser.setPathHandler(app);
-                pathParser.parse(d);
-            } catch (ParseException pEx) {
-                throw new BridgeException(ctx, glyphElement,
-                                          pEx, ERR_ATTRIBUTE_VALUE_MALFORMED,
-                                          new Object [] {SVG_D_ATTRIBUTE});
-            } finally {
-                // transform the shape into the correct coord system
-                Shape shape = app.getShape();
-                Shape transformedShape
-                    = scaleTransform.createTransformedShape(shape);
-                dShape = transformedShape;
+            int windingRule = CSSUtilities.convertFillRule(textElement);
+
+            // The outline only depends on the path data, the fill rule
+            // and the scale, so it is shared by all the glyphs, of any
+            // font and document, that have the same.
+            GlyphCache cache = GlyphCache.getDefaultCache();
+            GlyphCache.Key key = new GlyphCache.Key(d, scale, null, windingRule);
+            dShape = (Shape)cache.get(key);
+            if (dShape == null) {
+                dShape = createGlyphShape(ctx, glyphElement, d, windingRule,
+                                          scaleTransform);
+                dShape = (Shape)cache.put(key, dShape,
+                                          GlyphCache.getBytes(dShape));
             }
         }
 
@@ -325,4 +323,26 @@ public class SVGGlyphElementBridge extends AbstractSVGBridge
                          horizAdvX, vertAdvY, glyphCode,
                          tpi, dShape, glyphContentNode);
     }
+
+    /**
+     * Parses the path data of a glyph into its outline, in the
+     * coordinate system of the text.
+     */
+    protected Shape createGlyphShape(BridgeContext ctx, Element glyphElement,
+                                     String d, int windingRule,
+                                     AffineTransform scaleTransform) {
+        AWTPathProducer app = new AWTPathProducer();
+        app.setWindingRule(windingRule);
+        try {
+            PathParser pathParser = new PathParser();
+            pathParser.setPathHandler(app);
+            pathParser.parse(d);
+        } catch (ParseException pEx) {
+            throw new BridgeException(ctx, glyphElement,
+                                      pEx, ERR_ATTRIBUTE_VALUE_MALFORMED,
+                                      new Object [] {SVG_D_ATTRIBUTE});
+        }
+        // transform the shape into the correct coord system
+        return scaleTransform.createTransformedShape(app.getShape());
+    }
 }
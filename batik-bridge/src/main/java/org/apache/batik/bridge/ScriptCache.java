@@ -0,0 +1,199 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.bridge;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.mozilla.javascript.Script;
+
+/**
+ * A cache of scripts compiled by Rhino, indexed by their source, the
+ * name they were compiled with and the security domain they run in.
+ * A <code>RhinoInterpreter</code> keeps one for the scripts of its
+ * event attributes, and the interpreters of the JVM can share another
+ * one, so that a library loaded by many documents is compiled once:
+ * see {@link RhinoInterpreter#setSharedScriptCache}.<p>
+ *
+ * A compiled script does not depend on the scope it is executed in,
+ * but it keeps the security domain it was compiled for.  The security
+ * domain is therefore part of the key: it identifies the permissions
+ * the script is granted, such as the URL of its document.<p>
+ *
+ * The cache holds a bounded number of scripts, the least recently used
+ * ones being dropped first.
+ *
+ * @version $Id$
+ */
+public class ScriptCache {
+
+    /**
+     * The default number of scripts the cache can hold.
+     */
+    public static final int DEFAULT_MAX_SCRIPTS = 256;
+
+    /**
+     * The cached scripts indexed by Key, in access order.
+     */
+    protected final Map map = new LinkedHashMap(16, 0.75f, true);
+
+    /**
+     * The number of scripts the cache can hold.
+     */
+    protected int maxScripts;
+
+    protected long hits;
+    protected long misses;
+    protected long evictions;
+
+    /**
+     * Creates a cache holding the default number of scripts.
+     */
+    public ScriptCache() {
+        this(DEFAULT_MAX_SCRIPTS);
+    }
+
+    /**
+     * Creates a cache holding at most <code>maxScripts</code> scripts.
+     */
+    public ScriptCache(int maxScripts) {
+        this.maxScripts = maxScripts;
+    }
+
+    /**
+     * Sets the number of scripts the cache can hold.
+     */
+    public synchronized void setMaxScripts(int maxScripts) {
+        this.maxScripts = maxScripts;
+        evict();
+    }
+
+    /**
+     * Returns the number of scripts the cache can hold.
+     */
+    public synchronized int getMaxScripts() {
+        return maxScripts;
+    }
+
+    /** Returns the number of requests that found their script. */
+    public synchronized long getHitCount()      { return hits; }
+
+    /** Returns the number of requests that did not. */
+    public synchronized long getMissCount()     { return misses; }
+
+    /** Returns the number of scripts dropped to stay within bounds. */
+    public synchronized long getEvictionCount() { return evictions; }
+
+    /** Returns the number of cached scripts. */
+    public synchronized int getScriptCount()    { return map.size(); }
+
+    /**
+     * Returns the script compiled from the given source, or null.
+     * @param source the source of the script.
+     * @param sourceName the name the script was compiled with.
+     * @param domain identifies the security domain of the script, or
+     *        null if it was compiled without one.
+     */
+    public synchronized Script getScript(String source, String sourceName,
+                                         Object domain) {
+        Script script = (Script)map.get(new Key(source, sourceName, domain));
+        if (script == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return script;
+    }
+
+    /**
+     * Caches a script compiled from the given source.  If another
+     * thread cached the same script meanwhile, it is replaced.
+     * @param source the source of the script.
+     * @param sourceName the name the script was compiled with.
+     * @param domain identifies the security domain of the script, or
+     *        null if it was compiled without one.
+     * @param script the compiled script.
+     */
+    public synchronized void putScript(String source, String sourceName,
+                                       Object domain, Script script) {
+        map.put(new Key(source, sourceName, domain), script);
+        evict();
+    }
+
+    /**
+     * Removes all the cached scripts.
+     */
+    public synchronized void flush() {
+        map.clear();
+    }
+
+    /**
+     * Drops the least recently used scripts while the cache holds too
+     * many.
+     */
+    protected void evict() {
+        Iterator i = map.values().iterator();
+        while ((map.size() > maxScripts) && i.hasNext()) {
+            i.next();
+            i.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * The key of a cached script.  Its hash code is computed once, as
+     * the sources can be long.
+     */
+    protected static class Key {
+        String source;
+        String sourceName;
+        Object domain;
+        int hash;
+
+        Key(String source, String sourceName, Object domain) {
+            this.source = source;
+            this.sourceName = sourceName;
+            this.domain = domain;
+            hash = source.hashCode();
+            if (sourceName != null)
+                hash = hash * 31 + sourceName.hashCode();
+            if (domain != null)
+                hash = hash * 31 + domain.hashCode();
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Key))
+                return false;
+            Key k = (Key)o;
+            return (hash == k.hash)
+                && equals(domain, k.domain)
+                && equals(sourceName, k.sourceName)
+                && source.equals(k.source);
+        }
+
+        static boolean equals(Object a, Object b) {
+            return (a == null) ? (b == null) : a.equals(b);
+        }
+    }
+}
@@ -24,9 +24,11 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 
 
+import org.mozilla.javascript.ClassCache;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.Function;
 import org.mozilla.javascript.ImporterTopLevel;
+import org.mozilla.javascript.NativeJavaTopPackage;
 import org.mozilla.javascript.NativeObject;
 import org.mozilla.javascript.Scriptable;
 import org.mozilla.javascript.ScriptableObject;
@@ -62,6 +64,36 @@ public class WindowWrapper extends ImporterTopLevel {
      */
     public WindowWrapper(Context context) {
         super(context);
+        defineWindowProperties();
+    }
+
+    /**
+     * Creates a new WindowWrapper whose prototype is the given scope of
+     * sealed standard objects, shared with other global objects.  The
+     * Java packages, the classes reflected from them and the imports
+     * are kept by the new object.
+     */
+    public WindowWrapper(Context context, Scriptable standardObjects) {
+        setPrototype(standardObjects);
+        setParentScope(null);
+        new ClassCache().associate(this);
+        NativeJavaTopPackage.init(context, this, false);
+        // The importer functions store the imports in their 'this'.
+        Scriptable importer =
+            ScriptableObject.getClassPrototype(standardObjects,
+                                               "JavaImporter");
+        String[] imports = { "importClass", "importPackage" };
+        for (String name : imports) {
+            defineProperty(name, ScriptableObject.getProperty(importer, name),
+                           ScriptableObject.DONTENUM);
+        }
+        defineWindowProperties();
+    }
+
+    /**
+     * Defines the functions and properties of the Window interface.
+     */
+    protected void defineWindowProperties() {
         String[] names = { "setInterval", "setTimeout", "clearInterval",
                            "clearTimeout", "parseXML", "printNode", "getURL",
                            "postURL", "alert", "confirm", "prompt" };
@@ -44,7 +44,7 @@ import org.apache.batik.transcoder.image.TIFFTranscoder;
  * @version $Id$
  */
 public class TIFFTranscoderImageIOWriteAdapter 
-    implements TIFFTranscoder.WriteAdapter {
+    implements TIFFTranscoder.RenderedImageWriteAdapter {
 
     /**
      * @throws TranscoderException 
@@ -53,6 +53,16 @@ public class TIFFTranscoderImageIOWriteAdapter
      */
     public void writeImage(TIFFTranscoder transcoder, BufferedImage img,
             TranscoderOutput output) throws TranscoderException {
+        writeImage(transcoder, GraphicsUtil.wrap(img), output);
+    }
+
+    /**
+     * @throws TranscoderException
+     * @see org.apache.batik.transcoder.image.TIFFTranscoder.RenderedImageWriteAdapter#writeImage(TIFFTranscoder,
+     * java.awt.image.RenderedImage, org.apache.batik.transcoder.TranscoderOutput)
+     */
+    public void writeImage(TIFFTranscoder transcoder, RenderedImage img,
+            TranscoderOutput output) throws TranscoderException {
 
         TranscodingHints hints = transcoder.getTranscodingHints();
 
@@ -82,8 +92,10 @@ public class TIFFTranscoderImageIOWriteAdapter
 
         try {
             OutputStream ostream = output.getOutputStream();
-            int w = img.getWidth();
-            int h = img.getHeight();
+            // Keep the tiles of the image, which are its bands when it
+            // is rendered as it is read.
+            int w = img.getTileWidth();
+            int h = img.getTileHeight();
             SinglePixelPackedSampleModel sppsm;
             sppsm = (SinglePixelPackedSampleModel)img.getSampleModel();
             int bands = sppsm.getNumBands();
@@ -28,6 +28,7 @@ import java.awt.image.SampleModel;
 import java.util.Date;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.zip.Deflater;
 
 /**
  * An instance of <code>ImageEncodeParam</code> for encoding images in
@@ -1289,6 +1290,80 @@ public abstract class PNGEncodeParam implements ImageEncodeParam {
         chunkData = new ArrayList();
     }
 
+    // Compression of the image data
+
+    private int compressionLevel = Deflater.BEST_COMPRESSION;
+
+    /**
+     * Sets the level at which the image data is compressed, from 0
+     * for no compression to 9 for the best compression, or -1 for
+     * the default zlib level.  The default is 9.
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION ||
+            compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException();
+        }
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Returns the level at which the image data is compressed.
+     */
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    // Row filtering
+
+    private int filterType;
+    private boolean filterTypeSet = false;
+
+    /**
+     * Sets the filter applied to all the rows of the image, one of
+     * the <code>PNG_FILTER_*</code> constants.  Unless this is set,
+     * the filter of each row is chosen by trying them all.
+     *
+     * <p> The filter type is used by the default implementation of
+     * <code>filterRow</code>.
+     */
+    public void setFilterType(int filterType) {
+        if (filterType < PNG_FILTER_NONE || filterType > PNG_FILTER_PAETH) {
+            throw new IllegalArgumentException();
+        }
+        this.filterType = filterType;
+        filterTypeSet = true;
+    }
+
+    /**
+     * Returns the filter applied to all the rows of the image.
+     *
+     * <p> If the filter type has not previously been set, or has been
+     * unset, an <code>IllegalStateException</code> will be thrown.
+     *
+     * @throws IllegalStateException if the filter type is not set.
+     */
+    public int getFilterType() {
+        if (!filterTypeSet) {
+            throw new IllegalStateException();
+        }
+        return filterType;
+    }
+
+    /**
+     * Lets the filter of each row be chosen by trying them all.
+     */
+    public void unsetFilterType() {
+        filterTypeSet = false;
+    }
+
+    /**
+     * Returns true if the same filter is applied to all the rows.
+     */
+    public boolean isFilterTypeSet() {
+        return filterTypeSet;
+    }
+
     /**
      * An abs() function for use by the Paeth predictor.
      */
@@ -1332,12 +1407,17 @@ public abstract class PNGEncodeParam implements ImageEncodeParam {
      * value of the method should contain the filtered data.  The
      * return value will also be used as the filter type.
      *
-     * <p> The default implementation of the method performs a trial
+     * <p> The default implementation of the method applies the filter
+     * type if it is set.  Otherwise it performs a trial
      * encoding with each of the filter types, and computes the sum of
      * absolute values of the differences between the raw bytes of the
      * current row and the predicted values.  The index of the filter
      * producing the smallest result is returned.
      *
+     * <p> As the encoder may filter several parts of an image
+     * concurrently, this method must be safe to call from several
+     * threads at once.
+     *
      * <p> As an example, to perform only 'sub' filtering, this method
      * could be implemented (non-optimally) as follows:
      *
@@ -1379,6 +1459,12 @@ public abstract class PNGEncodeParam implements ImageEncodeParam {
                          int bytesPerRow,
                          int bytesPerPixel) {
 
+        if (filterTypeSet) {
+            applyFilter(filterType, currRow, prevRow, scratchRows[filterType],
+                        bytesPerRow, bytesPerPixel);
+            return filterType;
+        }
+
         int [] badness = {0, 0, 0, 0, 0};
         int curr, left, up, upleft, diff;
         int pa, pb, pc;
@@ -1502,4 +1588,51 @@ public abstract class PNGEncodeParam implements ImageEncodeParam {
 
         return filterType;
     }
+
+    /**
+     * Applies the given filter type to a row, as described in
+     * <code>filterRow</code>.
+     */
+    private static void applyFilter(int filterType,
+                                    byte[] currRow,
+                                    byte[] prevRow,
+                                    byte[] filteredRow,
+                                    int bytesPerRow,
+                                    int bytesPerPixel) {
+        int end = bytesPerRow + bytesPerPixel;
+        switch (filterType) {
+        case PNG_FILTER_NONE:
+            System.arraycopy(currRow, bytesPerPixel,
+                             filteredRow, bytesPerPixel,
+                             bytesPerRow);
+            break;
+        case PNG_FILTER_SUB:
+            for (int i = bytesPerPixel; i < end; i++) {
+                filteredRow[i] =
+                    (byte)(currRow[i] - currRow[i - bytesPerPixel]);
+            }
+            break;
+        case PNG_FILTER_UP:
+            for (int i = bytesPerPixel; i < end; i++) {
+                filteredRow[i] = (byte)(currRow[i] - prevRow[i]);
+            }
+            break;
+        case PNG_FILTER_AVERAGE:
+            for (int i = bytesPerPixel; i < end; i++) {
+                int left = currRow[i - bytesPerPixel] & 0xff;
+                int up   = prevRow[i] & 0xff;
+                filteredRow[i] = (byte)(currRow[i] - ((left + up) >> 1));
+            }
+            break;
+        case PNG_FILTER_PAETH:
+            for (int i = bytesPerPixel; i < end; i++) {
+                int left   = currRow[i - bytesPerPixel] & 0xff;
+                int up     = prevRow[i] & 0xff;
+                int upleft = prevRow[i - bytesPerPixel] & 0xff;
+                filteredRow[i] =
+                    (byte)(currRow[i] - paethPredictor(left, up, upleft));
+            }
+            break;
+        }
+    }
 }
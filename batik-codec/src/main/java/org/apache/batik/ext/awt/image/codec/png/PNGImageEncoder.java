@@ -31,11 +31,20 @@ import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 
@@ -276,6 +285,54 @@ public class PNGImageEncoder extends ImageEncoderImpl {
         (byte) 13, (byte) 10, (byte) 26, (byte) 10
     };
 
+    /**
+     * The number of bytes of filtered rows in a stripe encoded by one
+     * task, when the image data is encoded concurrently.
+     */
+    private static final int STRIPE_SIZE = 1 << 17;
+
+    /**
+     * The size of the deflate window, and of the dictionary each
+     * stripe is primed with.
+     */
+    private static final int WINDOW_SIZE = 1 << 15;
+
+    private static volatile int parallelism =
+        Runtime.getRuntime().availableProcessors();
+
+    private static ExecutorService pool;
+
+    /**
+     * Sets the number of threads used to encode the data of large
+     * images.  One encodes the data on the calling thread only, as a
+     * single deflate stream.
+     */
+    public static synchronized void setParallelism(int p) {
+        if (p < 1)
+            p = 1;
+        if (p == parallelism)
+            return;
+        parallelism = p;
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * Returns the number of threads used to encode the data of large
+     * images, the number of processors by default.
+     */
+    public static int getParallelism() {
+        return parallelism;
+    }
+
+    private static synchronized ExecutorService getPool() {
+        if (pool == null)
+            pool = new ForkJoinPool(parallelism);
+        return pool;
+    }
+
     private PNGEncodeParam param;
 
     private RenderedImage image;
@@ -328,107 +385,117 @@ public class PNGImageEncoder extends ImageEncoderImpl {
         cs.close();
     }
 
-    private byte[] prevRow = null;
-    private byte[] currRow = null;
-
-    private byte[][] filteredRows = null;
-
     private static int clamp(int val, int maxValue) {
         return (val > maxValue) ? maxValue : val;
     }
 
-    private void encodePass(OutputStream os, Raster ras,
-                            int xOffset,     int yOffset,
-                            int xSkip,       int ySkip)
-        throws IOException {
-        int minX   = ras.getMinX();
-        int minY   = ras.getMinY();
-        int width  = ras.getWidth();
-        int height = ras.getHeight();
-
-        xOffset *= numBands;
-        xSkip   *= numBands;
-
-        int samplesPerByte = 8/bitDepth;
-
+    /**
+     * Returns the number of bytes of a row of an interlacing pass.
+     * @param xOffset the offset of the pass, in samples.
+     * @param xSkip   the distance between two pixels, in samples.
+     */
+    private int getBytesPerRow(int width, int xOffset, int xSkip) {
         int numSamples = width*numBands;
-        int[] samples = new int[numSamples];
-
         int pixels = (numSamples - xOffset + xSkip - 1)/xSkip;
         int bytesPerRow = pixels*numBands;
         if (bitDepth < 8) {
+            int samplesPerByte = 8/bitDepth;
             bytesPerRow = (bytesPerRow + samplesPerByte - 1)/samplesPerByte;
         } else if (bitDepth == 16) {
             bytesPerRow *= 2;
         }
+        return bytesPerRow;
+    }
 
-        if (bytesPerRow == 0) {
-            return;
-        }
-
-        currRow = new byte[bytesPerRow + bpp];
-        prevRow = new byte[bytesPerRow + bpp];
-
-        filteredRows = new byte[5][bytesPerRow + bpp];
-
+    /**
+     * Packs the samples of a row of an interlacing pass into
+     * <code>currRow</code>, after the first 'bpp' bytes which are
+     * left zero.
+     * @param xOffset the offset of the pass, in samples.
+     * @param xSkip   the distance between two pixels, in samples.
+     */
+    private void packRow(Raster ras, int row, int[] samples, byte[] currRow,
+                         int xOffset, int xSkip) {
+        int width = ras.getWidth();
+        int numSamples = width*numBands;
+        int samplesPerByte = 8/bitDepth;
         int maxValue = (1 << bitDepth) - 1;
 
-        for (int row = minY + yOffset; row < minY + height; row += ySkip) {
-            ras.getPixels(minX, row, width, 1, samples);
+        ras.getPixels(ras.getMinX(), row, width, 1, samples);
 
-            if (compressGray) {
-                int shift = 8 - bitDepth;
-                for (int i = 0; i < width; i++) {
-                    samples[i] >>= shift;
-                }
+        if (compressGray) {
+            int shift = 8 - bitDepth;
+            for (int i = 0; i < width; i++) {
+                samples[i] >>= shift;
             }
+        }
 
-            int count = bpp; // leave first 'bpp' bytes zero
-            int pos = 0;
-            int tmp = 0;
+        int count = bpp; // leave first 'bpp' bytes zero
+        int pos = 0;
+        int tmp = 0;
 
-            switch (bitDepth) {
-            case 1: case 2: case 4:
-                // Image can only have a single band
+        switch (bitDepth) {
+        case 1: case 2: case 4:
+            // Image can only have a single band
 
-                int mask = samplesPerByte - 1;
-                for (int s = xOffset; s < numSamples; s += xSkip) {
-                    int val = clamp(samples[s] >> bitShift, maxValue);
-                    tmp = (tmp << bitDepth) | val;
+            int mask = samplesPerByte - 1;
+            for (int s = xOffset; s < numSamples; s += xSkip) {
+                int val = clamp(samples[s] >> bitShift, maxValue);
+                tmp = (tmp << bitDepth) | val;
 
-                    if (pos++  == mask) {
-                        currRow[count++] = (byte)tmp;
-                        tmp = 0;
-                        pos = 0;
-                    }
-                }
-
-                // Left shift the last byte
-                if (pos != 0) {
-                    tmp <<= (samplesPerByte - pos)*bitDepth;
+                if (pos++  == mask) {
                     currRow[count++] = (byte)tmp;
+                    tmp = 0;
+                    pos = 0;
                 }
-                break;
+            }
 
-            case 8:
-                for (int s = xOffset; s < numSamples; s += xSkip) {
-                    for (int b = 0; b < numBands; b++) {
-                        currRow[count++] =
-                            (byte)clamp(samples[s + b] >> bitShift, maxValue);
-                    }
-                }
-                break;
+            // Left shift the last byte
+            if (pos != 0) {
+                tmp <<= (samplesPerByte - pos)*bitDepth;
+                currRow[count++] = (byte)tmp;
+            }
+            break;
 
-            case 16:
-                for (int s = xOffset; s < numSamples; s += xSkip) {
-                    for (int b = 0; b < numBands; b++) {
-                        int val = clamp(samples[s + b] >> bitShift, maxValue);
-                        currRow[count++] = (byte)(val >> 8);
-                        currRow[count++] = (byte)(val & 0xff);
-                    }
+        case 8:
+            for (int s = xOffset; s < numSamples; s += xSkip) {
+                for (int b = 0; b < numBands; b++) {
+                    currRow[count++] =
+                        (byte)clamp(samples[s + b] >> bitShift, maxValue);
+                }
+            }
+            break;
+
+        case 16:
+            for (int s = xOffset; s < numSamples; s += xSkip) {
+                for (int b = 0; b < numBands; b++) {
+                    int val = clamp(samples[s + b] >> bitShift, maxValue);
+                    currRow[count++] = (byte)(val >> 8);
+                    currRow[count++] = (byte)(val & 0xff);
                 }
-                break;
             }
+            break;
+        }
+    }
+
+    /**
+     * Filters rows of an interlacing pass and writes them, each
+     * preceded by its filter type, to the given stream.
+     * @param prevRow the unfiltered row preceding the first one in
+     *        the pass, or zeros.  Its content is overwritten.
+     * @return the last unfiltered row.
+     */
+    private byte[] filterRows(OutputStream os, Raster ras,
+                            int firstRow, int endRow,
+                            int xOffset, int xSkip, int ySkip,
+                            int bytesPerRow, byte[] prevRow)
+        throws IOException {
+        int[] samples = new int[ras.getWidth()*numBands];
+        byte[] currRow = new byte[bytesPerRow + bpp];
+        byte[][] filteredRows = new byte[5][bytesPerRow + bpp];
+
+        for (int row = firstRow; row < endRow; row += ySkip) {
+            packRow(ras, row, samples, currRow, xOffset, xSkip);
 
             // Perform filtering
             int filterType = param.filterRow(currRow, prevRow,
@@ -443,13 +510,42 @@ public class PNGImageEncoder extends ImageEncoderImpl {
             currRow = prevRow;
             prevRow = swap;
         }
+        return prevRow;
     }
 
-    private void writeIDAT() throws IOException {
-        IDATOutputStream ios = new IDATOutputStream(dataOutput, 8192);
-        DeflaterOutputStream dos =
-            new DeflaterOutputStream(ios, new Deflater(9));
+    /**
+     * Encodes the rows of an interlacing pass in the given raster.
+     * @param prevRow the unfiltered row preceding the raster in the
+     *        pass, or null if the pass starts in the raster.
+     * @return the last unfiltered row.
+     */
+    private byte[] encodePass(OutputStream os, Raster ras,
+                              int xOffset,     int yOffset,
+                              int xSkip,       int ySkip,
+                              byte[] prevRow)
+        throws IOException {
+        xOffset *= numBands;
+        xSkip   *= numBands;
+
+        int bytesPerRow = getBytesPerRow(ras.getWidth(), xOffset, xSkip);
+        if (bytesPerRow == 0) {
+            return null;
+        }
 
+        if (prevRow == null) {
+            prevRow = new byte[bytesPerRow + bpp];
+        }
+        int minY = ras.getMinY();
+        return filterRows(os, ras, minY + yOffset, minY + ras.getHeight(),
+                          xOffset, xSkip, ySkip,
+                          bytesPerRow, prevRow);
+    }
+
+    /**
+     * Returns the data of the given rows of the image, without the
+     * alpha band if it is skipped.
+     */
+    private Raster getRows(int y, int h) {
         // Future work - don't convert entire image to a Raster It
         // might seem that you could just call image.getData() but
         // 'BufferedImage.subImage' doesn't appear to set the Width
@@ -457,20 +553,8 @@ public class PNGImageEncoder extends ImageEncoderImpl {
         // you get back here appears larger than it should.
         // This solves that problem by bounding the raster to the
         // image's bounds...
-        Raster ras = image.getData(new Rectangle(image.getMinX(),
-                                                 image.getMinY(),
-                                                 image.getWidth(),
-                                                 image.getHeight()));
-        // System.out.println("Image: [" +
-        //                    image.getMinY()  + ", " +
-        //                    image.getMinX()  + ", " +
-        //                    image.getWidth()  + ", " +
-        //                    image.getHeight() + "]");
-        // System.out.println("Ras: [" +
-        //                    ras.getMinX()  + ", " +
-        //                    ras.getMinY()  + ", " +
-        //                    ras.getWidth()  + ", " +
-        //                    ras.getHeight() + "]");
+        Raster ras = image.getData(new Rectangle(image.getMinX(), y,
+                                                 image.getWidth(), h));
 
         if (skipAlpha) {
             int numBands = ras.getNumBands() - 1;
@@ -478,37 +562,346 @@ public class PNGImageEncoder extends ImageEncoderImpl {
             for (int i = 0; i < numBands; i++) {
                 bandList[i] = i;
             }
-            ras = ras.createChild(0, 0,
+            ras = ras.createChild(ras.getMinX(), ras.getMinY(),
                                   ras.getWidth(), ras.getHeight(),
-                                  0, 0,
+                                  ras.getMinX(), ras.getMinY(),
                                   bandList);
         }
+        return ras;
+    }
+
+    private void writeIDAT() throws IOException {
+        IDATOutputStream ios = new IDATOutputStream(dataOutput, 8192);
 
+        int level = param.getCompressionLevel();
+        int rowSize = getBytesPerRow(image.getWidth(), 0, numBands) + 1;
+        StripeWriter sw = null;
+        Deflater deflater = null;
+        DeflaterOutputStream dos = null;
+        if (parallelism > 1 &&
+            (long)rowSize*image.getHeight() > 2*STRIPE_SIZE) {
+            sw = new StripeWriter(ios, level);
+        } else {
+            deflater = new Deflater(level);
+            dos = new DeflaterOutputStream(ios, deflater);
+        }
+
+        int minY = image.getMinY();
+        int maxY = minY + image.getHeight();
         if (interlace) {
-            // Interlacing pass 1
-            encodePass(dos, ras, 0, 0, 8, 8);
-            // Interlacing pass 2
-            encodePass(dos, ras, 4, 0, 8, 8);
-            // Interlacing pass 3
-            encodePass(dos, ras, 0, 4, 4, 8);
-            // Interlacing pass 4
-            encodePass(dos, ras, 2, 0, 4, 4);
-            // Interlacing pass 5
-            encodePass(dos, ras, 0, 2, 2, 4);
-            // Interlacing pass 6
-            encodePass(dos, ras, 1, 0, 2, 2);
-            // Interlacing pass 7
-            encodePass(dos, ras, 0, 1, 1, 2);
+            Raster ras = getRows(minY, image.getHeight());
+            int[][] passes = {
+                { 0, 0, 8, 8 }, { 4, 0, 8, 8 }, { 0, 4, 4, 8 },
+                { 2, 0, 4, 4 }, { 0, 2, 2, 4 }, { 1, 0, 2, 2 },
+                { 0, 1, 1, 2 }
+            };
+            for (int[] pass : passes) {
+                if (sw != null) {
+                    sw.encodePass(ras, pass[0], pass[1], pass[2], pass[3],
+                                  null);
+                } else {
+                    encodePass(dos, ras, pass[0], pass[1], pass[2], pass[3],
+                               null);
+                }
+            }
         } else {
-            encodePass(dos, ras, 0, 0, 1, 1);
+            // The rows are read a tile row at a time, so the data of
+            // images computed on demand is not held all at once.
+            int tileHeight = image.getTileHeight();
+            int tileGridYOffset = image.getTileGridYOffset();
+            byte[] prevRow = null;
+            for (int y = minY; y < maxY; ) {
+                int ty = (y - tileGridYOffset)/tileHeight;
+                if (y < tileGridYOffset) {
+                    ty = (y - tileGridYOffset - tileHeight + 1)/tileHeight;
+                }
+                int endY = (int)Math.min
+                    (maxY, tileGridYOffset + (ty + 1L)*tileHeight);
+                Raster ras = getRows(y, endY - y);
+                if (sw != null) {
+                    prevRow = sw.encodePass(ras, 0, 0, 1, 1, prevRow);
+                } else {
+                    prevRow = encodePass(dos, ras, 0, 0, 1, 1, prevRow);
+                }
+                y = endY;
+            }
         }
 
-        dos.finish();
-        dos.close();
+        if (sw != null) {
+            sw.finish();
+        } else {
+            dos.finish();
+            dos.close();
+            deflater.end();
+        }
         ios.flush();
         ios.close();
     }
 
+    /**
+     * Writes the zlib stream of the image data from stripes of rows
+     * filtered and deflated concurrently, the way pigz does: each
+     * stripe is deflated on its own, with the end of the previous
+     * stripe as preset dictionary, and ends on a byte boundary with a
+     * sync flush, so the stripes can be concatenated into a single
+     * deflate stream.
+     */
+    private class StripeWriter {
+
+        final OutputStream out;
+        final int level;
+        final Adler32 adler = new Adler32();
+
+        /**
+         * The last stripe written, which primes the next one.
+         */
+        Stripe last;
+
+        StripeWriter(OutputStream out, int level) throws IOException {
+            this.out = out;
+            this.level = level;
+
+            // zlib header: deflate with a 32K window, and the level.
+            int cmf = 0x78;
+            int flevel;
+            if (level == Deflater.DEFAULT_COMPRESSION) {
+                flevel = 2;
+            } else if (level < 2) {
+                flevel = 0;
+            } else if (level < 6) {
+                flevel = 1;
+            } else {
+                flevel = (level == 6) ? 2 : 3;
+            }
+            int flg = flevel << 6;
+            flg += 31 - ((cmf << 8) + flg) % 31;
+            out.write(cmf);
+            out.write(flg);
+        }
+
+        /**
+         * Encodes the rows of an interlacing pass in the given raster,
+         * a batch of stripes at a time.
+         * @param prevRow the unfiltered row preceding the raster in the
+         *        pass, or null if the pass starts in the raster.
+         * @return the last unfiltered row.
+         */
+        byte[] encodePass(Raster ras,
+                          int xOffset,     int yOffset,
+                          int xSkip,       int ySkip,
+                          byte[] prevRow)
+            throws IOException {
+            xOffset *= numBands;
+            xSkip   *= numBands;
+
+            int bytesPerRow = getBytesPerRow(ras.getWidth(), xOffset, xSkip);
+            if (bytesPerRow == 0 || yOffset >= ras.getHeight()) {
+                return prevRow;
+            }
+
+            int minY = ras.getMinY();
+            int endY = minY + ras.getHeight();
+            int stripeRows = Math.max(1, STRIPE_SIZE/(bytesPerRow + 1));
+            List stripes = new ArrayList();
+            for (int y = minY + yOffset; y < endY; y += stripeRows*ySkip) {
+                int stripeEnd = (int)Math.min(endY,
+                                              y + (long)stripeRows*ySkip);
+                stripes.add(new Stripe(ras, y, stripeEnd, xOffset,
+                                       xSkip, ySkip, bytesPerRow,
+                                       (y == minY + yOffset) ? prevRow
+                                                             : null));
+                if (stripes.size() == 2*parallelism) {
+                    write(stripes);
+                    stripes.clear();
+                }
+            }
+            write(stripes);
+
+            int lastY = minY + yOffset
+                + (ras.getHeight() - yOffset - 1)/ySkip*ySkip;
+            byte[] lastRow = new byte[bytesPerRow + bpp];
+            packRow(ras, lastY, new int[ras.getWidth()*numBands], lastRow,
+                    xOffset, xSkip);
+            return lastRow;
+        }
+
+        /**
+         * Filters and deflates a batch of stripes, and writes them.
+         */
+        void write(List stripes) throws IOException {
+            if (stripes.isEmpty()) {
+                return;
+            }
+            runAll(stripes, false);
+            Stripe prev = last;
+            for (Object s : stripes) {
+                Stripe stripe = (Stripe)s;
+                stripe.dictionary = prev;
+                prev = stripe;
+            }
+            runAll(stripes, true);
+
+            for (Object s : stripes) {
+                Stripe stripe = (Stripe)s;
+                adler.update(stripe.data, 0, stripe.dataLength);
+                out.write(stripe.deflated, 0, stripe.deflatedLength);
+                stripe.dictionary = null;
+                stripe.deflated = null;
+                if (stripe != prev) {
+                    stripe.data = null;
+                }
+            }
+            last = prev;
+        }
+
+        /**
+         * Ends the deflate stream with an empty final block, and
+         * writes the checksum of the uncompressed data.
+         */
+        void finish() throws IOException {
+            Deflater deflater = new Deflater(level, true);
+            deflater.finish();
+            byte[] buf = new byte[16];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buf);
+                out.write(buf, 0, n);
+            }
+            deflater.end();
+
+            int sum = (int)adler.getValue();
+            out.write(sum >>> 24);
+            out.write((sum >> 16) & 0xff);
+            out.write((sum >> 8) & 0xff);
+            out.write(sum & 0xff);
+        }
+
+        /**
+         * Runs the filtering or the deflating of stripes on the pool.
+         */
+        void runAll(List stripes, final boolean deflate) throws IOException {
+            List tasks = new ArrayList(stripes.size());
+            for (Object s : stripes) {
+                final Stripe stripe = (Stripe)s;
+                tasks.add(new Callable() {
+                        public Object call() throws IOException {
+                            if (deflate) {
+                                stripe.deflate(level);
+                            } else {
+                                stripe.filter();
+                            }
+                            return null;
+                        }
+                    });
+            }
+            try {
+                List futures = getPool().invokeAll(tasks);
+                for (Object f : futures) {
+                    ((Future)f).get();
+                }
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            } catch (ExecutionException e) {
+                Throwable t = e.getCause();
+                if (t instanceof IOException) {
+                    throw (IOException)t;
+                } else if (t instanceof RuntimeException) {
+                    throw (RuntimeException)t;
+                } else if (t instanceof Error) {
+                    throw (Error)t;
+                }
+                throw new IOException(t.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A range of rows of an interlacing pass.
+     */
+    private class Stripe {
+
+        final Raster ras;
+        final int firstRow, endRow, xOffset, xSkip, ySkip, bytesPerRow;
+
+        /**
+         * The unfiltered row preceding the stripe if it is not in the
+         * raster, null if it is or if the stripe starts the pass.
+         */
+        final byte[] prevRow;
+
+        /**
+         * The filtered rows, each preceded by its filter type.
+         */
+        byte[] data;
+        int dataLength;
+
+        /**
+         * The stripe whose data precedes this one's, if any.
+         */
+        Stripe dictionary;
+
+        byte[] deflated;
+        int deflatedLength;
+
+        Stripe(Raster ras, int firstRow, int endRow,
+               int xOffset, int xSkip, int ySkip,
+               int bytesPerRow, byte[] prevRow) {
+            this.ras = ras;
+            this.firstRow = firstRow;
+            this.endRow = endRow;
+            this.xOffset = xOffset;
+            this.xSkip = xSkip;
+            this.ySkip = ySkip;
+            this.bytesPerRow = bytesPerRow;
+            this.prevRow = prevRow;
+        }
+
+        void filter() throws IOException {
+            // The row before the stripe is packed again, as the
+            // filters predict from the unfiltered previous row.
+            byte[] prevRow = new byte[bytesPerRow + bpp];
+            if (this.prevRow != null) {
+                System.arraycopy(this.prevRow, 0, prevRow, 0, prevRow.length);
+            } else if (firstRow - ySkip >= ras.getMinY()) {
+                packRow(ras, firstRow - ySkip,
+                        new int[ras.getWidth()*numBands],
+                        prevRow, xOffset, xSkip);
+            }
+            int rows = (endRow - firstRow + ySkip - 1)/ySkip;
+            ByteArrayOutputStream bos =
+                new ByteArrayOutputStream(rows*(bytesPerRow + 1));
+            filterRows(bos, ras, firstRow, endRow, xOffset, xSkip, ySkip,
+                       bytesPerRow, prevRow);
+            data = bos.toByteArray();
+            dataLength = data.length;
+        }
+
+        void deflate(int level) {
+            Deflater deflater = new Deflater(level, true);
+            if (dictionary != null) {
+                int n = Math.min(WINDOW_SIZE, dictionary.dataLength);
+                deflater.setDictionary(dictionary.data,
+                                       dictionary.dataLength - n, n);
+            }
+            deflater.setInput(data, 0, dataLength);
+
+            byte[] buf = new byte[dataLength/2 + 64];
+            int len = 0;
+            while (true) {
+                len += deflater.deflate(buf, len, buf.length - len,
+                                        Deflater.SYNC_FLUSH);
+                if (len < buf.length) {
+                    break;
+                }
+                byte[] nbuf = new byte[buf.length*2];
+                System.arraycopy(buf, 0, nbuf, 0, len);
+                buf = nbuf;
+            }
+            deflater.end();
+            deflated = buf;
+            deflatedLength = len;
+        }
+    }
+
     private void writeIEND() throws IOException {
         ChunkStream cs = new ChunkStream("IEND");
         cs.writeToStream(dataOutput);
@@ -19,6 +19,7 @@
 package org.apache.batik.ext.awt.image.codec.png;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.RenderedImage;
 import java.io.IOException;
 import java.io.OutputStream;
 
@@ -35,7 +36,7 @@ import org.apache.batik.transcoder.image.PNGTranscoder;
  * @version $Id$
  */
 public class PNGTranscoderInternalCodecWriteAdapter implements
-        PNGTranscoder.WriteAdapter {
+        PNGTranscoder.RenderedImageWriteAdapter {
 
     /**
      * @throws TranscoderException
@@ -55,6 +56,19 @@ public class PNGTranscoderInternalCodecWriteAdapter implements
                 img = IndexImage.getIndexedImage(img,1<<n);
         }
 
+        writeImage(transcoder, (RenderedImage)img, output);
+    }
+
+    /**
+     * @throws TranscoderException
+     * @see org.apache.batik.transcoder.image.PNGTranscoder.RenderedImageWriteAdapter#writeImage(
+     * org.apache.batik.transcoder.image.PNGTranscoder, java.awt.image.RenderedImage,
+     * org.apache.batik.transcoder.TranscoderOutput)
+     */
+    public void writeImage(PNGTranscoder transcoder, RenderedImage img,
+            TranscoderOutput output) throws TranscoderException {
+        TranscodingHints hints = transcoder.getTranscodingHints();
+
         PNGEncodeParam params = PNGEncodeParam.getDefaultEncodeParam(img);
         if (params instanceof PNGEncodeParam.RGB) {
             ((PNGEncodeParam.RGB)params).setBackgroundRGB
@@ -78,6 +92,15 @@ public class PNGTranscoderInternalCodecWriteAdapter implements
         }
 
 
+        if (hints.containsKey(PNGTranscoder.KEY_COMPRESSION_LEVEL)) {
+            params.setCompressionLevel
+                ((Integer) hints.get(PNGTranscoder.KEY_COMPRESSION_LEVEL));
+        }
+        if (hints.containsKey(PNGTranscoder.KEY_FILTER_TYPE)) {
+            params.setFilterType
+                ((Integer) hints.get(PNGTranscoder.KEY_FILTER_TYPE));
+        }
+
         float PixSzMM = transcoder.getUserAgent().getPixelUnitToMillimeter();
         // num Pixs in 1 Meter
         int numPix      = (int)((1000/PixSzMM)+0.5);
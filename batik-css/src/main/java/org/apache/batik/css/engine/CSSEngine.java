@@ -22,9 +22,11 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.batik.css.engine.sac.CSSConditionFactory;
@@ -38,6 +40,7 @@ import org.apache.batik.css.engine.value.ValueManager;
 import org.apache.batik.css.parser.ExtendedParser;
 import org.apache.batik.util.CSSConstants;
 import org.apache.batik.util.ParsedURL;
+import org.apache.batik.util.XMLConstants;
 
 import org.w3c.css.sac.CSSException;
 import org.w3c.css.sac.DocumentHandler;
@@ -49,7 +52,6 @@ import org.w3c.dom.Attr;
 import org.w3c.dom.DOMException;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.events.Event;
 import org.w3c.dom.events.EventListener;
@@ -323,6 +325,18 @@ public abstract class CSSEngine {
      */
     protected Node removedStylableElementSibling;
 
+    /**
+     * The style maps that may be shared by the children of
+     * <code>styleSharingParent</code>, keyed by what their cascade
+     * depends on.
+     */
+    protected Map styleSharingCache = new HashMap();
+
+    /**
+     * The element whose children's styles are in styleSharingCache.
+     */
+    protected CSSStylableElement styleSharingParent;
+
     /**
      * The listeners.
      */
@@ -509,6 +523,7 @@ public abstract class CSSEngine {
      * Disposes the CSSEngine and all the attached resources.
      */
     public void dispose() {
+        clearStyleSharingCache();
         setCSSEngineUserAgent(null);
         disposeStyleMaps(document.getDocumentElement());
         if (document instanceof EventTarget) {
@@ -712,27 +727,74 @@ public abstract class CSSEngine {
      */
     public StyleMap getCascadedStyleMap(CSSStylableElement elt,
                                         String pseudo) {
+        return getCascadedStyleMap(elt, pseudo,
+                                   getMatchingRules(elt, pseudo));
+    }
+
+    /**
+     * Returns the rules of the user-agent, user and document
+     * style-sheets matching the given element/pseudo-element, in this
+     * order.  An entry is null when there is no such style-sheet.
+     */
+    protected ArrayList[] getMatchingRules(CSSStylableElement elt,
+                                      String pseudo) {
+        ArrayList[] result = new ArrayList[3];
+        if (userAgentStyleSheet != null) {
+            result[0] = new ArrayList();
+            addMatchingRules(result[0], userAgentStyleSheet, elt, pseudo);
+        }
+        if (userStyleSheet != null) {
+            result[1] = new ArrayList();
+            addMatchingRules(result[1], userStyleSheet, elt, pseudo);
+        }
+        CSSEngine eng = cssContext.getCSSEngineForElement(elt);
+        List snodes = eng.getStyleSheetNodes();
+        if (snodes.size() > 0) {
+            result[2] = new ArrayList();
+            for (Object snode : snodes) {
+                CSSStyleSheetNode ssn = (CSSStyleSheetNode) snode;
+                StyleSheet ss = ssn.getCSSStyleSheet();
+                if (ss != null &&
+                        (!ss.isAlternate() ||
+                                ss.getTitle() == null ||
+                                ss.getTitle().equals(alternateStyleSheet)) &&
+                        mediaMatch(ss.getMedia())) {
+                    addMatchingRules(result[2], ss, elt, pseudo);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cascaded style of the given element/pseudo-element.
+     * @param elt The stylable element.
+     * @param pseudo Optional pseudo-element string (null if none).
+     * @param matchingRules The rules matching the element, as returned
+     *        by {@link #getMatchingRules(CSSStylableElement,String)}.
+     */
+    protected StyleMap getCascadedStyleMap(CSSStylableElement elt,
+                                           String pseudo,
+                                           ArrayList[] matchingRules) {
         int props = getNumberOfProperties();
         final StyleMap result = new StyleMap(props);
 
         // Apply the user-agent style-sheet to the result.
-        if (userAgentStyleSheet != null) {
-            ArrayList rules = new ArrayList();
-            addMatchingRules(rules, userAgentStyleSheet, elt, pseudo);
-            addRules(elt, pseudo, result, rules, StyleMap.USER_AGENT_ORIGIN);
+        if (matchingRules[0] != null) {
+            addRules(elt, pseudo, result, matchingRules[0],
+                     StyleMap.USER_AGENT_ORIGIN);
         }
 
         // Apply the user properties style-sheet to the result.
-        if (userStyleSheet != null) {
-            ArrayList rules = new ArrayList();
-            addMatchingRules(rules, userStyleSheet, elt, pseudo);
-            addRules(elt, pseudo, result, rules, StyleMap.USER_ORIGIN);
+        if (matchingRules[1] != null) {
+            addRules(elt, pseudo, result, matchingRules[1],
+                     StyleMap.USER_ORIGIN);
         }
 
         element = elt;
         try {
             // Apply the non-CSS presentational hints to the result.
-            if (nonCSSPresentationalHints != null) {
+            if (nonCSSPresentationalHints != null && elt.hasAttributes()) {
                 ShorthandManager.PropertyHandler ph =
                     new ShorthandManager.PropertyHandler() {
                         public void property(String pname, LexicalUnit lu,
@@ -754,15 +816,16 @@ public abstract class CSSEngine {
                         }
                     };
 
-                NamedNodeMap attrs = elt.getAttributes();
-                int len = attrs.getLength();
-                for (int i = 0; i < len; i++) {
-                    Node attr = attrs.item(i);
-                    String an = attr.getNodeName();
-                    if (nonCSSPresentationalHints.contains(an)) {
+                // The hints are looked up by name, so that the Attr
+                // nodes the DOM creates on demand are not asked for.
+                String ns = nonCSSPresentationalHintsNamespaceURI;
+                for (Object o : nonCSSPresentationalHints) {
+                    String an = (String)o;
+                    if (elt.hasAttributeNS(ns, an)) {
+                        String av = elt.getAttributeNS(ns, an);
                         try {
                             LexicalUnit lu;
-                            lu = parser.parsePropertyValue(attr.getNodeValue());
+                            lu = parser.parsePropertyValue(av);
                             ph.property(an, lu, false);
                         } catch (Exception e) {
                             String m = e.getMessage();
@@ -771,7 +834,7 @@ public abstract class CSSEngine {
                                         documentURI.toString());
                             String s = Messages.formatMessage
                                 ("property.syntax.error.at",
-                                 new Object[] { u, an, attr.getNodeValue(), m});
+                                 new Object[] { u, an, av, m});
                             DOMException de = new DOMException(DOMException.SYNTAX_ERR, s);
                             if (userAgent == null) throw de;
                             userAgent.displayError(de);
@@ -781,23 +844,9 @@ public abstract class CSSEngine {
             }
 
             // Apply the document style-sheets to the result.
-            CSSEngine eng = cssContext.getCSSEngineForElement(elt);
-            List snodes = eng.getStyleSheetNodes();
-            int slen = snodes.size();
-            if (slen > 0) {
-                ArrayList rules = new ArrayList();
-                for (Object snode : snodes) {
-                    CSSStyleSheetNode ssn = (CSSStyleSheetNode) snode;
-                    StyleSheet ss = ssn.getCSSStyleSheet();
-                    if (ss != null &&
-                            (!ss.isAlternate() ||
-                                    ss.getTitle() == null ||
-                                    ss.getTitle().equals(alternateStyleSheet)) &&
-                            mediaMatch(ss.getMedia())) {
-                        addMatchingRules(rules, ss, elt, pseudo);
-                    }
-                }
-                addRules(elt, pseudo, result, rules, StyleMap.AUTHOR_ORIGIN);
+            if (matchingRules[2] != null) {
+                addRules(elt, pseudo, result, matchingRules[2],
+                         StyleMap.AUTHOR_ORIGIN);
             }
 
             // Apply the inline style to the result.
@@ -855,6 +904,96 @@ public abstract class CSSEngine {
         return result;
     }
 
+    /**
+     * Returns the cascaded style of the given element, reusing the
+     * style map of a previous sibling when both elements have the same
+     * name, match the same rules and have the same inline style and
+     * presentational hints.
+     * The map is then shared: it must be copied before being modified
+     * for one of the elements, see {@link #getOwnStyleMap}.
+     */
+    protected StyleMap getSharedCascadedStyleMap(CSSStylableElement elt) {
+        ArrayList[] rules = getMatchingRules(elt, null);
+        CSSStylableElement p = getParentCSSStylableElement(elt);
+        if (p == null) {
+            return getCascadedStyleMap(elt, null, rules);
+        }
+        StyleDeclarationProvider over =
+            elt.getOverrideStyleDeclarationProvider();
+        if (over != null) {
+            StyleDeclaration sd = over.getStyleDeclaration();
+            if (sd != null && sd.size() > 0) {
+                return getCascadedStyleMap(elt, null, rules);
+            }
+        }
+
+        // Only the styles of the current parent's children are kept.
+        if (p != styleSharingParent) {
+            styleSharingCache.clear();
+            styleSharingParent = p;
+        }
+
+        // The cascade may depend on the element type, through its
+        // presentational hints or the user agent defaults.
+        List key = new ArrayList();
+        key.add(elt.getNamespaceURI());
+        key.add(elt.getLocalName());
+        for (List r : rules) {
+            if (r == null) {
+                key.add(null);
+            } else {
+                key.add(r.size());
+                key.addAll(r);
+            }
+        }
+        if (nonCSSPresentationalHints != null && elt.hasAttributes()) {
+            String ns = nonCSSPresentationalHintsNamespaceURI;
+            for (Object o : nonCSSPresentationalHints) {
+                String an = (String)o;
+                if (elt.hasAttributeNS(ns, an)) {
+                    key.add(an);
+                    key.add(elt.getAttributeNS(ns, an));
+                }
+            }
+        }
+        key.add(null);
+        if (styleLocalName != null) {
+            key.add(elt.getAttributeNS(styleNamespaceURI, styleLocalName));
+        }
+        key.add(elt.getAttributeNS(XMLConstants.XML_NAMESPACE_URI,
+                                   XMLConstants.XML_BASE_ATTRIBUTE));
+
+        StyleMap sm = (StyleMap)styleSharingCache.get(key);
+        if (sm == null) {
+            sm = getCascadedStyleMap(elt, null, rules);
+            styleSharingCache.put(key, sm);
+        } else {
+            sm.setShared(true);
+        }
+        return sm;
+    }
+
+    /**
+     * Returns the computed style map of the given element, after giving
+     * the element its own copy if the map is shared with other elements.
+     */
+    protected StyleMap getOwnStyleMap(CSSStylableElement elt) {
+        StyleMap sm = elt.getComputedStyleMap(null);
+        if (sm != null && sm.isShared()) {
+            sm = new StyleMap(sm);
+            elt.setComputedStyleMap(null, sm);
+        }
+        return sm;
+    }
+
+    /**
+     * Forgets the style maps that can be shared with new elements.
+     */
+    protected void clearStyleSharingCache() {
+        styleSharingCache.clear();
+        styleSharingParent = null;
+    }
+
     /**
      * Returns the computed style of the given element/pseudo for the
      * property corresponding to the given index.
@@ -864,7 +1003,11 @@ public abstract class CSSEngine {
                                   int propidx) {
         StyleMap sm = elt.getComputedStyleMap(pseudo);
         if (sm == null) {
-            sm = getCascadedStyleMap(elt, pseudo);
+            if (pseudo == null) {
+                sm = getSharedCascadedStyleMap(elt);
+            } else {
+                sm = getCascadedStyleMap(elt, pseudo);
+            }
             elt.setComputedStyleMap(pseudo, sm);
         }
 
@@ -1305,19 +1448,14 @@ public abstract class CSSEngine {
                                     StyleSheet ss,
                                     Element elt,
                                     String pseudo) {
-        int len = ss.getSize();
-        for (int i = 0; i < len; i++) {
-            Rule r = ss.getRule(i);
+        RuleIndex.Entry[] candidates = ss.getRuleIndex().getCandidates(elt);
+        for (int i = 0; i < candidates.length; i++) {
+            RuleIndex.Entry e = candidates[i];
+            Rule r = e.getRule();
             switch (r.getType()) {
             case StyleRule.TYPE:
-                StyleRule style = (StyleRule)r;
-                SelectorList sl = style.getSelectorList();
-                int slen = sl.getLength();
-                for (int j = 0; j < slen; j++) {
-                    ExtendedSelector s = (ExtendedSelector)sl.item(j);
-                    if (s.match(elt, pseudo)) {
-                        rules.add(style);
-                    }
+                if (e.getSelector().match(elt, pseudo)) {
+                    rules.add(r);
                 }
                 break;
 
@@ -1970,6 +2108,7 @@ public abstract class CSSEngine {
         StyleMap style = elt.getComputedStyleMap(null);
         if (style == null)
             return;  // Nothing to invalidate.
+        clearStyleSharingCache();
 
         boolean [] diffs = new boolean[getNumberOfProperties()];
         if (updated != null) {
@@ -2043,7 +2182,7 @@ public abstract class CSSEngine {
         if (!(node instanceof CSSStylableElement))
             return;
         CSSStylableElement elt = (CSSStylableElement)node;
-        StyleMap style = elt.getComputedStyleMap(null);
+        StyleMap style = getOwnStyleMap(elt);
         if (style != null) {
             boolean[] updated =
                 styleDeclarationUpdateHandler.updatedProperties;
@@ -2309,8 +2448,9 @@ public abstract class CSSEngine {
         String name = attrNS == null ? attr.getNodeName() : attr.getLocalName();
 
         CSSStylableElement elt = (CSSStylableElement) e;
-        StyleMap style = elt.getComputedStyleMap(null);
+        StyleMap style = getOwnStyleMap(elt);
         if (style != null) {
+            clearStyleSharingCache();
             if (attrNS == styleNamespaceURI
                     || attrNS != null && attrNS.equals(styleNamespaceURI)) {
                 if (name.equals(styleLocalName)) {
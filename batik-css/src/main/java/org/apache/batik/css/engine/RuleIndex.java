@@ -0,0 +1,339 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.css.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.batik.css.engine.sac.AbstractDescendantSelector;
+import org.apache.batik.css.engine.sac.CSSAndCondition;
+import org.apache.batik.css.engine.sac.CSSClassCondition;
+import org.apache.batik.css.engine.sac.CSSConditionalSelector;
+import org.apache.batik.css.engine.sac.CSSDirectAdjacentSelector;
+import org.apache.batik.css.engine.sac.CSSElementSelector;
+import org.apache.batik.css.engine.sac.CSSIdCondition;
+import org.apache.batik.css.engine.sac.ExtendedSelector;
+import org.w3c.css.sac.Condition;
+import org.w3c.css.sac.Selector;
+import org.w3c.css.sac.SelectorList;
+import org.w3c.dom.Element;
+
+/**
+ * Groups the selectors of a style-sheet by the id, class or element
+ * name their rightmost simple selector requires, so that only the
+ * selectors that may match an element have to be tested against it.
+ * Selectors requiring none of these, and the nested media and import
+ * rules, are kept in a bucket which is always tested.
+ *
+ * @version $Id$
+ */
+public class RuleIndex {
+
+    /**
+     * An empty candidate list.
+     */
+    protected static final Entry[] EMPTY = new Entry[0];
+
+    /**
+     * The selectors keyed by the id they require.
+     */
+    protected Map ids = new HashMap();
+
+    /**
+     * The selectors keyed by a class they require.
+     */
+    protected Map classes = new HashMap();
+
+    /**
+     * The selectors keyed by the element name they require.
+     */
+    protected Map names = new HashMap();
+
+    /**
+     * The selectors that may match any element, and the media rules.
+     */
+    protected Entry[] universal;
+
+    /**
+     * Indexes the rules of the given style-sheet.
+     */
+    public RuleIndex(StyleSheet ss) {
+        List all = new ArrayList();
+        int len = ss.getSize();
+        for (int i = 0; i < len; i++) {
+            Rule r = ss.getRule(i);
+            switch (r.getType()) {
+            case StyleRule.TYPE:
+                SelectorList sl = ((StyleRule)r).getSelectorList();
+                int slen = sl.getLength();
+                for (int j = 0; j < slen; j++) {
+                    Selector s = sl.item(j);
+                    Entry e = new Entry(r, (ExtendedSelector)s);
+                    e.order = all.size();
+                    all.add(e);
+                    add(e, s);
+                }
+                break;
+
+            case MediaRule.TYPE:
+            case ImportRule.TYPE:
+                Entry e = new Entry(r, null);
+                e.order = all.size();
+                all.add(e);
+                add(e, null);
+                break;
+            }
+        }
+        universal = toArray((List)names.remove(null));
+        ids = toArrays(ids);
+        classes = toArrays(classes);
+        names = toArrays(names);
+    }
+
+    /**
+     * Returns, in style-sheet order, the selectors which may match the
+     * given element and the nested media rules.  Each entry's selector
+     * still has to be matched against the element.
+     */
+    public Entry[] getCandidates(Element elt) {
+        Entry[][] buckets = new Entry[4][];
+        int n = 0;
+        if (universal.length > 0) {
+            buckets[n++] = universal;
+        }
+        String name;
+        if (elt.getPrefix() == null) name = elt.getNodeName();
+        else                         name = elt.getLocalName();
+        Entry[] b = (Entry[])names.get(name);
+        if (b != null) {
+            buckets[n++] = b;
+        }
+        if (elt instanceof CSSStylableElement) {
+            CSSStylableElement se = (CSSStylableElement)elt;
+            if (!ids.isEmpty()) {
+                b = (Entry[])ids.get(se.getXMLId());
+                if (b != null) {
+                    buckets[n++] = b;
+                }
+            }
+            if (!classes.isEmpty()) {
+                String cls = se.getCSSClass();
+                int clen = (cls == null) ? 0 : cls.length();
+                int start = -1;
+                for (int i = 0; i <= clen; i++) {
+                    if (i == clen || Character.isSpaceChar(cls.charAt(i))) {
+                        if (start != -1) {
+                            b = (Entry[])classes.get(cls.substring(start, i));
+                            if (b != null) {
+                                if (n == buckets.length) {
+                                    Entry[][] t = new Entry[n * 2][];
+                                    System.arraycopy(buckets, 0, t, 0, n);
+                                    buckets = t;
+                                }
+                                buckets[n++] = b;
+                            }
+                            start = -1;
+                        }
+                    } else if (start == -1) {
+                        start = i;
+                    }
+                }
+            }
+        }
+
+        switch (n) {
+        case 0:
+            return EMPTY;
+        case 1:
+            return buckets[0];
+        }
+
+        int len = 0;
+        for (int i = 0; i < n; i++) {
+            len += buckets[i].length;
+        }
+        Entry[] result = new Entry[len];
+        int off = 0;
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(buckets[i], 0, result, off, buckets[i].length);
+            off += buckets[i].length;
+        }
+        Arrays.sort(result);
+
+        // A class listed twice on the element yields its bucket twice.
+        int j = 1;
+        for (int i = 1; i < len; i++) {
+            if (result[i] != result[j - 1]) {
+                result[j++] = result[i];
+            }
+        }
+        if (j < len) {
+            Entry[] t = new Entry[j];
+            System.arraycopy(result, 0, t, 0, j);
+            result = t;
+        }
+        return result;
+    }
+
+    /**
+     * Adds the given entry to the bucket of the given selector.
+     */
+    protected void add(Entry e, Selector s) {
+        Map m = names;
+        Object key = null;
+        Selector rs = getRightmost(s);
+        if (rs instanceof CSSConditionalSelector) {
+            CSSConditionalSelector cs = (CSSConditionalSelector)rs;
+            Object[] k = new Object[2];
+            findConditionKey(cs.getCondition(), k);
+            if (k[0] != null) {
+                m = ids;
+                key = k[0];
+            } else if (k[1] != null) {
+                m = classes;
+                key = k[1];
+            } else {
+                key = getElementName(cs.getSimpleSelector());
+            }
+        } else {
+            key = getElementName(rs);
+        }
+        List l = (List)m.get(key);
+        if (l == null) {
+            l = new ArrayList();
+            m.put(key, l);
+        }
+        l.add(e);
+    }
+
+    /**
+     * Returns the simple selector a compound selector applies to the
+     * element itself.
+     */
+    protected static Selector getRightmost(Selector s) {
+        for (;;) {
+            if (s instanceof AbstractDescendantSelector) {
+                s = ((AbstractDescendantSelector)s).getSimpleSelector();
+            } else if (s instanceof CSSDirectAdjacentSelector) {
+                s = ((CSSDirectAdjacentSelector)s).getSiblingSelector();
+            } else {
+                return s;
+            }
+        }
+    }
+
+    /**
+     * Returns the element name the given simple selector requires, or
+     * null if it may match any element.
+     */
+    protected static String getElementName(Selector s) {
+        if (s instanceof CSSElementSelector) {
+            return ((CSSElementSelector)s).getLocalName();
+        }
+        return null;
+    }
+
+    /**
+     * Looks for an id, stored in k[0], and a class, stored in k[1],
+     * that the given condition requires.
+     */
+    protected static void findConditionKey(Condition c, Object[] k) {
+        if (c instanceof CSSIdCondition) {
+            k[0] = ((CSSIdCondition)c).getValue();
+        } else if (c instanceof CSSClassCondition) {
+            String v = ((CSSClassCondition)c).getValue();
+            if (k[1] == null && v.length() > 0) {
+                k[1] = v;
+            }
+        } else if (c instanceof CSSAndCondition) {
+            CSSAndCondition ac = (CSSAndCondition)c;
+            findConditionKey(ac.getFirstCondition(), k);
+            findConditionKey(ac.getSecondCondition(), k);
+        }
+    }
+
+    protected static Entry[] toArray(List l) {
+        if (l == null) {
+            return EMPTY;
+        }
+        Entry[] result = new Entry[l.size()];
+        l.toArray(result);
+        return result;
+    }
+
+    protected static Map toArrays(Map m) {
+        Map result = new HashMap(m.size() * 2);
+        Iterator it = m.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry me = (Map.Entry)it.next();
+            result.put(me.getKey(), toArray((List)me.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * A selector of a style rule, or a media rule, along with its
+     * position in the style-sheet.
+     */
+    public static class Entry implements Comparable {
+
+        /**
+         * The position in the style-sheet.
+         */
+        protected int order;
+
+        /**
+         * The style or media rule.
+         */
+        protected Rule rule;
+
+        /**
+         * The selector, null for a media rule.
+         */
+        protected ExtendedSelector selector;
+
+        public Entry(Rule r, ExtendedSelector s) {
+            rule = r;
+            selector = s;
+        }
+
+        /**
+         * Returns the rule of this entry.
+         */
+        public Rule getRule() {
+            return rule;
+        }
+
+        /**
+         * Returns the selector of this entry, null for a media rule.
+         */
+        public ExtendedSelector getSelector() {
+            return selector;
+        }
+
+        public int compareTo(Object o) {
+            int oo = ((Entry)o).order;
+            return (order < oo) ? -1 : ((order == oo) ? 0 : 1);
+        }
+    }
+}
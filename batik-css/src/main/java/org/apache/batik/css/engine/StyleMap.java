@@ -72,6 +72,11 @@ public class StyleMap {
      */
     protected boolean fixedCascadedValues;
 
+    /**
+     * Whether this map is the computed style of several elements.
+     */
+    protected boolean shared;
+
     /**
      * Creates a new StyleMap.
      */
@@ -80,6 +85,30 @@ public class StyleMap {
         masks = new short[size];
     }
 
+    /**
+     * Creates a new, unshared StyleMap with the content of the given one.
+     */
+    public StyleMap(StyleMap sm) {
+        values = sm.values.clone();
+        masks = sm.masks.clone();
+        fixedCascadedValues = sm.fixedCascadedValues;
+    }
+
+    /**
+     * Whether this map is the computed style of several elements, and
+     * so must be copied before being modified for one of them.
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Sets the shared property.
+     */
+    public void setShared(boolean b) {
+        shared = b;
+    }
+
     /**
      * Whether this map has fixed cascaded value.
      */
@@ -58,6 +58,11 @@ public class StyleSheet {
      */
     protected String title;
 
+    /**
+     * The index of the rules, built on first use.
+     */
+    protected volatile RuleIndex ruleIndex;
+
     /**
      * Sets the media to use to compute the styles.
      */
@@ -132,6 +137,7 @@ public class StyleSheet {
      * Clears the content.
      */
     public void clear() {
+        ruleIndex = null;
         size = 0;
         rules = new Rule[10];
     }
@@ -146,6 +152,20 @@ public class StyleSheet {
             rules = t;
         }
         rules[size++] = r;
+        ruleIndex = null;
+    }
+
+    /**
+     * Returns the index of the rules of this style-sheet, which gives
+     * the rules that may match a given element.
+     */
+    public RuleIndex getRuleIndex() {
+        RuleIndex ri = ruleIndex;
+        if (ri == null) {
+            ri = new RuleIndex(this);
+            ruleIndex = ri;
+        }
+        return ri;
     }
 
     /**
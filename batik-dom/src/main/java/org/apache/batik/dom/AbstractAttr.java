@@ -23,6 +23,7 @@ import org.w3c.dom.Attr;
 import org.w3c.dom.DOMException;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 import org.w3c.dom.TypeInfo;
 import org.w3c.dom.events.MutationEvent;
 
@@ -59,6 +60,14 @@ public abstract class AbstractAttr extends AbstractParentNode implements Attr {
      */
     protected TypeInfo typeInfo;
 
+    /**
+     * The value of this attribute, while it is not held by a child text
+     * node.  Most attributes are only ever read through their value, so
+     * the text node is created only when the children of the attribute
+     * are asked for, see {@link #materializeValue()}.
+     */
+    protected String value;
+
     /**
      * Creates a new Attr object.
      */
@@ -111,6 +120,9 @@ public abstract class AbstractAttr extends AbstractParentNode implements Attr {
      * @return The content of the attribute.
      */
     public String getNodeValue() throws DOMException {
+        if (value != null) {
+            return value;
+        }
         Node first = getFirstChild();
         if (first == null) {
             return "";
@@ -139,18 +151,25 @@ public abstract class AbstractAttr extends AbstractParentNode implements Attr {
         }
 
         String s = getNodeValue();
-
-        // Remove all the children
-        Node n;
-        while ((n = getFirstChild()) != null) {
-            removeChild(n);
-        }
-
         String val = (nodeValue == null) ? "" : nodeValue;
 
-        // Create and append a new child.
-        n = getOwnerDocument().createTextNode(val);
-        appendChild(n);
+        if (!hasMaterializedChildren() &&
+            !getCurrentDocument().getEventsEnabled()) {
+            // No child to remove and no mutation event to fire for the
+            // new text node: just keep the value.
+            value = val;
+            setSpecified(true);
+        } else {
+            // Remove all the children
+            Node n;
+            while ((n = getFirstChild()) != null) {
+                removeChild(n);
+            }
+
+            // Create and append a new child.
+            n = getOwnerDocument().createTextNode(val);
+            appendChild(n);
+        }
 
         if (ownerElement != null) {
             ownerElement.fireDOMAttrModifiedEvent(nodeName,
@@ -161,6 +180,115 @@ public abstract class AbstractAttr extends AbstractParentNode implements Attr {
         }
     }
 
+    /**
+     * Whether this attribute has child nodes, which then hold its value.
+     */
+    protected boolean hasMaterializedChildren() {
+        return childNodes != null && childNodes.getLength() != 0;
+    }
+
+    /**
+     * Moves the value of this attribute into a child text node, if it
+     * is not there already.  No mutation event is fired: the value is
+     * the same.
+     */
+    protected void materializeValue() {
+        if (value == null) {
+            return;
+        }
+        ExtendedNode n = (ExtendedNode)getOwnerDocument().createTextNode(value);
+        n.setReadonly(isReadonly());
+        value = null;
+        if (childNodes == null) {
+            childNodes = new ChildNodes();
+        }
+        childNodes.append(n);
+        n.setParentNode(this);
+    }
+
+    /**
+     * <b>DOM</b>: Implements {@link org.w3c.dom.Node#getChildNodes()}.
+     */
+    public NodeList getChildNodes() {
+        materializeValue();
+        return super.getChildNodes();
+    }
+
+    /**
+     * <b>DOM</b>: Implements {@link org.w3c.dom.Node#getFirstChild()}.
+     */
+    public Node getFirstChild() {
+        materializeValue();
+        return super.getFirstChild();
+    }
+
+    /**
+     * <b>DOM</b>: Implements {@link org.w3c.dom.Node#getLastChild()}.
+     */
+    public Node getLastChild() {
+        materializeValue();
+        return super.getLastChild();
+    }
+
+    /**
+     * <b>DOM</b>: Implements {@link org.w3c.dom.Node#hasChildNodes()}.
+     */
+    public boolean hasChildNodes() {
+        return value != null || super.hasChildNodes();
+    }
+
+    /**
+     * <b>DOM</b>: Implements {@link
+     * org.w3c.dom.Node#insertBefore(Node,Node)}.
+     */
+    public Node insertBefore(Node newChild, Node refChild)
+        throws DOMException {
+        materializeValue();
+        return super.insertBefore(newChild, refChild);
+    }
+
+    /**
+     * <b>DOM</b>: Implements {@link
+     * org.w3c.dom.Node#replaceChild(Node,Node)}.
+     */
+    public Node replaceChild(Node newChild, Node oldChild)
+        throws DOMException {
+        materializeValue();
+        return super.replaceChild(newChild, oldChild);
+    }
+
+    /**
+     * <b>DOM</b>: Implements {@link org.w3c.dom.Node#removeChild(Node)}.
+     */
+    public Node removeChild(Node oldChild) throws DOMException {
+        materializeValue();
+        return super.removeChild(oldChild);
+    }
+
+    /**
+     * <b>DOM</b>: Implements {@link org.w3c.dom.Node#appendChild(Node)}.
+     */
+    public Node appendChild(Node newChild) throws DOMException {
+        materializeValue();
+        return super.appendChild(newChild);
+    }
+
+    /**
+     * <b>DOM</b>: Implements {@link org.w3c.dom.Node#normalize()}.
+     */
+    public void normalize() {
+        if (value == null) {
+            super.normalize();
+        }
+    }
+
+    /**
+     * <b>DOM</b>: Implements {@link org.w3c.dom.Node#getTextContent()}.
+     */
+    public String getTextContent() {
+        return (value != null) ? value : super.getTextContent();
+    }
+
     /**
      * <b>DOM</b>: Implements {@link org.w3c.dom.Attr#getName()}.
      * @return {@link #getNodeName()}.
@@ -267,8 +395,14 @@ public abstract class AbstractAttr extends AbstractParentNode implements Attr {
      * Deeply exports this node to the given document.
      */
     protected Node deepExport(Node n, AbstractDocument d) {
-        super.deepExport(n, d);
         AbstractAttr aa = (AbstractAttr)n;
+        if (value != null) {
+            // The children would be the value in a single text node.
+            export(n, d);
+            aa.value = value;
+        } else {
+            super.deepExport(n, d);
+        }
         aa.nodeName     = nodeName;
         aa.unspecified  = false;
         aa.isIdAttr     = d.isId(aa);
@@ -293,8 +427,13 @@ public abstract class AbstractAttr extends AbstractParentNode implements Attr {
      * @param n a node of the type of this.
      */
     protected Node deepCopyInto(Node n) {
-        super.deepCopyInto(n);
         AbstractAttr aa = (AbstractAttr)n;
+        if (value != null) {
+            copyInto(n);
+            aa.value = value;
+        } else {
+            super.deepCopyInto(n);
+        }
         aa.nodeName     = nodeName;
         aa.unspecified  = unspecified;
         aa.isIdAttr     = isIdAttr;
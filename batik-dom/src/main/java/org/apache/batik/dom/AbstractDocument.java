@@ -451,6 +451,17 @@ public abstract class AbstractDocument
      */
     public abstract boolean isId(Attr node);
 
+    /**
+     * Returns whether an attribute of the given name can be an ID
+     * attribute.  The attributes for which this returns false are
+     * added by the parser without their Attr node, see {@link
+     * AbstractElement#addAttributeValueNS(String,String,String)}.
+     * This default implementation returns true.
+     */
+    public boolean isId(String namespaceURI, String qualifiedName) {
+        return true;
+    }
+
     /**
      * <b>DOM</b>: Implements {@link
      * org.w3c.dom.Document#getElementById(String)}.
@@ -113,18 +113,15 @@ public abstract class AbstractElement
      * <b>DOM</b>: Implements {@link org.w3c.dom.Element#hasAttribute(String)}.
      */
     public boolean hasAttribute( String name ) {
-        return attributes != null && attributes.getNamedItem( name ) != null;
+        return getAttributeValue( null, name ) != null;
     }
 
     /**
      * <b>DOM</b>: Implements {@link org.w3c.dom.Element#getAttribute(String)}.
      */
     public String getAttribute(String name) {
-        if ( attributes == null ) {
-          return "";
-        }
-        Attr attr = (Attr)attributes.getNamedItem( name );
-        return ( attr == null ) ? "" : attr.getValue();
+        String value = getAttributeValue( null, name );
+        return ( value == null ) ? "" : value;
     }
 
     /**
@@ -222,8 +219,7 @@ public abstract class AbstractElement
         if ( namespaceURI != null && namespaceURI.length() == 0 ) {
             namespaceURI = null;
         }
-        return attributes != null &&
-                attributes.getNamedItemNS( namespaceURI, localName ) != null;
+        return getAttributeValue( namespaceURI, localName ) != null;
     }
 
     /**
@@ -231,14 +227,30 @@ public abstract class AbstractElement
      * org.w3c.dom.Element#getAttributeNS(String,String)}.
      */
     public String getAttributeNS( String namespaceURI, String localName ) {
-        if ( attributes == null ) {
-            return "";
-        }
         if ( namespaceURI != null && namespaceURI.length() == 0 ) {
             namespaceURI = null;
         }
-        Attr attr = (Attr)attributes.getNamedItemNS( namespaceURI, localName );
-        return ( attr == null ) ? "" : attr.getValue();
+        String value = getAttributeValue( namespaceURI, localName );
+        return ( value == null ) ? "" : value;
+    }
+
+    /**
+     * Returns the value of the given attribute, or null if this element
+     * does not have it.  The Attr node is not created if it was not yet.
+     * @param namespaceURI The attribute's namespace URI, or null.
+     * @param name The attribute's local name, or its qualified name
+     *             when it has no namespace.
+     */
+    protected String getAttributeValue( String namespaceURI, String name ) {
+        if ( attributes == null || name == null ) {
+            return null;
+        }
+        if ( attributes instanceof NamedNodeHashMap ) {
+            return ( (NamedNodeHashMap)attributes ).getValue( namespaceURI,
+                                                              name );
+        }
+        Attr attr = (Attr)attributes.getNamedItemNS( namespaceURI, name );
+        return ( attr == null ) ? null : attr.getValue();
     }
 
     /**
@@ -266,6 +278,41 @@ public abstract class AbstractElement
         }
     }
 
+    /**
+     * Adds an attribute to this element without creating its Attr node.
+     * The node is created the first time it is asked for through the
+     * DOM API; until then only the name and the value are kept.  This is
+     * meant for the parser and the cloning of elements: no mutation event
+     * is fired and {@link #attrAdded(Attr,String)} is not called, so the
+     * element must not be observed yet.  ID attributes, and all the
+     * attributes while the document fires events, get their node at once.
+     * @param namespaceURI The attribute's namespace URI, or null.
+     * @param qualifiedName The attribute's qualified name.
+     * @param value The attribute's value.
+     */
+    public void addAttributeValueNS(String namespaceURI,
+                                    String qualifiedName,
+                                    String value) {
+        if (attributes == null) {
+            attributes = createAttributes();
+        }
+        if (namespaceURI != null && namespaceURI.length() == 0) {
+            namespaceURI = null;
+        }
+        if (!(attributes instanceof NamedNodeHashMap) ||
+            ownerDocument.getEventsEnabled() ||
+            ownerDocument.isId(namespaceURI, qualifiedName)) {
+            Attr attr = ownerDocument.createAttributeNS(namespaceURI,
+                                                        qualifiedName);
+            attr.setValue(value);
+            attributes.setNamedItemNS(attr);
+            return;
+        }
+        ((NamedNodeHashMap)attributes).putValue(namespaceURI,
+                                                qualifiedName,
+                                                value);
+    }
+
     /**
      * <b>DOM</b>: Implements {@link
      * org.w3c.dom.Element#removeAttributeNS(String,String)}.
@@ -444,6 +491,11 @@ public abstract class AbstractElement
             return;
         }
         AbstractDocument ad = getCurrentDocument();
+        if (ad.elementsByTagNames == null
+                && ad.elementsByTagNamesNS == null) {
+            // Nothing to invalidate, as while the document is parsed.
+            return;
+        }
         String ns = node.getNamespaceURI();
         String nm = node.getNodeName();
         String ln = (ns == null) ? node.getNodeName() : node.getLocalName();
@@ -555,15 +607,7 @@ public abstract class AbstractElement
         super.copyInto(n);
         AbstractElement ae = (AbstractElement)n;
         if (attributes != null) {
-            NamedNodeMap map = attributes;
-            for (int i = map.getLength() - 1; i >= 0; i--) {
-                AbstractAttr aa = (AbstractAttr)map.item(i).cloneNode(true);
-                if (aa instanceof AbstractAttrNS) {
-                    ae.setAttributeNodeNS(aa);
-                } else {
-                    ae.setAttributeNode(aa);
-                }
-            }
+            copyAttributesInto(ae);
         }
         return n;
     }
@@ -576,17 +620,48 @@ public abstract class AbstractElement
         super.deepCopyInto(n);
         AbstractElement ae = (AbstractElement)n;
         if (attributes != null) {
+            copyAttributesInto(ae);
+        }
+        return n;
+    }
+
+    /**
+     * Copies the attributes of this element into the given element.  The
+     * attributes whose Attr node was not created yet are copied without
+     * creating one.
+     */
+    protected void copyAttributesInto(AbstractElement ae) {
+        if (attributes instanceof NamedNodeHashMap) {
+            Entry[] table = ((NamedNodeHashMap)attributes).table;
+            for (int i = table.length - 1; i >= 0; i--) {
+                for (Entry e = table[i]; e != null; e = e.next) {
+                    if (e.value == null) {
+                        ae.addAttributeValueNS(e.namespaceURI,
+                                               e.qualifiedName,
+                                               e.text);
+                    } else {
+                        copyAttributeInto(ae, e.value);
+                    }
+                }
+            }
+        } else {
             NamedNodeMap map = attributes;
             for (int i = map.getLength() - 1; i >= 0; i--) {
-                AbstractAttr aa = (AbstractAttr)map.item(i).cloneNode(true);
-                if (aa instanceof AbstractAttrNS) {
-                    ae.setAttributeNodeNS(aa);
-                } else {
-                    ae.setAttributeNode(aa);
-                }
+                copyAttributeInto(ae, map.item(i));
             }
         }
-        return n;
+    }
+
+    /**
+     * Copies the given attribute node into the given element.
+     */
+    private void copyAttributeInto(AbstractElement ae, Node attr) {
+        AbstractAttr aa = (AbstractAttr)attr.cloneNode(true);
+        if (aa instanceof AbstractAttrNS) {
+            ae.setAttributeNodeNS(aa);
+        } else {
+            ae.setAttributeNode(aa);
+        }
     }
 
     /**
@@ -820,7 +895,7 @@ public abstract class AbstractElement
                 }
                 do {
                     if (j++ == index) {
-                        return e.value;
+                        return value(e);
                     }
                     e = e.next;
                 } while (e != null);
@@ -951,17 +1026,95 @@ public abstract class AbstractElement
          * @return the value or null
          */
         protected Node get( String ns, String nm ) {
+            Entry e = getEntry( ns, nm );
+            return ( e == null ) ? null : value( e );
+        }
+
+        /**
+         * Returns the value of the given attribute, without creating its
+         * node if it was not yet.
+         *
+         * @return the value or null
+         */
+        public String getValue( String ns, String nm ) {
+            Entry e = getEntry( ns, nm );
+            if ( e == null ) {
+                return null;
+            }
+            return ( e.value == null ) ? e.text : e.value.getNodeValue();
+        }
+
+        /**
+         * Adds an attribute to the map without creating its node.
+         * If the map has the attribute already, its value is changed.
+         *
+         * @param ns The attribute's namespace URI, or null.
+         * @param qname The attribute's qualified name.
+         * @param value The attribute's value.
+         */
+        protected void putValue( String ns, String qname, String value ) {
+            String nm = qname;
+            if ( ns != null ) {
+                int idx = qname.indexOf( ':' );
+                if ( idx != -1 ) {
+                    nm = qname.substring( idx + 1 );
+                }
+            }
+            Entry e = getEntry( ns, nm );
+            if ( e != null ) {
+                if ( e.value == null ) {
+                    e.text = value;
+                } else {
+                    ( (Attr)e.value ).setValue( value );
+                }
+                return;
+            }
+
+            int hash = hashCode( ns, nm ) & 0x7FFFFFFF;
+            int len = table.length;
+            if ( count++ >= ( len - ( len >> 2 ) ) ) {
+                // more than 75% loaded: grow
+                rehash();
+            }
+            int index = hash % table.length;
+            e = new Entry( hash, ns, nm, null, table[ index ] );
+            e.qualifiedName = qname;
+            e.text = value;
+            table[ index ] = e;
+        }
+
+        /**
+         * Returns the entry of the given attribute, or null.
+         */
+        protected Entry getEntry( String ns, String nm ) {
             int hash = hashCode( ns, nm ) & 0x7FFFFFFF;
             int index = hash % table.length;
 
             for ( Entry e = table[ index ]; e != null; e = e.next ) {
                 if ( ( e.hash == hash ) && e.match( ns, nm ) ) {
-                    return e.value;
+                    return e;
                 }
             }
             return null;
         }
 
+        /**
+         * Returns the node of the given entry, which is created if the
+         * attribute was added without one.
+         */
+        protected Node value( Entry e ) {
+            if ( e.value == null ) {
+                AbstractAttr a = (AbstractAttr)ownerDocument.createAttributeNS
+                    ( e.namespaceURI, e.qualifiedName );
+                a.value = e.text;
+                a.setOwnerElement( AbstractElement.this );
+                e.value = a;
+                e.qualifiedName = null;
+                e.text = null;
+            }
+            return e.value;
+        }
+
         /**
          * Sets a new value for the given variable
          *
@@ -973,7 +1126,7 @@ public abstract class AbstractElement
 
             for ( Entry e = table[ index ]; e != null; e = e.next ) {
                 if ( ( e.hash == hash ) && e.match( ns, nm ) ) {
-                    Node old = e.value;
+                    Node old = value( e );
                     e.value = value;
                     return old;
                 }
@@ -1004,7 +1157,7 @@ public abstract class AbstractElement
             Entry p = null;
             for ( Entry e = table[ index ]; e != null; e = e.next ) {
                 if ( ( e.hash == hash ) && e.match( ns, nm ) ) {
-                    Node result = e.value;
+                    Node result = value( e );
                     if ( p == null ) {
                         table[ index ] = e.next;
                     } else {
@@ -1049,7 +1202,10 @@ public abstract class AbstractElement
 
     /**
      * To manage collisions in the attributes map.
-     * Implements a linked list of <code>Node</code>-objects.
+     * Implements a linked list of <code>Node</code>-objects.  An attribute
+     * added by {@link #addAttributeValueNS(String,String,String)} has no
+     * node until one is asked for: its entry holds the qualified name and
+     * the value instead.
      */
     protected static class Entry implements Serializable {
 
@@ -1069,10 +1225,20 @@ public abstract class AbstractElement
         public String name;
 
         /**
-         * The value
+         * The value, or null while the attribute has no node.
          */
         public Node value;
 
+        /**
+         * The qualified name of the attribute, while it has no node.
+         */
+        public String qualifiedName;
+
+        /**
+         * The value of the attribute, while it has no node.
+         */
+        public String text;
+
         /**
          * The next entry
          */
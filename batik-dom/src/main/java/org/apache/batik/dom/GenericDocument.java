@@ -89,6 +89,14 @@ public class GenericDocument
         return ATTR_ID.equals(node.getNodeName());
     }
 
+    /**
+     * Returns whether an attribute of the given name can be an 'id'
+     * for this document.
+     */
+    public boolean isId(String namespaceURI, String qualifiedName) {
+        return namespaceURI == null && ATTR_ID.equals(qualifiedName);
+    }
+
     /**
      * <b>DOM</b>: Implements {@link
      * org.w3c.dom.Document#createElement(String)}.
@@ -30,6 +30,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
+import org.w3c.dom.Attr;
 import org.w3c.dom.DOMImplementation;
 import org.w3c.dom.Document;
 import org.w3c.dom.DocumentType;
@@ -48,6 +49,7 @@ import org.xml.sax.ext.LexicalHandler;
 import org.xml.sax.helpers.DefaultHandler;
 import org.xml.sax.helpers.XMLReaderFactory;
 
+import org.apache.batik.dom.AbstractElement;
 import org.apache.batik.util.HaltingThread;
 import org.apache.batik.util.XMLConstants;
 
@@ -78,6 +80,12 @@ public class SAXDocumentFactory
      */
     protected XMLReader parser;
 
+    /**
+     * The SAX2 parser object kept to parse the next documents, as
+     * creating one costs about as much as parsing a small document.
+     */
+    protected XMLReader reusableParser;
+
     /**
      * The created document.
      */
@@ -106,7 +114,7 @@ public class SAXDocumentFactory
     /**
      * Contains collected string data.  May be Text, CDATA or Comment.
      */
-    protected StringBuffer stringBuffer = new StringBuffer();
+    protected StringBuilder stringBuffer = new StringBuilder();
 
     /**
      * The DTD to use when the document is created.
@@ -211,6 +219,34 @@ public class SAXDocumentFactory
      */
     protected List preInfo;
 
+    /**
+     * The longest attribute value that is shared between the attributes
+     * of a document.
+     */
+    protected static final int MAX_SHARED_VALUE_LENGTH = 32;
+
+    /**
+     * The number of attribute values shared at once while parsing a
+     * document.  Must be a power of two.
+     */
+    protected static final int MAX_SHARED_VALUES = 4096;
+
+    /**
+     * The short attribute values of the document being parsed, so that
+     * the attributes with the same value share one string.  Documents
+     * repeat many values, such as their fill, stroke and class values.
+     * A value is stored at the index given by its hash code, where it
+     * replaces the previous one, so that looking a value up is a single
+     * comparison.
+     */
+    protected String[] attributeValues;
+
+    /**
+     * The strict error checking of the document being parsed, before it
+     * was turned off for the parsing.
+     */
+    protected boolean strictErrorChecking;
+
     /**
      * Creates a new SAXDocumentFactory object.
      * No document descriptor will be created while generating a document.
@@ -420,7 +456,10 @@ public class SAXDocumentFactory
     protected Document createDocument(InputSource is)
         throws IOException {
         try {
-            if (parserClassName != null) {
+            if (reusableParser != null) {
+                parser = reusableParser;
+                reusableParser = null;
+            } else if (parserClassName != null) {
                 parser = XMLReaderFactory.createXMLReader(parserClassName);
             } else {
                 SAXParser saxParser;
@@ -464,6 +503,7 @@ public class SAXDocumentFactory
         document     = null;
         doctype      = null;
         locator      = null;
+        reusableParser = parser;
         parser       = null;
         return ret;
     }
@@ -545,6 +585,7 @@ public class SAXDocumentFactory
     public void startDocument() throws SAXException {
         preInfo    = new LinkedList();
         namespaces = new HashTableStack();
+        attributeValues = new String[MAX_SHARED_VALUES];
         namespaces.put("xml", XMLSupport.XML_NAMESPACE_URI);
         namespaces.put("xmlns", XMLSupport.XMLNS_NAMESPACE_URI);
         namespaces.put("", null);
@@ -638,9 +679,12 @@ public class SAXDocumentFactory
         String nsURI = namespaces.get(nsp);
         if (currentNode == null) {
             implementation = getDOMImplementation(version);
-            document = implementation.createDocument(nsURI, rawName, doctype);
+            document = createDocument(implementation, nsURI, rawName);
             Iterator i = preInfo.iterator();
             currentNode = e = document.getDocumentElement();
+            // The parser has already checked the names of the nodes.
+            strictErrorChecking = document.getStrictErrorChecking();
+            document.setStrictErrorChecking(false);
             while (i.hasNext()) {
                 PreInfo pi = (PreInfo)i.next();
                 Node n = pi.createNode(document);
@@ -660,23 +704,74 @@ public class SAXDocumentFactory
                                            locator.getColumnNumber());
         }
 
-        // Attributes creation
+        // Attributes creation.  The parser has checked that the element
+        // has no two attributes of the same name, so they are added
+        // without looking for the one they would replace.
         for (int i = 0; i < len; i++) {
             String aname = attributes.getQName(i);
+            String avalue;
             if (aname.equals("xmlns")) {
-                e.setAttributeNS(XMLSupport.XMLNS_NAMESPACE_URI,
-                                 aname,
-                                 attributes.getValue(i));
+                nsURI = XMLSupport.XMLNS_NAMESPACE_URI;
+                avalue = attributes.getValue(i);
             } else {
                 idx = aname.indexOf(':');
                 nsURI = (idx == -1)
                     ? null
                     : namespaces.get(aname.substring(0, idx));
-                e.setAttributeNS(nsURI, aname, attributes.getValue(i));
+                avalue = sharedValue(attributes.getValue(i));
+            }
+            if (e instanceof AbstractElement) {
+                // The Attr node is created when asked for.
+                ((AbstractElement)e).addAttributeValueNS(nsURI, aname,
+                                                         avalue);
+            } else {
+                Attr a = document.createAttributeNS(nsURI, aname);
+                a.setValue(avalue);
+                e.setAttributeNodeNS(a);
             }
         }
     }
 
+    /**
+     * Returns the string equal to the given attribute value already used
+     * in the document being parsed, or the value itself.
+     */
+    protected String sharedValue(String value) {
+        if (attributeValues == null ||
+            value.length() > MAX_SHARED_VALUE_LENGTH) {
+            return value;
+        }
+        int i = value.hashCode() & (MAX_SHARED_VALUES - 1);
+        String s = attributeValues[i];
+        if (value.equals(s)) {
+            return s;
+        }
+        attributeValues[i] = value;
+        return value;
+    }
+
+    /**
+     * <b>SAX</b>: Implements {@link
+     * org.xml.sax.ContentHandler#endDocument()}.
+     */
+    public void endDocument() throws SAXException {
+        attributeValues = null;
+        if (document != null) {
+            document.setStrictErrorChecking(strictErrorChecking);
+        }
+    }
+
+    /**
+     * Creates the document being parsed, with its document element.
+     * @param impl The DOM implementation for the version of the document.
+     * @param ns The namespace URI of the document element.
+     * @param root The qualified name of the document element.
+     */
+    protected Document createDocument(DOMImplementation impl,
+                                      String ns, String root) {
+        return impl.createDocument(ns, root, doctype);
+    }
+
     /**
      * <b>SAX</b>: Implements {@link
      * org.xml.sax.ContentHandler#endElement(String,String,String)}.
@@ -137,6 +137,12 @@ public abstract class AbstractGraphicsNode implements GraphicsNode {
      */
     private Rectangle2D bounds;
 
+    /**
+     * Internal Cache: the node bounds transformed by the last transform
+     * they were asked for.
+     */
+    private volatile TransformedBounds transformedBounds;
+
 
     protected GraphicsNodeChangeEvent changeStartedEvent   = null;
     protected GraphicsNodeChangeEvent changeCompletedEvent = null;
@@ -200,6 +206,9 @@ public abstract class AbstractGraphicsNode implements GraphicsNode {
             // transform.
             inverseTransform = transform;
         }
+        // Our own bounds are in our user space, only their transformed
+        // version and our ancestors' bounds change.
+        transformedBounds = null;
         if (parent != null)
             parent.invalidateGeometryCache();
         fireGraphicsNodeChangeCompleted();
@@ -241,8 +250,8 @@ public abstract class AbstractGraphicsNode implements GraphicsNode {
      * @param newComposite the composite of this node
      */
     public void setComposite(Composite newComposite) {
+        // The composite does not change the bounds of any node.
         fireGraphicsNodeChangeStarted();
-        invalidateGeometryCache();
         this.composite = newComposite;
         fireGraphicsNodeChangeCompleted();
     }
@@ -278,7 +287,7 @@ public abstract class AbstractGraphicsNode implements GraphicsNode {
             return; // No change still no clip.
 
         fireGraphicsNodeChangeStarted();
-        invalidateGeometryCache();
+        invalidateBoundsCache();
         this.clip = newClipper;
         fireGraphicsNodeChangeCompleted();
     }
@@ -352,7 +361,7 @@ public abstract class AbstractGraphicsNode implements GraphicsNode {
             return; // No change still no mask.
 
         fireGraphicsNodeChangeStarted();
-        invalidateGeometryCache();
+        invalidateBoundsCache();
         mask = newMask;
         fireGraphicsNodeChangeCompleted();
     }
@@ -374,7 +383,7 @@ public abstract class AbstractGraphicsNode implements GraphicsNode {
             return; // No change still no filter.
 
         fireGraphicsNodeChangeStarted();
-        invalidateGeometryCache();
+        invalidateBoundsCache();
         filter = newFilter;
         fireGraphicsNodeChangeCompleted();
     }
@@ -743,6 +752,18 @@ public abstract class AbstractGraphicsNode implements GraphicsNode {
      * changed.
      */
     protected void invalidateGeometryCache() {
+        invalidateBoundsCache();
+    }
+
+    /**
+     * Invalidates the cached bounds of this node that include its
+     * filter, clip and mask, and all the cached bounds of its
+     * ancestors.  Unlike <code>invalidateGeometryCache</code>, it keeps
+     * the primitive, geometry and sensitive bounds of this node, which
+     * only depend on what this node draws.  This method is called each
+     * time the filter, clip or mask of this node changed.
+     */
+    protected void invalidateBoundsCache() {
         // If our bounds are invalid then our parents bounds
         // must be invalid also. So just return.
         //if (bounds == null) return;
@@ -751,6 +772,7 @@ public abstract class AbstractGraphicsNode implements GraphicsNode {
             parent.invalidateGeometryCache();
         }
         bounds = null;
+        transformedBounds = null;
     }
 
     /**
@@ -758,8 +780,9 @@ public abstract class AbstractGraphicsNode implements GraphicsNode {
      * paint, filtering, clipping and masking.
      */
     public Rectangle2D getBounds(){
-        // Get the primitive bounds
-        // Rectangle2D bounds = null;
+        // Get the primitive bounds, working on a local so other
+        // threads never see the bounds before they are complete.
+        Rectangle2D bounds = this.bounds;
         if (bounds == null) {
             // The painted region, before cliping, masking and compositing is
             // either the area painted by the primitive paint or the area
@@ -771,6 +794,10 @@ public abstract class AbstractGraphicsNode implements GraphicsNode {
             }
             // Factor in the clipping area, if any
             if(bounds != null){
+                // Don't intersect the primitive bounds in place, they
+                // are cached and outlive the clip and mask.
+                if ((clip != null) || (mask != null))
+                    bounds = (Rectangle2D)bounds.clone();
                 if (clip != null) {
                     Rectangle2D clipR = clip.getClipPath().getBounds2D();
                     if (clipR.intersects(bounds))
@@ -791,7 +818,9 @@ public abstract class AbstractGraphicsNode implements GraphicsNode {
                 // The Thread has been 'halted'.
                 // Invalidate any cached values and proceed.
                 invalidateGeometryCache();
+                return bounds;
             }
+            this.bounds = bounds;
         }
 
         return bounds;
@@ -805,6 +834,26 @@ public abstract class AbstractGraphicsNode implements GraphicsNode {
      *        be concatenated. Should not be null.
      */
     public Rectangle2D getTransformedBounds(AffineTransform txf){
+        TransformedBounds tb = transformedBounds;
+        if ((tb != null) && tb.txf.equals(txf)) {
+            return (tb.bounds == null) ? null
+                : (Rectangle2D)tb.bounds.clone();
+        }
+
+        Rectangle2D tBounds = computeTransformedBounds(txf);
+        if (!HaltingThread.hasBeenHalted()) {
+            // Most calls are from the parent, with the identity.
+            transformedBounds = new TransformedBounds
+                (txf.isIdentity() ? IDENTITY : new AffineTransform(txf),
+                 (tBounds == null) ? null : (Rectangle2D)tBounds.clone());
+        }
+        return tBounds;
+    }
+
+    /**
+     * Computes the bounds returned by <code>getTransformedBounds</code>.
+     */
+    private Rectangle2D computeTransformedBounds(AffineTransform txf) {
         AffineTransform t = txf;
         if (transform != null) {
             t = new AffineTransform(txf);
@@ -998,4 +1047,17 @@ public abstract class AbstractGraphicsNode implements GraphicsNode {
         return bounds;
     }
 
+
+    /**
+     * Bounds transformed by a given transform.
+     */
+    private static final class TransformedBounds {
+        final AffineTransform txf;
+        final Rectangle2D bounds;
+
+        TransformedBounds(AffineTransform txf, Rectangle2D bounds) {
+            this.txf = txf;
+            this.bounds = bounds;
+        }
+    }
 }
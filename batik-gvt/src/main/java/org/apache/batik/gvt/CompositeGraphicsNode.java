@@ -25,6 +25,7 @@ import java.awt.geom.AffineTransform;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
@@ -48,6 +49,19 @@ public class CompositeGraphicsNode extends AbstractGraphicsNode
     public static final Rectangle2D VIEWPORT  = new Rectangle();
     public static final Rectangle2D NULL_RECT = new Rectangle();
 
+    /**
+     * The default number of children from which the children of a node
+     * are indexed by their bounds.
+     */
+    public static final int DEFAULT_SPATIAL_INDEX_THRESHOLD = 64;
+
+    /**
+     * The number of children from which the children of a node are
+     * indexed by their bounds, zero if they are never indexed.
+     */
+    protected static volatile int spatialIndexThreshold =
+        DEFAULT_SPATIAL_INDEX_THRESHOLD;
+
     /**
      * The children of this composite graphics node.
      */
@@ -90,6 +104,16 @@ public class CompositeGraphicsNode extends AbstractGraphicsNode
      */
     private Shape outline;
 
+    /**
+     * Internal Cache: the children indexed by their painted bounds.
+     */
+    private volatile SpatialIndex boundsIndex;
+
+    /**
+     * Internal Cache: the children indexed by their sensitive bounds.
+     */
+    private volatile SpatialIndex sensitiveIndex;
+
     /**
      * Constructs a new empty <code>CompositeGraphicsNode</code>.
      */
@@ -99,6 +123,24 @@ public class CompositeGraphicsNode extends AbstractGraphicsNode
     // Structural methods
     //
 
+    /**
+     * Sets the number of children from which the children of a node
+     * are indexed by their bounds, so that hit testing and painting
+     * part of the node only look at the children near the point or
+     * inside the area concerned.  Zero disables the indexing.
+     */
+    public static void setSpatialIndexThreshold(int threshold) {
+        spatialIndexThreshold = Math.max(0, threshold);
+    }
+
+    /**
+     * Returns the number of children from which the children of a
+     * node are indexed by their bounds, zero if they are never indexed.
+     */
+    public static int getSpatialIndexThreshold() {
+        return spatialIndexThreshold;
+    }
+
     /**
      * Returns the list of children.
      */
@@ -153,6 +195,24 @@ public class CompositeGraphicsNode extends AbstractGraphicsNode
         // Thread.currentThread() is potentially expensive, so reuse my instance in hasBeenHalted()
         Thread currentThread = Thread.currentThread();
 
+        // Only paint the children that may intersect the clip.
+        SpatialIndex index = getSpatialIndex(false);
+        Shape clip = (index == null) ? null : g2d.getClip();
+        if (clip != null) {
+            BitSet visible = index.getChildrenIn(clip.getBounds2D());
+            for (int i = visible.nextSetBit(0); (i >= 0) && (i < count);
+                 i = visible.nextSetBit(i+1)) {
+                if (HaltingThread.hasBeenHalted( currentThread ))
+                    return;
+
+                GraphicsNode node = children[i];
+                if (node != null) {
+                    node.paint(g2d);
+                }
+            }
+            return;
+        }
+
         // Paint children
         for (int i=0; i < count; ++i) {
             if (HaltingThread.hasBeenHalted( currentThread ))
@@ -187,6 +247,50 @@ public class CompositeGraphicsNode extends AbstractGraphicsNode
         primitiveBounds = null;
         sensitiveBounds = null;
         outline = null;
+        boundsIndex = null;
+        sensitiveIndex = null;
+    }
+
+    /**
+     * Returns the children indexed by their painted bounds or by their
+     * sensitive bounds, in this node's user space.  Returns null if
+     * there are too few children to index them, or if the current
+     * thread was halted while indexing them.
+     */
+    private SpatialIndex getSpatialIndex(boolean sensitive) {
+        int n = count;
+        int threshold = spatialIndexThreshold;
+        if ((threshold == 0) || (n < threshold))
+            return null;
+
+        SpatialIndex index = sensitive ? sensitiveIndex : boundsIndex;
+        if (index != null)
+            return index;
+
+        // Thread.currentThread() is potentially expensive, so reuse my instance in hasBeenHalted()
+        Thread currentThread = Thread.currentThread();
+
+        GraphicsNode [] nodes = children;
+        Rectangle2D [] bounds = new Rectangle2D[n];
+        for (int i=0; i < n; i++) {
+            GraphicsNode node = nodes[i];
+            if (node != null) {
+                bounds[i] = sensitive
+                    ? node.getTransformedSensitiveBounds(IDENTITY)
+                    : node.getTransformedBounds(IDENTITY);
+            }
+            if (((i & 0x0F) == 0) && HaltingThread.hasBeenHalted( currentThread ))
+                return null; // check every 16 children if we have been interrupted.
+        }
+        if (HaltingThread.hasBeenHalted( currentThread ))
+            return null;
+
+        index = new SpatialIndex(bounds, n);
+        if (sensitive)
+            sensitiveIndex = index;
+        else
+            boundsIndex = index;
+        return index;
     }
 
     /**
@@ -218,18 +322,13 @@ public class CompositeGraphicsNode extends AbstractGraphicsNode
             return null;
         }
 
-        primitiveBounds = bounds;
-
+        // Build the union locally and only publish it once it is
+        // complete, another thread may be painting this node and must
+        // not cull children against partial bounds.
         while (i < count) {
             Rectangle2D ctb = children[i++].getTransformedBounds(IDENTITY);
             if (ctb != null) {
-                if (primitiveBounds == null) {
-                    // another thread has set the primitive bounds to null,
-                    // need to recall this function
-                    return null;
-                } else {
-                    primitiveBounds.add(ctb);
-                }
+                bounds.add(ctb);
             }
 
             if (((i & 0x0F) == 0) && HaltingThread.hasBeenHalted( currentThread ))
@@ -241,8 +340,10 @@ public class CompositeGraphicsNode extends AbstractGraphicsNode
             // The Thread has been halted.
             // Invalidate any cached values and proceed.
             invalidateGeometryCache();
+            return bounds;
         }
-        return primitiveBounds;
+        primitiveBounds = bounds;
+        return bounds;
     }
 
     /**
@@ -318,29 +419,25 @@ public class CompositeGraphicsNode extends AbstractGraphicsNode
      * example.
      */
     public Rectangle2D getGeometryBounds() {
-        if (geometryBounds == null) {
+        Rectangle2D bounds = geometryBounds;
+        if (bounds == null) {
             // System.err.println("geometryBounds are null");
             int i=0;
-            while(geometryBounds == null && i < count){
-                geometryBounds =
+            while(bounds == null && i < count){
+                bounds =
                 children[i++].getTransformedGeometryBounds (IDENTITY);
             }
 
             while (i<count) {
                 Rectangle2D cgb = children[i++].getTransformedGeometryBounds(IDENTITY);
                 if (cgb != null) {
-                    if (geometryBounds == null) {
-                        // another thread has set the geometry bounds to null,
-                        // need to recall this function
-                        return getGeometryBounds();
-                    } else {
-                        geometryBounds.add(cgb);
-                    }
+                    bounds.add(cgb);
                 }
             }
+            geometryBounds = bounds;
         }
 
-        return geometryBounds;
+        return bounds;
     }
 
     /**
@@ -388,29 +485,34 @@ public class CompositeGraphicsNode extends AbstractGraphicsNode
      * of clipping, masking or filtering.
      */
     public Rectangle2D getSensitiveBounds() {
-        if (sensitiveBounds != null)
-            return sensitiveBounds;
+        Rectangle2D bounds = sensitiveBounds;
+        if (bounds != null)
+            return bounds;
+
+        // Indexing the children computes their bounds anyway.
+        SpatialIndex index = getSpatialIndex(true);
+        if (index != null) {
+            bounds = index.getBounds();
+            sensitiveBounds = bounds;
+            return bounds;
+        }
 
         // System.out.println("sensitiveBoundsBounds are null");
         int i=0;
-        while(sensitiveBounds == null && i < count){
-            sensitiveBounds =
+        while(bounds == null && i < count){
+            bounds =
                 children[i++].getTransformedSensitiveBounds(IDENTITY);
         }
 
         while (i<count) {
             Rectangle2D cgb = children[i++].getTransformedSensitiveBounds(IDENTITY);
             if (cgb != null) {
-                if (sensitiveBounds == null)
-                    // another thread has set the geometry bounds to null,
-                    // need to recall this function
-                    return getSensitiveBounds();
-
-                sensitiveBounds.add(cgb);
+                bounds.add(cgb);
             }
         }
 
-        return sensitiveBounds;
+        sensitiveBounds = bounds;
+        return bounds;
     }
 
     /**
@@ -462,7 +564,17 @@ public class CompositeGraphicsNode extends AbstractGraphicsNode
         if (count > 0 && bounds != null && bounds.contains(p)) {
             Point2D pt = null;
             Point2D cp = null; // Propagated to children
+            SpatialIndex index = getSpatialIndex(true);
+            BitSet hits = (index == null) ? null
+                : index.getChildrenAt(p.getX(), p.getY());
             for (int i=0; i < count; ++i) {
+                if (hits != null) {
+                    // Skip to the next child whose bounds contain p.
+                    i = hits.nextSetBit(i);
+                    if ((i < 0) || (i >= count)) {
+                        break;
+                    }
+                }
                 AffineTransform t = children[i].getInverseTransform();
                 if(t != null){
                     pt = t.transform(p, pt);
@@ -492,7 +604,17 @@ public class CompositeGraphicsNode extends AbstractGraphicsNode
             // Go backward because the children are in rendering order
             Point2D pt = null;
             Point2D cp = null; // Propagated to children
+            SpatialIndex index = getSpatialIndex(true);
+            BitSet hits = (index == null) ? null
+                : index.getChildrenAt(p.getX(), p.getY());
             for (int i=count-1; i >= 0; --i) {
+                if (hits != null) {
+                    // Skip to the previous child whose bounds contain p.
+                    i = hits.previousSetBit(i);
+                    if (i < 0) {
+                        break;
+                    }
+                }
                 AffineTransform t = children[i].getInverseTransform();
                 if(t != null){
                     pt = t.transform(p, pt);
@@ -115,11 +115,9 @@ public class MarkerShapePainter implements ShapePainter {
      * @param g2d the Graphics2D to use
      */
      public void paint(Graphics2D g2d) {
-         if (markerGroup == null) {
-             buildMarkerGroup();
-         }
-         if (markerGroup.getChildren().size() > 0) {
-             markerGroup.paint(g2d);
+         CompositeGraphicsNode group = getMarkerGroup();
+         if (group.getChildren().size() > 0) {
+             group.paint(g2d);
          }
      }
 
@@ -127,30 +125,21 @@ public class MarkerShapePainter implements ShapePainter {
      * Returns the area painted by this shape painter.
      */
     public Shape getPaintedArea(){
-         if (markerGroup == null) {
-             buildMarkerGroup();
-         }
-        return markerGroup.getOutline();
+        return getMarkerGroup().getOutline();
     }
 
     /**
      * Returns the bounds of the area painted by this shape painter
      */
     public Rectangle2D getPaintedBounds2D(){
-         if (markerGroup == null) {
-             buildMarkerGroup();
-         }
-         return markerGroup.getPrimitiveBounds();
+         return getMarkerGroup().getPrimitiveBounds();
     }
 
     /**
      * Returns true if pt is in the area painted by this shape painter
      */
     public boolean inPaintedArea(Point2D pt){
-         if (markerGroup == null) {
-             buildMarkerGroup();
-         }
-         GraphicsNode gn = markerGroup.nodeHitAt(pt);
+         GraphicsNode gn = getMarkerGroup().nodeHitAt(pt);
          return (gn != null);
     }
 
@@ -277,6 +266,18 @@ public class MarkerShapePainter implements ShapePainter {
     // Internal methods to build GraphicsNode according to the Marker
     // ---------------------------------------------------------------------
 
+    /**
+     * Returns the marker group, building it if needed.  Tiles may be
+     * painted on several threads and adding a proxy to a group removes
+     * it from any other, so only one thread may build the group.
+     */
+    private synchronized CompositeGraphicsNode getMarkerGroup() {
+        if (markerGroup == null) {
+            buildMarkerGroup();
+        }
+        return markerGroup;
+    }
+
     /**
      * Builds a new marker group with the current set of markers.
      */
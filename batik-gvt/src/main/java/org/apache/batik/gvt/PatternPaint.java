@@ -162,33 +162,48 @@ public class PatternPaint implements Paint {
             xform.concatenate(patternTransform);
         }
 
-        if ((lastContext!= null) &&
-            lastContext.getColorModel().equals(cm)) {
+        // The pattern is rendered with only the fractional part of
+        // the device translation; the integer part is applied by
+        // shifting the requested rasters.  That way the pixels do
+        // not depend on which area was painted first.
+        double[] p = new double[6];
+        xform.getMatrix(p);
+        int ix = (int)Math.floor(p[4]);
+        int iy = (int)Math.floor(p[5]);
+
+        // The paint may be used by several threads at once (when
+        // rendering tiles concurrently) so the rendered pattern is
+        // shared but each context gets its own working raster.
+        PatternPaintContext last = lastContext;
+        if ((last != null) &&
+            last.getColorModel().equals(cm)) {
 
-            double[] p = new double[6];
             double[] q = new double[6];
-            xform.getMatrix(p);
-            lastContext.getUsr2Dev().getMatrix(q);
+            last.getUsr2Dev().getMatrix(q);
             if ((p[0] == q[0]) && (p[1] == q[1]) &&
-                (p[2] == q[2]) && (p[3] == q[3])) {
-                if ((p[4] == q[4]) && (p[5] == q[5]))
-                    return lastContext;
-                else
-                    return new PatternPaintContextWrapper
-                        (lastContext,
-                         (int)(q[4]-p[4]+0.5),
-                         (int)(q[5]-p[5]+0.5));
+                (p[2] == q[2]) && (p[3] == q[3]) &&
+                (p[4]-ix == q[4]) && (p[5]-iy == q[5])) {
+                last = new PatternPaintContext(last);
+                if ((ix == 0) && (iy == 0))
+                    return last;
+                return new PatternPaintContextWrapper(last, -ix, -iy);
             }
         }
         // System.out.println("CreateContext Called: " + this);
         // System.out.println("CM : " + cm);
         // System.out.println("xForm : " + xform);
 
-        lastContext = new PatternPaintContext(cm, xform,
+        AffineTransform base = new AffineTransform
+            (p[0], p[1], p[2], p[3], p[4]-ix, p[5]-iy);
+        last = new PatternPaintContext(cm, base,
                                        hints, tile,
                                        patternRegion,
                                        overflow);
-        return lastContext;
+        lastContext = last;
+        if ((ix == 0) && (iy == 0))
+            return new PatternPaintContext(last);
+        return new PatternPaintContextWrapper
+            (new PatternPaintContext(last), -ix, -iy);
     }
 
     /**
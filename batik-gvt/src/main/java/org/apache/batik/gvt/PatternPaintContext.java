@@ -143,6 +143,16 @@ public class PatternPaintContext implements PaintContext {
         }
     }
 
+    /**
+     * Creates a context that shares the rendered pattern of
+     * <code>ppc</code> but has its own working raster.
+     */
+    PatternPaintContext(PatternPaintContext ppc) {
+        this.rasterCM = ppc.rasterCM;
+        this.tiled    = ppc.tiled;
+        this.usr2dev  = ppc.usr2dev;
+    }
+
     public void dispose(){
         raster = null;
     }
@@ -176,6 +176,9 @@ public class ShapeNode extends AbstractGraphicsNode {
         super.setPointerEventType(pointerEventType);
         sensitiveBounds = null;
         sensitiveArea = null;
+        // The parent caches the sensitive bounds of its children.
+        if (parent != null)
+            parent.invalidateGeometryCache();
     }
     /**
      * Returns true if the specified Point2D is inside the boundary of this
@@ -0,0 +1,258 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.gvt;
+
+import java.awt.geom.Rectangle2D;
+import java.util.BitSet;
+
+/**
+ * A uniform grid over the bounds of the children of a
+ * <code>CompositeGraphicsNode</code>.  It finds the children whose
+ * bounds contain a point or intersect a rectangle by looking at the
+ * few cells the point or the rectangle falls in, rather than at the
+ * bounds of every child.<p>
+ *
+ * There are about as many cells as children.  The children spanning
+ * too many cells, such as a background covering the whole group, are
+ * kept apart and checked on every query.  The children without bounds
+ * are never found.
+ *
+ * @version $Id$
+ */
+class SpatialIndex {
+
+    /**
+     * The largest number of cells a child is stored in.
+     */
+    static final int MAX_CHILD_CELLS = 64;
+
+    /**
+     * The largest number of columns or rows of the grid.
+     */
+    static final int MAX_GRID_SIZE = 1024;
+
+    /**
+     * The number of children.
+     */
+    protected final int count;
+
+    /**
+     * The bounds of the children: min x, min y, max x and max y of
+     * each child in turn, NaN for the children without bounds.
+     */
+    protected final double [] bounds;
+
+    /**
+     * The union of the bounds of the children, or null.
+     */
+    protected final Rectangle2D union;
+
+    protected final double x0, y0, cellWidth, cellHeight;
+    protected final int cols, rows;
+
+    /**
+     * The children of cell <code>c</code> are
+     * <code>cellChildren[cellStart[c]]</code> to
+     * <code>cellChildren[cellStart[c+1]-1]</code>, in increasing order.
+     */
+    protected final int [] cellStart;
+    protected final int [] cellChildren;
+
+    /**
+     * The children spanning more than <code>MAX_CHILD_CELLS</code> cells.
+     */
+    protected final int [] large;
+
+    /**
+     * Indexes the children with the given bounds.
+     * @param childBounds the bounds of the children, or null for the
+     *        children without bounds.  The rectangles are not modified.
+     * @param count the number of children.
+     */
+    SpatialIndex(Rectangle2D [] childBounds, int count) {
+        this.count = count;
+        bounds = new double[4*count];
+
+        // The union is built like CompositeGraphicsNode does so that
+        // it is the same whether the children are indexed or not.
+        Rectangle2D u = null;
+        int n = 0;
+        for (int i=0; i<count; i++) {
+            Rectangle2D r = childBounds[i];
+            if (r == null) {
+                bounds[4*i] = Double.NaN;
+                continue;
+            }
+            bounds[4*i]   = r.getMinX();
+            bounds[4*i+1] = r.getMinY();
+            bounds[4*i+2] = r.getMaxX();
+            bounds[4*i+3] = r.getMaxY();
+            if (u == null)
+                u = (Rectangle2D)r.clone();
+            else
+                u.add(r);
+            n++;
+        }
+        union = u;
+
+        double w = 0, h = 0;
+        if (u != null) {
+            x0 = u.getMinX();
+            y0 = u.getMinY();
+            w  = u.getWidth();
+            h  = u.getHeight();
+        } else {
+            x0 = y0 = 0;
+        }
+
+        int c = 1, rw = 1;
+        if ((w > 0) && (h > 0)) {
+            c  = (int)Math.ceil(Math.sqrt(n*w/h));
+            c  = Math.max(1, Math.min(c, MAX_GRID_SIZE));
+            rw = Math.max(1, Math.min((n+c-1)/c, MAX_GRID_SIZE));
+        } else if (w > 0) {
+            c  = Math.max(1, Math.min(n, MAX_GRID_SIZE));
+        } else if (h > 0) {
+            rw = Math.max(1, Math.min(n, MAX_GRID_SIZE));
+        }
+        cols = c;
+        rows = rw;
+        cellWidth  = (w > 0) ? w/cols : 1;
+        cellHeight = (h > 0) ? h/rows : 1;
+
+        // Count the children of each cell, then store them.
+        cellStart = new int[cols*rows+1];
+        int nLarge = 0;
+        for (int i=0; i<count; i++) {
+            if (Double.isNaN(bounds[4*i]))
+                continue;
+            int c0 = col(bounds[4*i]),   c1 = col(bounds[4*i+2]);
+            int r0 = row(bounds[4*i+1]), r1 = row(bounds[4*i+3]);
+            if ((long)(c1-c0+1)*(r1-r0+1) > MAX_CHILD_CELLS) {
+                nLarge++;
+                continue;
+            }
+            for (int y=r0; y<=r1; y++)
+                for (int x=c0; x<=c1; x++)
+                    cellStart[y*cols+x+1]++;
+        }
+        for (int i=1; i<cellStart.length; i++)
+            cellStart[i] += cellStart[i-1];
+
+        cellChildren = new int[cellStart[cellStart.length-1]];
+        large = new int[nLarge];
+        int [] next = new int[cols*rows];
+        System.arraycopy(cellStart, 0, next, 0, next.length);
+        nLarge = 0;
+        for (int i=0; i<count; i++) {
+            if (Double.isNaN(bounds[4*i]))
+                continue;
+            int c0 = col(bounds[4*i]),   c1 = col(bounds[4*i+2]);
+            int r0 = row(bounds[4*i+1]), r1 = row(bounds[4*i+3]);
+            if ((long)(c1-c0+1)*(r1-r0+1) > MAX_CHILD_CELLS) {
+                large[nLarge++] = i;
+                continue;
+            }
+            for (int y=r0; y<=r1; y++)
+                for (int x=c0; x<=c1; x++)
+                    cellChildren[next[y*cols+x]++] = i;
+        }
+    }
+
+    /**
+     * Returns the union of the bounds of the children, or null if no
+     * child has bounds.  The returned rectangle is shared.
+     */
+    Rectangle2D getBounds() {
+        return union;
+    }
+
+    /**
+     * Returns the children whose bounds contain the given point,
+     * edges included.
+     */
+    BitSet getChildrenAt(double x, double y) {
+        BitSet ret = new BitSet(count);
+        int cell = row(y)*cols + col(x);
+        for (int k=cellStart[cell]; k<cellStart[cell+1]; k++) {
+            int i = cellChildren[k];
+            if (contains(i, x, y))
+                ret.set(i);
+        }
+        for (int i : large) {
+            if (contains(i, x, y))
+                ret.set(i);
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the children whose bounds intersect the given rectangle,
+     * edges included.
+     */
+    BitSet getChildrenIn(Rectangle2D r) {
+        double minX = r.getMinX(), minY = r.getMinY();
+        double maxX = r.getMaxX(), maxY = r.getMaxY();
+        BitSet ret = new BitSet(count);
+        int c0 = col(minX), c1 = col(maxX);
+        int r0 = row(minY), r1 = row(maxY);
+        for (int y=r0; y<=r1; y++) {
+            for (int x=c0; x<=c1; x++) {
+                int cell = y*cols + x;
+                for (int k=cellStart[cell]; k<cellStart[cell+1]; k++) {
+                    int i = cellChildren[k];
+                    if (!ret.get(i) && intersects(i, minX, minY, maxX, maxY))
+                        ret.set(i);
+                }
+            }
+        }
+        for (int i : large) {
+            if (intersects(i, minX, minY, maxX, maxY))
+                ret.set(i);
+        }
+        return ret;
+    }
+
+    private boolean contains(int i, double x, double y) {
+        int j = 4*i;
+        return (x >= bounds[j])   && (y >= bounds[j+1]) &&
+               (x <= bounds[j+2]) && (y <= bounds[j+3]);
+    }
+
+    private boolean intersects(int i, double minX, double minY,
+                               double maxX, double maxY) {
+        int j = 4*i;
+        return (maxX >= bounds[j])   && (maxY >= bounds[j+1]) &&
+               (minX <= bounds[j+2]) && (minY <= bounds[j+3]);
+    }
+
+    private int col(double x) {
+        double c = Math.floor((x - x0) / cellWidth);
+        if (!(c > 0))    return 0;   // Also catches NaN.
+        if (c >= cols)   return cols-1;
+        return (int)c;
+    }
+
+    private int row(double y) {
+        double r = Math.floor((y - y0) / cellHeight);
+        if (!(r > 0))    return 0;
+        if (r >= rows)   return rows-1;
+        return (int)r;
+    }
+}
@@ -240,7 +240,8 @@ public class GraphicsNodeRable8Bit
      * @param renderContext the RenderContext to use to produce the rendering.
      * @return a RenderedImage containing the rendered data.
      */
-    public RenderedImage createRendering(RenderContext renderContext){
+    public synchronized RenderedImage createRendering
+        (RenderContext renderContext){
         // Get user space to device space transform
         AffineTransform usr2dev = renderContext.getTransform();
 
@@ -260,36 +261,30 @@ public class GraphicsNodeRable8Bit
 
         Rectangle2D bounds2D = getBounds2D();
 
+        // Render with only the fractional part of the device
+        // translation and apply the integer part with a TranslateRed,
+        // so the cached rendering is tiled the same way no matter
+        // which area of the canvas asked for it first.
+        int ix = (int)Math.floor(usr2dev.getTranslateX());
+        int iy = (int)Math.floor(usr2dev.getTranslateY());
+        AffineTransform base = new AffineTransform
+            (usr2dev.getScaleX(), usr2dev.getShearY(),
+             usr2dev.getShearX(), usr2dev.getScaleY(),
+             usr2dev.getTranslateX()-ix, usr2dev.getTranslateY()-iy);
+
         if ((cachedBounds != null)                            &&
             (cachedGn2dev != null)                            &&
             (cachedBounds.equals(bounds2D))                   &&
             (gn2dev.getScaleX()  == cachedGn2dev.getScaleX()) &&
             (gn2dev.getScaleY()  == cachedGn2dev.getScaleY()) &&
             (gn2dev.getShearX()  == cachedGn2dev.getShearX()) &&
-            (gn2dev.getShearY()  == cachedGn2dev.getShearY()))
+            (gn2dev.getShearY()  == cachedGn2dev.getShearY()) &&
+            (base.getTranslateX() == cachedUsr2dev.getTranslateX()) &&
+            (base.getTranslateY() == cachedUsr2dev.getTranslateY()))
         {
-            // Just some form of Translation
-            double deltaX = (usr2dev.getTranslateX() - 
-                             cachedUsr2dev.getTranslateX());
-            double deltaY = (usr2dev.getTranslateY() - 
-                             cachedUsr2dev.getTranslateY());
-
             // System.out.println("Using Cached Red!!! " + 
-            //                    deltaX + "x" + deltaY);
-            if ((deltaX ==0) && (deltaY == 0))
-                // Actually no translation
-                return cachedRed;
-
-            // System.out.println("Delta: [" + deltaX + ", " + deltaY + "]");
-
-            // Integer translation in device space..
-            if ((deltaX == (int)deltaX) &&
-                (deltaY == (int)deltaY)) {
-                return new TranslateRed
-                    (cachedRed, 
-                     (int)Math.round(cachedRed.getMinX()+deltaX),
-                     (int)Math.round(cachedRed.getMinY()+deltaY));
-            }
+            //                    ix + "x" + iy);
+            return translateRed(cachedRed, ix, iy);
         }
 
         // Fell through let's do a new rendering...
@@ -300,13 +295,13 @@ public class GraphicsNodeRable8Bit
 
         if((bounds2D.getWidth()  > 0) && 
            (bounds2D.getHeight() > 0)) {
-            cachedUsr2dev = (AffineTransform)usr2dev.clone();
+            cachedUsr2dev = base;
             cachedGn2dev  = gn2dev;
             cachedBounds  = bounds2D;
             cachedRed =  new GraphicsNodeRed8Bit
-                (node, usr2dev, usePrimitivePaint, 
+                (node, base, usePrimitivePaint, 
                  renderContext.getRenderingHints());
-            return cachedRed;
+            return translateRed(cachedRed, ix, iy);
         }
 
         cachedUsr2dev = null;
@@ -315,4 +310,13 @@ public class GraphicsNodeRable8Bit
         cachedRed     = null;
         return null;
     }
+
+    /**
+     * Returns <tt>cr</tt> moved by the given integer offset.
+     */
+    private static CachableRed translateRed(CachableRed cr, int dx, int dy) {
+        if ((dx == 0) && (dy == 0))
+            return cr;
+        return new TranslateRed(cr, cr.getMinX()+dx, cr.getMinY()+dy);
+    }
 }
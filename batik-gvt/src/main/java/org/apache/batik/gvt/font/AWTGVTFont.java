@@ -57,7 +57,6 @@ public class AWTGVTFont implements GVTFont {
         this.size = font.getSize2D();
         this.awtFont = font.deriveFont(FONT_SIZE);
         this.scale = size/awtFont.getSize2D();
-        initializeFontCache(awtFont);
     }
 
     /**
@@ -70,7 +69,6 @@ public class AWTGVTFont implements GVTFont {
         this.size = font.getSize2D()*scale;
         this.awtFont = font.deriveFont(FONT_SIZE);
         this.scale = size/awtFont.getSize2D();
-        initializeFontCache(awtFont);
     }
 
     /**
@@ -89,7 +87,6 @@ public class AWTGVTFont implements GVTFont {
             this.size = awtFont.getSize2D();
         }
         this.scale = size/awtFont.getSize2D();
-        initializeFontCache(awtFont);
     }
 
     /**
@@ -103,7 +100,6 @@ public class AWTGVTFont implements GVTFont {
         this.awtFont = new Font(name, style, (int)FONT_SIZE);
         this.size  = size;
         this.scale = size/awtFont.getSize2D();
-        initializeFontCache(awtFont);
     }
 
     /**
@@ -282,21 +278,38 @@ public class AWTGVTFont implements GVTFont {
     public static final float FONT_SIZE = 48.0f;
 
     /**
-     * Returns the geometry of the specified character. This method also put
-     * the in cache the geometry associated to the specified character if
-     * needed.
+     * Returns the geometry of the specified character.
+     * @deprecated the geometry is looked up by glyph code, use
+     * {@link #getGlyphGeometry(AWTGVTFont,GlyphVector,int,Point2D)}.
      */
+    @Deprecated
     public static
         AWTGlyphGeometryCache.Value getGlyphGeometry(AWTGVTFont font,
                                                      char c,
                                                      GlyphVector gv,
                                                      int glyphIndex,
                                                      Point2D glyphPos) {
+        return getGlyphGeometry(font, gv, glyphIndex, glyphPos);
+    }
 
-        AWTGlyphGeometryCache glyphCache =
-            (AWTGlyphGeometryCache)fontCache.get(font.awtFont);
+    /**
+     * Returns the geometry of the specified glyph.  The geometry is
+     * shared through the default {@link GlyphCache}, by the font, render
+     * context and glyph code of the glyph, so it is extracted from the
+     * glyph vector only for the first text that uses the glyph.
+     */
+    public static
+        AWTGlyphGeometryCache.Value getGlyphGeometry(AWTGVTFont font,
+                                                     GlyphVector gv,
+                                                     int glyphIndex,
+                                                     Point2D glyphPos) {
 
-        AWTGlyphGeometryCache.Value v = glyphCache.get(c);
+        GlyphCache cache = GlyphCache.getDefaultCache();
+        GlyphCache.Key key = new GlyphCache.Key
+            (font.awtFont, font.awtFont.getSize2D(),
+             gv.getFontRenderContext(), gv.getGlyphCode(glyphIndex));
+        AWTGlyphGeometryCache.Value v = (AWTGlyphGeometryCache.Value)
+            cache.get(key);
         if (v == null) {
             Shape outline = gv.getGlyphOutline(glyphIndex);
             GlyphMetrics metrics = gv.getGlyphMetrics(glyphIndex);
@@ -307,8 +320,8 @@ public class AWTGVTFont implements GVTFont {
                 outline = tr.createTransformedShape(outline);
             }
             v = new AWTGlyphGeometryCache.Value(outline, gmB);
-            //System.out.println("put "+font.awtFont+" "+c);
-            glyphCache.put(c, v);
+            v = (AWTGlyphGeometryCache.Value)cache.put
+                (key, v, GlyphCache.getBytes(outline));
         }
         return v;
     }
@@ -317,20 +330,18 @@ public class AWTGVTFont implements GVTFont {
     // static cache for AWTGVTFont
     //
 
-    static Map fontCache = new HashMap(11);
-
-    static void initializeFontCache(Font awtFont) {
-        if (!fontCache.containsKey(awtFont)) {
-            fontCache.put(awtFont, new AWTGlyphGeometryCache());
-        }
-    }
+    static final Map fontCache = new HashMap(11);
 
     static void putAWTGVTFont(AWTGVTFont font) {
-        fontCache.put(font.awtFont, font);
+        synchronized (fontCache) {
+            fontCache.put(font.awtFont, font);
+        }
     }
 
     static AWTGVTFont getAWTGVTFont(Font awtFont) {
-        return (AWTGVTFont)fontCache.get(awtFont);
+        synchronized (fontCache) {
+            return (AWTGVTFont)fontCache.get(awtFont);
+        }
     }
 
 }
@@ -412,10 +412,8 @@ public class AWTGVTGlyphVector implements GVTGlyphVector {
 
         // -- start glyph cache code --
         Point2D glyphPos = defaultGlyphPositions[glyphIndex];
-        char c = ci.setIndex(ci.getBeginIndex()+glyphIndex);
-        ci.setIndex(ci.getBeginIndex());
         AWTGlyphGeometryCache.Value v = AWTGVTFont.getGlyphGeometry
-            (gvtFont, c, awtGlyphVector, glyphIndex, glyphPos);
+            (gvtFont, awtGlyphVector, glyphIndex, glyphPos);
         Rectangle2D gmB = v.getBounds2D();
         // -- end glyph cache code --
 
@@ -446,10 +444,8 @@ public class AWTGVTGlyphVector implements GVTGlyphVector {
 */
             // -- start glyph cache code --
             Point2D glyphPos = defaultGlyphPositions[glyphIndex];
-            char c = ci.setIndex(ci.getBeginIndex()+glyphIndex);
-            ci.setIndex(ci.getBeginIndex());
             AWTGlyphGeometryCache.Value v = AWTGVTFont.getGlyphGeometry
-                (gvtFont, c, awtGlyphVector, glyphIndex, glyphPos);
+                (gvtFont, awtGlyphVector, glyphIndex, glyphPos);
             Shape glyphOutline = v.getOutline();
            // -- end glyph cache code --
 
@@ -582,10 +578,8 @@ public class AWTGVTGlyphVector implements GVTGlyphVector {
 */
             // -- start glyph cache code --
             Point2D glyphPos = defaultGlyphPositions[glyphIndex];
-            char c = ci.setIndex(ci.getBeginIndex()+glyphIndex);
-            ci.setIndex(ci.getBeginIndex());
             AWTGlyphGeometryCache.Value v = AWTGVTFont.getGlyphGeometry
-                (gvtFont, c, awtGlyphVector, glyphIndex, glyphPos);
+                (gvtFont, awtGlyphVector, glyphIndex, glyphPos);
             Rectangle2D glyphBounds = v.getOutlineBounds2D();
            // -- end glyph cache code --
 
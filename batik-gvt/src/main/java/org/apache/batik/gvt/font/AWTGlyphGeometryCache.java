@@ -26,6 +26,8 @@ import java.lang.ref.SoftReference;
 /**
  * This class represents a doubly indexed hash table, which holds
  * soft references to the contained glyph geometry informations.
+ * <code>AWTGVTFont</code> no longer uses it, the geometry of its
+ * glyphs being shared through the {@link GlyphCache}.
  *
  * @author <a href="mailto:stephane@hillion.org">Stephane Hillion</a>
  * @author <a href="mailto:tkormann@ilog.fr">Thierry Kormann</a>
@@ -71,7 +73,7 @@ public class AWTGlyphGeometryCache {
     /**
      * Returns the size of this table.
      */
-    public int size() {
+    public synchronized int size() {
         return count;
     }
 
@@ -79,7 +81,7 @@ public class AWTGlyphGeometryCache {
      * Gets the value of a variable
      * @return the value or null
      */
-    public Value get(char c) {
+    public synchronized Value get(char c) {
         int hash  = hashCode(c) & 0x7FFFFFFF;
         int index = hash % table.length;
 
@@ -95,7 +97,7 @@ public class AWTGlyphGeometryCache {
      * Sets a new value for the given variable
      * @return the old value or null
      */
-    public Value put(char c, Value value) {
+    public synchronized Value put(char c, Value value) {
         removeClearedEntries();
 
         int hash  = hashCode(c) & 0x7FFFFFFF;
@@ -138,7 +140,7 @@ public class AWTGlyphGeometryCache {
     /**
      * Clears the table.
      */
-    public void clear() {
+    public synchronized void clear() {
         table = new Entry[INITIAL_CAPACITY];
         count = 0;
         referenceQueue = new ReferenceQueue();
@@ -0,0 +1,307 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.gvt.font;
+
+import java.awt.Shape;
+import java.awt.geom.PathIterator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of glyph geometry shared by all the fonts, documents and
+ * threads of the JVM, so that the outline of a glyph used by many text
+ * nodes is extracted once.  <code>AWTGVTFont</code> caches the outlines
+ * and metrics of the glyphs of AWT fonts, and the SVG font bridge the
+ * outlines parsed from the path data of SVG glyphs.<p>
+ *
+ * The glyphs are identified by a {@link Key}: their font face, size,
+ * render context and glyph code.  Like <code>URLImageCache</code>, the
+ * cache is split into stripes, each with its own lock and its own share
+ * of the memory budget, and within a stripe the least recently used
+ * glyphs are evicted first.  The size of a glyph is estimated from the
+ * segments of its outline.  The cached values are shared, so they must
+ * not be modified.
+ *
+ * @version $Id$
+ */
+public class GlyphCache {
+
+    /**
+     * The default memory budget: 8 megabytes.
+     */
+    public static final long DEFAULT_MAX_BYTES = 8L*1024*1024;
+
+    /**
+     * The default number of stripes.
+     */
+    public static final int DEFAULT_STRIPES = 8;
+
+    static GlyphCache theCache = new GlyphCache();
+
+    public static GlyphCache getDefaultCache() { return theCache; }
+
+    private final Stripe [] stripes;
+    private volatile long maxBytes;
+
+    private final AtomicLong hits      = new AtomicLong();
+    private final AtomicLong misses    = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong bytes     = new AtomicLong();
+
+    /**
+     * Creates a cache with the default memory budget.
+     */
+    public GlyphCache() {
+        this(DEFAULT_MAX_BYTES, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a cache holding at most <code>maxBytes</code> of glyphs.
+     * @param maxBytes the memory budget, in bytes.
+     * @param nStripes the number of independently locked stripes,
+     *                 rounded up to a power of two.
+     */
+    public GlyphCache(long maxBytes, int nStripes) {
+        int n = 1;
+        while (n < nStripes)
+            n <<= 1;
+        stripes = new Stripe[n];
+        for (int i=0; i<n; i++)
+            stripes[i] = new Stripe();
+        setMaxBytes(maxBytes);
+    }
+
+    /**
+     * Sets the memory budget of this cache.  If the cache currently
+     * holds more than that, glyphs are evicted as the stripes are next
+     * written to.
+     */
+    public void setMaxBytes(long maxBytes) {
+        if (maxBytes < 0)
+            maxBytes = 0;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the memory budget of this cache, in bytes.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /** Returns the number of requests that found their glyph. */
+    public long getHitCount()      { return hits.get(); }
+
+    /** Returns the number of requests that did not. */
+    public long getMissCount()     { return misses.get(); }
+
+    /** Returns the number of glyphs dropped to stay within budget. */
+    public long getEvictionCount() { return evictions.get(); }
+
+    /** Returns the memory currently used by the cached glyphs. */
+    public long getByteCount()     { return bytes.get(); }
+
+    /**
+     * Returns the number of glyphs currently cached.
+     */
+    public int getGlyphCount() {
+        int ret = 0;
+        for (int i=0; i<stripes.length; i++) {
+            Stripe s = stripes[i];
+            synchronized (s) {
+                ret += s.map.size();
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Removes all the cached glyphs.
+     */
+    public void flush() {
+        for (int i=0; i<stripes.length; i++) {
+            Stripe s = stripes[i];
+            synchronized (s) {
+                bytes.addAndGet(-s.bytes);
+                s.bytes = 0;
+                s.map.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the value cached for the given glyph, or null.
+     */
+    public Object get(Key key) {
+        Stripe s = stripeFor(key);
+        Entry e;
+        synchronized (s) {
+            e = (Entry)s.map.get(key);
+        }
+        if (e == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return e.value;
+    }
+
+    /**
+     * Caches the value of the given glyph.  Another thread may have
+     * cached the same glyph meanwhile, in which case its value is kept
+     * and returned.
+     * @param bytes the approximate size of the value, see
+     *        {@link #getBytes(Shape)}.
+     * @return the value now cached for the glyph.
+     */
+    public Object put(Key key, Object value, long bytes) {
+        Stripe s = stripeFor(key);
+        long limit = maxBytes/stripes.length;
+        synchronized (s) {
+            Entry e = (Entry)s.map.get(key);
+            if (e != null)
+                return e.value;
+            e = new Entry(value, bytes);
+            s.map.put(key, e);
+            s.bytes += bytes;
+            this.bytes.addAndGet(bytes);
+
+            // Keep the glyph just put even if it alone is over budget.
+            Iterator i = s.map.values().iterator();
+            while ((s.bytes > limit) && i.hasNext()) {
+                Entry eldest = (Entry)i.next();
+                if (eldest == e)
+                    continue;
+                i.remove();
+                s.bytes -= eldest.bytes;
+                this.bytes.addAndGet(-eldest.bytes);
+                evictions.incrementAndGet();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the approximate number of bytes used by a shape: a fixed
+     * overhead, plus a byte per segment and a float per coordinate.
+     */
+    public static long getBytes(Shape s) {
+        if (s == null)
+            return 0;
+        long ret = 64;
+        float [] coords = new float[6];
+        for (PathIterator i = s.getPathIterator(null); !i.isDone(); i.next()) {
+            switch (i.currentSegment(coords)) {
+            case PathIterator.SEG_MOVETO:
+            case PathIterator.SEG_LINETO:
+                ret += 1 + 2*4;
+                break;
+            case PathIterator.SEG_QUADTO:
+                ret += 1 + 4*4;
+                break;
+            case PathIterator.SEG_CUBICTO:
+                ret += 1 + 6*4;
+                break;
+            default:
+                ret += 1;
+            }
+        }
+        return ret;
+    }
+
+    private Stripe stripeFor(Key key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (stripes.length-1)];
+    }
+
+    /**
+     * Identifies a glyph.
+     */
+    public static final class Key {
+
+        private final Object face;
+        private final float  size;
+        private final Object context;
+        private final int    code;
+        private final int    hash;
+
+        /**
+         * Creates a new key.
+         * @param face what the outlines depend on besides the other
+         *        fields, such as an AWT <code>Font</code>.  It must
+         *        implement <code>equals</code> and <code>hashCode</code>.
+         * @param size the size of the font.
+         * @param context the transform and hints the glyph is laid out
+         *        with, such as a <code>FontRenderContext</code>, or null.
+         * @param code the glyph code.
+         */
+        public Key(Object face, float size, Object context, int code) {
+            this.face    = face;
+            this.size    = size;
+            this.context = context;
+            this.code    = code;
+            int h = face.hashCode();
+            h = 31*h + Float.floatToIntBits(size);
+            h = 31*h + ((context == null) ? 0 : context.hashCode());
+            hash = 31*h + code;
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key k = (Key)o;
+            return (hash == k.hash) && (code == k.code) &&
+                (Float.floatToIntBits(size) == Float.floatToIntBits(k.size)) &&
+                face.equals(k.face) &&
+                ((context == null) ? (k.context == null)
+                                   : context.equals(k.context));
+        }
+    }
+
+    /**
+     * One independently locked part of the cache.  The map is kept in
+     * access order so its first entry is the least recently used.
+     */
+    static class Stripe {
+        final Map map = new LinkedHashMap(16, 0.75f, true);
+        long bytes;
+    }
+
+    /**
+     * A cached glyph.
+     */
+    static class Entry {
+        final Object value;
+        final long bytes;
+
+        Entry(Object value, long bytes) {
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -33,14 +33,20 @@ import java.awt.image.SampleModel;
 import java.awt.image.WritableRaster;
 import java.awt.image.renderable.RenderContext;
 import java.lang.ref.SoftReference;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.apache.batik.ext.awt.geom.RectListManager;
 import org.apache.batik.ext.awt.image.GraphicsUtil;
 import org.apache.batik.ext.awt.image.PadMode;
 import org.apache.batik.ext.awt.image.renderable.Filter;
 import org.apache.batik.ext.awt.image.rendered.CachableRed;
+import org.apache.batik.ext.awt.image.rendered.ConcurrentTileCache;
 import org.apache.batik.ext.awt.image.rendered.PadRed;
+import org.apache.batik.ext.awt.image.rendered.TileCache;
 import org.apache.batik.ext.awt.image.rendered.TileCacheRed;
 import org.apache.batik.ext.awt.image.rendered.TranslateRed;
 import org.apache.batik.gvt.GraphicsNode;
@@ -83,6 +89,31 @@ public class StaticRenderer implements ImageRenderer {
     protected int offScreenWidth;
     protected int offScreenHeight;
 
+    /**
+     * The edge length, in device pixels, of the tiles repaint fetches
+     * independently, rounded up to a multiple of the root image's tile
+     * size.  Zero (the default) paints the whole area in one request
+     * unless <code>parallelism</code> is greater than one.
+     */
+    protected int tileSize;
+
+    /**
+     * The number of threads used to fetch tiles.  One (the default)
+     * fetches them on the calling thread.
+     */
+    protected int parallelism = 1;
+
+    /**
+     * The pool used to fetch tiles when parallelism is greater than one.
+     */
+    protected ForkJoinPool tilePool;
+
+    /**
+     * The tile size used when rendering concurrently without an
+     * explicit tile size.
+     */
+    public static final int DEFAULT_TILE_SIZE = 256;
+
     /**
      * Passed to the GVT tree to describe the rendering environment
      */
@@ -139,6 +170,11 @@ public class StaticRenderer implements ImageRenderer {
         renderingHints = null;
         lastCache = null;
         lastCR = null;
+
+        if (tilePool != null) {
+            tilePool.shutdown();
+            tilePool = null;
+        }
     }
 
     /**
@@ -219,6 +255,58 @@ public class StaticRenderer implements ImageRenderer {
         return usr2dev;
     }
 
+    /**
+     * Sets the number of threads used to render the offscreen buffer.
+     * When greater than one, <code>repaint</code> splits the area to
+     * paint into tiles (see <code>setTileSize</code>) and renders them
+     * concurrently.  For a given tile size the result does not depend
+     * on the number of threads.
+     *
+     * @param parallelism the number of threads, one to render serially.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1)
+            parallelism = 1;
+        if (this.parallelism == parallelism)
+            return;
+
+        this.parallelism = parallelism;
+        if (tilePool != null) {
+            tilePool.shutdown();
+            tilePool = null;
+        }
+    }
+
+    /**
+     * Returns the number of threads used to render the offscreen buffer.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the edge length, in device pixels, of the tiles the area to
+     * repaint is split into.  Tiles are aligned on the tile grid of the
+     * root image and each one is rendered by its own request, so the
+     * same tile size gives the same pixels whatever the parallelism.
+     *
+     * @param tileSize the tile size, zero to paint the whole area in
+     *        one request when rendering on a single thread.
+     */
+    public void setTileSize(int tileSize) {
+        if (tileSize < 0)
+            tileSize = 0;
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Returns the edge length of the tiles the area to repaint is
+     * split into, zero if it is not split.
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
     /**
      * Returns true if the Renderer is currently doubleBuffering is
      * rendering requests.  If it is then getOffscreen will only
@@ -390,7 +478,10 @@ public class StaticRenderer implements ImageRenderer {
 
         // Ensure only one thread works on baseRaster at a time...
         synchronized (syncRaster) {
-            cr.copyData(copyRaster);
+            if ((parallelism > 1) || (tileSize > 0))
+                copyDataByTiles(cr, copyRaster);
+            else
+                cr.copyData(copyRaster);
         }
 
         if (!HaltingThread.hasBeenHalted()) {
@@ -409,6 +500,124 @@ public class StaticRenderer implements ImageRenderer {
         }
     }
 
+    /**
+     * Fills <code>wr</code> from <code>cr</code> one tile of
+     * <code>tileSize</code> pixels at a time, fetching the tiles
+     * concurrently when <code>parallelism</code> is greater than one.
+     * Tiles are aligned on the tile grid of <code>cr</code> so no
+     * tile of <code>cr</code> is shared between two requests.
+     */
+    protected void copyDataByTiles(CachableRed cr, WritableRaster wr) {
+        Rectangle wrR = wr.getBounds();
+        int sz = tileSize;
+        if (sz == 0)
+            sz = DEFAULT_TILE_SIZE;
+        int tw = cr.getTileWidth();
+        int th = cr.getTileHeight();
+        int stepX = ((sz+tw-1)/tw)*tw;
+        int stepY = ((sz+th-1)/th)*th;
+
+        // Start on the tile grid line at or before wr's origin.
+        int dx = wrR.x-cr.getTileGridXOffset();
+        int dy = wrR.y-cr.getTileGridYOffset();
+        int xt, yt;
+        if (dx>=0) xt = dx/stepX;
+        else       xt = (dx-stepX+1)/stepX;
+        if (dy>=0) yt = dy/stepY;
+        else       yt = (dy-stepY+1)/stepY;
+        int x0 = cr.getTileGridXOffset()+xt*stepX;
+        int y0 = cr.getTileGridYOffset()+yt*stepY;
+
+        List rects = new ArrayList();
+        for (int y=y0; y<wrR.y+wrR.height; y+=stepY) {
+            for (int x=x0; x<wrR.x+wrR.width; x+=stepX) {
+                Rectangle r = new Rectangle(x, y, stepX, stepY);
+                r = r.intersection(wrR);
+                if (!r.isEmpty())
+                    rects.add(r);
+            }
+        }
+
+        Rectangle [] tiles = new Rectangle[rects.size()];
+        rects.toArray(tiles);
+        TileTask task = new TileTask(cr, wr, tiles, 0, tiles.length,
+                                     Thread.currentThread());
+        if ((parallelism == 1) || (tiles.length < 2)) {
+            task.copyTiles();
+            return;
+        }
+
+        if (tilePool == null)
+            tilePool = new ForkJoinPool(parallelism);
+        tilePool.invoke(task);
+    }
+
+    /**
+     * Copies a contiguous run of tiles into the destination raster,
+     * splitting the run in two until a single tile is left.
+     */
+    protected static class TileTask extends RecursiveAction {
+        protected CachableRed    cr;
+        protected WritableRaster wr;
+        protected Rectangle []   tiles;
+        protected int            start;
+        protected int            end;
+        protected Thread         owner;
+
+        /**
+         * The tile cache scope of the thread that created this task,
+         * worker threads use it so the tiles they generate are
+         * accounted to the same document.
+         */
+        protected ConcurrentTileCache.Scope scope;
+
+        public TileTask(CachableRed cr, WritableRaster wr,
+                        Rectangle [] tiles, int start, int end,
+                        Thread owner) {
+            this.cr    = cr;
+            this.wr    = wr;
+            this.tiles = tiles;
+            this.start = start;
+            this.end   = end;
+            this.owner = owner;
+            this.scope = TileCache.getScope();
+        }
+
+        protected void compute() {
+            // Stop handing out tiles once the requesting thread is halted.
+            if (HaltingThread.hasBeenHalted(owner))
+                return;
+
+            ConcurrentTileCache.Scope old = TileCache.setScope(scope);
+            try {
+                if (end-start > 1) {
+                    int mid = (start+end)>>>1;
+                    invokeAll(new TileTask(cr, wr, tiles, start, mid, owner),
+                              new TileTask(cr, wr, tiles, mid, end, owner));
+                    return;
+                }
+                copyTiles();
+            } finally {
+                TileCache.setScope(old);
+            }
+        }
+
+        /**
+         * Copies the tiles of this task in order on the current thread.
+         */
+        public void copyTiles() {
+            for (int i=start; i<end; i++) {
+                if (HaltingThread.hasBeenHalted(owner))
+                    return;
+
+                Rectangle r = tiles[i];
+                WritableRaster child = wr.createWritableChild
+                    (r.x, r.y, r.width, r.height, r.x, r.y, null);
+                cr.copyData(child);
+            }
+        }
+    }
+
     /**
      * Flush any cached image data.
      */
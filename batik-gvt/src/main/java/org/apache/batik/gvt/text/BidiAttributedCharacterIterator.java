@@ -19,10 +19,15 @@
 package org.apache.batik.gvt.text;
 
 import java.awt.font.FontRenderContext;
+import java.awt.font.TextAttribute;
 import java.awt.font.TextLayout;
 import java.text.AttributedCharacterIterator;
 import java.text.AttributedString;
+import java.text.Bidi;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -115,21 +120,19 @@ public class BidiAttributedCharacterIterator implements AttributedCharacterItera
             }
         }
 
-        // We Just want it to do BIDI for us...
-        // In 1.4 we might be able to use the BIDI class...
-        TextLayout tl = new TextLayout(as.getIterator(), frc);
+        byte[] levels = getLevels(as.getIterator(), frc);
 
         int[] charIndices = new int[numChars];
         int[] charLevels  = new int[numChars];
 
         int runStart   = 0;
-        int currBiDi   = tl.getCharacterLevel(0);
+        int currBiDi   = levels[0];
         charIndices[0] = 0;
         charLevels [0] = currBiDi;
         int maxBiDi    = currBiDi;
 
         for (int i = 1; i < numChars; i++) {
-            int newBiDi = tl.getCharacterLevel(i);
+            int newBiDi = levels[i];
             charIndices[i] = i;
             charLevels [i] = newBiDi;
 
@@ -172,7 +175,7 @@ public class BidiAttributedCharacterIterator implements AttributedCharacterItera
             if (srcIdx == 0) reorderedFirstChar = i;
 
             // check for mirrored char
-            int bidiLevel = tl.getCharacterLevel(srcIdx);
+            int bidiLevel = levels[srcIdx];
             if ((bidiLevel & 0x01) != 0) {
                 // bidi level is odd so writing dir is right to left
                 // So get the mirror version of the char if there
@@ -264,6 +267,80 @@ public class BidiAttributedCharacterIterator implements AttributedCharacterItera
         reorderedACI = reorderedAS.getIterator();
     }
 
+    /**
+     * The largest number of texts whose levels are cached.
+     */
+    static final int MAX_CACHED_LEVELS = 256;
+
+    /**
+     * The levels of the recently laid out texts, indexed by their
+     * characters and the attributes that change the levels, so that
+     * repeated labels are laid out once.
+     */
+    private static final Map levelsCache =
+        new LinkedHashMap(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry eldest) {
+                return size() > MAX_CACHED_LEVELS;
+            }
+        };
+
+    /**
+     * Returns the bidi level of each character of the given text, as
+     * a <code>TextLayout</code> assigns them.  Laying the text out just
+     * for its levels is costly, so it is only done for the text that
+     * may need reordering, once per text and attributes: the other
+     * text, most text, is all at level zero.
+     */
+    protected static byte[] getLevels(AttributedCharacterIterator aci,
+                                      FontRenderContext frc) {
+        int numChars = aci.getEndIndex()-aci.getBeginIndex();
+        char[] c = new char[numChars];
+        c[0] = aci.first();
+        for (int i = 1; i < numChars; i++)
+            c[i] = aci.next();
+
+        // A right to left run direction or explicit embeddings change
+        // the levels of any text, numeric shaping those of digits.
+        aci.first();
+        Object runDirection = aci.getAttribute(TextAttribute.RUN_DIRECTION);
+        Object shaper = aci.getAttribute(TextAttribute.NUMERIC_SHAPING);
+        List key = new ArrayList();
+        key.add(new String(c));
+        key.add(runDirection);
+        key.add(shaper);
+        int begin = aci.getBeginIndex();
+        while (aci.getIndex() < aci.getEndIndex()) {
+            Object embedding = aci.getAttribute(TextAttribute.BIDI_EMBEDDING);
+            int limit = aci.getRunLimit(TextAttribute.BIDI_EMBEDDING);
+            if (embedding != null) {
+                key.add(aci.getIndex()-begin);
+                key.add(limit-begin);
+                key.add(embedding);
+            }
+            aci.setIndex(limit);
+        }
+
+        if ((key.size() == 3) &&
+            !TextAttribute.RUN_DIRECTION_RTL.equals(runDirection) &&
+            !Bidi.requiresBidi(c, 0, numChars))
+            return new byte[numChars];
+
+        byte[] levels;
+        synchronized (levelsCache) {
+            levels = (byte[])levelsCache.get(key);
+        }
+        if (levels == null) {
+            TextLayout tl = new TextLayout(aci, frc);
+            levels = new byte[numChars];
+            for (int i = 0; i < numChars; i++)
+                levels[i] = tl.getCharacterLevel(i);
+            synchronized (levelsCache) {
+                levelsCache.put(key, levels);
+            }
+        }
+        return levels.clone();
+    }
+
     // Returns an array that give the character index in the source ACI for
     // each character in this ACI.
     public int[] getCharMap() { return newCharOrder; }
@@ -0,0 +1,511 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.parser;
+
+import java.awt.Shape;
+import java.io.IOException;
+import java.io.Reader;
+
+import org.apache.batik.ext.awt.geom.ExtendedGeneralPath;
+
+/**
+ * This class provides an implementation of the PathHandler that stores
+ * the segments of a path, converted to absolute coordinates, in a
+ * command array and a coordinate array, and creates the Shape from
+ * them once the path is parsed.  Unlike {@link AWTPathProducer}, it
+ * creates no object per segment, and the arrays are reused when the
+ * producer parses another path.
+ *
+ * @version $Id$
+ */
+public class PackedPathProducer implements PathHandler, ShapeProducer {
+
+    /**
+     * The command of a moveto segment, followed by 2 coordinates.
+     */
+    public static final byte MOVETO = 0;
+
+    /**
+     * The command of a lineto segment, followed by 2 coordinates.
+     */
+    public static final byte LINETO = 1;
+
+    /**
+     * The command of a quadratic curveto segment, followed by 4
+     * coordinates.
+     */
+    public static final byte QUADTO = 2;
+
+    /**
+     * The command of a cubic curveto segment, followed by 6
+     * coordinates.
+     */
+    public static final byte CUBICTO = 3;
+
+    /**
+     * The command of a closepath segment, with no coordinates.
+     */
+    public static final byte CLOSE = 4;
+
+    /**
+     * The command of an elliptical arc segment, followed by 7 values:
+     * rx, ry, the x axis rotation, the large arc and sweep flags (1 or
+     * 0), x and y.
+     */
+    public static final byte ARCTO = 5;
+
+    /**
+     * The segment commands.
+     */
+    protected byte[] commands = new byte[16];
+
+    /**
+     * The number of commands.
+     */
+    protected int commandCount;
+
+    /**
+     * The segment coordinates.
+     */
+    protected float[] coordinates = new float[32];
+
+    /**
+     * The number of coordinates.
+     */
+    protected int coordinateCount;
+
+    /**
+     * Whether a path has been parsed.
+     */
+    protected boolean parsed;
+
+    /**
+     * The current x position.
+     */
+    protected float currentX;
+
+    /**
+     * The current y position.
+     */
+    protected float currentY;
+
+    /**
+     * The reference x point for smooth arcs.
+     */
+    protected float xCenter;
+
+    /**
+     * The reference y point for smooth arcs.
+     */
+    protected float yCenter;
+
+    /**
+     * The x position of the last moveto.
+     */
+    protected float moveX;
+
+    /**
+     * The y position of the last moveto.
+     */
+    protected float moveY;
+
+    /**
+     * The winding rule to use to construct the path.
+     */
+    protected int windingRule;
+
+    /**
+     * Utility method for creating an ExtendedGeneralPath.
+     * @param r The reader used to read the path specification.
+     * @param wr The winding rule to use for creating the path.
+     */
+    public static Shape createShape(Reader r, int wr)
+        throws IOException,
+               ParseException {
+        PathParser p = new PathParser();
+        PackedPathProducer ph = new PackedPathProducer();
+
+        ph.setWindingRule(wr);
+        p.setPathHandler(ph);
+        p.parse(r);
+
+        return ph.getShape();
+    }
+
+    /**
+     * Sets the winding rule used to construct the path.
+     */
+    public void setWindingRule(int i) {
+        windingRule = i;
+    }
+
+    /**
+     * Returns the current winding rule.
+     */
+    public int getWindingRule() {
+        return windingRule;
+    }
+
+    /**
+     * Returns the commands of the last parsed path.  Only the first
+     * {@link #getCommandCount()} entries are meaningful.
+     */
+    public byte[] getCommands() {
+        return commands;
+    }
+
+    /**
+     * Returns the number of commands of the last parsed path.
+     */
+    public int getCommandCount() {
+        return commandCount;
+    }
+
+    /**
+     * Returns the absolute coordinates of the last parsed path.  Only
+     * the first {@link #getCoordinateCount()} entries are meaningful.
+     */
+    public float[] getCoordinates() {
+        return coordinates;
+    }
+
+    /**
+     * Returns the number of coordinates of the last parsed path.
+     */
+    public int getCoordinateCount() {
+        return coordinateCount;
+    }
+
+    /**
+     * Returns a new Shape made of the segments of the last parsed path,
+     * as an {@link AWTPathProducer} would have built it.
+     * @return the shape or null if this handler has not been used by
+     *         a parser.
+     */
+    public Shape getShape() {
+        if (!parsed) {
+            return null;
+        }
+        ExtendedGeneralPath path =
+            new ExtendedGeneralPath(windingRule, commandCount);
+        float[] c = coordinates;
+        int j = 0;
+        for (int i = 0; i < commandCount; i++) {
+            switch (commands[i]) {
+            case MOVETO:
+                path.moveTo(c[j], c[j + 1]);
+                j += 2;
+                break;
+            case LINETO:
+                path.lineTo(c[j], c[j + 1]);
+                j += 2;
+                break;
+            case QUADTO:
+                path.quadTo(c[j], c[j + 1], c[j + 2], c[j + 3]);
+                j += 4;
+                break;
+            case CUBICTO:
+                path.curveTo(c[j], c[j + 1], c[j + 2], c[j + 3],
+                             c[j + 4], c[j + 5]);
+                j += 6;
+                break;
+            case CLOSE:
+                path.closePath();
+                break;
+            case ARCTO:
+                path.arcTo(c[j], c[j + 1], c[j + 2],
+                           c[j + 3] != 0, c[j + 4] != 0,
+                           c[j + 5], c[j + 6]);
+                j += 7;
+                break;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Implements {@link PathHandler#startPath()}.
+     */
+    public void startPath() throws ParseException {
+        currentX = 0;
+        currentY = 0;
+        xCenter = 0;
+        yCenter = 0;
+        moveX = 0;
+        moveY = 0;
+        commandCount = 0;
+        coordinateCount = 0;
+        parsed = true;
+    }
+
+    /**
+     * Implements {@link PathHandler#endPath()}.
+     */
+    public void endPath() throws ParseException {
+    }
+
+    /**
+     * Implements {@link PathHandler#movetoRel(float,float)}.
+     */
+    public void movetoRel(float x, float y) throws ParseException {
+        moveTo(currentX + x, currentY + y);
+    }
+
+    /**
+     * Implements {@link PathHandler#movetoAbs(float,float)}.
+     */
+    public void movetoAbs(float x, float y) throws ParseException {
+        moveTo(x, y);
+    }
+
+    /**
+     * Implements {@link PathHandler#closePath()}.
+     */
+    public void closePath() throws ParseException {
+        command(CLOSE, 0);
+        currentX = moveX;
+        currentY = moveY;
+    }
+
+    /**
+     * Implements {@link PathHandler#linetoRel(float,float)}.
+     */
+    public void linetoRel(float x, float y) throws ParseException {
+        lineTo(currentX + x, currentY + y);
+    }
+
+    /**
+     * Implements {@link PathHandler#linetoAbs(float,float)}.
+     */
+    public void linetoAbs(float x, float y) throws ParseException {
+        lineTo(x, y);
+    }
+
+    /**
+     * Implements {@link PathHandler#linetoHorizontalRel(float)}.
+     */
+    public void linetoHorizontalRel(float x) throws ParseException {
+        lineTo(currentX + x, currentY);
+    }
+
+    /**
+     * Implements {@link PathHandler#linetoHorizontalAbs(float)}.
+     */
+    public void linetoHorizontalAbs(float x) throws ParseException {
+        lineTo(x, currentY);
+    }
+
+    /**
+     * Implements {@link PathHandler#linetoVerticalRel(float)}.
+     */
+    public void linetoVerticalRel(float y) throws ParseException {
+        lineTo(currentX, currentY + y);
+    }
+
+    /**
+     * Implements {@link PathHandler#linetoVerticalAbs(float)}.
+     */
+    public void linetoVerticalAbs(float y) throws ParseException {
+        lineTo(currentX, y);
+    }
+
+    /**
+     * Implements {@link
+     * PathHandler#curvetoCubicRel(float,float,float,float,float,float)}.
+     */
+    public void curvetoCubicRel(float x1, float y1,
+                                float x2, float y2,
+                                float x, float y) throws ParseException {
+        curveTo(currentX + x1, currentY + y1,
+                currentX + x2, currentY + y2,
+                currentX + x, currentY + y);
+    }
+
+    /**
+     * Implements {@link
+     * PathHandler#curvetoCubicAbs(float,float,float,float,float,float)}.
+     */
+    public void curvetoCubicAbs(float x1, float y1,
+                                float x2, float y2,
+                                float x, float y) throws ParseException {
+        curveTo(x1, y1, x2, y2, x, y);
+    }
+
+    /**
+     * Implements
+     * {@link PathHandler#curvetoCubicSmoothRel(float,float,float,float)}.
+     */
+    public void curvetoCubicSmoothRel(float x2, float y2,
+                                      float x, float y) throws ParseException {
+        curveTo(currentX * 2 - xCenter, currentY * 2 - yCenter,
+                currentX + x2, currentY + y2,
+                currentX + x, currentY + y);
+    }
+
+    /**
+     * Implements
+     * {@link PathHandler#curvetoCubicSmoothAbs(float,float,float,float)}.
+     */
+    public void curvetoCubicSmoothAbs(float x2, float y2,
+                                      float x, float y) throws ParseException {
+        curveTo(currentX * 2 - xCenter, currentY * 2 - yCenter,
+                x2, y2, x, y);
+    }
+
+    /**
+     * Implements
+     * {@link PathHandler#curvetoQuadraticRel(float,float,float,float)}.
+     */
+    public void curvetoQuadraticRel(float x1, float y1,
+                                    float x, float y) throws ParseException {
+        quadTo(currentX + x1, currentY + y1, currentX + x, currentY + y);
+    }
+
+    /**
+     * Implements
+     * {@link PathHandler#curvetoQuadraticAbs(float,float,float,float)}.
+     */
+    public void curvetoQuadraticAbs(float x1, float y1,
+                                    float x, float y) throws ParseException {
+        quadTo(x1, y1, x, y);
+    }
+
+    /**
+     * Implements {@link PathHandler#curvetoQuadraticSmoothRel(float,float)}.
+     */
+    public void curvetoQuadraticSmoothRel(float x, float y)
+        throws ParseException {
+        quadTo(currentX * 2 - xCenter, currentY * 2 - yCenter,
+               currentX + x, currentY + y);
+    }
+
+    /**
+     * Implements {@link PathHandler#curvetoQuadraticSmoothAbs(float,float)}.
+     */
+    public void curvetoQuadraticSmoothAbs(float x, float y)
+        throws ParseException {
+        quadTo(currentX * 2 - xCenter, currentY * 2 - yCenter, x, y);
+    }
+
+    /**
+     * Implements {@link
+     * PathHandler#arcRel(float,float,float,boolean,boolean,float,float)}.
+     */
+    public void arcRel(float rx, float ry,
+                       float xAxisRotation,
+                       boolean largeArcFlag, boolean sweepFlag,
+                       float x, float y) throws ParseException {
+        arcTo(rx, ry, xAxisRotation, largeArcFlag, sweepFlag,
+              currentX + x, currentY + y);
+    }
+
+    /**
+     * Implements {@link
+     * PathHandler#arcAbs(float,float,float,boolean,boolean,float,float)}.
+     */
+    public void arcAbs(float rx, float ry,
+                       float xAxisRotation,
+                       boolean largeArcFlag, boolean sweepFlag,
+                       float x, float y) throws ParseException {
+        arcTo(rx, ry, xAxisRotation, largeArcFlag, sweepFlag, x, y);
+    }
+
+    /**
+     * Appends a moveto segment to absolute coordinates.
+     */
+    protected void moveTo(float x, float y) {
+        int i = command(MOVETO, 2);
+        coordinates[i]     = xCenter = currentX = moveX = x;
+        coordinates[i + 1] = yCenter = currentY = moveY = y;
+    }
+
+    /**
+     * Appends a lineto segment to absolute coordinates.
+     */
+    protected void lineTo(float x, float y) {
+        int i = command(LINETO, 2);
+        coordinates[i]     = xCenter = currentX = x;
+        coordinates[i + 1] = yCenter = currentY = y;
+    }
+
+    /**
+     * Appends a quadratic curveto segment to absolute coordinates.
+     */
+    protected void quadTo(float x1, float y1, float x, float y) {
+        int i = command(QUADTO, 4);
+        coordinates[i]     = xCenter = x1;
+        coordinates[i + 1] = yCenter = y1;
+        coordinates[i + 2] = currentX = x;
+        coordinates[i + 3] = currentY = y;
+    }
+
+    /**
+     * Appends a cubic curveto segment to absolute coordinates.
+     */
+    protected void curveTo(float x1, float y1,
+                           float x2, float y2,
+                           float x, float y) {
+        int i = command(CUBICTO, 6);
+        coordinates[i]     = x1;
+        coordinates[i + 1] = y1;
+        coordinates[i + 2] = xCenter = x2;
+        coordinates[i + 3] = yCenter = y2;
+        coordinates[i + 4] = currentX = x;
+        coordinates[i + 5] = currentY = y;
+    }
+
+    /**
+     * Appends an elliptical arc segment to absolute coordinates.
+     */
+    protected void arcTo(float rx, float ry, float xAxisRotation,
+                         boolean largeArcFlag, boolean sweepFlag,
+                         float x, float y) {
+        int i = command(ARCTO, 7);
+        coordinates[i]     = rx;
+        coordinates[i + 1] = ry;
+        coordinates[i + 2] = xAxisRotation;
+        coordinates[i + 3] = largeArcFlag ? 1 : 0;
+        coordinates[i + 4] = sweepFlag ? 1 : 0;
+        coordinates[i + 5] = xCenter = currentX = x;
+        coordinates[i + 6] = yCenter = currentY = y;
+    }
+
+    /**
+     * Appends a command, making room for its coordinates.
+     * @return the index of the first coordinate of the command.
+     */
+    protected int command(byte cmd, int ncoords) {
+        if (commandCount == commands.length) {
+            byte[] t = new byte[commandCount * 2];
+            System.arraycopy(commands, 0, t, 0, commandCount);
+            commands = t;
+        }
+        commands[commandCount++] = cmd;
+
+        int i = coordinateCount;
+        coordinateCount += ncoords;
+        if (coordinateCount > coordinates.length) {
+            float[] t = new float[Math.max(coordinateCount,
+                                           coordinates.length * 2)];
+            System.arraycopy(coordinates, 0, t, 0, i);
+            coordinates = t;
+        }
+        return i;
+    }
+}
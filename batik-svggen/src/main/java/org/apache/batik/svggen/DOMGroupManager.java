@@ -82,6 +82,11 @@ public class DOMGroupManager implements SVGSyntax, ErrorConstants {
      */
     protected Element currentGroup;
 
+    /**
+     * Number of children of the current group
+     */
+    protected int currentGroupSize;
+
     /**
      * Constructor
      * @param gc graphic context whose state will be reflected in the
@@ -134,6 +139,7 @@ public class DOMGroupManager implements SVGSyntax, ErrorConstants {
         //
         if (!currentGroup.hasChildNodes()) {
             currentGroup.appendChild(element);
+            currentGroupSize = 1;
 
             groupGC = domTreeManager.gcConverter.toSVG(gc);
             SVGGraphicContext deltaGC;
@@ -170,10 +176,14 @@ public class DOMGroupManager implements SVGSyntax, ErrorConstants {
 
                 // If there are less than the maximum number
                 // of differences, then add the node to the current
-                // group and set its attributes
+                // group and set its attributes. When streaming, the
+                // group must also be small enough.
                 trimContextForElement(deltaGC, element);
-                if (countOverrides(deltaGC) <= domTreeManager.maxGCOverrides) {
+                if (countOverrides(deltaGC) <= domTreeManager.maxGCOverrides
+                    && !(domTreeManager.isStreaming() &&
+                         currentGroupSize >= DOMTreeManager.STREAMING_GROUP_SIZE)) {
                     currentGroup.appendChild(element);
+                    currentGroupSize++;
                     // as there already are children we put all
                     // attributes (group + element) on the element itself.
                     if ((method & DRAW) == 0) {
@@ -18,6 +18,8 @@
  */
 package org.apache.batik.svggen;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +30,7 @@ import org.apache.batik.ext.awt.g2d.GraphicContext;
 import org.w3c.dom.Comment;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 /**
@@ -56,12 +59,32 @@ import org.w3c.dom.NodeList;
  *        +-- ...
  *        +-- [g]    Group n
  *
+ * In streaming mode, started with {@link #startStreaming}, the groups
+ * are written out as they complete, along with the definitions they
+ * use, and removed from the top level group, so the memory used does
+ * not depend on the size of the drawing.
+ *
  * @author <a href="mailto:cjolif">Christophe Jolif</a>
  * @author <a href="mailto:vincent.hardy@eng.sun.com">Vincent Hardy</a>
  * @version $Id$
  */
 public class DOMTreeManager implements SVGSyntax, ErrorConstants {
 
+    /**
+     * In streaming mode, the number of groups appended to the top
+     * level group between two writes.  As the converters are reset
+     * after each write, a paint used before and after a write gets
+     * two definitions.
+     */
+    public static final int STREAMING_GROUP_COUNT = 64;
+
+    /**
+     * In streaming mode, the maximum number of children of a group.
+     * Larger groups are split, so they can be written before they
+     * grow too big.
+     */
+    public static final int STREAMING_GROUP_SIZE = 1024;
+
     /**
      * Maximum of Graphic Context attributes overrides
      * in children of the current group.
@@ -115,6 +138,30 @@ public class DOMTreeManager implements SVGSyntax, ErrorConstants {
      */
     protected List otherDefs;
 
+    /**
+     * The writer groups are streamed to, null if not streaming.
+     */
+    private XmlWriter.IndentWriter streamWriter;
+
+    /**
+     * The root element being streamed.
+     */
+    private Element streamedRoot;
+
+    private boolean streamUseCss;
+
+    private boolean streamEscaped;
+
+    /**
+     * The number of groups appended since the last write.
+     */
+    private int streamedGroups;
+
+    /**
+     * The first error which occured while streaming.
+     */
+    private SVGGraphics2DIOException streamError;
+
     /**
      * Constructor
      * @param gc default graphic context state
@@ -183,6 +230,153 @@ public class DOMTreeManager implements SVGSyntax, ErrorConstants {
                     gm.recycleCurrentGroup();
             }
         }
+
+        if (streamWriter != null && ++streamedGroups > STREAMING_GROUP_COUNT)
+            writeGroups(group);
+    }
+
+    /**
+     * Starts streaming the content of the tree to the given writer.
+     * The document header and the start of the root element are
+     * written right away, with the content generated so far.  Each
+     * group is then written when it is completed, along with the
+     * definitions created since the previous write, until
+     * {@link #endStreaming} is called.
+     *
+     * @param svgRoot the root element, as returned by getRoot, whose
+     *        children are written first
+     * @param writer the output
+     * @param useCss defines whether the output SVG should use CSS
+     *        style properties as opposed to plain attributes.
+     * @param escaped defines if the characters will be escaped
+     */
+    public void startStreaming(Element svgRoot, Writer writer,
+                               boolean useCss, boolean escaped)
+        throws SVGGraphics2DIOException {
+        if (streamWriter != null)
+            throw new SVGGraphics2DRuntimeException(ERR_STREAMING);
+
+        // Drop the top level group returned by getRoot if it is empty.
+        Node last = svgRoot.getLastChild();
+        if (last != null && SVG_G_TAG.equals(last.getNodeName())
+            && !last.hasChildNodes())
+            svgRoot.removeChild(last);
+
+        if (useCss)
+            SVGCSSStyler.style(svgRoot);
+
+        streamedRoot = svgRoot;
+        streamUseCss = useCss;
+        streamEscaped = escaped;
+        streamedGroups = 0;
+        streamError = null;
+        streamWriter = new XmlWriter.IndentWriter(writer);
+
+        try {
+            XmlWriter.writeDocumentHeader(streamWriter);
+            XmlWriter.writeStartTag(svgRoot, streamWriter, escaped);
+
+            // The children are written before the top level group is
+            // appended, so none of them is the last one.
+            svgRoot.appendChild(topLevelGroup);
+            Node n = svgRoot.getFirstChild();
+            while (n != topLevelGroup) {
+                XmlWriter.writeXml(n, streamWriter, escaped);
+                Node next = n.getNextSibling();
+                svgRoot.removeChild(n);
+                n = next;
+            }
+            XmlWriter.writeStartTag(topLevelGroup, streamWriter, escaped);
+        } catch (SVGGraphics2DIOException e) {
+            streamError = e;
+        } catch (IOException e) {
+            streamError = new SVGGraphics2DIOException(e);
+        }
+        if (streamError != null)
+            generatorContext.errorHandler.handleError(streamError);
+    }
+
+    /**
+     * Writes all the groups left and the end of the document, and
+     * stops streaming.  Any error which occured while writing the
+     * groups is reported here.
+     */
+    public void endStreaming() throws SVGGraphics2DIOException {
+        if (streamWriter == null)
+            return;
+
+        try {
+            writeGroups(null);
+            if (streamError == null) {
+                XmlWriter.writeEndTag(topLevelGroup, streamWriter);
+                XmlWriter.writeEndTag(streamedRoot, streamWriter);
+                streamWriter.flush();
+            }
+        } catch (IOException e) {
+            streamError = new SVGGraphics2DIOException(e);
+        } finally {
+            streamedRoot.removeChild(topLevelGroup);
+            streamedRoot = null;
+            streamWriter = null;
+            recycleTopLevelGroup(false);
+        }
+        if (streamError != null)
+            generatorContext.errorHandler.handleError(streamError);
+    }
+
+    /**
+     * @return true if the groups are written out as they complete.
+     */
+    public boolean isStreaming() {
+        return streamWriter != null;
+    }
+
+    /**
+     * Writes out and removes the children of the top level group up
+     * to the given one, which is excluded, preceded by the pending
+     * definitions.  After an error, the groups are dropped.
+     *
+     * @param current the first group to keep, or null to write all
+     *        the groups.
+     */
+    protected void writeGroups(Element current) {
+        streamedGroups = 0;
+        if (streamError == null) {
+            List defSet = getDefinitionSet();
+            if (defSet.size() > 0) {
+                Element defElement = generatorContext.domFactory.
+                    createElementNS(SVG_NAMESPACE_URI, SVG_DEFS_TAG);
+                defElement.setAttributeNS
+                    (null, SVG_ID_ATTRIBUTE,
+                     generatorContext.idGenerator.generateID(ID_PREFIX_DEFS));
+                for (Object aDefSet : defSet)
+                    defElement.appendChild((Element) aDefSet);
+                topLevelGroup.insertBefore(defElement,
+                                           topLevelGroup.getFirstChild());
+            }
+        }
+
+        // When all is written, the indentation is restored by the last
+        // child, if any.
+        if (current == null && streamError == null
+            && !topLevelGroup.hasChildNodes())
+            streamWriter.setIndentLevel(streamWriter.getIndentLevel()-2);
+
+        Node n = topLevelGroup.getFirstChild();
+        while (n != current) {
+            if (streamError == null) {
+                if (streamUseCss)
+                    SVGCSSStyler.style(n);
+                try {
+                    XmlWriter.writeXml(n, streamWriter, streamEscaped);
+                } catch (SVGGraphics2DIOException e) {
+                    streamError = e;
+                }
+            }
+            Node next = n.getNextSibling();
+            topLevelGroup.removeChild(n);
+            n = next;
+        }
     }
 
     /**
@@ -234,6 +428,9 @@ public class DOMTreeManager implements SVGSyntax, ErrorConstants {
         if(!SVG_G_TAG.equalsIgnoreCase(topLevelGroup.getTagName()))
             throw new SVGGraphics2DRuntimeException(ERR_TOP_LEVEL_GROUP_NOT_G);
 
+        if (streamWriter != null)
+            throw new SVGGraphics2DRuntimeException(ERR_STREAMING);
+
         recycleTopLevelGroup(false);
         this.topLevelGroup = topLevelGroup;
     }
@@ -378,6 +575,9 @@ public class DOMTreeManager implements SVGSyntax, ErrorConstants {
      * @return top level group
      */
     public Element getTopLevelGroup(boolean includeDefinitionSet){
+        if (streamWriter != null)
+            throw new SVGGraphics2DRuntimeException(ERR_STREAMING);
+
         Element topLevelGroup = this.topLevelGroup;
 
         //
@@ -73,6 +73,8 @@ public interface ErrorConstants {
         "topLevelGroup should not be null";
     String ERR_TOP_LEVEL_GROUP_NOT_G =
         "topLevelGroup should be a group <g>";
+    String ERR_STREAMING =
+        "topLevelGroup is being streamed";
 
     // SVGClip/Font/Hint/Stroke descriptor
     String ERR_CLIP_NULL = "clipPathValue should not be null";
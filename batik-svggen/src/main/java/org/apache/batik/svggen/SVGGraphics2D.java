@@ -510,6 +510,56 @@ public class SVGGraphics2D extends AbstractGraphics2D
         }
     }
 
+    /**
+     * Starts writing the SVG content to the given writer as it is drawn,
+     * instead of keeping it in the DOM tree until it is streamed: each
+     * group is written once completed, so the memory used does not
+     * depend on the size of the drawing. The content drawn so far is
+     * written first. Call {@link #endStreaming} once done drawing, with
+     * this object or with the ones created from it.
+     *
+     * @param writer used to writer out the SVG content
+     */
+    public void startStreaming(Writer writer)
+        throws SVGGraphics2DIOException {
+        startStreaming(writer, false, false);
+    }
+
+    /**
+     * @param writer used to writer out the SVG content
+     * @param useCss defines whether the output SVG should use CSS
+     * style properties as opposed to plain attributes.
+     * @param escaped defines if the characters will be escaped
+     * @see #startStreaming(Writer)
+     */
+    public void startStreaming(Writer writer, boolean useCss, boolean escaped)
+        throws SVGGraphics2DIOException {
+        Element svgRoot = getRoot();
+
+        //
+        // Enforce that the default and xlink namespace
+        // declarations appear on the root element
+        //
+        svgRoot.setAttributeNS(XMLNS_NAMESPACE_URI,
+                               XMLNS_PREFIX,
+                               SVG_NAMESPACE_URI);
+
+        svgRoot.setAttributeNS(XMLNS_NAMESPACE_URI,
+                               XMLNS_PREFIX + ":" + XLINK_PREFIX,
+                               XLINK_NAMESPACE_URI);
+
+        domTreeManager.startStreaming(svgRoot, writer, useCss, escaped);
+    }
+
+    /**
+     * Writes the rest of the SVG content started with
+     * {@link #startStreaming}, and flushes the writer. The writer is
+     * not closed.
+     */
+    public void endStreaming() throws SVGGraphics2DIOException {
+        domTreeManager.endStreaming();
+    }
+
     /**
      * Invoking this method will return a set of definition element that
      * contain all the definitions referenced by the attributes generated by
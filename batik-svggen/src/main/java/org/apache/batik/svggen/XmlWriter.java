@@ -408,6 +408,50 @@ class XmlWriter implements SVGConstants {
         out.write (TAG_END, 1, 1);  // ">"
     }
 
+    /**
+     * Writes the start tag of an element whose children are then
+     * written one by one, as when streaming a document.
+     */
+    static void writeStartTag(Element element, IndentWriter out,
+                              boolean escaped)
+        throws IOException, SVGGraphics2DIOException {
+        out.write (TAG_START, 0, 1);    // "<"
+        out.write (element.getTagName());
+
+        NamedNodeMap attributes = element.getAttributes();
+        if (attributes != null){
+            int nAttr = attributes.getLength();
+            for(int i=0; i<nAttr; i++){
+                Attr attr = (Attr)attributes.item(i);
+                out.write(' ');
+                writeXml(attr, out, escaped);
+            }
+        }
+
+        out.printIndent ();
+        out.write(TAG_END, 1, 1);   // ">"
+        out.setIndentLevel(out.getIndentLevel()+2);
+    }
+
+    /**
+     * Writes the end tag of an element started with writeStartTag,
+     * followed by a line separator if the element has no parent.
+     */
+    static void writeEndTag(Element element, IndentWriter out)
+        throws IOException {
+        Node parent = element.getParentNode();
+        boolean lastElem = (parent == null) || (parent.getLastChild()==element);
+
+        out.write (TAG_START, 0, 2);        // "</"
+        out.write (element.getTagName());
+        if (lastElem)
+            out.setIndentLevel(out.getIndentLevel()-2);
+        out.printIndent ();
+        out.write (TAG_END, 1, 1);  // ">"
+        if (parent == null)
+            out.write (EOL);
+    }
+
     private static void writeChildrenXml(Element element, IndentWriter out,
                                          boolean escaped)
         throws IOException, SVGGraphics2DIOException {
@@ -418,7 +462,7 @@ class XmlWriter implements SVGConstants {
         }
     }
 
-    private static void writeDocumentHeader(IndentWriter out)
+    static void writeDocumentHeader(IndentWriter out)
         throws IOException {
         String  encoding = null;
 
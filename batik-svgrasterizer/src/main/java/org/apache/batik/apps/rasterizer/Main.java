@@ -44,7 +44,8 @@ import org.apache.batik.util.ApplicationSecurityEnforcer;
  * @author <a href="mailto:vhardy@apache.org">Vincent Hardy</a>
  * @version $Id$
  */
-public class Main implements SVGConverterController {
+public class Main implements SVGConverterController,
+                             SVGConverterTimingListener {
     /**
      * URL for Squiggle's security policy file
      */
@@ -510,6 +511,15 @@ public class Main implements SVGConverterController {
     public static String CL_OPTION_SECURITY_OFF_DESCRIPTION
         = Messages.get("Main.cl.option.security.off.description", "No description");
 
+    /**
+     * Option to convert the sources on several threads
+     */
+    public static String CL_OPTION_THREADS
+        = Messages.get("Main.cl.option.threads", "-threads");
+
+    public static String CL_OPTION_THREADS_DESCRIPTION
+        = Messages.get("Main.cl.option.threads.description", "No description");
+
     /**
      * Static map containing all the option handlers able to analyze the
      * various options.
@@ -819,6 +829,18 @@ public class Main implements SVGConverterController {
                           }
                       });
 
+        optionMap.put(CL_OPTION_THREADS,
+                      new SingleValueOptionHandler() {
+                          public void handleOption(String optionValue,
+                                                   SVGConverter c){
+                              c.setThreadCount(Integer.parseInt(optionValue));
+                          }
+
+                          public String getOptionDescription(){
+                              return CL_OPTION_THREADS_DESCRIPTION;
+                          }
+                      });
+
         optionMap.put(CL_OPTION_SECURITY_OFF,
                       new NoValueOptionHandler() {
                           public void handleOption(SVGConverter c){
@@ -837,6 +859,18 @@ public class Main implements SVGConverterController {
      */
     protected List args;
 
+    /**
+     * Whether the sources are converted on several threads, in which
+     * case each one is reported on a single line once done.
+     */
+    protected boolean concurrent;
+
+    /**
+     * The time the current thread spent transcoding its last source,
+     * printed with the outcome of the conversion.
+     */
+    protected ThreadLocal transcodingTime = new ThreadLocal();
+
     public Main(String[] args){
         this.args = new ArrayList();
         for (String arg : args) {
@@ -923,6 +957,7 @@ public class Main implements SVGConverterController {
         String[] expandedSources = expandSources(sources);
 
         c.setSources(expandedSources);
+        concurrent = c.getThreadCount() > 1;
 
         validateConverterConfig(c);
 
@@ -1006,6 +1041,9 @@ public class Main implements SVGConverterController {
     public static final String MESSAGE_CONVERSION_SUCCESS
         = "Main.message.conversion.success";
 
+    public static final String MESSAGE_CONVERSION_TIME
+        = "Main.message.conversion.time";
+
     public boolean proceedWithComputedTask(Transcoder transcoder,
                                            Map hints,
                                            List sources,
@@ -1017,25 +1055,62 @@ public class Main implements SVGConverterController {
 
     public boolean proceedWithSourceTranscoding(SVGConverterSource source,
                                                 File dest){
-        System.out.print(Messages.formatMessage(MESSAGE_ABOUT_TO_TRANSCODE_SOURCE,
-                                                new Object[]{source.toString(),
-                                                             dest.toString()}));
+        if (!concurrent) {
+            System.out.print(aboutToTranscode(source, dest));
+        }
         return true;
     }
 
     public boolean proceedOnSourceTranscodingFailure(SVGConverterSource source,
                                                      File dest,
                                                      String errorCode){
-        System.out.println(Messages.formatMessage(MESSAGE_CONVERSION_FAILED,
-                                                  new Object[]{errorCode}));
+        String msg = Messages.formatMessage(MESSAGE_CONVERSION_FAILED,
+                                            new Object[]{errorCode})
+            + conversionTime();
+        if (concurrent) {
+            msg = aboutToTranscode(source, dest) + msg;
+        }
+        System.out.println(msg);
 
         return true;
     }
 
     public void onSourceTranscodingSuccess(SVGConverterSource source,
                                            File dest){
-        System.out.println(Messages.formatMessage(MESSAGE_CONVERSION_SUCCESS,
-                                                  null));
+        String msg = Messages.formatMessage(MESSAGE_CONVERSION_SUCCESS,
+                                            null)
+            + conversionTime();
+        if (concurrent) {
+            msg = aboutToTranscode(source, dest) + msg;
+        }
+        System.out.println(msg);
+    }
+
+    public void onSourceTranscodingTime(SVGConverterSource source,
+                                        File dest,
+                                        long time){
+        transcodingTime.set(Long.valueOf(time));
+    }
+
+    /**
+     * Returns the time the current thread spent transcoding its last
+     * source, formatted to follow the outcome of the conversion, or
+     * an empty string if the source was not transcoded.
+     */
+    protected String conversionTime(){
+        Long time = (Long)transcodingTime.get();
+        if (time == null) {
+            return "";
+        }
+        transcodingTime.set(null);
+        return Messages.formatMessage(MESSAGE_CONVERSION_TIME,
+                                      new Object[]{time.toString()});
+    }
+
+    protected String aboutToTranscode(SVGConverterSource source, File dest){
+        return Messages.formatMessage(MESSAGE_ABOUT_TO_TRANSCODE_SOURCE,
+                                      new Object[]{source.toString(),
+                                                   dest.toString()});
     }
 }
 
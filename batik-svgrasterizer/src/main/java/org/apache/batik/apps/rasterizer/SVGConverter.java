@@ -32,6 +32,12 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.batik.transcoder.Transcoder;
 import org.apache.batik.transcoder.TranscoderInput;
@@ -287,6 +293,9 @@ public class SVGConverter {
      */
     protected SVGConverterController controller;
 
+    /** Number of threads converting the sources concurrently. */
+    protected int threadCount = 1;
+
     //
     // Default constructor
     //
@@ -649,6 +658,26 @@ public class SVGConverter {
         return securityOff;
     }
 
+    /**
+     * Sets the number of threads converting the sources.  With more
+     * than one thread the sources are converted concurrently, each
+     * thread using its own transcoder, and the controller is called
+     * from these threads, one call at a time.
+     */
+    public void setThreadCount(int threadCount){
+        if (threadCount < 1){
+            throw new IllegalArgumentException();
+        }
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Returns the number of threads converting the sources.
+     */
+    public int getThreadCount(){
+        return threadCount;
+    }
+
     /**
      * Returns true if f is a File. <code>f</code> is found to be a file if
      * it exists and is a file. If it does not exist, it is declared
@@ -706,6 +735,11 @@ public class SVGConverter {
             return;
         }
 
+        if (threadCount > 1 && sources.size() > 1) {
+            executeConcurrently(sources, dstFiles, hints);
+            return;
+        }
+
         // Convert files one by one
         for(int i = 0 ; i < sources.size() ; i++) {
             // Get the file from the vector.
@@ -718,6 +752,134 @@ public class SVGConverter {
         }
     }
 
+    /**
+     * Converts the sources on <code>threadCount</code> threads.  As
+     * when converting them one by one, the first source the controller
+     * refuses to proceed after stops the conversion: the sources not
+     * started yet are skipped, the ones in progress are completed and
+     * the exception is thrown.
+     */
+    protected void executeConcurrently(List sources,
+                                       List dstFiles,
+                                       final Map hints)
+        throws SVGConverterException {
+        final AtomicBoolean stop = new AtomicBoolean();
+        final ThreadLocal transcoders = new ThreadLocal();
+        int n = sources.size();
+        ExecutorService executor
+            = Executors.newFixedThreadPool(Math.min(threadCount, n));
+
+        // The controller is called from the worker threads, let them
+        // take turns so controllers written for a single thread work.
+        SVGConverterController c = controller;
+        controller = new SynchronizedController(c);
+        try {
+            List futures = new ArrayList(n);
+            for (int i = 0 ; i < n ; i++) {
+                final SVGConverterSource source
+                    = (SVGConverterSource)sources.get(i);
+                final File outputFile = (File)dstFiles.get(i);
+                futures.add(executor.submit(new Callable() {
+                        public Object call() throws SVGConverterException {
+                            if (stop.get()) {
+                                return null;
+                            }
+                            Transcoder t = (Transcoder)transcoders.get();
+                            if (t == null) {
+                                t = destinationType.getTranscoder();
+                                t.setTranscodingHints(hints);
+                                transcoders.set(t);
+                            }
+                            try {
+                                createOutputDir(outputFile);
+                                transcode(source, outputFile, t);
+                            } catch (SVGConverterException e) {
+                                stop.set(true);
+                                throw e;
+                            }
+                            return null;
+                        }
+                    }));
+            }
+            executor.shutdown();
+
+            // Report the failure of the earliest source, as converting
+            // them in order would have.
+            SVGConverterException error = null;
+            for (Object future : futures) {
+                try {
+                    ((Future) future).get();
+                } catch (ExecutionException e) {
+                    Throwable t = e.getCause();
+                    if (error != null) {
+                        continue;
+                    }
+                    if (t instanceof SVGConverterException) {
+                        error = (SVGConverterException)t;
+                    } else if (t instanceof RuntimeException) {
+                        throw (RuntimeException)t;
+                    } else {
+                        throw (Error)t;
+                    }
+                } catch (InterruptedException e) {
+                    stop.set(true);
+                    executor.shutdownNow();
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+        } finally {
+            executor.shutdownNow();
+            controller = c;
+        }
+    }
+
+    /**
+     * Forwards the calls to a controller one at a time.
+     */
+    protected static class SynchronizedController
+        implements SVGConverterController, SVGConverterTimingListener {
+
+        protected SVGConverterController controller;
+
+        public SynchronizedController(SVGConverterController controller){
+            this.controller = controller;
+        }
+
+        public synchronized boolean proceedWithComputedTask
+            (Transcoder transcoder, Map hints, List sources, List dest){
+            return controller.proceedWithComputedTask
+                (transcoder, hints, sources, dest);
+        }
+
+        public synchronized boolean proceedWithSourceTranscoding
+            (SVGConverterSource source, File dest){
+            return controller.proceedWithSourceTranscoding(source, dest);
+        }
+
+        public synchronized boolean proceedOnSourceTranscodingFailure
+            (SVGConverterSource source, File dest, String errorCode){
+            return controller.proceedOnSourceTranscodingFailure
+                (source, dest, errorCode);
+        }
+
+        public synchronized void onSourceTranscodingSuccess
+            (SVGConverterSource source, File dest){
+            controller.onSourceTranscodingSuccess(source, dest);
+        }
+
+        public synchronized void onSourceTranscodingTime
+            (SVGConverterSource source, File dest, long time){
+            if (controller instanceof SVGConverterTimingListener) {
+                ((SVGConverterTimingListener)controller)
+                    .onSourceTranscodingTime(source, dest, time);
+            }
+        }
+    }
+
     /**
      * Populates a vector with destination files names
      * computed from the names of the files in the sources vector
@@ -997,11 +1159,21 @@ public class SVGConverter {
 
         // Transcode now
         boolean success = false;
+        Exception failure = null;
+        long start = System.currentTimeMillis();
         try {
             transcoder.transcode(input, output);
             success = true;
         } catch(Exception te) {
-            te.printStackTrace();
+            failure = te;
+        }
+        if (controller instanceof SVGConverterTimingListener) {
+            ((SVGConverterTimingListener)controller).onSourceTranscodingTime
+                (inputFile, outputFile, System.currentTimeMillis() - start);
+        }
+
+        if (failure != null) {
+            failure.printStackTrace();
             try {
                 outputStream.flush();
                 outputStream.close();
@@ -1015,7 +1187,7 @@ public class SVGConverter {
             if (!proceed){
                 throw new SVGConverterException(ERROR_WHILE_RASTERIZING_FILE,
                                                  new Object[] {outputFile.getName(),
-                                                               te.getMessage()});
+                                                               failure.getMessage()});
             }
         }
 
@@ -1088,7 +1260,8 @@ public class SVGConverter {
             outputDir = new File(output.getParent());
             if ( ! outputDir.exists() ) {
                 // Output directory doesn't exist, so create it.
-                success = outputDir.mkdirs();
+                // Another thread may have created it meanwhile.
+                success = outputDir.mkdirs() || outputDir.isDirectory();
             } else {
                 if ( ! outputDir.isDirectory() ) {
                     // File, which have a same name as the output directory, exists.
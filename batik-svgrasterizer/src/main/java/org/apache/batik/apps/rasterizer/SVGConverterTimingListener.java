@@ -0,0 +1,41 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.apps.rasterizer;
+
+import java.io.File;
+
+/**
+ * Interface a <code>SVGConverterController</code> can also implement
+ * to be told how long each source took to transcode.
+ *
+ * @version $Id$
+ */
+public interface SVGConverterTimingListener {
+    /**
+     * Invoked when the transcoder is done with the input source,
+     * whether it succeeded or not, before the outcome is reported
+     * to the controller.
+     *
+     * @param time the time spent transcoding the source, in
+     *        milliseconds.
+     */
+    void onSourceTranscodingTime(SVGConverterSource source,
+                                 File dest,
+                                 long time);
+}
@@ -0,0 +1,110 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.anim.dom;
+
+import java.awt.Shape;
+
+import org.apache.batik.dom.svg.SVGAnimatedPathDataSupport;
+import org.apache.batik.parser.AWTPathProducer;
+import org.apache.batik.parser.PackedPathProducer;
+import org.apache.batik.test.PerformanceTest;
+import org.apache.batik.util.SVGConstants;
+
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+
+/**
+ * Compares the time taken to create the shape of a long path element
+ * through its path segment list and an {@link AWTPathProducer} (the
+ * reference, what the path bridge used to do) and through
+ * {@link SVGOMAnimatedPathData#handlePathData} and a
+ * {@link PackedPathProducer} (the operation).  The <code>d</code>
+ * attribute is set before each run so the path data is parsed again.
+ *
+ * @version $Id$
+ */
+public class PathDataPerformanceTest extends PerformanceTest {
+
+    /**
+     * The number of segments of the path.
+     */
+    protected int segmentCount = 20000;
+
+    protected String path;
+
+    protected SVGOMPathElement element;
+
+    protected PackedPathProducer producer = new PackedPathProducer();
+
+    public void setSegmentCount(Integer n) {
+        segmentCount = n.intValue();
+    }
+
+    protected void setUp() {
+        if (path != null) {
+            return;
+        }
+        StringBuffer sb = new StringBuffer("M0 0");
+        for (int i = 0; i < segmentCount; i++) {
+            switch (i % 4) {
+            case 0:
+                sb.append(" l").append(i % 17).append(' ').append(-(i % 13));
+                break;
+            case 1:
+                sb.append(" C").append(i % 100).append(',').append(i % 7)
+                    .append(' ').append(i % 31).append(".5,")
+                    .append(i % 11).append(' ').append(i % 100)
+                    .append(' ').append(i % 50);
+                break;
+            case 2:
+                sb.append(" h").append(i % 9).append(".25");
+                break;
+            default:
+                sb.append(" q1 2 ").append(i % 5).append(" 4");
+            }
+        }
+        path = sb.toString();
+
+        DOMImplementation impl = SVGDOMImplementation.getDOMImplementation();
+        Document doc = impl.createDocument(SVGConstants.SVG_NAMESPACE_URI,
+                                           SVGConstants.SVG_SVG_TAG, null);
+        element = (SVGOMPathElement)doc.createElementNS
+            (SVGConstants.SVG_NAMESPACE_URI, SVGConstants.SVG_PATH_TAG);
+        doc.getDocumentElement().appendChild(element);
+    }
+
+    protected void runRef() {
+        setUp();
+        element.setAttributeNS(null, SVGConstants.SVG_D_ATTRIBUTE, path);
+        SVGOMAnimatedPathData d = element.getAnimatedPathData();
+        AWTPathProducer app = new AWTPathProducer();
+        d.check();
+        SVGAnimatedPathDataSupport.handlePathSegList
+            (d.getAnimatedPathSegList(), app);
+        Shape s = app.getShape();
+    }
+
+    protected void runOp() {
+        setUp();
+        element.setAttributeNS(null, SVGConstants.SVG_D_ATTRIBUTE, path);
+        SVGOMAnimatedPathData d = element.getAnimatedPathData();
+        d.handlePathData(producer);
+        Shape s = producer.getShape();
+    }
+}
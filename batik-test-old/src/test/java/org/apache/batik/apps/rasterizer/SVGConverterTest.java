@@ -396,6 +396,29 @@ public class SVGConverterTest extends DefaultTestSuite {
         addTest(t);
         t.setId("ConfigErrorTest(SVGConverter.ERROR_WHILE_RASTERIZING_FILE");
 
+        t = new ConfigErrorTest(SVGConverter.ERROR_WHILE_RASTERIZING_FILE){
+                protected void configure(SVGConverter c){
+                    c.setSources(new String[]{ "samples/anne.svg",
+                                               "test-resources/org/apache/batik/apps/rasterizer/invalidSVG.svg"});
+                    c.setDst(new File("test-reports"));
+                    c.setThreadCount(2);
+                }
+            };
+        addTest(t);
+        t.setId("ConfigErrorTest.ERROR_WHILE_RASTERIZING_FILE.threads");
+
+        //
+        // Test that the time spent on each source is reported once,
+        // whether it is converted or not.
+        //
+        t = new TimingListenerTest(1);
+        addTest(t);
+        t.setId("TimingListenerTest.serial");
+
+        t = new TimingListenerTest(3);
+        addTest(t);
+        t.setId("TimingListenerTest.threads");
+
         //
         // Test that files are created as expected and are producing the
         // expected result.
@@ -1055,6 +1078,96 @@ class ConfigErrorTest extends AbstractTest implements SVGConverterController{
     }
 }
 
+/**
+ * Checks that a controller implementing
+ * <code>SVGConverterTimingListener</code> is told the transcoding time
+ * of each source exactly once, including sources that fail to convert.
+ */
+class TimingListenerTest extends AbstractTest
+    implements SVGConverterController, SVGConverterTimingListener {
+
+    public static final String ERROR_UNEXPECTED_TIMING_COUNT
+        = "TimingListenerTest.error.unexpected.timing.count";
+
+    public static final String ENTRY_KEY_SOURCE
+        = "TimingListenerTest.entry.key.source";
+
+    public static final String ENTRY_KEY_TIMING_COUNT
+        = "TimingListenerTest.entry.key.timing.count";
+
+    static final String[] SOURCES = {
+        "samples/anne.svg",
+        "test-resources/org/apache/batik/apps/rasterizer/invalidSVG.svg",
+        "samples/batikLogo.svg"
+    };
+
+    int threadCount;
+
+    Map timings = new HashMap();
+
+    public TimingListenerTest(int threadCount){
+        this.threadCount = threadCount;
+    }
+
+    public String getName(){
+        return getId();
+    }
+
+    public TestReport runImpl() throws Exception {
+        SVGConverter c = new SVGConverter(this);
+        c.setDestinationType(DestinationType.PNG);
+        c.setSources(SOURCES);
+        c.setDst(new File("test-reports"));
+        c.setThreadCount(threadCount);
+        c.execute();
+
+        for (String src : SOURCES) {
+            String name = new File(src).getName();
+            Integer count = (Integer)timings.get(name);
+            if (count == null || count.intValue() != 1) {
+                TestReport report = reportError(ERROR_UNEXPECTED_TIMING_COUNT);
+                report.addDescriptionEntry(ENTRY_KEY_SOURCE, src);
+                report.addDescriptionEntry(ENTRY_KEY_TIMING_COUNT,
+                                           "" + (count == null ? 0 : count.intValue()));
+                return report;
+            }
+        }
+        return reportSuccess();
+    }
+
+    public synchronized void onSourceTranscodingTime(SVGConverterSource source,
+                                                     File dest,
+                                                     long time){
+        Integer count = (Integer)timings.get(source.getName());
+        timings.put(source.getName(),
+                    Integer.valueOf(count == null ? 1 : count.intValue() + 1));
+    }
+
+    public boolean proceedWithComputedTask(Transcoder transcoder,
+                                           Map hints,
+                                           List sources,
+                                           List dest){
+        return true;
+    }
+
+    public boolean proceedWithSourceTranscoding(SVGConverterSource source,
+                                                File dest) {
+        return true;
+    }
+
+    public boolean proceedOnSourceTranscodingFailure(SVGConverterSource source,
+                                                     File dest,
+                                                     String errorCode){
+        dest.delete();
+        return true;
+    }
+
+    public void onSourceTranscodingSuccess(SVGConverterSource source,
+                                           File dest){
+        dest.delete();
+    }
+}
+
 /**
  * This test checks that a file is indeed created and that it is identical to
  * an expected reference.
@@ -0,0 +1,89 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.bridge;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+
+import org.apache.batik.test.AbstractTest;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Checks that document loaders sharing a <code>DocumentCache</code>
+ * get their own copies of a document parsed once, with the locations
+ * of its elements, and that the document is parsed again once its
+ * file is modified.
+ *
+ * @version $Id$
+ */
+public class DocumentCacheTest extends AbstractTest {
+
+    public static final String SPRITES =
+        "<?xml version=\"1.0\"?>\n" +
+        "<svg xmlns=\"http://www.w3.org/2000/svg\">\n" +
+        "  <g id=\"icons\">\n" +
+        "    <rect id=\"square\" width=\"10\" height=\"10\"/>\n" +
+        "  </g>\n" +
+        "</svg>\n";
+
+    public boolean runImplBasic() throws Exception {
+        DocumentCache old = DocumentLoader.getSharedCache();
+        File f = File.createTempFile("sprites", ".svg");
+        try {
+            Writer w = new FileWriter(f);
+            w.write(SPRITES);
+            w.close();
+            String uri = f.toURI().toString();
+
+            DocumentCache cache = new DocumentCache();
+            DocumentLoader.setSharedCache(cache);
+            DocumentLoader l1 = new DocumentLoader(new UserAgentAdapter());
+            DocumentLoader l2 = new DocumentLoader(new UserAgentAdapter());
+            Document d1 = l1.loadDocument(uri);
+            Document d2 = l2.loadDocument(uri);
+            Element s1 = d1.getElementById("square");
+            Element s2 = d2.getElementById("square");
+            if ((d1 == d2) || (s1 == null) || (s2 == null) ||
+                (l1.getLineNumber(s1) != 4) || (l2.getLineNumber(s2) != 4) ||
+                (cache.getHitCount() != 1) || (cache.getMissCount() != 1) ||
+                (cache.getDocumentCount() != 1))
+                return false;
+
+            // A loader keeps its own copy.
+            if (l2.loadDocument(uri + "#square") != d2)
+                return false;
+
+            f.setLastModified(f.lastModified() + 10000);
+            new DocumentLoader(new UserAgentAdapter()).loadDocument(uri);
+            if ((cache.getHitCount() != 1) || (cache.getMissCount() != 2))
+                return false;
+
+            cache.setMaxNodes(1);
+            return (cache.getDocumentCount() == 0) &&
+                (cache.getNodeCount() == 0) &&
+                (cache.getEvictionCount() == 1);
+        } finally {
+            DocumentLoader.setSharedCache(old);
+            f.delete();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.bridge;
+
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import java.io.StringReader;
+
+import org.apache.batik.anim.dom.SAXSVGDocumentFactory;
+import org.apache.batik.gvt.FillShapePainter;
+import org.apache.batik.gvt.ShapeNode;
+import org.apache.batik.test.AbstractTest;
+import org.apache.batik.util.XMLResourceDescriptor;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Checks that a path whose 'd' attribute becomes malformed still has
+ * a shape, and keeps its painter, when its bridge reports the error:
+ * the segments parsed before the error, or an empty path.
+ *
+ * @version $Id$
+ */
+public class MalformedPathTest extends AbstractTest {
+
+    public static final String DOCUMENT =
+        "<svg xmlns='http://www.w3.org/2000/svg'>" +
+        "<path id='p' d='M 10 10 L 20 30'/>" +
+        "</svg>";
+
+    public boolean runImplBasic() throws Exception {
+        SAXSVGDocumentFactory f = new SAXSVGDocumentFactory
+            (XMLResourceDescriptor.getXMLParserClassName());
+        Document doc = f.createDocument
+            ("http://example.org/malformed.svg", new StringReader(DOCUMENT));
+        BridgeContext ctx = new BridgeContext(new UserAgentAdapter());
+        new GVTBuilder().build(ctx, doc);
+
+        Element p = doc.getElementById("p");
+        SVGPathElementBridge bridge = new SVGPathElementBridge();
+
+        // The segments before the error are kept.
+        p.setAttributeNS(null, "d", "M 10 10 L 20 30 L x");
+        ShapeNode node = createNode();
+        assertTrue(buildShape(bridge, ctx, p, node));
+        Shape shape = node.getShape();
+        assertTrue(shape != null);
+        assertEquals(new Rectangle2D.Float(10, 10, 10, 20),
+                     shape.getBounds2D());
+        assertTrue(node.getShapePainter() != null);
+
+        // Without any segment the path is empty.
+        p.setAttributeNS(null, "d", "x");
+        node = createNode();
+        assertTrue(buildShape(bridge, ctx, p, node));
+        shape = node.getShape();
+        assertTrue(shape != null);
+        assertTrue(shape.getBounds2D().isEmpty());
+        assertTrue(node.getShapePainter() != null);
+        return true;
+    }
+
+    /**
+     * Returns a node with a shape and a painter, as built from the
+     * previous value of the attribute.
+     */
+    protected ShapeNode createNode() {
+        ShapeNode node = new ShapeNode();
+        Shape s = new Rectangle2D.Float(0, 0, 5, 5);
+        node.setShape(s);
+        node.setShapePainter(new FillShapePainter(s));
+        return node;
+    }
+
+    /**
+     * Builds the shape of <code>e</code> into <code>node</code>, and
+     * returns true if the bridge reported an error.
+     */
+    protected boolean buildShape(SVGPathElementBridge bridge,
+                                 BridgeContext ctx,
+                                 Element e,
+                                 ShapeNode node) {
+        try {
+            bridge.buildShape(ctx, e, node);
+        } catch (BridgeException ex) {
+            return true;
+        }
+        return false;
+    }
+}
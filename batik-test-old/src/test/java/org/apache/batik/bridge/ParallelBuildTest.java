@@ -0,0 +1,244 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.bridge;
+
+import java.io.StringReader;
+import java.util.Iterator;
+
+import org.apache.batik.anim.dom.SAXSVGDocumentFactory;
+import org.apache.batik.gvt.CompositeGraphicsNode;
+import org.apache.batik.gvt.GraphicsNode;
+import org.apache.batik.gvt.ShapeNode;
+import org.apache.batik.test.AbstractTest;
+import org.apache.batik.test.DefaultTestReport;
+import org.apache.batik.test.TestReport;
+import org.apache.batik.util.XMLResourceDescriptor;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Checks that a <code>GVTBuilder</code> with a parallelism greater than
+ * one builds the same GVT tree as when building serially: the same
+ * node types, transforms and bounds, in the same order.  The document
+ * holds sibling 'g' subtrees built concurrently, a subtree that
+ * references a gradient and is built serially, and a deep chain of
+ * single 'g' children.
+ *
+ * @version $Id$
+ */
+public class ParallelBuildTest extends AbstractTest {
+
+    /**
+     * Error when no subtree was built concurrently, or some were when
+     * building serially.
+     */
+    public static final String ERROR_NOT_CONCURRENT =
+        "ParallelBuildTest.error.not.concurrent";
+
+    /**
+     * Error when the GVT trees built serially and concurrently differ.
+     */
+    public static final String ERROR_TREES_DIFFER =
+        "ParallelBuildTest.error.trees.differ";
+
+    public static final String ENTRY_KEY_SERIAL_TREE =
+        "ParallelBuildTest.entry.key.serial.tree";
+
+    public static final String ENTRY_KEY_PARALLEL_TREE =
+        "ParallelBuildTest.entry.key.parallel.tree";
+
+    /**
+     * The number of threads building the document concurrently.
+     */
+    public static final int PARALLELISM = 4;
+
+    public TestReport runImpl() throws Exception {
+        String svg = createDocument();
+        int[] concurrent = new int[1];
+        String serial = dump(build(svg, 1, concurrent));
+        if (concurrent[0] != 0) {
+            return reportError(ERROR_NOT_CONCURRENT);
+        }
+        String parallel = dump(build(svg, PARALLELISM, concurrent));
+        if (concurrent[0] == 0) {
+            return reportError(ERROR_NOT_CONCURRENT);
+        }
+        if (!serial.equals(parallel)) {
+            DefaultTestReport report = new DefaultTestReport(this);
+            report.setErrorCode(ERROR_TREES_DIFFER);
+            report.addDescriptionEntry(ENTRY_KEY_SERIAL_TREE, serial);
+            report.addDescriptionEntry(ENTRY_KEY_PARALLEL_TREE, parallel);
+            report.setPassed(false);
+            return report;
+        }
+        return reportSuccess();
+    }
+
+    /**
+     * Returns a document holding over a thousand basic shapes.
+     */
+    protected String createDocument() {
+        String[] fills = { "red", "green", "blue", "#fc0", "none" };
+        StringBuffer sb = new StringBuffer();
+        sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\" ");
+        sb.append("width=\"800\" height=\"600\">\n");
+        sb.append("<defs><linearGradient id=\"grad\">");
+        sb.append("<stop offset=\"0\" stop-color=\"red\"/>");
+        sb.append("<stop offset=\"1\" stop-color=\"blue\"/>");
+        sb.append("</linearGradient></defs>\n");
+        for (int i = 0; i < 16; i++) {
+            sb.append("<g transform=\"translate(" + (i * 7) + " " + (i * 3)
+                      + ") rotate(" + (i * 11) + ")\"");
+            if (i == 5) {
+                sb.append(" fill=\"url(#grad)\"");
+            } else if (i == 9) {
+                sb.append(" display=\"none\"");
+            } else {
+                sb.append(" stroke=\"black\" stroke-width=\"" + (i % 3 + 1)
+                          + "\"");
+            }
+            sb.append(">\n");
+            for (int j = 0; j < 40; j++) {
+                int x = (i * 37 + j * 13) % 700;
+                int y = (i * 19 + j * 29) % 500;
+                String fill = " fill=\"" + fills[(i + j) % fills.length]
+                    + "\"";
+                switch (j % 7) {
+                case 0:
+                    sb.append("<rect x=\"" + x + "\" y=\"" + y
+                              + "\" width=\"" + (j + 5) + "\" height=\"9\""
+                              + fill + "/>\n");
+                    break;
+                case 1:
+                    sb.append("<circle cx=\"" + x + "\" cy=\"" + y
+                              + "\" r=\"" + (j % 9 + 1) + "\"" + fill
+                              + "/>\n");
+                    break;
+                case 2:
+                    sb.append("<ellipse cx=\"" + x + "\" cy=\"" + y
+                              + "\" rx=\"7\" ry=\"" + (j % 5 + 2) + "\""
+                              + fill + "/>\n");
+                    break;
+                case 3:
+                    sb.append("<line x1=\"" + x + "\" y1=\"" + y
+                              + "\" x2=\"" + (x + j) + "\" y2=\"" + (y + 4)
+                              + "\" stroke=\"navy\"/>\n");
+                    break;
+                case 4:
+                    sb.append("<polygon points=\"" + x + "," + y + " "
+                              + (x + 10) + "," + y + " " + (x + 5) + ","
+                              + (y + 8) + "\"" + fill + "/>\n");
+                    break;
+                case 5:
+                    sb.append("<path d=\"M" + x + " " + y + "q10 -10 "
+                              + j + " 0z\"" + fill + "/>\n");
+                    break;
+                default:
+                    sb.append("<g transform=\"scale(1." + j + ")\">"
+                              + "<polyline points=\"" + x + "," + y + " "
+                              + (x + 3) + "," + (y + 9) + "\" stroke=\"gray\""
+                              + " fill=\"none\"/></g>\n");
+                }
+            }
+            sb.append("</g>\n");
+        }
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < 300; j++) {
+                sb.append("<g transform=\"translate(1 1)\">");
+            }
+            sb.append("<rect width=\"3\" height=\"3\"/>");
+            for (int j = 0; j < 300; j++) {
+                sb.append("</g>");
+            }
+            sb.append('\n');
+        }
+        sb.append("</svg>\n");
+        return sb.toString();
+    }
+
+    /**
+     * Builds the GVT tree of a new static document parsed from the
+     * given source.
+     * @param concurrent receives the number of containers whose
+     *        children were built concurrently.
+     */
+    protected GraphicsNode build(String svg, int parallelism,
+                                 final int[] concurrent) throws Exception {
+        SAXSVGDocumentFactory f = new SAXSVGDocumentFactory
+            (XMLResourceDescriptor.getXMLParserClassName());
+        f.setStatic(true);
+        Document doc = f.createDocument("file:/parallel.svg",
+                                        new StringReader(svg));
+        concurrent[0] = 0;
+        GVTBuilder builder = new GVTBuilder() {
+                protected boolean buildCompositeConcurrently
+                    (BridgeContext ctx, Element e,
+                     CompositeGraphicsNode parentNode) {
+                    boolean b = super.buildCompositeConcurrently
+                        (ctx, e, parentNode);
+                    if (b) {
+                        concurrent[0]++;
+                    }
+                    return b;
+                }
+            };
+        builder.setParallelism(parallelism);
+        BridgeContext ctx = new BridgeContext(new UserAgentAdapter());
+        try {
+            return builder.build(ctx, doc);
+        } finally {
+            ctx.dispose();
+        }
+    }
+
+    /**
+     * Returns a description of the given GVT tree.
+     */
+    protected String dump(GraphicsNode gn) {
+        StringBuffer sb = new StringBuffer();
+        dump(gn, 0, sb);
+        return sb.toString();
+    }
+
+    protected void dump(GraphicsNode gn, int depth, StringBuffer sb) {
+        sb.append(depth);
+        sb.append(' ');
+        sb.append(gn.getClass().getName());
+        sb.append(' ');
+        sb.append(gn.getTransform());
+        sb.append(' ');
+        sb.append(gn.getPrimitiveBounds());
+        sb.append(' ');
+        sb.append(gn.getGeometryBounds());
+        sb.append(' ');
+        sb.append(gn.getSensitiveBounds());
+        if (gn instanceof ShapeNode) {
+            sb.append(' ');
+            sb.append(((ShapeNode)gn).getShape().getBounds2D());
+        }
+        sb.append('\n');
+        if (gn instanceof CompositeGraphicsNode) {
+            Iterator i = ((CompositeGraphicsNode)gn).getChildren().iterator();
+            while (i.hasNext()) {
+                dump((GraphicsNode)i.next(), depth + 1, sb);
+            }
+        }
+    }
+}
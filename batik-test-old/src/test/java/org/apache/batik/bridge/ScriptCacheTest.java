@@ -0,0 +1,76 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.bridge;
+
+import java.io.StringReader;
+import java.net.URL;
+
+import org.apache.batik.test.AbstractTest;
+
+/**
+ * Checks that interpreters sharing a <code>ScriptCache</code> compile a
+ * script once per document URL, and that interpreters sharing their
+ * standard objects keep their own global variables.
+ *
+ * @version $Id$
+ */
+public class ScriptCacheTest extends AbstractTest {
+
+    public static final String LIBRARY =
+        "var count = 0;\n" +
+        "function next() { return ++count; }\n";
+
+    public boolean runImplBasic() throws Exception {
+        ScriptCache old = RhinoInterpreter.getSharedScriptCache();
+        boolean share = RhinoInterpreter.getShareStandardObjects();
+        try {
+            ScriptCache cache = new ScriptCache();
+            RhinoInterpreter.setSharedScriptCache(cache);
+            RhinoInterpreter.setShareStandardObjects(true);
+            URL u1 = new URL("http://example.org/dashboard.svg");
+            URL u2 = new URL("http://example.org/other.svg");
+            RhinoInterpreter i1 = new RhinoInterpreter(u1);
+            RhinoInterpreter i2 = new RhinoInterpreter(u1);
+            RhinoInterpreter i3 = new RhinoInterpreter(u2);
+            long hits = cache.getHitCount();
+            long misses = cache.getMissCount();
+            i1.evaluate(new StringReader(LIBRARY), "library.js");
+            i2.evaluate(new StringReader(LIBRARY), "library.js");
+            i3.evaluate(new StringReader(LIBRARY), "library.js");
+            if ((cache.getHitCount() != hits + 1) ||
+                (cache.getMissCount() != misses + 2))
+                return false;
+
+            // The globals stay with their interpreter.
+            i1.evaluate("next()");
+            Object n = i2.evaluate("next()");
+            if (!(n instanceof Number) || (((Number)n).intValue() != 1))
+                return false;
+            if (!"function".equals(i3.evaluate("typeof Node")))
+                return false;
+
+            cache.setMaxScripts(1);
+            return (cache.getScriptCount() == 1) &&
+                (cache.getEvictionCount() > 0);
+        } finally {
+            RhinoInterpreter.setSharedScriptCache(old);
+            RhinoInterpreter.setShareStandardObjects(share);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.css.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import org.apache.batik.test.PerformanceTest;
+
+/**
+ * Compares the time <code>CSSEngine</code> takes to find the rules
+ * matching each element of a large document through the style-sheet's
+ * <code>RuleIndex</code> (the operation) with the time taken testing
+ * every rule against every element (the reference).
+ *
+ * @version $Id$
+ */
+public class RuleIndexPerformanceTest extends PerformanceTest {
+
+    /**
+     * The number of elements of the document.
+     */
+    protected int elementCount = 50000;
+
+    /**
+     * The number of generated rules in the style-sheet.
+     */
+    protected int ruleCount = 200;
+
+    protected CSSEngine engine;
+    protected StyleSheet styleSheet;
+    protected List elements;
+
+    public void setElementCount(Integer n) {
+        elementCount = n.intValue();
+    }
+
+    public void setRuleCount(Integer n) {
+        ruleCount = n.intValue();
+    }
+
+    protected void setUp() {
+        if (engine != null) {
+            return;
+        }
+        Document doc = RuleIndexTest.createDocument(elementCount);
+        engine = RuleIndexTest.createEngine(doc);
+        styleSheet = engine.parseStyleSheet
+            (RuleIndexTest.RULES + RuleIndexTest.createRules(ruleCount),
+             null, "all");
+        elements = new ArrayList();
+        RuleIndexTest.collectElements(doc.getDocumentElement(), elements);
+    }
+
+    protected void runRef() {
+        setUp();
+        List rules = new ArrayList();
+        int len = elements.size();
+        for (int i = 0; i < len; i++) {
+            rules.clear();
+            RuleIndexTest.addAllMatchingRules
+                (engine, rules, styleSheet, (Element)elements.get(i));
+        }
+    }
+
+    protected void runOp() {
+        setUp();
+        List rules = new ArrayList();
+        int len = elements.size();
+        for (int i = 0; i < len; i++) {
+            rules.clear();
+            engine.addMatchingRules
+                (rules, styleSheet, (Element)elements.get(i), null);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.css.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.w3c.css.sac.SelectorList;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import org.apache.batik.anim.dom.SVGDOMImplementation;
+import org.apache.batik.anim.dom.SVGOMDocument;
+import org.apache.batik.bridge.BridgeContext;
+import org.apache.batik.bridge.UserAgentAdapter;
+import org.apache.batik.css.engine.sac.ExtendedSelector;
+import org.apache.batik.test.AbstractTest;
+import org.apache.batik.test.DefaultTestReport;
+import org.apache.batik.test.TestReport;
+import org.apache.batik.util.SVGConstants;
+
+/**
+ * Checks that the rules <code>CSSEngine</code> finds through the
+ * <code>RuleIndex</code> of a style-sheet are the ones, in the same
+ * order, that testing every rule against the element finds.
+ *
+ * @version $Id$
+ */
+public class RuleIndexTest extends AbstractTest {
+
+    /**
+     * The error code when the matched rules differ.
+     */
+    public static final String ERROR_RULES_DIFFER =
+        "RuleIndexTest.error.rules.differ";
+
+    /**
+     * A style-sheet using the kinds of selectors the index sorts.
+     */
+    public static final String RULES =
+        "* { stroke: black }\n" +
+        "rect { fill: red }\n" +
+        "circle, .c3, #e17 { fill: blue }\n" +
+        "rect.c4 { fill: green }\n" +
+        ".k2.c7 { opacity: 0.5 }\n" +
+        "circle#e10.c0 { opacity: 0.2 }\n" +
+        "g .c5 { stroke-width: 2 }\n" +
+        "g > circle { stroke-width: 3 }\n" +
+        "rect + circle { stroke-width: 4 }\n" +
+        "[x=\"3\"] { fill: yellow }\n" +
+        ".k1:first-child { fill: gray }\n" +
+        "#e3 .c1 { fill: purple }\n" +
+        "@media screen { .c1 { fill: white } g { opacity: 0.7 } }\n" +
+        "@media print { .c2 { fill: black } }\n";
+
+    /**
+     * The number of classes generated rules and elements pick from.
+     */
+    public static final int CLASS_COUNT = 50;
+
+    public TestReport runImpl() throws Exception {
+        Document doc = createDocument(500);
+        CSSEngine eng = createEngine(doc);
+        StyleSheet ss = eng.parseStyleSheet(RULES + createRules(200),
+                                            null, "all");
+        List elts = new ArrayList();
+        collectElements(doc.getDocumentElement(), elts);
+        for (int i = 0; i < elts.size(); i++) {
+            Element e = (Element)elts.get(i);
+            List expected = new ArrayList();
+            addAllMatchingRules(eng, expected, ss, e);
+            List actual = new ArrayList();
+            eng.addMatchingRules(actual, ss, e, null);
+            if (!expected.equals(actual)) {
+                DefaultTestReport report = new DefaultTestReport(this);
+                report.setErrorCode(ERROR_RULES_DIFFER);
+                report.setDescription(new TestReport.Entry[] {
+                    new TestReport.Entry
+                        ("element", e.getAttributeNS(null, "id")),
+                    new TestReport.Entry("expected", "" + expected.size()),
+                    new TestReport.Entry("actual", "" + actual.size())
+                });
+                report.setPassed(false);
+                return report;
+            }
+        }
+        return reportSuccess();
+    }
+
+    /**
+     * Creates an SVG document with the given number of shapes, spread
+     * across nested groups.  The shapes have an id and two classes.
+     */
+    public static Document createDocument(int count) {
+        SVGDOMImplementation impl =
+            (SVGDOMImplementation)SVGDOMImplementation.getDOMImplementation();
+        String ns = SVGConstants.SVG_NAMESPACE_URI;
+        Document doc = impl.createDocument(ns, "svg", null);
+        String[] names = { "rect", "circle", "text", "path" };
+        Element parent = doc.getDocumentElement();
+        for (int i = 0; i < count; i++) {
+            if (i % 20 == 0) {
+                Element g = doc.createElementNS(ns, "g");
+                g.setAttributeNS(null, "class", "c" + (i % CLASS_COUNT));
+                doc.getDocumentElement().appendChild(g);
+                parent = g;
+            }
+            Element e = doc.createElementNS(ns, names[i % names.length]);
+            e.setAttributeNS(null, "id", "e" + i);
+            e.setAttributeNS(null, "class",
+                             "c" + (i % CLASS_COUNT) + " k" + (i % 7));
+            if (i % 11 == 0) {
+                e.setAttributeNS(null, "x", "3");
+            }
+            parent.appendChild(e);
+        }
+        return doc;
+    }
+
+    /**
+     * Returns a style-sheet of <code>count</code> rules keyed on the
+     * classes and ids of the elements <code>createDocument</code> makes.
+     */
+    public static String createRules(int count) {
+        StringBuffer sb = new StringBuffer();
+        for (int i = 0; i < count; i++) {
+            switch (i % 4) {
+            case 0:
+                sb.append(".c").append(i % CLASS_COUNT);
+                break;
+            case 1:
+                sb.append("#e").append(i * 13);
+                break;
+            case 2:
+                sb.append("g .k").append(i % 7);
+                break;
+            default:
+                sb.append("rect.c").append(i % CLASS_COUNT)
+                    .append(", circle.k").append(i % 7);
+            }
+            sb.append(" { stroke-width: ").append(i).append(" }\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Creates the CSS engine of the given document.
+     */
+    public static CSSEngine createEngine(Document doc) {
+        SVGDOMImplementation impl =
+            (SVGDOMImplementation)doc.getImplementation();
+        BridgeContext ctx = new BridgeContext(new UserAgentAdapter());
+        CSSEngine eng = impl.createCSSEngine((SVGOMDocument)doc, ctx);
+        ((SVGOMDocument)doc).setCSSEngine(eng);
+        eng.setMedia("screen");
+        return eng;
+    }
+
+    /**
+     * Adds the given element and its descendant elements to the list.
+     */
+    public static void collectElements(Node n, List elts) {
+        if (n instanceof Element) {
+            elts.add(n);
+        }
+        for (Node c = n.getFirstChild(); c != null; c = c.getNextSibling()) {
+            collectElements(c, elts);
+        }
+    }
+
+    /**
+     * Adds the rules of the style-sheet matching the element, testing
+     * each of them in turn as <code>CSSEngine</code> did before rules
+     * were indexed.
+     */
+    public static void addAllMatchingRules(CSSEngine eng, List rules,
+                                           StyleSheet ss, Element elt) {
+        int len = ss.getSize();
+        for (int i = 0; i < len; i++) {
+            Rule r = ss.getRule(i);
+            switch (r.getType()) {
+            case StyleRule.TYPE:
+                SelectorList sl = ((StyleRule)r).getSelectorList();
+                int slen = sl.getLength();
+                for (int j = 0; j < slen; j++) {
+                    ExtendedSelector s = (ExtendedSelector)sl.item(j);
+                    if (s.match(elt, null)) {
+                        rules.add(r);
+                    }
+                }
+                break;
+
+            case MediaRule.TYPE:
+            case ImportRule.TYPE:
+                MediaRule mr = (MediaRule)r;
+                if (eng.mediaMatch(mr.getMediaList())) {
+                    addAllMatchingRules(eng, rules, mr, elt);
+                }
+                break;
+            }
+        }
+    }
+}
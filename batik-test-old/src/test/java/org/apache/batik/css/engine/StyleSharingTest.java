@@ -0,0 +1,103 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.css.engine;
+
+import java.io.StringReader;
+
+import org.w3c.dom.Element;
+
+import org.apache.batik.anim.dom.SAXSVGDocumentFactory;
+import org.apache.batik.anim.dom.SVGDOMImplementation;
+import org.apache.batik.anim.dom.SVGOMDocument;
+import org.apache.batik.bridge.BridgeContext;
+import org.apache.batik.bridge.UserAgentAdapter;
+import org.apache.batik.test.AbstractTest;
+import org.apache.batik.util.XMLResourceDescriptor;
+
+/**
+ * Checks that sibling elements with the same name and cascade share
+ * their style map, that elements of different types do not, and that
+ * changing the style of one of them, or of their parent, leaves the
+ * others with the right computed values.
+ *
+ * @version $Id$
+ */
+public class StyleSharingTest extends AbstractTest {
+
+    public static final String DOCUMENT =
+        "<svg xmlns='http://www.w3.org/2000/svg'>" +
+        "<style type='text/css'>.dot { fill: blue }</style>" +
+        "<g id='g'>" +
+        "<rect id='a' class='dot' x='1'/>" +
+        "<rect id='b' class='dot' x='2'/>" +
+        "<rect id='c' class='dot' stroke='red'/>" +
+        "<circle id='d' class='dot' x='1'/>" +
+        "</g></svg>";
+
+    public boolean runImplBasic() throws Exception {
+        SAXSVGDocumentFactory f = new SAXSVGDocumentFactory
+            (XMLResourceDescriptor.getXMLParserClassName());
+        SVGOMDocument doc = (SVGOMDocument)f.createDocument
+            ("http://example.org/sharing.svg", new StringReader(DOCUMENT));
+        BridgeContext ctx = new BridgeContext(new UserAgentAdapter());
+        ctx.setDynamic(true);
+        SVGDOMImplementation impl =
+            (SVGDOMImplementation)doc.getImplementation();
+        CSSEngine eng = impl.createCSSEngine(doc, ctx);
+        doc.setCSSEngine(eng);
+
+        CSSStylableElement a = (CSSStylableElement)doc.getElementById("a");
+        CSSStylableElement b = (CSSStylableElement)doc.getElementById("b");
+        CSSStylableElement c = (CSSStylableElement)doc.getElementById("c");
+        CSSStylableElement d = (CSSStylableElement)doc.getElementById("d");
+        Element g = doc.getElementById("g");
+
+        assertEquals("rgb(0, 0, 255)", fill(eng, a));
+        assertEquals("rgb(0, 0, 255)", fill(eng, b));
+        assertEquals("rgb(0, 0, 255)", fill(eng, c));
+        assertEquals("rgb(255, 0, 0)", stroke(eng, c));
+        assertTrue(a.getComputedStyleMap(null) == b.getComputedStyleMap(null));
+        assertTrue(a.getComputedStyleMap(null) != c.getComputedStyleMap(null));
+
+        // Same rules and attributes as 'a', but another element type.
+        assertEquals("rgb(0, 0, 255)", fill(eng, d));
+        assertTrue(a.getComputedStyleMap(null) != d.getComputedStyleMap(null));
+
+        a.setAttributeNS(null, "style", "fill: green");
+        assertEquals("rgb(0, 128, 0)", fill(eng, a));
+        assertEquals("rgb(0, 0, 255)", fill(eng, b));
+        assertTrue(a.getComputedStyleMap(null) != b.getComputedStyleMap(null));
+
+        g.setAttributeNS(null, "style", "stroke: yellow");
+        assertEquals("rgb(255, 255, 0)", stroke(eng, a));
+        assertEquals("rgb(255, 255, 0)", stroke(eng, b));
+        assertEquals("rgb(255, 0, 0)", stroke(eng, c));
+        return true;
+    }
+
+    protected String fill(CSSEngine eng, CSSStylableElement e) {
+        return eng.getComputedStyle
+            (e, null, SVGCSSEngine.FILL_INDEX).getCssText();
+    }
+
+    protected String stroke(CSSEngine eng, CSSStylableElement e) {
+        return eng.getComputedStyle
+            (e, null, SVGCSSEngine.STROKE_INDEX).getCssText();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.dom;
+
+import java.io.StringReader;
+
+import org.apache.batik.dom.util.SAXDocumentFactory;
+import org.apache.batik.test.AbstractTest;
+import org.apache.batik.util.XMLResourceDescriptor;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+
+/**
+ * Checks that the parser adds attributes without their Attr node, and
+ * that the node is created, once, when the DOM API asks for it.
+ *
+ * @version $Id$
+ */
+public class AttrOnDemandTest extends AbstractTest {
+
+    private String DOC = "<a xmlns:x='urn:x' id='i' b='1' x:c='2' d='3' e='4'/>";
+
+    public boolean runImplBasic() throws Exception {
+        String parser = XMLResourceDescriptor.getXMLParserClassName();
+        SAXDocumentFactory df = new SAXDocumentFactory(GenericDOMImplementation.getDOMImplementation(), parser);
+        Document doc = df.createDocument("http://example.org/", new StringReader(DOC));
+
+        AbstractElement a = (AbstractElement) doc.getDocumentElement();
+        AbstractElement.NamedNodeHashMap map =
+            (AbstractElement.NamedNodeHashMap) a.attributes;
+
+        // (1) Only the ID attribute has a node after parsing
+        ensure(1, map.getEntry(null, "id").value != null
+               && map.getEntry(null, "b").value == null
+               && map.getEntry("urn:x", "c").value == null);
+        ensure(2, doc.getElementById("i") == a);
+
+        // (3) The values are read without creating the nodes
+        ensure(3, a.getAttribute("b").equals("1")
+               && a.getAttributeNS("urn:x", "c").equals("2")
+               && a.hasAttributeNS(null, "d")
+               && !a.hasAttribute("f")
+               && a.getAttribute("f").equals(""));
+        ensure(4, map.getEntry(null, "b").value == null
+               && map.getEntry("urn:x", "c").value == null);
+
+        // (5) The node is created once, with its name and owner
+        Attr c = a.getAttributeNodeNS("urn:x", "c");
+        ensure(5, c != null && c == a.getAttributeNodeNS("urn:x", "c"));
+        ensure(6, c.getName().equals("x:c")
+               && c.getLocalName().equals("c")
+               && c.getPrefix().equals("x")
+               && c.getValue().equals("2")
+               && c.getSpecified()
+               && c.getOwnerElement() == a
+               && !c.isId());
+
+        // (7) Cloning keeps the values, not the missing nodes
+        AbstractElement clone = (AbstractElement) a.cloneNode(true);
+        AbstractElement.NamedNodeHashMap cmap =
+            (AbstractElement.NamedNodeHashMap) clone.attributes;
+        ensure(7, clone.getAttribute("b").equals("1")
+               && clone.getAttributeNS("urn:x", "c").equals("2")
+               && map.getEntry(null, "b").value == null
+               && cmap.getEntry(null, "b").value == null
+               && clone.getAttributes().getLength() == 6);
+
+        // (8) Changing and removing attributes without a node
+        a.setAttributeNS(null, "d", "5");
+        a.removeAttribute("e");
+        ensure(8, a.getAttribute("d").equals("5")
+               && !a.hasAttribute("e")
+               && a.getAttributes().getLength() == 5);
+
+        // (9) All the nodes are listed by the map
+        NamedNodeMap attrs = a.getAttributes();
+        for (int i = 0; i < attrs.getLength(); i++) {
+            Attr attr = (Attr) attrs.item(i);
+            String ns = attr.getNamespaceURI();
+            String ln = (ns == null) ? attr.getName() : attr.getLocalName();
+            ensure(9, attr.getOwnerElement() == a
+                   && attr.getValue().equals(a.getAttributeNS(ns, ln)));
+        }
+        return true;
+    }
+
+    protected void ensure(int subTestNumber, boolean b) {
+        if (!b) {
+            throw new RuntimeException("Assertion failure in sub-test " + subTestNumber);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.dom;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.events.Event;
+import org.w3c.dom.events.EventListener;
+import org.w3c.dom.events.EventTarget;
+import org.w3c.dom.events.MutationEvent;
+
+/**
+ * Checks that the value of an attribute, kept without a child text node
+ * until one is asked for, reads the same as through its children, and
+ * survives cloning, importing and mutation events.
+ *
+ * @version $Id$
+ */
+public class AttrValueTest extends DOM3Test {
+    public boolean runImplBasic() throws Exception {
+        Document doc = newDoc();
+        Element e = doc.createElementNS(null, "e");
+        doc.appendChild(e);
+        e.setAttributeNS(null, "a", "v");
+        Attr a = e.getAttributeNodeNS(null, "a");
+        if (!"v".equals(a.getValue()) || !"v".equals(a.getTextContent())
+                || !a.hasChildNodes() || !a.getSpecified()) {
+            return false;
+        }
+
+        // Clones and imports keep the value.
+        Element c = (Element) e.cloneNode(true);
+        Document doc2 = newDoc();
+        Element i = (Element) doc2.importNode(e, true);
+        if (!"v".equals(c.getAttributeNS(null, "a"))
+                || !"v".equals(i.getAttributeNS(null, "a"))
+                || !"v".equals(((Attr) a.cloneNode(true)).getValue())) {
+            return false;
+        }
+
+        // The children hold the value once they are asked for.
+        Node t = a.getFirstChild();
+        if (t == null || t.getNodeType() != Node.TEXT_NODE
+                || !"v".equals(t.getNodeValue())
+                || t.getParentNode() != a
+                || a.getChildNodes().getLength() != 1) {
+            return false;
+        }
+        a.appendChild(doc.createTextNode("w"));
+        if (!"vw".equals(e.getAttributeNS(null, "a"))
+                || !"vw".equals(((Attr) a.cloneNode(true)).getValue())) {
+            return false;
+        }
+        a.setValue("x");
+        if (!"x".equals(a.getValue()) || a.getChildNodes().getLength() != 1) {
+            return false;
+        }
+
+        // With events enabled, the change is still notified.
+        ((AbstractDocument) doc).setEventsEnabled(true);
+        final String[] values = new String[2];
+        ((EventTarget) e).addEventListener("DOMAttrModified",
+            new EventListener() {
+                public void handleEvent(Event evt) {
+                    MutationEvent me = (MutationEvent) evt;
+                    values[0] = me.getPrevValue();
+                    values[1] = me.getNewValue();
+                }
+            }, false);
+        e.setAttributeNS(null, "b", "y");
+        e.setAttributeNS(null, "b", "z");
+        return "y".equals(values[0]) && "z".equals(values[1])
+            && "z".equals(e.getAttributeNodeNS(null, "b").getFirstChild()
+                                                      .getNodeValue());
+    }
+}
@@ -0,0 +1,105 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.ext.awt;
+
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.image.ColorModel;
+import java.awt.image.Raster;
+import java.util.Arrays;
+
+import org.apache.batik.test.AbstractTest;
+
+/**
+ * Checks that the gradient contexts of the same stops share their
+ * color tables and paint the same pixels, and that stops differing
+ * in any way that changes the tables do not share them.
+ *
+ * @version $Id$
+ */
+public class GradientTablesTest extends AbstractTest {
+
+    protected static final float [] FRACTIONS = { 0.1f, 0.4f, 0.4f, 1f };
+
+    protected static final Color [] COLORS = {
+        Color.red, new Color(0, 255, 0, 128), Color.blue, Color.white
+    };
+
+    public boolean runImplBasic() throws Exception {
+        MultipleGradientPaintContext a = createContext
+            (FRACTIONS, COLORS, MultipleGradientPaint.REFLECT,
+             MultipleGradientPaint.LINEAR_RGB);
+        MultipleGradientPaintContext b = createContext
+            (FRACTIONS.clone(), COLORS.clone(), MultipleGradientPaint.REFLECT,
+             MultipleGradientPaint.LINEAR_RGB);
+        if ((a.gradient != b.gradient) || (a.fractions != b.fractions)
+            || (a.dataModel != b.dataModel)
+            || (a.hasDiscontinuity != b.hasDiscontinuity)
+            || !samePixels(a, b))
+            return false;
+
+        Color [] colors = COLORS.clone();
+        colors[1] = new Color(0, 255, 0, 127);
+        return !sharesTables(a, createContext
+                             (FRACTIONS, colors, MultipleGradientPaint.REFLECT,
+                              MultipleGradientPaint.LINEAR_RGB))
+            && !sharesTables(a, createContext
+                             (FRACTIONS, COLORS, MultipleGradientPaint.REPEAT,
+                              MultipleGradientPaint.LINEAR_RGB))
+            && !sharesTables(a, createContext
+                             (FRACTIONS, COLORS, MultipleGradientPaint.REFLECT,
+                              MultipleGradientPaint.SRGB))
+            && !sharesTables(a, createContext
+                             (new float[] { 0.1f, 0.4f, 0.5f, 1f }, COLORS,
+                              MultipleGradientPaint.REFLECT,
+                              MultipleGradientPaint.LINEAR_RGB));
+    }
+
+    protected static MultipleGradientPaintContext createContext
+        (float [] fractions, Color [] colors,
+         MultipleGradientPaint.CycleMethodEnum cycleMethod,
+         MultipleGradientPaint.ColorSpaceEnum colorSpace) {
+        LinearGradientPaint p = new LinearGradientPaint
+            (new Point2D.Float(0, 0), new Point2D.Float(20, 10),
+             fractions, colors, cycleMethod, colorSpace);
+        Rectangle r = new Rectangle(0, 0, 40, 30);
+        return (MultipleGradientPaintContext)p.createContext
+            (ColorModel.getRGBdefault(), r, r, new AffineTransform(),
+             new RenderingHints(null));
+    }
+
+    protected static boolean sharesTables(MultipleGradientPaintContext a,
+                                          MultipleGradientPaintContext b) {
+        return (a.gradient == b.gradient) && (a.gradients == b.gradients);
+    }
+
+    protected static boolean samePixels(MultipleGradientPaintContext a,
+                                        MultipleGradientPaintContext b) {
+        Raster ra = a.getRaster(0, 0, 40, 30);
+        int [] pa = ra.getPixels(0, 0, 40, 30, (int [])null);
+        Raster rb = b.getRaster(0, 0, 40, 30);
+        int [] pb = rb.getPixels(0, 0, 40, 30, (int [])null);
+        a.dispose();
+        b.dispose();
+        return Arrays.equals(pa, pb);
+    }
+}
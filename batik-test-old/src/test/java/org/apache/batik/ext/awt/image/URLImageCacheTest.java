@@ -0,0 +1,128 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.ext.awt.image;
+
+import java.awt.image.BufferedImage;
+
+import org.apache.batik.ext.awt.image.renderable.Filter;
+import org.apache.batik.ext.awt.image.renderable.RedRable;
+import org.apache.batik.test.AbstractTest;
+import org.apache.batik.util.ParsedURL;
+
+/**
+ * Checks that the <code>URLImageCache</code> keeps within its memory
+ * budget, counts hits, misses and evictions, and hands an image being
+ * loaded to the threads waiting for it.
+ *
+ * @version $Id$
+ */
+public class URLImageCacheTest extends AbstractTest {
+
+    /**
+     * Creates a 10x10 image, 400 bytes.
+     */
+    static Filter createImage() {
+        return new RedRable(GraphicsUtil.wrap
+            (new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB)));
+    }
+
+    /**
+     * Requests an image from another thread.
+     */
+    static class Requester extends Thread {
+        final URLImageCache cache;
+        final ParsedURL purl;
+        volatile Filter result;
+
+        Requester(URLImageCache cache, ParsedURL purl) {
+            this.cache = cache;
+            this.purl = purl;
+        }
+
+        public void run() {
+            result = cache.request(purl);
+        }
+
+        /**
+         * Waits for the thread to block on the cache.
+         */
+        void startAndWait() throws InterruptedException {
+            start();
+            while (getState() != Thread.State.WAITING && isAlive())
+                Thread.sleep(1);
+        }
+    }
+
+    public boolean runImplBasic() throws Exception {
+        // One stripe, room for two images.
+        URLImageCache cache = new URLImageCache(1000, 1);
+        ParsedURL a = new ParsedURL("http://example.org/a.png");
+        ParsedURL b = new ParsedURL("http://example.org/b.png");
+        ParsedURL c = new ParsedURL("http://example.org/c.png");
+
+        if (URLImageCache.getBytes(createImage()) != 400)
+            return false;
+
+        Filter fa = createImage();
+        if ((cache.request(a) != null) || !cache.isPresent(a) ||
+            cache.isDone(a))
+            return false;
+        cache.put(a, fa);
+        if ((cache.request(a) != fa) || !cache.isDone(a) ||
+            (cache.getHitCount() != 1) || (cache.getMissCount() != 1) ||
+            (cache.getByteCount() != 400))
+            return false;
+
+        // Touch a so that b is the eldest when c is put.
+        cache.request(b);
+        cache.put(b, createImage());
+        cache.request(a);
+        cache.request(c);
+        cache.put(c, createImage());
+        if ((cache.getImageCount() != 2) || (cache.getByteCount() != 800) ||
+            (cache.getEvictionCount() != 1) ||
+            !cache.isDone(a) || cache.isPresent(b))
+            return false;
+
+        // A request for an image being loaded waits for it.
+        if (cache.request(b) != null)
+            return false;
+        Requester r = new Requester(cache, b);
+        r.startAndWait();
+        Filter fb = createImage();
+        cache.put(b, fb);
+        r.join();
+        if ((r.result != fb) || (cache.getMissCount() != 4))
+            return false;
+
+        // If the loader gives up, a waiting thread gets the hot potato.
+        cache.clear(c);
+        if (cache.request(c) != null)
+            return false;
+        r = new Requester(cache, c);
+        r.startAndWait();
+        cache.put(c, null);
+        r.join();
+        if ((r.result != null) || !cache.isPresent(c) || cache.isDone(c))
+            return false;
+
+        cache.flush();
+        return (cache.getImageCount() == 0) && (cache.getByteCount() == 0);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.ext.awt.image.codec.png;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.apache.batik.test.AbstractTest;
+
+/**
+ * Checks that images large enough to be encoded in parallel stripes
+ * are decoded back, by the ImageIO PNG reader, to the original
+ * pixels, for various image types, compression levels and filters,
+ * with and without interlacing.
+ *
+ * @version $Id$
+ */
+public class ParallelPNGEncoderTest extends AbstractTest {
+
+    public boolean runImplBasic() throws Exception {
+        int p = PNGImageEncoder.getParallelism();
+        try {
+            PNGImageEncoder.setParallelism(3);
+            return check(createImage(700, 500, BufferedImage.TYPE_INT_ARGB),
+                         9, -1, false)
+                && check(createImage(700, 500, BufferedImage.TYPE_INT_RGB),
+                         1, PNGEncodeParam.PNG_FILTER_PAETH, true)
+                && check(createImage(900, 700, BufferedImage.TYPE_BYTE_GRAY),
+                         -1, PNGEncodeParam.PNG_FILTER_SUB, false)
+                && check(createImage(600, 500, BufferedImage.TYPE_USHORT_GRAY),
+                         6, -1, true)
+                && check(createImage(3000, 800, BufferedImage.TYPE_BYTE_BINARY),
+                         0, PNGEncodeParam.PNG_FILTER_UP, false)
+                && check(createImage(900, 700, BufferedImage.TYPE_BYTE_INDEXED),
+                         9, PNGEncodeParam.PNG_FILTER_AVERAGE, true);
+        } finally {
+            PNGImageEncoder.setParallelism(p);
+        }
+    }
+
+    /**
+     * Draws gradients and noise on a new image of the given type.
+     */
+    protected static BufferedImage createImage(int w, int h, int type) {
+        BufferedImage image = new BufferedImage(w, h, type);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, new Color(255, 0, 0, 40),
+                                     w, h, Color.blue));
+        g.fillRect(0, 0, w, h/2);
+        Random rnd = new Random(type);
+        for (int i = 0; i < 400; i++) {
+            g.setColor(new Color(rnd.nextInt(), true));
+            g.fillOval(rnd.nextInt(w), rnd.nextInt(h), 30, 20);
+        }
+        g.dispose();
+        for (int y = h/2; y < h; y += 3) {
+            image.setRGB(rnd.nextInt(w), y, rnd.nextInt());
+        }
+        return image;
+    }
+
+    /**
+     * Encodes the image with the given settings and compares the
+     * decoded pixels with the original ones.
+     * @param filterType the filter of all the rows, -1 for adaptive.
+     */
+    protected boolean check(BufferedImage image, int level, int filterType,
+                            boolean interlace) throws Exception {
+        PNGEncodeParam param = PNGEncodeParam.getDefaultEncodeParam(image);
+        param.setCompressionLevel(level);
+        if (filterType != -1) {
+            param.setFilterType(filterType);
+        }
+        param.setInterlacing(interlace);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new PNGImageEncoder(bos, param).encode(image);
+
+        BufferedImage decoded =
+            ImageIO.read(new ByteArrayInputStream(bos.toByteArray()));
+        return decoded != null
+            && PNGEncoderTest.checkIdentical(image, decoded);
+    }
+}
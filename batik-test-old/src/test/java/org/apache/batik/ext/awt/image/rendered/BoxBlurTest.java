@@ -0,0 +1,113 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.ext.awt.image.rendered;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.batik.test.AbstractTest;
+
+/**
+ * Checks the in place box filters of <code>BoxBlur</code> against a
+ * direct computation of each output pixel, on areas small enough to
+ * be filtered by one thread and large enough to be split.
+ *
+ * @version $Id$
+ */
+public class BoxBlurTest extends AbstractTest {
+
+    public boolean runImplBasic() throws Exception {
+        int p = BoxBlur.getParallelism();
+        try {
+            BoxBlur.setParallelism(4);
+            return check(37, 23, 5, 2, 1, 1)
+                && check(37, 23, 6, 3, 2, 0)
+                && check(600, 500, 11, 5, 3, 2)
+                && check(700, 600, 38, 18, 0, 0);
+        } finally {
+            BoxBlur.setParallelism(p);
+        }
+    }
+
+    /**
+     * Filters random pixels both ways and compares with the expected
+     * result.
+     */
+    protected boolean check(int w, int h, int boxSz, int loc,
+                            int skipX, int skipY) {
+        int stride = w + 3;
+        int off = stride + 2;
+        int [] src = new int[off + h*stride + 5];
+        Random rnd = new Random(w*h);
+        for (int i=0; i<src.length; i++) {
+            // Premultiplied pixels with runs of equal values.
+            int a = rnd.nextInt(256);
+            int c = (a == 0) ? 0 : rnd.nextInt(a+1);
+            src[i] = (rnd.nextInt(4) == 0 && i > 0) ? src[i-1] :
+                ((a<<24) | (c<<16) | ((c/2)<<8) | (a-c));
+        }
+
+        int [] actual = src.clone();
+        BoxBlur.filterH(actual, off, stride, w, h, skipX, skipY, boxSz, loc);
+        int [] expected = filter(src, off, stride, w, h,
+                                 skipX, skipY, boxSz, loc, 1, stride);
+        if (!Arrays.equals(expected, actual))
+            return false;
+
+        actual = src.clone();
+        BoxBlur.filterV(actual, off, stride, w, h, skipX, skipY, boxSz, loc);
+        expected = filter(src, off, stride, h, w,
+                          skipY, skipX, boxSz, loc, stride, 1);
+        return Arrays.equals(expected, actual);
+    }
+
+    /**
+     * Computes the box filter of the lines of an area, each output
+     * pixel on its own from the source pixels.
+     * @param step the distance between two pixels of a line.
+     * @param lineStep the distance between two lines.
+     */
+    protected static int [] filter(int [] src, int off, int stride,
+                                   int len, int lines, int skip,
+                                   int skipLines, int boxSz, int loc,
+                                   int step, int lineStep) {
+        int [] dest = src.clone();
+        if ((len < 2*skip+boxSz) || (lines < 2*skipLines))
+            return dest;
+        int scale = (1<<24)/boxSz;
+        for (int l=skipLines; l<lines-skipLines; l++) {
+            for (int i=skip; i+boxSz<=len-skip; i++) {
+                int a = 0, r = 0, g = 0, b = 0;
+                for (int j=0; j<boxSz; j++) {
+                    int c = src[off + l*lineStep + (i+j)*step];
+                    a += c>>>24;
+                    r += (c>>16)&0xFF;
+                    g += (c>> 8)&0xFF;
+                    b += c&0xFF;
+                }
+                dest[off + l*lineStep + (i+loc)*step] =
+                    (( (a*scale)&0xFF000000)       |
+                     (((r*scale)&0xFF000000)>>>8)  |
+                     (((g*scale)&0xFF000000)>>>16) |
+                     (((b*scale)&0xFF000000)>>>24));
+            }
+        }
+        return dest;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.ext.awt.image.rendered;
+
+import java.awt.Point;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+
+import org.apache.batik.test.AbstractTest;
+
+/**
+ * Checks that the <code>ConcurrentTileCache</code> keeps within its
+ * memory budget, counts hits, misses and evictions, and drops the
+ * tiles of a scope when it is flushed.
+ *
+ * @version $Id$
+ */
+public class ConcurrentTileCacheTest extends AbstractTest {
+
+    /**
+     * Generates 10x10 single band int tiles, 400 bytes each.
+     */
+    static class Generator implements TileGenerator {
+        int count = 0;
+        public Raster genTile(int x, int y) {
+            count++;
+            WritableRaster wr = Raster.createBandedRaster
+                (DataBuffer.TYPE_INT, 10, 10, 1, new Point(x*10, y*10));
+            return wr;
+        }
+    }
+
+    public boolean runImplBasic() throws Exception {
+        // One stripe, room for two tiles.
+        ConcurrentTileCache cache = new ConcurrentTileCache(1000, 1);
+        ConcurrentTileCache.Scope a = cache.createScope();
+        ConcurrentTileCache.Scope b = cache.createScope();
+        Generator genA = new Generator();
+        Generator genB = new Generator();
+        TileStore storeA = cache.getTileStore(genA, a);
+        TileStore storeB = cache.getTileStore(genB, b);
+
+        if (ConcurrentTileCache.getRasterBytes(genA.genTile(0, 0)) != 400)
+            return false;
+        genA.count = 0;
+
+        storeA.getTile(0, 0);
+        storeA.getTile(0, 0);
+        if ((genA.count != 1) || (a.getHitCount() != 1) ||
+            (a.getMissCount() != 1) || (a.getByteCount() != 400))
+            return false;
+
+        // Touch (0,0) so that (1,0) is the eldest when (2,0) is added.
+        storeA.getTile(1, 0);
+        storeA.getTile(0, 0);
+        storeA.getTile(2, 0);
+        if ((cache.getTileCount() != 2) || (cache.getByteCount() != 800) ||
+            (a.getEvictionCount() != 1) ||
+            (storeA.getTileNoCompute(0, 0) == null) ||
+            (storeA.getTileNoCompute(1, 0) != null))
+            return false;
+
+        // The same tile coordinates in another store are another tile.
+        storeB.getTile(0, 0);
+        if ((genB.count != 1) || (b.getMissCount() != 1) ||
+            (b.getByteCount() != 400))
+            return false;
+
+        // Flushing a scope only drops its own tiles.
+        a.flush();
+        if ((a.getByteCount() != 0) || (cache.getTileCount() != 1) ||
+            (storeB.getTileNoCompute(0, 0) == null))
+            return false;
+
+        cache.flush();
+        return (cache.getTileCount() == 0) && (cache.getByteCount() == 0);
+    }
+}
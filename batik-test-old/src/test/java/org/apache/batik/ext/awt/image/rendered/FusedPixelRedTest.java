@@ -0,0 +1,108 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.ext.awt.image.rendered;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.batik.ext.awt.image.GammaTransfer;
+import org.apache.batik.ext.awt.image.IdentityTransfer;
+import org.apache.batik.ext.awt.image.LinearTransfer;
+import org.apache.batik.ext.awt.image.PadMode;
+import org.apache.batik.ext.awt.image.TableTransfer;
+import org.apache.batik.ext.awt.image.TransferFunction;
+import org.apache.batik.test.AbstractTest;
+
+/**
+ * Checks that a <code>FusedPixelRed</code> computes the same pixels as
+ * the chain of per-pixel Reds it replaces, and that it replaces the
+ * chains it can only.
+ *
+ * @version $Id$
+ */
+public class FusedPixelRedTest extends AbstractTest {
+
+    public boolean runImplBasic() throws Exception {
+        BufferedImage bi = new BufferedImage
+            (67, 45, BufferedImage.TYPE_INT_ARGB_PRE);
+        Random rnd = new Random(67*45);
+        for (int y=0; y<bi.getHeight(); y++) {
+            for (int x=0; x<bi.getWidth(); x++) {
+                int a = rnd.nextInt(256);
+                int r = rnd.nextInt(a+1), g = rnd.nextInt(a+1);
+                int b = rnd.nextInt(a+1);
+                bi.getRaster().setPixel(x, y, new int[] { r, g, b, a });
+            }
+        }
+        CachableRed src = new BufferedImageCachableRed(bi);
+
+        // A lone Red, or one whose source has no kernel, is left alone.
+        float [][] m = { { 0.6f, 0.3f, 0.1f, 0, 0.1f },
+                         { 0.2f, 0.7f, 0.1f, 0, 0 },
+                         { 0.2f, 0.2f, 0.6f, 0, 0 },
+                         { 0, 0, 0, 0.8f, 0.1f } };
+        CachableRed cr = new ColorMatrixRed(src, m);
+        if (FusedPixelRed.fuse(cr) != cr)
+            return false;
+
+        TransferFunction [] funcs = {
+            new LinearTransfer(0.9f, 0.05f),
+            new GammaTransfer(1, 0.5f, 0),
+            new IdentityTransfer(),
+            new TableTransfer(new int[] { 0, 64, 255, 128 }) };
+        cr = new Any2LsRGBRed(src);
+        cr = new ColorMatrixRed(cr, m);
+        cr = new PadRed(cr, cr.getBounds(), PadMode.ZERO_PAD, null);
+        cr = new ComponentTransferRed(cr, funcs, null);
+        cr = new Any2sRGBRed(cr);
+        CachableRed fused = FusedPixelRed.fuse(cr);
+        if (!(fused instanceof FusedPixelRed) ||
+            (((FusedPixelRed)fused).getChainLength() != 4) ||
+            !same(cr.getData(), fused.getData()))
+            return false;
+
+        // Fusing again merges the chains, and the lookups in between.
+        // The round trip through sRGB is no identity on 8 bits, so it
+        // is kept as a single lookup.
+        CachableRed cr2 = new ColorMatrixRed(new Any2LsRGBRed(fused), m);
+        CachableRed fused2 = FusedPixelRed.fuse(cr2);
+        if (!(fused2 instanceof FusedPixelRed) ||
+            (((FusedPixelRed)fused2).getChainLength() != 6) ||
+            (((FusedPixelRed)fused2).getKernels().length != 4) ||
+            !same(cr2.getData(), fused2.getData()))
+            return false;
+
+        // Areas partly out of bounds.
+        Rectangle r = new Rectangle(-5, 10, 30, 50);
+        return same(cr2.getData(r), fused2.getData(r));
+    }
+
+    protected static boolean same(Raster a, Raster b) {
+        if (!a.getBounds().equals(b.getBounds()))
+            return false;
+        int [] pa = a.getPixels(a.getMinX(), a.getMinY(),
+                                a.getWidth(), a.getHeight(), (int [])null);
+        int [] pb = b.getPixels(b.getMinX(), b.getMinY(),
+                                b.getWidth(), b.getHeight(), (int [])null);
+        return Arrays.equals(pa, pb);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.gvt;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+
+import org.apache.batik.ext.awt.image.PadMode;
+import org.apache.batik.ext.awt.image.renderable.ClipRable8Bit;
+import org.apache.batik.ext.awt.image.renderable.PadRable8Bit;
+import org.apache.batik.gvt.filter.MaskRable8Bit;
+import org.apache.batik.test.AbstractTest;
+
+/**
+ * Checks that the cached bounds of a node and of its ancestors follow
+ * the changes of its transform, filter, clip and mask, and that these
+ * changes keep the bounds the node caches for its primitive paint.
+ *
+ * @version $Id$
+ */
+public class BoundsCacheTest extends AbstractTest {
+
+    public boolean runImplBasic() throws Exception {
+        ShapeNode shape = new ShapeNode();
+        Rectangle2D.Float r = new Rectangle2D.Float(10, 10, 20, 20);
+        shape.setShape(r);
+        FillShapePainter painter = new FillShapePainter(r);
+        painter.setPaint(Color.red);
+        shape.setShapePainter(painter);
+
+        CompositeGraphicsNode group = new CompositeGraphicsNode();
+        group.add(shape);
+        CompositeGraphicsNode root = new CompositeGraphicsNode();
+        root.add(group);
+        AffineTransform scale = AffineTransform.getScaleInstance(2, 2);
+
+        if (!check(root, scale, 20, 20, 60, 60))
+            return false;
+
+        // Only the transformed bounds change with the transform.
+        Rectangle2D primitiveBounds = shape.getPrimitiveBounds();
+        Rectangle2D shapeBounds = shape.getBounds();
+        Rectangle2D rootBounds = root.getBounds();
+        shape.setTransform(AffineTransform.getTranslateInstance(5, 0));
+        if (!check(root, scale, 30, 20, 70, 60)
+            || (shape.getBounds() != shapeBounds)
+            || (root.getBounds() == rootBounds))
+            return false;
+        group.setTransform(AffineTransform.getTranslateInstance(0, 5));
+        if (!check(root, scale, 30, 30, 70, 70))
+            return false;
+        group.setTransform(new AffineTransform());
+        shape.setTransform(new AffineTransform());
+        if (!check(root, scale, 20, 20, 60, 60))
+            return false;
+
+        // Shrink the bounds with a clip, then grow them back.
+        shape.setClip(new ClipRable8Bit
+                      (shape.getGraphicsNodeRable(true),
+                       new Rectangle2D.Float(0, 0, 15, 100)));
+        if (!check(root, scale, 20, 20, 30, 60)
+            || !same(new Rectangle2D.Float(10, 10, 5, 20), shape.getBounds()))
+            return false;
+        shape.setClip(new ClipRable8Bit
+                      (shape.getGraphicsNodeRable(true),
+                       new Rectangle2D.Float(0, 0, 25, 100)));
+        if (!check(root, scale, 20, 20, 50, 60)
+            || !same(new Rectangle2D.Float(10, 10, 15, 20), shape.getBounds()))
+            return false;
+        shape.setClip(null);
+        if (!check(root, scale, 20, 20, 60, 60))
+            return false;
+
+        // A filter grows the bounds, a mask shrinks them.
+        shape.setFilter(new PadRable8Bit
+                        (shape.getGraphicsNodeRable(true),
+                         new Rectangle2D.Float(0, 0, 50, 40),
+                         PadMode.ZERO_PAD));
+        if (!check(root, scale, 0, 0, 100, 80))
+            return false;
+        shape.setMask(new MaskRable8Bit
+                      (shape.getGraphicsNodeRable(true), new ShapeNode(),
+                       new Rectangle2D.Float(5, 5, 10, 10)));
+        if (!check(root, scale, 10, 10, 30, 30))
+            return false;
+        shape.setMask(null);
+        shape.setFilter(null);
+        if (!check(root, scale, 20, 20, 60, 60))
+            return false;
+
+        // The composite changes no bounds.
+        shapeBounds = shape.getBounds();
+        rootBounds = root.getBounds();
+        shape.setComposite
+            (AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.5f));
+        if (!check(root, scale, 20, 20, 60, 60)
+            || (shape.getBounds() != shapeBounds)
+            || (root.getBounds() != rootBounds))
+            return false;
+
+        // None of the above made the shape compute its primitive bounds.
+        if (shape.getPrimitiveBounds() != primitiveBounds)
+            return false;
+
+        // Changing the shape does, and moves the bounds.
+        r = new Rectangle2D.Float(0, 0, 5, 5);
+        shape.setShape(r);
+        return check(root, scale, 0, 0, 10, 10)
+            && (shape.getPrimitiveBounds() != primitiveBounds);
+    }
+
+    /**
+     * Checks the bounds of the root, untransformed and transformed,
+     * several times so that the cached bounds are checked too.
+     */
+    protected static boolean check(GraphicsNode root, AffineTransform t,
+                                   double x0, double y0,
+                                   double x1, double y1) {
+        Rectangle2D expected = new Rectangle2D.Double(x0, y0, x1-x0, y1-y0);
+        Rectangle2D expectedUser = new Rectangle2D.Double
+            (x0/2, y0/2, (x1-x0)/2, (y1-y0)/2);
+        // Until the next change the same bounds are returned.
+        Rectangle2D bounds = root.getBounds();
+        for (int i = 0; i < 2; i++) {
+            if ((root.getBounds() != bounds)
+                || !same(expectedUser, root.getBounds())
+                || !same(expectedUser,
+                         root.getTransformedBounds(GraphicsNode.IDENTITY))
+                || !same(expected, root.getTransformedBounds(t)))
+                return false;
+        }
+        // The returned bounds may be modified by the caller.
+        root.getTransformedBounds(t).setRect(0, 0, 1, 1);
+        return same(expected, root.getTransformedBounds(t));
+    }
+
+    protected static boolean same(Rectangle2D a, Rectangle2D b) {
+        return (b != null)
+            && (Math.abs(a.getMinX() - b.getMinX()) < 1e-3)
+            && (Math.abs(a.getMinY() - b.getMinY()) < 1e-3)
+            && (Math.abs(a.getMaxX() - b.getMaxX()) < 1e-3)
+            && (Math.abs(a.getMaxY() - b.getMaxY()) < 1e-3);
+    }
+}
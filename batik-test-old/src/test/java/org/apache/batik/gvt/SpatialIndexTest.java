@@ -0,0 +1,179 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.gvt;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.batik.test.AbstractTest;
+
+/**
+ * Checks that a composite node whose children are indexed by their
+ * bounds finds the same nodes under the pointer, paints the same
+ * pixels and has the same sensitive bounds as when they are not, also
+ * after its children are moved, added and removed.
+ *
+ * @version $Id$
+ */
+public class SpatialIndexTest extends AbstractTest {
+
+    public static final int SIZE = 300;
+
+    public boolean runImplBasic() throws Exception {
+        int threshold = CompositeGraphicsNode.getSpatialIndexThreshold();
+        try {
+            // Two identical trees, the first one is only queried
+            // without index and the second one only with an index, so
+            // the index of the second one is only dropped by the
+            // changes made to its children.
+            Random expectedRnd = new Random(7);
+            Random actualRnd = new Random(7);
+            CompositeGraphicsNode expected = createTree(expectedRnd);
+            CompositeGraphicsNode actual = createTree(actualRnd);
+            if (!check(expected, actual))
+                return false;
+
+            // Move, add and remove children once indexed.
+            update(expected, expectedRnd);
+            update(actual, actualRnd);
+            return check(expected, actual);
+        } finally {
+            CompositeGraphicsNode.setSpatialIndexThreshold(threshold);
+        }
+    }
+
+    /**
+     * Creates a tree of shapes with a background and a nested group.
+     */
+    protected static CompositeGraphicsNode createTree(Random rnd) {
+        CompositeGraphicsNode root = new CompositeGraphicsNode();
+        for (int i = 0; i < 500; i++) {
+            root.add(createShape(rnd));
+        }
+        // A background, spanning all the cells of the index.
+        root.add(0, createShape(new Rectangle2D.Float(0, 0, SIZE, SIZE),
+                                Color.white));
+        // A nested group.
+        CompositeGraphicsNode group = new CompositeGraphicsNode();
+        for (int i = 0; i < 100; i++) {
+            group.add(createShape(rnd));
+        }
+        group.setTransform(AffineTransform.getRotateInstance(0.3));
+        root.add(group);
+        return root;
+    }
+
+    /**
+     * Moves, adds and removes children of a tree built by
+     * <code>createTree</code>.
+     */
+    protected static void update(CompositeGraphicsNode root, Random rnd) {
+        CompositeGraphicsNode group =
+            (CompositeGraphicsNode)root.get(root.size()-1);
+        ((GraphicsNode)root.get(10)).setTransform
+            (AffineTransform.getTranslateInstance(40, -20));
+        ((ShapeNode)root.get(20)).setShape
+            (new Rectangle2D.Float(100, 100, 80, 60));
+        root.remove(30);
+        root.add(5, createShape(rnd));
+        ((GraphicsNode)group.get(3)).setTransform
+            (AffineTransform.getScaleInstance(2, 2));
+    }
+
+    protected static ShapeNode createShape(Random rnd) {
+        Rectangle2D.Float r = new Rectangle2D.Float
+            (rnd.nextFloat()*SIZE, rnd.nextFloat()*SIZE,
+             1 + rnd.nextFloat()*20, 1 + rnd.nextFloat()*20);
+        return createShape(rnd.nextBoolean() ? r :
+                           new Ellipse2D.Float(r.x, r.y, r.width, r.height),
+                           new Color(rnd.nextInt()));
+    }
+
+    protected static ShapeNode createShape(java.awt.Shape s, Color c) {
+        ShapeNode node = new ShapeNode();
+        node.setShape(s);
+        FillShapePainter painter = new FillShapePainter(s);
+        painter.setPaint(c);
+        node.setShapePainter(painter);
+        return node;
+    }
+
+    /**
+     * Compares the results of the queries on <code>expected</code>
+     * without index and on <code>actual</code> with an index.
+     */
+    protected boolean check(CompositeGraphicsNode expected,
+                            CompositeGraphicsNode actual) {
+        CompositeGraphicsNode.setSpatialIndexThreshold(0);
+        Object [] e = query(expected);
+        CompositeGraphicsNode.setSpatialIndexThreshold(16);
+        Object [] a = query(actual);
+        return Arrays.deepEquals(e, a);
+    }
+
+    protected static Object [] query(CompositeGraphicsNode root) {
+        Random rnd = new Random(11);
+        String [] hits = new String[2000];
+        Boolean [] contains = new Boolean[hits.length];
+        for (int i = 0; i < hits.length; i++) {
+            Point2D p = new Point2D.Float(rnd.nextFloat()*SIZE,
+                                          rnd.nextFloat()*SIZE);
+            hits[i] = getPath(root, root.nodeHitAt(p));
+            contains[i] = Boolean.valueOf(root.contains(p));
+        }
+
+        BufferedImage image =
+            new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_ARGB);
+        for (int i = 0; i < 20; i++) {
+            Graphics2D g = image.createGraphics();
+            g.clipRect(rnd.nextInt(SIZE), rnd.nextInt(SIZE),
+                       1 + rnd.nextInt(60), 1 + rnd.nextInt(60));
+            root.paint(g);
+            g.dispose();
+        }
+        int [] pixels = image.getRGB(0, 0, SIZE, SIZE, null, 0, SIZE);
+
+        return new Object[] { hits, contains, pixels,
+                              root.getSensitiveBounds() };
+    }
+
+    /**
+     * Returns the indices of the node and of its ancestors in their
+     * parents, so nodes of two identical trees can be compared.
+     */
+    protected static String getPath(CompositeGraphicsNode root,
+                                    GraphicsNode node) {
+        if (node == null)
+            return null;
+        StringBuffer sb = new StringBuffer();
+        while (node != root) {
+            CompositeGraphicsNode parent = node.getParent();
+            sb.insert(0, "/" + parent.indexOf(node));
+            node = parent;
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.gvt.font;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+
+import org.apache.batik.test.AbstractTest;
+
+/**
+ * Checks that the <code>GlyphCache</code> keeps within its memory
+ * budget and counts hits, misses and evictions, and that the fonts of
+ * the same face share the geometry of their glyphs.
+ *
+ * @version $Id$
+ */
+public class GlyphCacheTest extends AbstractTest {
+
+    public boolean runImplBasic() throws Exception {
+        // One stripe, room for two glyphs.
+        GlyphCache cache = new GlyphCache(1000, 1);
+        FontRenderContext frc =
+            new FontRenderContext(new AffineTransform(), true, true);
+        GlyphCache.Key a = new GlyphCache.Key("f", 12, frc, 1);
+        GlyphCache.Key b = new GlyphCache.Key("f", 12, frc, 2);
+        GlyphCache.Key c = new GlyphCache.Key("f", 12, null, 2);
+        Object va = "a", vb = "b", vc = "c";
+
+        if ((cache.get(a) != null) || (cache.put(a, va, 400) != va) ||
+            (cache.get(new GlyphCache.Key("f", 12, frc, 1)) != va) ||
+            (cache.put(a, "other", 400) != va) ||
+            (cache.getHitCount() != 1) || (cache.getMissCount() != 1) ||
+            (cache.getByteCount() != 400))
+            return false;
+
+        // Touch a so that b is the eldest when c is put.
+        cache.put(b, vb, 400);
+        cache.get(a);
+        cache.put(c, vc, 400);
+        if ((cache.getGlyphCount() != 2) || (cache.getByteCount() != 800) ||
+            (cache.getEvictionCount() != 1) ||
+            (cache.get(a) != va) || (cache.get(b) != null) ||
+            (cache.get(c) != vc))
+            return false;
+
+        if (GlyphCache.getBytes(new Rectangle2D.Float(0, 0, 1, 1)) <= 64)
+            return false;
+
+        cache.flush();
+        if ((cache.getGlyphCount() != 0) || (cache.getByteCount() != 0))
+            return false;
+
+        // Two fonts of the same face, at different sizes, share glyphs.
+        AWTGVTFont f1 = new AWTGVTFont(new Font("Dialog", Font.PLAIN, 12));
+        AWTGVTFont f2 = new AWTGVTFont(new Font("Dialog", Font.PLAIN, 30));
+        GVTGlyphVector gv1 = f1.createGlyphVector(frc, "Wg");
+        GVTGlyphVector gv2 = f2.createGlyphVector(frc, "gW");
+        gv1.performDefaultLayout();
+        gv2.performDefaultLayout();
+        gv1.getGlyphOutline(1);
+        long hits = GlyphCache.getDefaultCache().getHitCount();
+        gv2.getGlyphOutline(0);
+        if (GlyphCache.getDefaultCache().getHitCount() != hits + 1)
+            return false;
+
+        // The outlines are scaled to the size of each font.
+        Rectangle2D r1 = gv1.getGlyphMetrics(1).getBounds2D();
+        Rectangle2D r2 = gv2.getGlyphMetrics(0).getBounds2D();
+        return Math.abs(r1.getHeight() * 30 / 12 - r2.getHeight()) < 1e-3;
+    }
+}
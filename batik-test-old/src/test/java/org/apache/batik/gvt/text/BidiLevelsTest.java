@@ -0,0 +1,73 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.gvt.text;
+
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.awt.geom.AffineTransform;
+import java.text.AttributedString;
+
+import org.apache.batik.test.AbstractTest;
+
+/**
+ * Checks that the bidi levels <code>BidiAttributedCharacterIterator</code>
+ * assigns, with or without laying the text out, are those of a
+ * <code>TextLayout</code>, also when they come from its cache.
+ *
+ * @version $Id$
+ */
+public class BidiLevelsTest extends AbstractTest {
+
+    public static final String HEBREW = "\u05d0\u05d1\u05d2";
+    public static final String ARABIC = "\u0627\u0644\u0639";
+
+    public boolean runImplBasic() throws Exception {
+        FontRenderContext frc =
+            new FontRenderContext(new AffineTransform(), true, true);
+        String [] texts = {
+            "Label 10", "(a) 1.5", HEBREW, "x " + HEBREW + " 12 y",
+            ARABIC + " 3,4 " + HEBREW, "12 " + ARABIC
+        };
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < texts.length; j++) {
+                for (int k = 0; k < 3; k++) {
+                    AttributedString as = new AttributedString(texts[j]);
+                    if (k == 1) {
+                        as.addAttribute(TextAttribute.RUN_DIRECTION,
+                                        TextAttribute.RUN_DIRECTION_RTL);
+                    } else if (k == 2) {
+                        as.addAttribute(TextAttribute.BIDI_EMBEDDING,
+                                        -1, 0, 2);
+                    }
+                    TextLayout tl = new TextLayout(as.getIterator(), frc);
+                    byte [] levels = BidiAttributedCharacterIterator.getLevels
+                        (as.getIterator(), frc);
+                    for (int c = 0; c < levels.length; c++) {
+                        if (levels[c] != tl.getCharacterLevel(c))
+                            return false;
+                    }
+                    // The caller may modify the returned levels.
+                    levels[0] = 9;
+                }
+            }
+        }
+        return true;
+    }
+}
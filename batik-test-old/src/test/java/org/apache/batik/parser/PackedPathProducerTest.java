@@ -0,0 +1,102 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.parser;
+
+import java.awt.geom.GeneralPath;
+import java.awt.geom.PathIterator;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.apache.batik.ext.awt.geom.ExtendedPathIterator;
+import org.apache.batik.ext.awt.geom.ExtendedShape;
+import org.apache.batik.test.AbstractTest;
+import org.apache.batik.test.DefaultTestReport;
+import org.apache.batik.test.TestReport;
+
+/**
+ * Checks that the shape a {@link PackedPathProducer} creates for a path
+ * has the same segments as the one created by an {@link AWTPathProducer}.
+ *
+ * @version $Id$
+ */
+public class PackedPathProducerTest extends AbstractTest {
+
+    protected String path;
+
+    /**
+     * Creates a new PackedPathProducerTest.
+     * @param path The path to parse.
+     */
+    public PackedPathProducerTest(String path) {
+        this.path = path;
+    }
+
+    public TestReport runImpl() throws Exception {
+        ExtendedShape expected = (ExtendedShape)AWTPathProducer.createShape
+            (new StringReader(path), GeneralPath.WIND_EVEN_ODD);
+
+        PathParser pp = new PathParser();
+        PackedPathProducer ph = new PackedPathProducer();
+        ph.setWindingRule(GeneralPath.WIND_EVEN_ODD);
+        pp.setPathHandler(ph);
+        // Parse twice to check the reuse of the producer's arrays.
+        pp.parse("M 1000 1000 c 1 2 3 4 5 6 7 8 9 10 11 12 z");
+        pp.parse(path);
+        ExtendedShape actual = (ExtendedShape)ph.getShape();
+
+        String e = segments(expected.getExtendedPathIterator()) + " / " +
+            segments(expected.getPathIterator(null));
+        String a = segments(actual.getExtendedPathIterator()) + " / " +
+            segments(actual.getPathIterator(null));
+        if (!e.equals(a)) {
+            DefaultTestReport report = new DefaultTestReport(this);
+            report.setErrorCode("invalid.shape");
+            report.addDescriptionEntry("expected.text", e);
+            report.addDescriptionEntry("generated.text", a);
+            report.setPassed(false);
+            return report;
+        }
+        return reportSuccess();
+    }
+
+    protected String segments(ExtendedPathIterator it) {
+        StringBuffer sb = new StringBuffer();
+        float[] coords = new float[7];
+        while (!it.isDone()) {
+            Arrays.fill(coords, 0);
+            sb.append(it.currentSegment(coords));
+            sb.append(Arrays.toString(coords));
+            it.next();
+        }
+        return sb.toString();
+    }
+
+    protected String segments(PathIterator it) {
+        StringBuffer sb = new StringBuffer();
+        sb.append(it.getWindingRule());
+        float[] coords = new float[6];
+        while (!it.isDone()) {
+            Arrays.fill(coords, 0);
+            sb.append(it.currentSegment(coords));
+            sb.append(Arrays.toString(coords));
+            it.next();
+        }
+        return sb.toString();
+    }
+}
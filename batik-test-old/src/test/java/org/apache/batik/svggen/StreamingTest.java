@@ -0,0 +1,178 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.svggen;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.batik.anim.dom.SAXSVGDocumentFactory;
+import org.apache.batik.dom.GenericDOMImplementation;
+import org.apache.batik.test.AbstractTest;
+import org.apache.batik.util.SVGConstants;
+import org.apache.batik.util.XMLResourceDescriptor;
+
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * Checks that the streamed output of an SVGGraphics2D draws the same
+ * elements as its regular output, that the definitions it references
+ * are all written, and that the top level group stays small while
+ * drawing.
+ *
+ * @version $Id$
+ */
+public class StreamingTest extends AbstractTest implements SVGConstants {
+
+    public static final Dimension CANVAS_SIZE = new Dimension(400, 400);
+
+    public static final int SHAPE_COUNT = 20000;
+
+    public boolean runImplBasic() throws Exception {
+        SVGGraphics2D g2d = createGraphics();
+        paint(g2d, null);
+        StringWriter expected = new StringWriter();
+        g2d.stream(expected);
+
+        g2d = createGraphics();
+        StringWriter actual = new StringWriter();
+        g2d.startStreaming(actual);
+        if (!paint(g2d, g2d.domTreeManager))
+            return false;
+        g2d.endStreaming();
+
+        Document expectedDoc = parse(expected.toString());
+        Document actualDoc = parse(actual.toString());
+        List expectedShapes = new ArrayList();
+        List actualShapes = new ArrayList();
+        collectShapes(expectedDoc.getDocumentElement(), expectedShapes);
+        collectShapes(actualDoc.getDocumentElement(), actualShapes);
+        return expectedShapes.size() == SHAPE_COUNT
+            && expectedShapes.equals(actualShapes)
+            && referencesResolve(actualDoc, actualDoc.getDocumentElement());
+    }
+
+    protected SVGGraphics2D createGraphics() {
+        DOMImplementation impl =
+            GenericDOMImplementation.getDOMImplementation();
+        Document domFactory = impl.createDocument(SVG_NAMESPACE_URI,
+                                                  SVG_SVG_TAG, null);
+        SVGGraphics2D g2d = new SVGGraphics2D(domFactory);
+        g2d.setSVGCanvasSize(CANVAS_SIZE);
+        return g2d;
+    }
+
+    /**
+     * Draws many small shapes, with a color that changes every few
+     * shapes and a gradient now and then, from two graphics.
+     * @param streamed the tree manager whose top level group size is
+     *        checked, if any.
+     */
+    protected boolean paint(Graphics2D g, DOMTreeManager streamed) {
+        Graphics2D g2 = (Graphics2D)g.create();
+        for (int i = 0; i < SHAPE_COUNT; i++) {
+            Graphics2D gi = (i % 100 < 10) ? g2 : g;
+            if (i % 7 == 0) {
+                gi.setPaint(new Color((i * 37) % 256, i % 256, 128));
+            }
+            if (i % 500 == 0) {
+                gi.setPaint(new GradientPaint(0, 0, Color.red,
+                                              20, 20, Color.blue));
+            }
+            int x = (i * 13) % CANVAS_SIZE.width;
+            int y = (i / 31) % CANVAS_SIZE.height;
+            if (i % 3 == 0) {
+                gi.fillRect(x, y, 5, 5);
+            } else {
+                gi.drawOval(x, y, 6, 4);
+            }
+            if (streamed != null &&
+                streamed.topLevelGroup.getChildNodes().getLength()
+                > DOMTreeManager.STREAMING_GROUP_COUNT + 1) {
+                return false;
+            }
+        }
+        g2.dispose();
+        return true;
+    }
+
+    protected static Document parse(String svg) throws Exception {
+        SAXSVGDocumentFactory f = new SAXSVGDocumentFactory
+            (XMLResourceDescriptor.getXMLParserClassName());
+        return f.createDocument("http://example.org/streaming.svg",
+                                new StringReader(svg));
+    }
+
+    /**
+     * Adds a description of the drawing elements outside of the
+     * definitions to the list, in document order.
+     */
+    protected static void collectShapes(Element e, List shapes) {
+        for (Node n = e.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (n.getNodeType() != Node.ELEMENT_NODE) {
+                continue;
+            }
+            String name = n.getLocalName();
+            if (SVG_G_TAG.equals(name)) {
+                collectShapes((Element)n, shapes);
+            } else if (!SVG_DEFS_TAG.equals(name)) {
+                Element s = (Element)n;
+                shapes.add(name + ' ' + s.getAttributeNS(null, SVG_X_ATTRIBUTE)
+                           + ' ' + s.getAttributeNS(null, SVG_Y_ATTRIBUTE)
+                           + ' ' + s.getAttributeNS(null, SVG_CX_ATTRIBUTE)
+                           + ' ' + s.getAttributeNS(null, SVG_CY_ATTRIBUTE)
+                           + ' ' + s.getAttributeNS(null, SVG_D_ATTRIBUTE));
+            }
+        }
+    }
+
+    /**
+     * Checks that the elements referenced with url(#...) exist.
+     */
+    protected static boolean referencesResolve(Document doc, Element e) {
+        NamedNodeMap attrs = e.getAttributes();
+        for (int i = 0; i < attrs.getLength(); i++) {
+            String v = attrs.item(i).getNodeValue();
+            int j = v.indexOf("url(#");
+            while (j != -1) {
+                int k = v.indexOf(')', j);
+                if (doc.getElementById(v.substring(j + 5, k)) == null) {
+                    return false;
+                }
+                j = v.indexOf("url(#", k);
+            }
+        }
+        for (Node n = e.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (n.getNodeType() == Node.ELEMENT_NODE &&
+                !referencesResolve(doc, (Element)n)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
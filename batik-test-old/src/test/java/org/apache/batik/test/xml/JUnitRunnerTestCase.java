@@ -151,6 +151,8 @@ public class JUnitRunnerTestCase {
 "NullURITest",
 
 "DoubleStringPerformanceTest",
+"RuleIndexPerformanceTest",
+"dom.svg.pathDataPerformance",
 "text.selection.latin",
 "text.selection.latin-ext",
 "text.selection.cyrillic",
@@ -0,0 +1,249 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.transcoder;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.batik.anim.dom.SVGDOMImplementation;
+import org.apache.batik.test.AbstractTest;
+import org.apache.batik.test.TestReport;
+import org.apache.batik.util.SVGConstants;
+
+import org.w3c.dom.Document;
+
+/**
+ * This test validates that a TranscoderPool transcodes every document
+ * it is given with one transcoder per thread, reused from one document
+ * to the next, that a transcoder which failed is replaced, and that
+ * submitting blocks while too many jobs are pending.
+ *
+ * @version $Id$
+ */
+public class TranscoderPoolTest extends AbstractTest {
+
+    /**
+     * The time, in seconds, after which the test gives up waiting.
+     */
+    public static final long TIMEOUT = 30;
+
+    public TestReport runImpl() throws Exception {
+        testPooling();
+        testFailure();
+        testBackPressure();
+        return reportSuccess();
+    }
+
+    /**
+     * Transcodes many documents on two threads and checks each thread
+     * used a single transcoder for all its documents.
+     */
+    protected void testPooling() throws Exception {
+        TestFactory factory = new TestFactory(null);
+        TranscoderPool pool = new TranscoderPool(factory, 2);
+        int n = 20;
+        TranscoderInput  [] inputs  = new TranscoderInput[n];
+        TranscoderOutput [] outputs = new TranscoderOutput[n];
+        for (int i = 0; i < n; i++) {
+            inputs[i] = createInput("doc" + i);
+            outputs[i] = new TranscoderOutput(new StringWriter());
+        }
+        Exception [] ex = pool.transcodeAll(inputs, outputs);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+
+        for (int i = 0; i < n; i++) {
+            assertNull(ex[i]);
+            assertEquals("doc" + i, outputs[i].getWriter().toString());
+        }
+        assertTrue(pool.getCompletedCount() == n);
+        assertTrue(pool.getFailedCount() == 0);
+
+        // One transcoder per thread, each one reused by its thread.
+        List transcoders = factory.getTranscoders();
+        assertTrue(transcoders.size() >= 1);
+        assertTrue(transcoders.size() <= 2);
+        int documents = 0;
+        for (int i = 0; i < transcoders.size(); i++) {
+            TestTranscoder t = (TestTranscoder)transcoders.get(i);
+            assertEquals(1, t.threads.size());
+            documents += t.documents;
+        }
+        assertEquals(n, documents);
+    }
+
+    /**
+     * Checks that a failed job is reported and that the next job of
+     * its thread gets a new transcoder.
+     */
+    protected void testFailure() throws Exception {
+        TestFactory factory = new TestFactory(null);
+        TranscoderPool pool = new TranscoderPool(factory, 1);
+        TranscoderInput [] inputs = {
+            createInput("first"),
+            new TranscoderInput(new StringReader("<svg")),
+            createInput("last")
+        };
+        TranscoderOutput [] outputs = {
+            new TranscoderOutput(new StringWriter()),
+            new TranscoderOutput(new StringWriter()),
+            new TranscoderOutput(new StringWriter())
+        };
+        Exception [] ex = pool.transcodeAll(inputs, outputs);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+
+        assertNull(ex[0]);
+        assertTrue(ex[1] instanceof TranscoderException);
+        assertNull(ex[2]);
+        assertTrue(pool.getCompletedCount() == 2);
+        assertTrue(pool.getFailedCount() == 1);
+        assertEquals(2, factory.getTranscoders().size());
+    }
+
+    /**
+     * Fills a pool allowing two pending jobs and checks that a third
+     * submission waits until one of them completes.
+     */
+    protected void testBackPressure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        TestFactory factory = new TestFactory(release);
+        final TranscoderPool pool = new TranscoderPool(factory, 1, 2);
+        Future f1 = pool.submit(createInput("a"),
+                                new TranscoderOutput(new StringWriter()));
+        Future f2 = pool.submit(createInput("b"),
+                                new TranscoderOutput(new StringWriter()));
+
+        final Future [] f3 = new Future[1];
+        final Exception [] error = new Exception[1];
+        Thread submitter = new Thread() {
+                public void run() {
+                    try {
+                        f3[0] = pool.submit
+                            (createInput("c"),
+                             new TranscoderOutput(new StringWriter()));
+                    } catch (Exception ex) {
+                        error[0] = ex;
+                    }
+                }
+            };
+        submitter.start();
+
+        // Wait for the submitter to block on the full pool.
+        long end = System.currentTimeMillis() + TIMEOUT * 1000;
+        while (submitter.getState() != Thread.State.WAITING) {
+            assertTrue(submitter.isAlive());
+            assertTrue(System.currentTimeMillis() < end);
+            Thread.sleep(10);
+        }
+        assertTrue(!f1.isDone());
+        assertTrue(!f2.isDone());
+
+        release.countDown();
+        submitter.join(TIMEOUT * 1000);
+        assertTrue(!submitter.isAlive());
+        assertNull(error[0]);
+
+        f1.get(TIMEOUT, TimeUnit.SECONDS);
+        f2.get(TIMEOUT, TimeUnit.SECONDS);
+        f3[0].get(TIMEOUT, TimeUnit.SECONDS);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+        assertTrue(pool.getCompletedCount() == 3);
+        assertEquals(1, factory.getTranscoders().size());
+    }
+
+    /**
+     * Returns the input of a document whose root has the given id.
+     */
+    protected TranscoderInput createInput(String id) {
+        return new TranscoderInput
+            (new StringReader("<svg xmlns=\"" + SVGConstants.SVG_NAMESPACE_URI
+                              + "\" id=\"" + id + "\"/>"));
+    }
+
+    /**
+     * Creates TestTranscoders and keeps track of them.
+     */
+    static class TestFactory implements TranscoderPool.Factory {
+        CountDownLatch release;
+        List transcoders = new ArrayList();
+
+        TestFactory(CountDownLatch release) {
+            this.release = release;
+        }
+
+        public synchronized Transcoder createTranscoder() {
+            Transcoder t = new TestTranscoder(release);
+            transcoders.add(t);
+            return t;
+        }
+
+        synchronized List getTranscoders() {
+            return new ArrayList(transcoders);
+        }
+    }
+
+    /**
+     * Writes the id of the root element of each document, after
+     * waiting for a latch if any.
+     */
+    static class TestTranscoder extends XMLAbstractTranscoder {
+        CountDownLatch release;
+        Set threads = Collections.synchronizedSet(new HashSet());
+        volatile int documents;
+
+        public TestTranscoder(CountDownLatch release) {
+            this.release = release;
+            addTranscodingHint(KEY_DOCUMENT_ELEMENT_NAMESPACE_URI,
+                               SVGConstants.SVG_NAMESPACE_URI);
+            addTranscodingHint(KEY_DOCUMENT_ELEMENT,
+                               SVGConstants.SVG_SVG_TAG);
+            addTranscodingHint(KEY_DOM_IMPLEMENTATION,
+                               SVGDOMImplementation.getDOMImplementation());
+        }
+
+        protected void transcode(Document document,
+                                 String uri,
+                                 TranscoderOutput output)
+            throws TranscoderException {
+            threads.add(Thread.currentThread());
+            documents++;
+            try {
+                if (release != null) {
+                    release.await();
+                }
+                Writer w = output.getWriter();
+                w.write(document.getDocumentElement().getAttributeNS
+                        (null, SVGConstants.SVG_ID_ATTRIBUTE));
+            } catch (Exception ex) {
+                throw new TranscoderException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.transcoder.image;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+
+import javax.imageio.ImageIO;
+
+import org.apache.batik.test.AbstractTest;
+import org.apache.batik.transcoder.TranscoderInput;
+import org.apache.batik.transcoder.TranscoderOutput;
+
+/**
+ * Checks that a document transcoded to PNG with the KEY_BAND_HEIGHT
+ * transcoding hint has the same pixels as when it is rendered whole,
+ * up to antialiasing: like tiles, bands are drawn at other offsets,
+ * which moves the edges of shapes and images by a fraction of a pixel.
+ * A band drawn at the wrong place or not at all changes far more
+ * pixels than that.
+ *
+ * @version $Id$
+ */
+public class BandHeightTest extends AbstractTest {
+
+    /**
+     * The largest difference allowed between two premultiplied
+     * components of the same pixel.
+     */
+    public static final int MAX_DIFFERENCE = 32;
+
+    /**
+     * The largest proportion of pixels allowed to differ more.
+     */
+    public static final float MAX_DIFFERENT_PIXELS = 0.01f;
+
+    /** The URI of the input image. */
+    protected String inputURI;
+
+    /** The height of the image. */
+    protected Float height;
+
+    /** The height of the bands. */
+    protected Integer bandHeight;
+
+    /**
+     * Constructs a new <code>BandHeightTest</code>.
+     *
+     * @param inputURI URI of the input image.
+     * @param height Image height (KEY_HEIGHT value).
+     * @param bandHeight Band height (KEY_BAND_HEIGHT value).
+     */
+    public BandHeightTest(String inputURI, Float height, Integer bandHeight) {
+        this.inputURI = inputURI;
+        this.height = height;
+        this.bandHeight = bandHeight;
+    }
+
+    public boolean runImplBasic() throws Exception {
+        BufferedImage expected = transcode(null);
+        BufferedImage actual = transcode(bandHeight);
+        int w = expected.getWidth();
+        int h = expected.getHeight();
+        if (actual.getWidth() != w || actual.getHeight() != h) {
+            return false;
+        }
+        int [] e = expected.getRGB(0, 0, w, h, null, 0, w);
+        int [] a = actual.getRGB(0, 0, w, h, null, 0, w);
+        int different = 0;
+        for (int i = 0; i < e.length; i++) {
+            if (e[i] == a[i]) {
+                continue;
+            }
+            int ea = e[i] >>> 24;
+            int aa = a[i] >>> 24;
+            for (int s = 0; s < 32; s += 8) {
+                int ec = (s == 24) ? ea : ((e[i] >>> s) & 0xFF) * ea / 255;
+                int ac = (s == 24) ? aa : ((a[i] >>> s) & 0xFF) * aa / 255;
+                if (Math.abs(ec - ac) > MAX_DIFFERENCE) {
+                    different++;
+                    break;
+                }
+            }
+        }
+        return different <= e.length * MAX_DIFFERENT_PIXELS;
+    }
+
+    /**
+     * Transcodes the document to PNG and decodes the result.
+     * @param bandHeight the band height, null to render the image whole.
+     */
+    protected BufferedImage transcode(Integer bandHeight) throws Exception {
+        PNGTranscoder t = new PNGTranscoder();
+        t.addTranscodingHint(ImageTranscoder.KEY_HEIGHT, height);
+        if (bandHeight != null) {
+            t.addTranscodingHint(ImageTranscoder.KEY_BAND_HEIGHT, bandHeight);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        t.transcode(new TranscoderInput(new File(inputURI).toURI().toString()),
+                    new TranscoderOutput(out));
+        return ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
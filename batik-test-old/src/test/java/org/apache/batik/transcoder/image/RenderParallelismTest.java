@@ -0,0 +1,150 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.transcoder.image;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.apache.batik.test.AbstractTest;
+import org.apache.batik.test.DefaultTestReport;
+import org.apache.batik.test.TestReport;
+import org.apache.batik.transcoder.TranscoderException;
+import org.apache.batik.transcoder.TranscoderInput;
+import org.apache.batik.transcoder.TranscoderOutput;
+
+/**
+ * Checks that the documents of a directory transcoded to PNG with the
+ * KEY_RENDER_PARALLELISM transcoding hint have exactly the same pixels
+ * as when the same tiles (KEY_RENDER_TILE_SIZE) are rendered on a
+ * single thread.  Documents that cannot be rendered on a single thread
+ * are skipped.
+ *
+ * @version $Id$
+ */
+public class RenderParallelismTest extends AbstractTest {
+
+    /**
+     * Error when some documents are rendered differently.
+     */
+    public static final String ERROR_IMAGES_DIFFER =
+        "RenderParallelismTest.error.images.differ";
+
+    public static final String ENTRY_KEY_DIFFERENT_DOCUMENTS =
+        "RenderParallelismTest.entry.key.different.documents";
+
+    /** The directory holding the documents. */
+    protected String dir;
+
+    /** The width of the images. */
+    protected Float width;
+
+    /** The number of rendering threads. */
+    protected Integer parallelism;
+
+    /** The edge length of the rendered tiles. */
+    protected Integer tileSize;
+
+    /**
+     * Constructs a new <code>RenderParallelismTest</code>.
+     *
+     * @param dir The directory holding the documents.
+     * @param width Image width (KEY_WIDTH value).
+     * @param parallelism The number of threads (KEY_RENDER_PARALLELISM
+     *        value).
+     * @param tileSize The tile size (KEY_RENDER_TILE_SIZE value).
+     */
+    public RenderParallelismTest(String dir, Float width,
+                                 Integer parallelism, Integer tileSize) {
+        this.dir = dir;
+        this.width = width;
+        this.parallelism = parallelism;
+        this.tileSize = tileSize;
+    }
+
+    public TestReport runImpl() throws Exception {
+        File [] files = new File(dir).listFiles();
+        Arrays.sort(files);
+        StringBuffer different = new StringBuffer();
+        for (File file : files) {
+            if (!file.getName().endsWith(".svg")) {
+                continue;
+            }
+            BufferedImage expected;
+            try {
+                expected = transcode(file, null);
+            } catch (TranscoderException ex) {
+                continue;
+            }
+            BufferedImage actual = transcode(file, parallelism);
+            if (!sameImages(expected, actual)) {
+                different.append(file.getPath());
+                different.append('\n');
+            }
+        }
+        if (different.length() > 0) {
+            DefaultTestReport report = new DefaultTestReport(this);
+            report.setErrorCode(ERROR_IMAGES_DIFFER);
+            report.addDescriptionEntry(ENTRY_KEY_DIFFERENT_DOCUMENTS,
+                                       different.toString());
+            report.setPassed(false);
+            return report;
+        }
+        return reportSuccess();
+    }
+
+    /**
+     * Returns true if the two images have the same pixels.
+     */
+    protected boolean sameImages(BufferedImage expected,
+                                 BufferedImage actual) {
+        int w = expected.getWidth();
+        int h = expected.getHeight();
+        if (actual.getWidth() != w || actual.getHeight() != h) {
+            return false;
+        }
+        int [] e = expected.getRGB(0, 0, w, h, null, 0, w);
+        int [] a = actual.getRGB(0, 0, w, h, null, 0, w);
+        return Arrays.equals(e, a);
+    }
+
+    /**
+     * Transcodes a document to PNG and decodes the result.
+     * @param parallelism the number of threads, null to render on a
+     *        single thread.
+     */
+    protected BufferedImage transcode(File file, Integer parallelism)
+        throws Exception {
+        PNGTranscoder t = new PNGTranscoder();
+        t.addTranscodingHint(ImageTranscoder.KEY_WIDTH, width);
+        t.addTranscodingHint(ImageTranscoder.KEY_RENDER_TILE_SIZE, tileSize);
+        if (parallelism != null) {
+            t.addTranscodingHint(ImageTranscoder.KEY_RENDER_PARALLELISM,
+                                 parallelism);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        t.transcode(new TranscoderInput(file.toURI().toString()),
+                    new TranscoderOutput(out));
+        return ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
@@ -0,0 +1,194 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.transcoder.image;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.apache.batik.anim.dom.SAXSVGDocumentFactory;
+import org.apache.batik.anim.dom.SVGOMDocument;
+import org.apache.batik.test.AbstractTest;
+import org.apache.batik.test.TestReport;
+import org.apache.batik.transcoder.SVGAbstractTranscoder;
+import org.apache.batik.transcoder.TranscoderException;
+import org.apache.batik.transcoder.TranscoderInput;
+import org.apache.batik.transcoder.TranscoderOutput;
+import org.apache.batik.util.SVGConstants;
+import org.apache.batik.util.XMLResourceDescriptor;
+
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.svg.SVGRectElement;
+
+/**
+ * Checks the KEY_STATIC_DOCUMENT transcoding hint: documents are not
+ * static by default, a static document renders the same pixels as a
+ * dynamic one, its animated attribute values are still available, its
+ * attributes cannot be modified, and it cannot be transcoded with
+ * KEY_EXECUTE_ONLOAD.
+ *
+ * @version $Id$
+ */
+public class StaticDocumentTest extends AbstractTest {
+
+    /**
+     * The document rendered with and without the hint.
+     */
+    public static final String INPUT_URI =
+        "test-resources/org/apache/batik/transcoder/image/resources/butterfly.svg";
+
+    /**
+     * The document whose DOM is checked.
+     */
+    public static final String DOCUMENT =
+        "<svg xmlns=\"" + SVGConstants.SVG_NAMESPACE_URI + "\" width=\"20\" "
+        + "height=\"20\"><rect id=\"r\" x=\"1\" y=\"2\" width=\"3\" "
+        + "height=\"4\"/></svg>";
+
+    public TestReport runImpl() throws Exception {
+        testDefault();
+        testRendering();
+        testDocument();
+        testExecuteOnload();
+        return reportSuccess();
+    }
+
+    /**
+     * Checks that documents are not static unless asked for.
+     */
+    protected void testDefault() throws Exception {
+        StaticTestTranscoder t = new StaticTestTranscoder();
+        transcode(t);
+        assertTrue(!t.isStatic);
+
+        t = new StaticTestTranscoder();
+        t.addTranscodingHint(SVGAbstractTranscoder.KEY_STATIC_DOCUMENT,
+                             Boolean.TRUE);
+        transcode(t);
+        assertTrue(t.isStatic);
+    }
+
+    /**
+     * Checks that a static document produces the same image.
+     */
+    protected void testRendering() throws Exception {
+        byte[] expected = transcode(new PNGTranscoder());
+        PNGTranscoder t = new PNGTranscoder();
+        t.addTranscodingHint(SVGAbstractTranscoder.KEY_STATIC_DOCUMENT,
+                             Boolean.TRUE);
+        byte[] actual = transcode(t);
+        assertTrue(Arrays.equals(expected, actual));
+    }
+
+    /**
+     * Checks the DOM of a static document.
+     */
+    protected void testDocument() throws Exception {
+        SAXSVGDocumentFactory f = new SAXSVGDocumentFactory
+            (XMLResourceDescriptor.getXMLParserClassName());
+        f.setStatic(true);
+        Document doc = f.createDocument("file:/static.svg",
+                                        new StringReader(DOCUMENT));
+        assertTrue(((SVGOMDocument)doc).isStatic());
+
+        SVGRectElement r = (SVGRectElement)doc.getElementById("r");
+        assertEquals(1f, r.getX().getBaseVal().getValue());
+        assertEquals(4f, r.getHeight().getBaseVal().getValue());
+
+        // Existing attributes can be neither modified nor removed, and
+        // no attribute can be added.
+        assertReadonly(r, SVGConstants.SVG_X_ATTRIBUTE, "5");
+        assertReadonly(r, SVGConstants.SVG_FILL_ATTRIBUTE, "red");
+        try {
+            r.removeAttributeNS(null, SVGConstants.SVG_Y_ATTRIBUTE);
+            assertTrue(false);
+        } catch (DOMException ex) {
+            assertEquals((int)DOMException.NO_MODIFICATION_ALLOWED_ERR,
+                         (int)ex.code);
+        }
+        assertEquals("1", r.getAttributeNS(null, SVGConstants.SVG_X_ATTRIBUTE));
+        assertEquals("2", r.getAttributeNS(null, SVGConstants.SVG_Y_ATTRIBUTE));
+        assertTrue(!r.hasAttributeNS(null, SVGConstants.SVG_FILL_ATTRIBUTE));
+
+        // A clone is not static.
+        Element c = (Element)r.cloneNode(true);
+        c.setAttributeNS(null, SVGConstants.SVG_X_ATTRIBUTE, "5");
+        assertEquals(5f, ((SVGRectElement)c).getX().getBaseVal().getValue());
+    }
+
+    /**
+     * Checks that a static document cannot be transcoded with
+     * KEY_EXECUTE_ONLOAD.
+     */
+    protected void testExecuteOnload() throws Exception {
+        PNGTranscoder t = new PNGTranscoder();
+        t.addTranscodingHint(SVGAbstractTranscoder.KEY_STATIC_DOCUMENT,
+                             Boolean.TRUE);
+        t.addTranscodingHint(SVGAbstractTranscoder.KEY_EXECUTE_ONLOAD,
+                             Boolean.TRUE);
+        try {
+            transcode(t);
+            assertTrue(false);
+        } catch (TranscoderException ex) {
+        }
+    }
+
+    /**
+     * Checks that setting the given attribute fails.
+     */
+    protected void assertReadonly(Element e, String name, String value)
+        throws Exception {
+        try {
+            e.setAttributeNS(null, name, value);
+            assertTrue(false);
+        } catch (DOMException ex) {
+            assertEquals((int)DOMException.NO_MODIFICATION_ALLOWED_ERR,
+                         (int)ex.code);
+        }
+    }
+
+    /**
+     * Transcodes the input document with the given transcoder.
+     */
+    protected byte[] transcode(ImageTranscoder t) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        t.transcode(new TranscoderInput(new File(INPUT_URI).toURI().toString()),
+                    new TranscoderOutput(out));
+        return out.toByteArray();
+    }
+
+    /**
+     * A PNGTranscoder which records whether the document it transcodes
+     * is static.
+     */
+    static class StaticTestTranscoder extends PNGTranscoder {
+        boolean isStatic;
+
+        protected void transcode(Document document,
+                                 String uri,
+                                 TranscoderOutput output)
+            throws TranscoderException {
+            isStatic = ((SVGOMDocument)document).isStatic();
+            super.transcode(document, uri, output);
+        }
+    }
+}
@@ -49,6 +49,7 @@ import org.apache.batik.gvt.CompositeGraphicsNode;
 import org.apache.batik.gvt.GraphicsNode;
 import org.apache.batik.transcoder.keys.BooleanKey;
 import org.apache.batik.transcoder.keys.FloatKey;
+import org.apache.batik.transcoder.keys.IntegerKey;
 import org.apache.batik.transcoder.keys.LengthKey;
 import org.apache.batik.transcoder.keys.Rectangle2DKey;
 import org.apache.batik.transcoder.keys.StringKey;
@@ -150,6 +151,25 @@ public abstract class SVGAbstractTranscoder extends XMLAbstractTranscoder {
         return new SAXSVGDocumentFactory(parserClassname);
     }
 
+    /**
+     * Returns the <code>DocumentFactory</code> used to create the SVG DOM
+     * tree.  The factory builds static documents, that use less memory,
+     * when {@link #KEY_STATIC_DOCUMENT} is set.
+     *
+     * @param domImpl the DOM Implementation (not used)
+     * @param parserClassname the XML parser classname
+     */
+    protected DocumentFactory getDocumentFactory(DOMImplementation domImpl,
+                                                 String parserClassname) {
+        DocumentFactory f = super.getDocumentFactory(domImpl, parserClassname);
+        if (f instanceof SAXSVGDocumentFactory) {
+            Boolean b = (Boolean) hints.get(KEY_STATIC_DOCUMENT);
+            ((SAXSVGDocumentFactory) f).setStatic
+                (b != null && b.booleanValue());
+        }
+        return f;
+    }
+
     public void transcode(TranscoderInput input, TranscoderOutput output)
             throws TranscoderException {
 
@@ -191,14 +211,24 @@ public abstract class SVGAbstractTranscoder extends XMLAbstractTranscoder {
 
         SVGOMDocument svgDoc = (SVGOMDocument)document;
         SVGSVGElement root = svgDoc.getRootElement();
-        ctx = createBridgeContext(svgDoc);
 
-        // build the GVT tree
-        builder = new GVTBuilder();
         // flag that indicates if the document is dynamic
         boolean isDynamic =
             hints.containsKey(KEY_EXECUTE_ONLOAD) &&
                     (Boolean) hints.get(KEY_EXECUTE_ONLOAD);
+        if (isDynamic && svgDoc.isStatic()) {
+            handler.fatalError(new TranscoderException(
+                "KEY_EXECUTE_ONLOAD cannot be used with a static document"));
+            return;
+        }
+
+        ctx = createBridgeContext(svgDoc);
+
+        // build the GVT tree
+        builder = new GVTBuilder();
+        if (hints.containsKey(KEY_BUILD_PARALLELISM))
+            builder.setParallelism
+                (((Integer)hints.get(KEY_BUILD_PARALLELISM)).intValue());
 
         GraphicsNode gvtRoot;
         try {
@@ -771,6 +801,38 @@ public abstract class SVGAbstractTranscoder extends XMLAbstractTranscoder {
     public static final TranscodingHints.Key KEY_EXECUTE_ONLOAD
         = new BooleanKey();
 
+    /**
+     * The static document key.
+     * <table summary="" border="0" cellspacing="0" cellpadding="1">
+     *   <tr>
+     *     <th valign="top" align="right">Key:</th>
+     *     <td valign="top">KEY_STATIC_DOCUMENT</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Value:</th>
+     *     <td valign="top">Boolean</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Default:</th>
+     *     <td valign="top">false</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Required:</th>
+     *     <td valign="top">No</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Description:</th>
+     *     <td valign="top">Specify if the documents parsed by the
+     *       transcoder are static and read-only, see
+     *       {@link SVGOMDocument#isStatic()}, to use less memory.  The
+     *       transcoding of a static document fails if
+     *       {@link #KEY_EXECUTE_ONLOAD} is set to <code>true</code>.</td>
+     *   </tr>
+     * </table>
+     */
+    public static final TranscodingHints.Key KEY_STATIC_DOCUMENT
+        = new BooleanKey();
+
     /**
      * The snapshot time key.
      * <table summary="" border="0" cellspacing="0" cellpadding="1">
@@ -801,6 +863,36 @@ public abstract class SVGAbstractTranscoder extends XMLAbstractTranscoder {
     public static final TranscodingHints.Key KEY_SNAPSHOT_TIME
         = new FloatKey();
 
+    /**
+     * The GVT build parallelism key.
+     * <table summary="" border="0" cellspacing="0" cellpadding="1">
+     *   <tr>
+     *     <th valign="top" align="right">Key:</th>
+     *     <td valign="top">KEY_BUILD_PARALLELISM</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Value:</th>
+     *     <td valign="top">Integer</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Default:</th>
+     *     <td valign="top">1</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Required:</th>
+     *     <td valign="top">No</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Description:</th>
+     *     <td valign="top">Specifies the number of threads building the
+     *       GVT tree, see {@link GVTBuilder#setParallelism(int)}.  Ignored
+     *       if {@link #KEY_EXECUTE_ONLOAD} is set to <code>true</code>.</td>
+     *   </tr>
+     * </table>
+     */
+    public static final TranscodingHints.Key KEY_BUILD_PARALLELISM
+        = new IntegerKey();
+
     /**
      * The set of supported script languages (i.e., the set of possible
      * values for the &lt;script&gt; tag's type attribute).
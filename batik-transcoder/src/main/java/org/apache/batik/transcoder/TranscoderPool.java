@@ -0,0 +1,249 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.transcoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transcodes many documents on a fixed set of threads.  Each thread
+ * keeps its own <code>Transcoder</code>, created by a
+ * <code>TranscoderPool.Factory</code> the first time the thread runs
+ * a job, and reuses it, along with its user agent and document
+ * factory, for every following job.  The parsed user agent style-sheet
+ * and the resolved fonts are shared by all the threads.<p>
+ *
+ * At most a given number of jobs may be pending at once, submitting
+ * more blocks the caller until a job completes, so a producer feeding
+ * the pool from a large batch does not run out of memory.<p>
+ *
+ * <pre>
+ *   TranscoderPool pool = new TranscoderPool(new TranscoderPool.Factory() {
+ *       public Transcoder createTranscoder() {
+ *           return new PNGTranscoder();
+ *       }
+ *   }, 4);
+ *   for (...) {
+ *       pool.submit(new TranscoderInput(uri), new TranscoderOutput(out));
+ *   }
+ *   pool.shutdown();
+ *   pool.awaitTermination(1, TimeUnit.HOURS);
+ * </pre>
+ *
+ * @version $Id$
+ */
+public class TranscoderPool {
+
+    /**
+     * Creates the transcoders used by the threads of a pool.
+     */
+    public interface Factory {
+
+        /**
+         * Returns a new, configured transcoder.  It will only ever be
+         * used by one thread at a time.
+         */
+        Transcoder createTranscoder();
+    }
+
+    private static final AtomicInteger poolNumber = new AtomicInteger();
+
+    protected final Factory factory;
+    protected final ExecutorService executor;
+    protected final Semaphore pending;
+
+    /**
+     * The transcoder of each of the pool's threads.
+     */
+    protected final ThreadLocal transcoder = new ThreadLocal();
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed    = new AtomicLong();
+
+    /**
+     * Creates a pool allowing four pending jobs per thread.
+     * @param factory creates the transcoders of the threads.
+     * @param threads the number of threads.
+     */
+    public TranscoderPool(Factory factory, int threads) {
+        this(factory, threads, 4*threads);
+    }
+
+    /**
+     * Creates a pool.
+     * @param factory creates the transcoders of the threads.
+     * @param threads the number of threads.
+     * @param maxPending the number of jobs that may be queued or
+     *        running at once before <code>submit</code> blocks.
+     */
+    public TranscoderPool(Factory factory, int threads, int maxPending) {
+        if ((factory == null) || (threads < 1) || (maxPending < 1))
+            throw new IllegalArgumentException();
+
+        this.factory = factory;
+        this.pending = new Semaphore(maxPending);
+
+        final String prefix = "TranscoderPool-" +
+            poolNumber.incrementAndGet() + "-";
+        ThreadFactory tf = new ThreadFactory() {
+                AtomicInteger n = new AtomicInteger();
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, prefix + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            };
+        this.executor = new ThreadPoolExecutor
+            (threads, threads, 0L, TimeUnit.MILLISECONDS,
+             new LinkedBlockingQueue(), tf);
+    }
+
+    /**
+     * Queues the transcoding of <code>input</code> into
+     * <code>output</code>, blocking while the pool has too many jobs
+     * pending.
+     * @return a future giving the output once done.  If the job
+     *         failed, <code>get</code> throws an
+     *         <code>ExecutionException</code> whose cause is usually a
+     *         <code>TranscoderException</code>.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Future submit(TranscoderInput input, TranscoderOutput output)
+        throws InterruptedException {
+        pending.acquire();
+        try {
+            return executor.submit(new Job(input, output));
+        } catch (RuntimeException ex) {
+            pending.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Transcodes each input into the output with the same index and
+     * waits for all of them to complete.
+     * @return the exception of each failed job, null for the jobs that
+     *         succeeded.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Exception [] transcodeAll(TranscoderInput  [] inputs,
+                                     TranscoderOutput [] outputs)
+        throws InterruptedException {
+        if (inputs.length != outputs.length)
+            throw new IllegalArgumentException();
+
+        List futures = new ArrayList(inputs.length);
+        for (int i=0; i<inputs.length; i++)
+            futures.add(submit(inputs[i], outputs[i]));
+
+        Exception [] ret = new Exception[inputs.length];
+        for (int i=0; i<ret.length; i++) {
+            try {
+                ((Future)futures.get(i)).get();
+            } catch (ExecutionException ee) {
+                Throwable t = ee.getCause();
+                ret[i] = (t instanceof Exception) ? (Exception)t : ee;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the number of jobs that completed successfully.
+     */
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    /**
+     * Returns the number of jobs that failed.
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Stops accepting jobs, the ones already submitted still run.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Waits for the submitted jobs to complete after a shutdown.
+     * @return false if the timeout elapsed first.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * Returns the transcoder of the current thread, creating it if
+     * needed.
+     */
+    protected Transcoder getTranscoder() {
+        Transcoder t = (Transcoder)transcoder.get();
+        if (t == null) {
+            t = factory.createTranscoder();
+            transcoder.set(t);
+        }
+        return t;
+    }
+
+    /**
+     * One transcoding job.
+     */
+    protected class Job implements Callable {
+        protected TranscoderInput  input;
+        protected TranscoderOutput output;
+
+        public Job(TranscoderInput input, TranscoderOutput output) {
+            this.input  = input;
+            this.output = output;
+        }
+
+        public Object call() throws Exception {
+            try {
+                getTranscoder().transcode(input, output);
+                completed.incrementAndGet();
+                return output;
+            } catch (Exception ex) {
+                failed.incrementAndGet();
+                // The transcoder may be left in an odd state, start
+                // afresh with the next job.
+                transcoder.remove();
+                throw ex;
+            } finally {
+                pending.release();
+            }
+        }
+    }
+}
@@ -52,6 +52,19 @@ import org.w3c.dom.Document;
  */
 public abstract class XMLAbstractTranscoder extends AbstractTranscoder {
 
+    /**
+     * The document factory used by the previous transcoding, kept
+     * so that a transcoder used for many documents only creates one.
+     */
+    protected DocumentFactory documentFactory;
+
+    /**
+     * The DOM implementation and parser class the document factory
+     * was created for.
+     */
+    protected DOMImplementation documentFactoryDOMImplementation;
+    protected String documentFactoryParserClassname;
+
     /**
      * Constructs a new <code>XMLAbstractTranscoder</code>.
      */
@@ -105,7 +118,7 @@ public abstract class XMLAbstractTranscoder extends AbstractTranscoder {
                 return;
             }
             // parse the XML document
-            DocumentFactory f = createDocumentFactory(domImpl, parserClassname);
+            DocumentFactory f = getDocumentFactory(domImpl, parserClassname);
             Object xmlParserValidating = hints.get(KEY_XML_PARSER_VALIDATING);
             boolean validating = xmlParserValidating != null && (Boolean) xmlParserValidating;
             f.setValidating(validating);
@@ -162,6 +175,28 @@ public abstract class XMLAbstractTranscoder extends AbstractTranscoder {
         return new SAXDocumentFactory(domImpl, parserClassname);
     }
 
+    /**
+     * Returns the <code>DocumentFactory</code> used to create the DOM
+     * tree, reusing the one of the previous transcoding if it was
+     * created for the same DOM implementation and parser.
+     *
+     * @param domImpl the DOM Implementation to use
+     * @param parserClassname the XML parser classname
+     */
+    protected DocumentFactory getDocumentFactory(DOMImplementation domImpl,
+                                                 String parserClassname) {
+        if ((documentFactory == null) ||
+            (documentFactoryDOMImplementation != domImpl) ||
+            ((parserClassname == null)
+             ? (documentFactoryParserClassname != null)
+             : !parserClassname.equals(documentFactoryParserClassname))) {
+            documentFactory = createDocumentFactory(domImpl, parserClassname);
+            documentFactoryDOMImplementation = domImpl;
+            documentFactoryParserClassname = parserClassname;
+        }
+        return documentFactory;
+    }
+
     /**
      * Transcodes the specified Document in the specified output.
      *
@@ -0,0 +1,98 @@
+/*
+
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+
+ */
+package org.apache.batik.transcoder.image;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+
+import org.apache.batik.ext.awt.image.rendered.AbstractRed;
+import org.apache.batik.ext.awt.image.rendered.CachableRed;
+import org.apache.batik.gvt.renderer.ImageRenderer;
+
+/**
+ * The image written by an <code>ImageTranscoder</code> when
+ * <code>KEY_BAND_HEIGHT</code> is set.  Its tiles are bands of rows
+ * as wide as the image, each rendered by the transcoder when it is
+ * requested.  Only the last band rendered is kept, so the image should
+ * be read from top to bottom.
+ *
+ * @version $Id$
+ */
+class BandRed extends AbstractRed {
+
+    /**
+     * The transcoder rendering the bands.
+     */
+    protected ImageTranscoder transcoder;
+
+    /**
+     * The renderer of the document.
+     */
+    protected ImageRenderer renderer;
+
+    /**
+     * The last band rendered, and the index of its tile.
+     */
+    protected BufferedImage band;
+    protected int bandIndex = -1;
+
+    /**
+     * Creates a new BandRed.
+     * @param transcoder the transcoder rendering the bands.
+     * @param renderer the renderer of the document, whose tree is set.
+     * @param w the width of the image.
+     * @param h the height of the image.
+     * @param bandHeight the height of the bands.
+     */
+    BandRed(ImageTranscoder transcoder, ImageRenderer renderer,
+            int w, int h, int bandHeight) {
+        this.transcoder = transcoder;
+        this.renderer = renderer;
+        ColorModel cm = transcoder.createImage(1, 1).getColorModel();
+        init((CachableRed)null, new Rectangle(0, 0, w, h), cm,
+             cm.createCompatibleSampleModel(w, bandHeight), 0, 0, null);
+    }
+
+    /**
+     * Returns the band with the given index.  The last band is as high
+     * as the others and may extend below the image.
+     */
+    protected synchronized BufferedImage getBand(int index) {
+        if (index != bandIndex) {
+            band = null; // Let it go before rendering the next one.
+            band = transcoder.renderBand(renderer, index*tileHeight,
+                                         bounds.width, tileHeight);
+            bandIndex = index;
+        }
+        return band;
+    }
+
+    public Raster getTile(int tileX, int tileY) {
+        return getBand(tileY).getRaster().createTranslatedChild
+            (0, tileY*tileHeight);
+    }
+
+    public WritableRaster copyData(WritableRaster wr) {
+        copyToRaster(wr);
+        return wr;
+    }
+}
@@ -23,20 +23,26 @@ import java.awt.Graphics2D;
 import java.awt.Paint;
 import java.awt.Shape;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferInt;
+import java.awt.image.RenderedImage;
 import java.awt.image.SinglePixelPackedSampleModel;
 
 import org.apache.batik.ext.awt.image.GraphicsUtil;
+import org.apache.batik.ext.awt.image.rendered.ConcurrentTileCache;
+import org.apache.batik.ext.awt.image.rendered.TileCache;
 import org.apache.batik.gvt.renderer.ConcreteImageRendererFactory;
 import org.apache.batik.gvt.renderer.ImageRenderer;
 import org.apache.batik.gvt.renderer.ImageRendererFactory;
+import org.apache.batik.gvt.renderer.StaticRenderer;
 import org.apache.batik.transcoder.SVGAbstractTranscoder;
 import org.apache.batik.transcoder.TranscoderException;
 import org.apache.batik.transcoder.TranscoderOutput;
 import org.apache.batik.transcoder.TranscodingHints;
 import org.apache.batik.transcoder.keys.BooleanKey;
+import org.apache.batik.transcoder.keys.IntegerKey;
 import org.apache.batik.transcoder.keys.PaintKey;
 import org.w3c.dom.Document;
 
@@ -64,6 +70,14 @@ import org.w3c.dom.Document;
  * stylesheet, and <code>KEY_MM_PER_PIXEL</code> to specify the number of
  * millimeters in each pixel .
  *
+ * <p><code>KEY_RENDER_PARALLELISM</code> and
+ * <code>KEY_RENDER_TILE_SIZE</code> can be used to render the image
+ * as tiles on several threads.
+ *
+ * <p><code>KEY_BAND_HEIGHT</code> lets transcoders whose writer reads
+ * images a few rows at a time render each band of rows only when it
+ * is read, instead of holding the whole image.
+ *
  * @author <a href="mailto:Thierry.Kormann@sophia.inria.fr">Thierry Kormann</a>
  * @version $Id$
  */
@@ -98,13 +112,46 @@ public abstract class ImageTranscoder extends SVGAbstractTranscoder {
         // paint the SVG document using the bridge package
         // create the appropriate renderer
         ImageRenderer renderer = createRenderer();
+        StaticRenderer pooled = null;
+        if (renderer instanceof StaticRenderer) {
+            StaticRenderer sr = (StaticRenderer)renderer;
+            if (hints.containsKey(KEY_RENDER_PARALLELISM)) {
+                sr.setParallelism
+                    (((Integer)hints.get(KEY_RENDER_PARALLELISM)).intValue());
+                pooled = sr;
+            }
+            if (hints.containsKey(KEY_RENDER_TILE_SIZE))
+                sr.setTileSize
+                    (((Integer)hints.get(KEY_RENDER_TILE_SIZE)).intValue());
+        }
         renderer.updateOffScreen(w, h);
         // curTxf.translate(0.5, 0.5);
         renderer.setTransform(curTxf);
         renderer.setTree(this.root);
         this.root = null; // We're done with it...
 
+        // Account the tiles of this document to their own scope so
+        // they can be dropped from a shared cache once we are done.
+        ConcurrentTileCache tileCache = TileCache.getConcurrentCache();
+        ConcurrentTileCache.Scope scope = null;
+        ConcurrentTileCache.Scope oldScope = null;
+        if (tileCache != null) {
+            scope = tileCache.createScope();
+            oldScope = TileCache.setScope(scope);
+        }
+
         try {
+            if (hints.containsKey(KEY_BAND_HEIGHT)) {
+                int bandHeight =
+                    ((Integer)hints.get(KEY_BAND_HEIGHT)).intValue();
+                if (bandHeight > 0 && bandHeight < h &&
+                    writeBandedImage(new BandRed(this, renderer,
+                                                 w, h, bandHeight),
+                                     output)) {
+                    return;
+                }
+            }
+
             // now we are sure that the aoi is the image size
             Shape raoi = new Rectangle2D.Float(0, 0, width, height);
             // Warning: the renderer's AOI must be in user space
@@ -113,26 +160,88 @@ public abstract class ImageTranscoder extends SVGAbstractTranscoder {
             BufferedImage rend = renderer.getOffScreen();
             renderer = null; // We're done with it...
 
-            BufferedImage dest = createImage(w, h);
-
-            Graphics2D g2d = GraphicsUtil.createGraphics(dest);
-            if (hints.containsKey(KEY_BACKGROUND_COLOR)) {
-                Paint bgcolor = (Paint)hints.get(KEY_BACKGROUND_COLOR);
-                g2d.setComposite(AlphaComposite.SrcOver);
-                g2d.setPaint(bgcolor);
-                g2d.fillRect(0, 0, w, h);
-            }
-            if (rend != null) { // might be null if the svg document is empty
-                g2d.drawRenderedImage(rend, new AffineTransform());
-            }
-            g2d.dispose();
+            BufferedImage dest = createImage(w, h, rend);
             rend = null; // We're done with it...
             writeImage(dest, output);
         } catch (Exception ex) {
             throw new TranscoderException(ex);
+        } finally {
+            if (scope != null) {
+                TileCache.setScope(oldScope);
+                scope.flush();
+            }
+            if (pooled != null) {
+                // Stops the threads of the renderer's tile pool.
+                pooled.dispose();
+            }
         }
     }
 
+    /**
+     * Creates an image of the given size with the rendering drawn over
+     * the background.
+     * @param rend the rendering, null if the document is empty.
+     */
+    protected BufferedImage createImage(int w, int h, BufferedImage rend) {
+        BufferedImage dest = createImage(w, h);
+
+        Graphics2D g2d = GraphicsUtil.createGraphics(dest);
+        if (hints.containsKey(KEY_BACKGROUND_COLOR)) {
+            Paint bgcolor = (Paint)hints.get(KEY_BACKGROUND_COLOR);
+            g2d.setComposite(AlphaComposite.SrcOver);
+            g2d.setPaint(bgcolor);
+            g2d.fillRect(0, 0, w, h);
+        }
+        if (rend != null) { // might be null if the svg document is empty
+            g2d.drawRenderedImage(rend, new AffineTransform());
+        }
+        g2d.dispose();
+        return dest;
+    }
+
+    /**
+     * Renders a band of rows of the image.
+     * @param renderer the renderer of the document.
+     * @param y the first row of the band.
+     * @param w the width of the image.
+     * @param h the height of the band.
+     */
+    protected BufferedImage renderBand(ImageRenderer renderer,
+                                       int y, int w, int h) {
+        AffineTransform txf = AffineTransform.getTranslateInstance(0, -y);
+        txf.concatenate(curTxf);
+        renderer.updateOffScreen(w, h);
+        renderer.setTransform(txf);
+        try {
+            // Warning: the renderer's AOI must be in user space
+            Shape raoi = new Rectangle2D.Float(0, 0, width, h);
+            renderer.repaint(txf.createInverse().
+                             createTransformedShape(raoi));
+        } catch (NoninvertibleTransformException e) {
+            throw new IllegalStateException(e.getMessage());
+        }
+        return createImage(w, h, renderer.getOffScreen());
+    }
+
+    /**
+     * Writes an image whose bands of rows are rendered as they are
+     * read, when <code>KEY_BAND_HEIGHT</code> is set.  The bands are
+     * images created by <code>createImage</code>, so writers which read
+     * the rows in order keep only about one band in memory.
+     * @param img the image to write
+     * @param output the output where to store the image
+     * @return false if the image cannot be written that way, in which
+     *         case it is rendered whole and written with
+     *         <code>writeImage(BufferedImage, TranscoderOutput)</code>.
+     *         This implementation returns false.
+     * @throws TranscoderException if an error occured while storing the image
+     */
+    protected boolean writeBandedImage(RenderedImage img,
+                                       TranscoderOutput output)
+        throws TranscoderException {
+        return false;
+    }
+
     /**
      * Method so subclasses can modify the Renderer used to render document.
      */
@@ -275,4 +384,107 @@ public abstract class ImageTranscoder extends SVGAbstractTranscoder {
      */
     public static final TranscodingHints.Key KEY_FORCE_TRANSPARENT_WHITE
         = new BooleanKey();
+
+    /**
+     * The render parallelism key.
+     *
+     * <table summary="" border="0" cellspacing="0" cellpadding="1">
+     *   <tr>
+     *     <th valign="top" align="right">Key:</th>
+     *     <td valign="top">KEY_RENDER_PARALLELISM</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Value:</th>
+     *     <td valign="top">Integer</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Default:</th>
+     *     <td valign="top">1</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Required:</th>
+     *     <td valign="top">No</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Description:</th>
+     *     <td valign="top">The number of threads used to render the
+     *       image.  When greater than one the image is split into
+     *       tiles (see <code>KEY_RENDER_TILE_SIZE</code>) that are
+     *       rendered concurrently.  The resulting pixels are identical
+     *       to those of a single threaded rendering using the same tile
+     *       size.</td>
+     *   </tr>
+     * </table>
+     */
+    public static final TranscodingHints.Key KEY_RENDER_PARALLELISM
+        = new IntegerKey();
+
+    /**
+     * The render tile size key.
+     *
+     * <table summary="" border="0" cellspacing="0" cellpadding="1">
+     *   <tr>
+     *     <th valign="top" align="right">Key:</th>
+     *     <td valign="top">KEY_RENDER_TILE_SIZE</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Value:</th>
+     *     <td valign="top">Integer</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Default:</th>
+     *     <td valign="top">256 if KEY_RENDER_PARALLELISM is greater
+     *       than one, otherwise the image is not split</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Required:</th>
+     *     <td valign="top">No</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Description:</th>
+     *     <td valign="top">The edge length, in pixels, of the tiles
+     *       the image is rendered as.  It is rounded up to a multiple
+     *       of the renderer's own tile size.  Setting it without
+     *       <code>KEY_RENDER_PARALLELISM</code> renders the same tiles
+     *       on a single thread.</td>
+     *   </tr>
+     * </table>
+     */
+    public static final TranscodingHints.Key KEY_RENDER_TILE_SIZE
+        = new IntegerKey();
+
+    /**
+     * The band height key.
+     *
+     * <table summary="" border="0" cellspacing="0" cellpadding="1">
+     *   <tr>
+     *     <th valign="top" align="right">Key:</th>
+     *     <td valign="top">KEY_BAND_HEIGHT</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Value:</th>
+     *     <td valign="top">Integer</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Default:</th>
+     *     <td valign="top">none/the image is rendered whole</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Required:</th>
+     *     <td valign="top">No</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Description:</th>
+     *     <td valign="top">The height, in pixels, of the bands of rows
+     *       the image is rendered as when its writer reads it a few
+     *       rows at a time, which keeps the memory used proportional
+     *       to the band height instead of the image height.  The PNG
+     *       (with the internal codec, without <code>KEY_INDEXED</code>)
+     *       and TIFF transcoders support it; other images are rendered
+     *       whole.</td>
+     *   </tr>
+     * </table>
+     */
+    public static final TranscodingHints.Key KEY_BAND_HEIGHT
+        = new IntegerKey();
 }
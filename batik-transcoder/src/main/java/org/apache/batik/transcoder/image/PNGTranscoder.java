@@ -19,11 +19,13 @@
 package org.apache.batik.transcoder.image;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.RenderedImage;
 import java.awt.image.SinglePixelPackedSampleModel;
 import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 
 import org.apache.batik.bridge.UserAgent;
+import org.apache.batik.gvt.renderer.ImageRenderer;
 import org.apache.batik.transcoder.TranscoderException;
 import org.apache.batik.transcoder.TranscoderOutput;
 import org.apache.batik.transcoder.TranscodingHints;
@@ -94,6 +96,59 @@ public class PNGTranscoder extends ImageTranscoder {
                 Messages.formatMessage("png.badoutput", null));
         }
 
+        forceTransparentWhite(img);
+
+        WriteAdapter adapter = getWriteAdapter();
+        if (adapter == null) {
+            throw new TranscoderException(
+                    "Could not write PNG file because no WriteAdapter is availble");
+        }
+        adapter.writeImage(this, img, output);
+    }
+
+    /**
+     * Writes the image through the write adapter if it implements
+     * <code>RenderedImageWriteAdapter</code>.
+     */
+    protected boolean writeBandedImage(RenderedImage img,
+                                       TranscoderOutput output)
+            throws TranscoderException {
+        if (hints.containsKey(KEY_INDEXED)) {
+            // The palette is computed from the whole image.
+            return false;
+        }
+        WriteAdapter adapter = getWriteAdapter();
+        if (!(adapter instanceof RenderedImageWriteAdapter)) {
+            return false;
+        }
+        ((RenderedImageWriteAdapter)adapter).writeImage(this, img, output);
+        return true;
+    }
+
+    protected BufferedImage renderBand(ImageRenderer renderer,
+                                       int y, int w, int h) {
+        BufferedImage band = super.renderBand(renderer, y, w, h);
+        forceTransparentWhite(band);
+        return band;
+    }
+
+    /**
+     * Returns the first write adapter available, or null.
+     */
+    private WriteAdapter getWriteAdapter() {
+        WriteAdapter adapter = getWriteAdapter(
+                "org.apache.batik.ext.awt.image.codec.png.PNGTranscoderInternalCodecWriteAdapter");
+        if (adapter == null) {
+            adapter = getWriteAdapter(
+                "org.apache.batik.transcoder.image.PNGTranscoderImageIOWriteAdapter");
+        }
+        return adapter;
+    }
+
+    /**
+     * Applies <code>KEY_FORCE_TRANSPARENT_WHITE</code> to an image.
+     */
+    private void forceTransparentWhite(BufferedImage img) {
         //
         // This is a trick so that viewers which do not support the alpha
         // channel will see a white background (and not a black one).
@@ -111,18 +166,6 @@ public class PNGTranscoder extends ImageTranscoder {
             sppsm = (SinglePixelPackedSampleModel)img.getSampleModel();
             forceTransparentWhite(img, sppsm);
         }
-
-        WriteAdapter adapter = getWriteAdapter(
-                "org.apache.batik.ext.awt.image.codec.png.PNGTranscoderInternalCodecWriteAdapter");
-        if (adapter == null) {
-            adapter = getWriteAdapter(
-                "org.apache.batik.transcoder.image.PNGTranscoderImageIOWriteAdapter");
-        }
-        if (adapter == null) {
-            throw new TranscoderException(
-                    "Could not write PNG file because no WriteAdapter is availble");
-        }
-        adapter.writeImage(this, img, output);
     }
     
     // --------------------------------------------------------------------
@@ -148,6 +191,28 @@ public class PNGTranscoder extends ImageTranscoder {
                 TranscoderOutput output) throws TranscoderException;
 
     }
+
+    /**
+     * A <code>WriteAdapter</code> which can also write images that are
+     * not held in memory, such as the banded images rendered when
+     * <code>KEY_BAND_HEIGHT</code> is set.  It should read the rows of
+     * such images in order.
+     *
+     * @version $Id$
+     */
+    public interface RenderedImageWriteAdapter extends WriteAdapter {
+
+        /**
+         * Writes the specified image to the specified output.
+         * @param transcoder the calling PNGTranscoder
+         * @param img the image to write
+         * @param output the output where to store the image
+         * @throws TranscoderException if an error occured while storing the image
+         */
+        void writeImage(PNGTranscoder transcoder, RenderedImage img,
+                TranscoderOutput output) throws TranscoderException;
+
+    }
     
 
     // --------------------------------------------------------------------
@@ -225,4 +290,89 @@ public class PNGTranscoder extends ImageTranscoder {
      */
     public static final TranscodingHints.Key KEY_INDEXED
         = new IntegerKey();
+
+    /**
+     * The compression level key.
+     *
+     * <table summary="" border="0" cellspacing="0" cellpadding="1">
+     *   <tr>
+     *     <th valign="top" align="right">Key:</th>
+     *     <td valign="top">KEY_COMPRESSION_LEVEL</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Value:</th>
+     *     <td valign="top">Integer (-1 or 0 - 9)</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Default:</th>
+     *     <td valign="top">9</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Required:</th>
+     *     <td valign="top">No</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Description:</th>
+     *     <td valign="top">The zlib level at which the image data is
+     *       compressed, from 0 for no compression to 9 for the smallest
+     *       files, or -1 for the zlib default. Lower levels are faster.
+     *       Only used by the internal PNG codec.</td>
+     *   </tr>
+     * </table>
+     */
+    public static final TranscodingHints.Key KEY_COMPRESSION_LEVEL
+        = new RangeKey(-1, 9);
+
+    /**
+     * The row filter key.
+     *
+     * <table summary="" border="0" cellspacing="0" cellpadding="1">
+     *   <tr>
+     *     <th valign="top" align="right">Key:</th>
+     *     <td valign="top">KEY_FILTER_TYPE</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Value:</th>
+     *     <td valign="top">Integer (0 - 4)</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Default:</th>
+     *     <td valign="top">none/adaptive filtering</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Required:</th>
+     *     <td valign="top">No</td>
+     *   </tr>
+     *   <tr>
+     *     <th valign="top" align="right">Description:</th>
+     *     <td valign="top">The PNG filter applied to all the rows of the
+     *       image: 0 for None, 1 for Sub, 2 for Up, 3 for Average and 4
+     *       for Paeth. By default the filter of each row is chosen by
+     *       trying them all. Only used by the internal PNG codec.</td>
+     *   </tr>
+     * </table>
+     */
+    public static final TranscodingHints.Key KEY_FILTER_TYPE
+        = new RangeKey(0, 4);
+
+    /**
+     * A transcoding Key represented as an Integer within a range.
+     */
+    private static class RangeKey extends TranscodingHints.Key {
+        private final int min, max;
+
+        RangeKey(int min, int max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        public boolean isCompatibleValue(Object v) {
+            if (v instanceof Integer) {
+                int i = (Integer) v;
+                return (i >= min && i <= max);
+            } else {
+                return false;
+            }
+        }
+    }
 }
@@ -20,10 +20,12 @@
 package org.apache.batik.transcoder.image;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.RenderedImage;
 import java.awt.image.SinglePixelPackedSampleModel;
 import java.lang.reflect.InvocationTargetException;
 
 import org.apache.batik.bridge.UserAgent;
+import org.apache.batik.gvt.renderer.ImageRenderer;
 import org.apache.batik.transcoder.TranscoderException;
 import org.apache.batik.transcoder.TranscoderOutput;
 import org.apache.batik.transcoder.TranscodingHints;
@@ -87,6 +89,55 @@ public class TIFFTranscoder extends ImageTranscoder {
     public void writeImage(BufferedImage img, TranscoderOutput output)
             throws TranscoderException {
 
+        forceTransparentWhite(img);
+
+        WriteAdapter adapter = getWriteAdapter();
+        if (adapter == null) {
+            throw new TranscoderException(
+                    "Could not write TIFF file because no WriteAdapter is availble");
+        }
+        adapter.writeImage(this, img, output);
+    }
+
+    /**
+     * Writes the image through the write adapter if it implements
+     * <code>RenderedImageWriteAdapter</code>.
+     */
+    protected boolean writeBandedImage(RenderedImage img,
+                                       TranscoderOutput output)
+            throws TranscoderException {
+        WriteAdapter adapter = getWriteAdapter();
+        if (!(adapter instanceof RenderedImageWriteAdapter)) {
+            return false;
+        }
+        ((RenderedImageWriteAdapter)adapter).writeImage(this, img, output);
+        return true;
+    }
+
+    protected BufferedImage renderBand(ImageRenderer renderer,
+                                       int y, int w, int h) {
+        BufferedImage band = super.renderBand(renderer, y, w, h);
+        forceTransparentWhite(band);
+        return band;
+    }
+
+    /**
+     * Returns the first write adapter available, or null.
+     */
+    private WriteAdapter getWriteAdapter() {
+        WriteAdapter adapter = getWriteAdapter(
+                "org.apache.batik.ext.awt.image.codec.tiff.TIFFTranscoderInternalCodecWriteAdapter");
+        if (adapter == null) {
+            adapter = getWriteAdapter(
+                "org.apache.batik.ext.awt.image.codec.imageio.TIFFTranscoderImageIOWriteAdapter");
+        }
+        return adapter;
+    }
+
+    /**
+     * Applies <code>KEY_FORCE_TRANSPARENT_WHITE</code> to an image.
+     */
+    private void forceTransparentWhite(BufferedImage img) {
         //
         // This is a trick so that viewers which do not support the alpha
         // channel will see a white background (and not a black one).
@@ -104,18 +155,6 @@ public class TIFFTranscoder extends ImageTranscoder {
             sppsm = (SinglePixelPackedSampleModel)img.getSampleModel();
             forceTransparentWhite(img, sppsm);
         }
-
-        WriteAdapter adapter = getWriteAdapter(
-                "org.apache.batik.ext.awt.image.codec.tiff.TIFFTranscoderInternalCodecWriteAdapter");
-        if (adapter == null) {
-            adapter = getWriteAdapter(
-                "org.apache.batik.ext.awt.image.codec.imageio.TIFFTranscoderImageIOWriteAdapter");
-        }
-        if (adapter == null) {
-            throw new TranscoderException(
-                    "Could not write TIFF file because no WriteAdapter is availble");
-        }
-        adapter.writeImage(this, img, output);
     }
     
     // --------------------------------------------------------------------
@@ -141,6 +180,28 @@ public class TIFFTranscoder extends ImageTranscoder {
                 TranscoderOutput output) throws TranscoderException;
 
     }
+
+    /**
+     * A <code>WriteAdapter</code> which can also write images that are
+     * not held in memory, such as the banded images rendered when
+     * <code>KEY_BAND_HEIGHT</code> is set.  It should read the rows of
+     * such images in order.
+     *
+     * @version $Id$
+     */
+    public interface RenderedImageWriteAdapter extends WriteAdapter {
+
+        /**
+         * Writes the specified image to the specified output.
+         * @param transcoder the calling TIFFTranscoder
+         * @param img the image to write
+         * @param output the output where to store the image
+         * @throws TranscoderException if an error occured while storing the image
+         */
+        void writeImage(TIFFTranscoder transcoder, RenderedImage img,
+                TranscoderOutput output) throws TranscoderException;
+
+    }
     
 
     // --------------------------------------------------------------------